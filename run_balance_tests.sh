@@ -14,6 +14,19 @@
 #   ./run_balance_tests.sh --player-interval=20     # player reconsiders every 20 ticks (default 10)
 #   ./run_balance_tests.sh --ticks=500              # run for 500 ticks (default 200)
 #   ./run_balance_tests.sh --config=/path/to/file   # use custom config file
+#   ./run_balance_tests.sh --batch=1000             # Monte Carlo: 1000 seeded runs, merged stats
+#   ./run_balance_tests.sh --seed=42                # run seed (batch: first seed)
+#   ./run_balance_tests.sh --until-ci='civilWars=0.1'  # add runs until the 95% CI is that tight
+#   ./run_balance_tests.sh --record=run.evlog       # record a binary event log of the run
+#   ./run_balance_tests.sh --metrics=run.ndjson     # stream per-tick metrics as NDJSON
+#   ./run_balance_tests.sh --profile                # per-stage tick timing of the single run
+#   ./run_balance_tests.sh --eval-threads=4         # score raid targets on 4 threads per tick
+#   ./run_balance_tests.sh --advance-threads=4      # advance independent ops on 4 threads per tick
+#   ./run_balance_tests.sh --frame-budget=2         # slice each tick into <=2 ms frames, like the pacer
+#   ./run_balance_tests.sh --replay=run.evlog --replay-tick=150  # rebuild state at tick 150
+#   ./run_balance_tests.sh --synthetic=2000         # generated 2000-subfaction sector
+#   ./run_balance_tests.sh --bench                  # OpEvaluator / tick micro-benchmarks
+#   ./run_balance_tests.sh --sweep='frictionThreshold=40:80:10'  # SimConfig sweep to CSV
 #   Flags combine: ./run_balance_tests.sh -v --player-help --ticks=400
 
 set -e
@@ -39,6 +52,61 @@ Options:
   --config=/path/to/file      Load subfactions from a custom config file
                               (territories loaded from intrigue_territories.json
                               in the same directory, if present)
+  --synthetic=N               Run on a seeded synthetic sector with N
+                              subfactions instead of the config (also applies
+                              to --batch)
+  --synthetic-territories=N   Territories in the synthetic sector
+                              (default: N/20, at least 4)
+
+Monte Carlo Batch:
+  --batch=N                   Run N independently seeded simulations on a
+                              worker pool and print merged mean/percentile
+                              tables instead of the single-run report
+  --threads=N                 Worker threads for --batch (default: all cores)
+  --seed=N                    Seed for the single run, or the first seed of a
+                              batch (run i uses seed N+i; default: 100)
+  --until-ci=SPEC             Sequential testing: add seeded runs until the
+                              confidence interval of every target is tight,
+                              e.g. 'civilWars=0.1;sf_heg1.territoryShare=0.05'
+                              (--batch=N caps the runs; default cap: 1000)
+  --min-runs=N                Never stop --until-ci before N runs (default: 10)
+  --confidence=P              Confidence level for --until-ci (default: 0.95)
+
+Event Log / Replay:
+  --record=FILE               Record every op start, outcome and state change
+                              of the single run to a compact binary event log
+  --replay=FILE               Replay an event log instead of running tests:
+                              print the op log and the rebuilt sector state
+  --replay-tick=N             Tick to rebuild (default: last recorded tick)
+  --replay-from=N             First tick of the printed op log (default: 0)
+  --metrics=FILE              Stream per-tick subfaction and territory metrics
+                              of the single run as NDJSON (FILE '-' = stdout);
+                              memory stays flat for very long --ticks runs
+  --profile                   Time every tick stage of the single run and print
+                              time, entities touched and bytes allocated per stage
+  --eval-threads=N            Score each tick's raid targets on N threads in the
+                              single run (default: 1); results are identical
+  --advance-threads=N         Advance each tick's independent ops on N threads in
+                              the single run (default: 1); results are identical
+  --frame-budget=MS           Run each tick of the single run in slices of at
+                              most MS milliseconds, as the campaign pacer does,
+                              and report how ticks were spread; results are
+                              identical
+
+Config Sweep:
+  --sweep=SPEC                Sweep SimConfig fields and write one CSV row per
+                              (config, seed). SPEC is field=lo:hi:step or
+                              field=a,b,c; separate several fields with ';'
+                              (quote the argument). Uses --threads and --seed
+  --sweep-seeds=N             Seeds per grid point (default: 10)
+  --sweep-out=FILE            CSV output file (default: sweep.csv)
+
+Benchmarks:
+  --bench                     Run the OpEvaluator and sim-tick micro-benchmarks
+                              on synthetic sectors instead of the tests
+                              (reports ns/op and B/op)
+  --bench-sizes=A,B,...       Subfaction counts to benchmark
+                              (default: 14,100,1000,5000)
 
 Player Simulation:
   --player                    Enable player intervention (randomly helps OR
@@ -55,6 +123,9 @@ Examples:
   ./run_balance_tests.sh --ticks=400                  # 400 ticks with config
   ./run_balance_tests.sh -v --player-hurt             # verbose, config, player hurts
   ./run_balance_tests.sh --player --player-interval=5 # player acts every 5 ticks
+  ./run_balance_tests.sh --batch=1000 --ticks=300     # 1000-run balance batch
+  ./run_balance_tests.sh --bench --bench-sizes=14,100 # quick benchmark pass
+  ./run_balance_tests.sh --sweep='frictionThreshold=40:80:10;mischiefSuccessProb=0.4,0.6'
 EOF
     exit 0
 }
@@ -64,6 +135,28 @@ PLAYER_MODE=""
 PLAYER_INTERVAL=""
 SIM_TICKS=""
 CONFIG_PATH="__default__"
+BATCH_RUNS=""
+BATCH_THREADS=""
+SIM_SEED=""
+UNTIL_CI=""
+MIN_RUNS=""
+CONFIDENCE=""
+RECORD_PATH=""
+METRICS_PATH=""
+PROFILE=false
+EVAL_THREADS=""
+ADVANCE_THREADS=""
+FRAME_BUDGET=""
+REPLAY_PATH=""
+REPLAY_TICK=""
+REPLAY_FROM=""
+SWEEP_SPEC=""
+SWEEP_SEEDS=""
+SWEEP_OUT=""
+SYNTHETIC=""
+SYNTHETIC_TERRITORIES=""
+BENCH=false
+BENCH_SIZES=""
 for arg in "$@"; do
     case "$arg" in
         -h|--help) show_help ;;
@@ -76,6 +169,28 @@ for arg in "$@"; do
         --config=*) CONFIG_PATH="${arg#--config=}" ;;
         --config) CONFIG_PATH="__default__" ;;
         --no-config) CONFIG_PATH="" ;;
+        --batch=*) BATCH_RUNS="${arg#--batch=}" ;;
+        --threads=*) BATCH_THREADS="${arg#--threads=}" ;;
+        --seed=*) SIM_SEED="${arg#--seed=}" ;;
+        --until-ci=*) UNTIL_CI="${arg#--until-ci=}" ;;
+        --min-runs=*) MIN_RUNS="${arg#--min-runs=}" ;;
+        --confidence=*) CONFIDENCE="${arg#--confidence=}" ;;
+        --record=*) RECORD_PATH="${arg#--record=}" ;;
+        --metrics=*) METRICS_PATH="${arg#--metrics=}" ;;
+        --profile) PROFILE=true ;;
+        --eval-threads=*) EVAL_THREADS="${arg#--eval-threads=}" ;;
+        --advance-threads=*) ADVANCE_THREADS="${arg#--advance-threads=}" ;;
+        --frame-budget=*) FRAME_BUDGET="${arg#--frame-budget=}" ;;
+        --replay=*) REPLAY_PATH="${arg#--replay=}" ;;
+        --replay-tick=*) REPLAY_TICK="${arg#--replay-tick=}" ;;
+        --replay-from=*) REPLAY_FROM="${arg#--replay-from=}" ;;
+        --sweep=*) SWEEP_SPEC="${arg#--sweep=}" ;;
+        --sweep-seeds=*) SWEEP_SEEDS="${arg#--sweep-seeds=}" ;;
+        --sweep-out=*) SWEEP_OUT="${arg#--sweep-out=}" ;;
+        --synthetic=*) SYNTHETIC="${arg#--synthetic=}" ;;
+        --synthetic-territories=*) SYNTHETIC_TERRITORIES="${arg#--synthetic-territories=}" ;;
+        --bench) BENCH=true ;;
+        --bench-sizes=*) BENCH=true; BENCH_SIZES="${arg#--bench-sizes=}" ;;
     esac
 done
 
@@ -123,19 +238,31 @@ cd "$SRC_DIR"
   spinloki/Intrigue/campaign/IntrigueSubfaction.java \
   spinloki/Intrigue/config/TerritoryConfig.java \
   spinloki/Intrigue/campaign/IntrigueTerritory.java \
+  spinloki/Intrigue/campaign/TerritoryPresenceIndex.java \
+  spinloki/Intrigue/campaign/VulnerabilityIndex.java \
+  spinloki/Intrigue/campaign/DeferredIndexUpdates.java \
   spinloki/Intrigue/campaign/spi/IntrigueClock.java \
   spinloki/Intrigue/campaign/spi/IntriguePeopleAccess.java \
   spinloki/Intrigue/campaign/spi/IntrigueSubfactionAccess.java \
   spinloki/Intrigue/campaign/spi/IntrigueTerritoryAccess.java \
   spinloki/Intrigue/campaign/spi/IntrigueOpRunner.java \
+  spinloki/Intrigue/campaign/spi/IntrigueContext.java \
   spinloki/Intrigue/campaign/spi/IntrigueServices.java \
   spinloki/Intrigue/campaign/spi/FactionHostilityChecker.java \
+  spinloki/Intrigue/campaign/spi/CachedFactionHostilityChecker.java \
   spinloki/Intrigue/campaign/spi/WarAwareness.java \
   spinloki/Intrigue/campaign/ops/OpPhase.java \
   spinloki/Intrigue/campaign/ops/OpOutcome.java \
   spinloki/Intrigue/campaign/ops/IntrigueOp.java \
   spinloki/Intrigue/campaign/ops/OpFactory.java \
+  spinloki/Intrigue/campaign/ops/EvaluationContext.java \
+  spinloki/Intrigue/campaign/ops/MischiefTargetIndex.java \
+  spinloki/Intrigue/campaign/ops/ActiveOpRegistry.java \
+  spinloki/Intrigue/campaign/ops/OpLedger.java \
   spinloki/Intrigue/campaign/ops/OpEvaluator.java \
+  spinloki/Intrigue/campaign/ops/OpPlan.java \
+  spinloki/Intrigue/campaign/ops/OpCascade.java \
+  spinloki/Intrigue/campaign/ops/IntrigueTickEngine.java \
   spinloki/Intrigue/campaign/ops/AssemblePhase.java \
   spinloki/Intrigue/campaign/ops/ReturnPhase.java \
   spinloki/Intrigue/campaign/ops/sim/SimClock.java \
@@ -143,14 +270,54 @@ cd "$SRC_DIR"
   spinloki/Intrigue/campaign/ops/sim/SimSubfactionAccess.java \
   spinloki/Intrigue/campaign/ops/sim/SimTerritoryAccess.java \
   spinloki/Intrigue/campaign/ops/sim/SimOpRunner.java \
+  spinloki/Intrigue/campaign/ops/sim/OpPartitioner.java \
   spinloki/Intrigue/campaign/ops/sim/SimConfig.java \
   spinloki/Intrigue/campaign/ops/sim/SimWarAwareness.java \
   spinloki/Intrigue/campaign/ops/sim/OpOutcomeResolver.java \
   spinloki/Intrigue/campaign/ops/sim/DefaultOutcomeResolver.java \
   spinloki/Intrigue/campaign/ops/sim/SimOpFactory.java \
+  spinloki/Intrigue/campaign/ops/sim/SimSetup.java \
+  spinloki/Intrigue/campaign/ops/sim/SimRunStats.java \
+  spinloki/Intrigue/campaign/ops/sim/SimRun.java \
+  spinloki/Intrigue/campaign/ops/sim/SimDistribution.java \
+  spinloki/Intrigue/campaign/ops/sim/SimBatchRunner.java \
+  spinloki/Intrigue/campaign/ops/sim/SimSweep.java \
+  spinloki/Intrigue/campaign/ops/sim/SimEventLog.java \
+  spinloki/Intrigue/campaign/ops/sim/SimReplay.java \
+  spinloki/Intrigue/campaign/ops/sim/SimSnapshot.java \
+  spinloki/Intrigue/campaign/ops/sim/SimSequentialBatch.java \
+  spinloki/Intrigue/campaign/ops/sim/SimSectorGenerator.java \
+  spinloki/Intrigue/campaign/ops/sim/SimMetricsSink.java \
+  spinloki/Intrigue/campaign/ops/sim/SimNdjsonMetricsSink.java \
+  spinloki/Intrigue/campaign/ops/sim/SimBenchmark.java \
   spinloki/Intrigue/config/SubfactionConfig.java \
   spinloki/Intrigue/campaign/ops/sim/SimIntegrationTest.java
 
+if [ -n "$REPLAY_PATH" ]; then
+    echo ""
+    echo "=== Event Log Replay ==="
+    REPLAY_FLAGS="-Dintrigue.replay=$REPLAY_PATH"
+    if [ -n "$REPLAY_TICK" ]; then
+        REPLAY_FLAGS="$REPLAY_FLAGS -Dintrigue.replay.tick=$REPLAY_TICK"
+    fi
+    if [ -n "$REPLAY_FROM" ]; then
+        REPLAY_FLAGS="$REPLAY_FLAGS -Dintrigue.replay.from=$REPLAY_FROM"
+    fi
+    "$JAVA" $REPLAY_FLAGS -cp "$OUT_DIR" spinloki.Intrigue.campaign.ops.sim.SimReplay
+    exit $?
+fi
+
+if [ "$BENCH" = "true" ]; then
+    echo ""
+    echo "=== Sim Benchmarks ==="
+    BENCH_FLAGS=""
+    if [ -n "$BENCH_SIZES" ]; then
+        BENCH_FLAGS="-Dintrigue.bench.sizes=$BENCH_SIZES"
+    fi
+    "$JAVA" $BENCH_FLAGS -cp "$OUT_DIR" spinloki.Intrigue.campaign.ops.sim.SimBenchmark
+    exit $?
+fi
+
 echo ""
 echo "=== DI Integration Tests ==="
 
@@ -169,6 +336,67 @@ fi
 if [ -n "$SIM_TICKS" ]; then
     JAVA_FLAGS="$JAVA_FLAGS -Dintrigue.ticks=$SIM_TICKS"
 fi
+if [ -n "$SIM_SEED" ]; then
+    JAVA_FLAGS="$JAVA_FLAGS -Dintrigue.seed=$SIM_SEED"
+fi
+if [ -n "$BATCH_RUNS" ]; then
+    JAVA_FLAGS="$JAVA_FLAGS -Dintrigue.batch=$BATCH_RUNS"
+    echo "(batch mode: $BATCH_RUNS seeded runs)"
+fi
+if [ -n "$UNTIL_CI" ]; then
+    JAVA_FLAGS="$JAVA_FLAGS -Dintrigue.ci=$UNTIL_CI"
+    echo "(sequential batch: $UNTIL_CI)"
+fi
+if [ -n "$MIN_RUNS" ]; then
+    JAVA_FLAGS="$JAVA_FLAGS -Dintrigue.ci.minRuns=$MIN_RUNS"
+fi
+if [ -n "$CONFIDENCE" ]; then
+    JAVA_FLAGS="$JAVA_FLAGS -Dintrigue.ci.confidence=$CONFIDENCE"
+fi
+if [ -n "$RECORD_PATH" ]; then
+    JAVA_FLAGS="$JAVA_FLAGS -Dintrigue.record=$RECORD_PATH"
+    echo "(recording event log: $RECORD_PATH)"
+fi
+if [ -n "$SYNTHETIC" ]; then
+    JAVA_FLAGS="$JAVA_FLAGS -Dintrigue.synthetic=$SYNTHETIC"
+    echo "(synthetic sector: $SYNTHETIC subfactions)"
+fi
+if [ -n "$SYNTHETIC_TERRITORIES" ]; then
+    JAVA_FLAGS="$JAVA_FLAGS -Dintrigue.synthetic.territories=$SYNTHETIC_TERRITORIES"
+fi
+if [ -n "$METRICS_PATH" ]; then
+    JAVA_FLAGS="$JAVA_FLAGS -Dintrigue.metrics=$METRICS_PATH"
+    echo "(streaming metrics: $METRICS_PATH)"
+fi
+if [ "$PROFILE" = true ]; then
+    JAVA_FLAGS="$JAVA_FLAGS -Dintrigue.profile=true"
+    echo "(profiling tick stages)"
+fi
+if [ -n "$EVAL_THREADS" ]; then
+    JAVA_FLAGS="$JAVA_FLAGS -Dintrigue.evalThreads=$EVAL_THREADS"
+    echo "(evaluation threads: $EVAL_THREADS)"
+fi
+if [ -n "$ADVANCE_THREADS" ]; then
+    JAVA_FLAGS="$JAVA_FLAGS -Dintrigue.advanceThreads=$ADVANCE_THREADS"
+    echo "(advance threads: $ADVANCE_THREADS)"
+fi
+if [ -n "$FRAME_BUDGET" ]; then
+    JAVA_FLAGS="$JAVA_FLAGS -Dintrigue.frameBudgetMs=$FRAME_BUDGET"
+    echo "(frame budget: $FRAME_BUDGET ms per slice)"
+fi
+if [ -n "$SWEEP_SPEC" ]; then
+    JAVA_FLAGS="$JAVA_FLAGS -Dintrigue.sweep=$SWEEP_SPEC"
+    echo "(sweep mode: $SWEEP_SPEC)"
+fi
+if [ -n "$SWEEP_SEEDS" ]; then
+    JAVA_FLAGS="$JAVA_FLAGS -Dintrigue.sweep.seeds=$SWEEP_SEEDS"
+fi
+if [ -n "$SWEEP_OUT" ]; then
+    JAVA_FLAGS="$JAVA_FLAGS -Dintrigue.sweep.out=$SWEEP_OUT"
+fi
+if [ -n "$BATCH_THREADS" ]; then
+    JAVA_FLAGS="$JAVA_FLAGS -Dintrigue.threads=$BATCH_THREADS"
+fi
 if [ -n "$CONFIG_PATH" ]; then
     JAVA_FLAGS="$JAVA_FLAGS -Dintrigue.config=$CONFIG_PATH"
     # Derive the territories config path from the same directory
@@ -89,6 +89,17 @@ public class Intrigue extends BaseModPlugin {
         ensureScripts();
     }
 
+    @Override
+    public void beforeGameSave() {
+        super.beforeGameSave();
+        // The pacer's slice cursor is transient: finish a tick in progress so the save
+        // doesn't silently drop the rest of it (decay, friction, civil-war tracking)
+        Object pacer = Global.getSector().getPersistentData().get(IntrigueIds.PERSIST_PACER_SCRIPT_KEY);
+        if (pacer instanceof spinloki.Intrigue.campaign.IntriguePacerScript) {
+            ((spinloki.Intrigue.campaign.IntriguePacerScript) pacer).finishSlicedTick();
+        }
+    }
+
     @Override
     public void onGameLoad(boolean newGame) {
         DissidentFactions.reset();
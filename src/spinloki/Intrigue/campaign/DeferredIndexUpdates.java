@@ -0,0 +1,48 @@
+package spinloki.Intrigue.campaign;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lets a thread hold back the updates that shared listener-driven indexes
+ * ({@link VulnerabilityIndex}, {@link TerritoryPresenceIndex}) make when a subfaction or
+ * territory changes, so workers that change disjoint entities never write the same index.
+ * The caller applies the queued updates afterwards, on one thread.
+ *
+ * Those indexes only mirror the latest state of each entity they track, so applying one
+ * worker's updates in order, then the next worker's, and so on, leaves them exactly as
+ * applying every update as it happened would. Code running inside {@link #collect} must
+ * not read the indexes; they lag until the updates are applied.
+ */
+public final class DeferredIndexUpdates {
+
+    private static final ThreadLocal<List<Runnable>> queue = new ThreadLocal<>();
+
+    private DeferredIndexUpdates() {}
+
+    /**
+     * Run {@code body} with this thread's index updates queued instead of applied.
+     * @return the queued updates, in the order they were made; run them to apply
+     */
+    public static List<Runnable> collect(Runnable body) {
+        List<Runnable> previous = queue.get();
+        List<Runnable> updates = new ArrayList<>();
+        queue.set(updates);
+        try {
+            body.run();
+        } finally {
+            if (previous != null) queue.set(previous); else queue.remove();
+        }
+        return updates;
+    }
+
+    /** True while this thread is inside {@link #collect}. */
+    static boolean isCollecting() {
+        return queue.get() != null;
+    }
+
+    /** Queue an update made inside {@link #collect} on this thread. */
+    static void defer(Runnable update) {
+        queue.get().add(update);
+    }
+}
@@ -1,23 +1,53 @@
 package spinloki.Intrigue.campaign;
 
 import com.fs.starfarer.api.EveryFrameScript;
+import com.fs.starfarer.api.Global;
 import com.fs.starfarer.api.util.IntervalUtil;
 import com.fs.starfarer.api.util.Misc;
+import org.json.JSONException;
+import org.json.JSONObject;
+import spinloki.Intrigue.campaign.ops.EvaluationContext;
 import spinloki.Intrigue.campaign.ops.IntrigueOp;
+import spinloki.Intrigue.campaign.ops.IntrigueTickEngine;
 import spinloki.Intrigue.campaign.ops.OpEvaluator;
-import spinloki.Intrigue.campaign.spi.IntrigueOpRunner;
 import spinloki.Intrigue.campaign.spi.IntrigueServices;
-import spinloki.Intrigue.campaign.spi.IntrigueSubfactionAccess;
-import spinloki.Intrigue.campaign.spi.IntrigueTerritoryAccess;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
-
+import java.util.logging.Logger;
+
+/**
+ * Runs the campaign's Intrigue tick roughly once a week.
+ *
+ * A regular tick is time-sliced: it starts in the frame the interval elapses and
+ * continues over the following frames, at most {@code pacerFrameBudgetMs} of work per
+ * frame (data/config/intrigue_settings.json; 0 runs the whole tick in one frame). Every
+ * stage still runs in order over the same subfactions and territories, so the tick is
+ * logically the same; it just lands over a few frames. The slice cursor is not saved, so
+ * the mod plugin finishes a tick in progress before every save
+ * ({@link #finishSlicedTick}). Forced ticks ({@link #forceTick}) run whole.
+ */
 public class IntriguePacerScript implements EveryFrameScript {
+    private static final Logger log = Logger.getLogger(IntriguePacerScript.class.getName());
+    public static final String SETTINGS_PATH = "data/config/intrigue_settings.json";
+    private static final float DEFAULT_FRAME_BUDGET_MS = 2f;
+
     private final IntervalUtil interval = new IntervalUtil(6.99f, 7.01f);
     private final IntervalUtil homelessCheckInterval = new IntervalUtil(14f, 16f);
     private final Random rng = new Random();
+    private int tickCount;
+
+    // Rebuilt after load: stages hold lambdas, which don't belong in the save
+    private transient IntrigueTickEngine engine;
+    private transient StringBuilder verboseOut;
+    /** Regular tick still being sliced over frames, or null. */
+    private transient IntrigueTickEngine.SlicedTick slicedTick;
+    /** Per-frame slice budget in nanoseconds, read from settings on first use; 0 = whole ticks. */
+    private transient long frameBudgetNanos;
+    private transient boolean frameBudgetRead;
 
     // ── Friction tuning (matches SimConfig defaults) ──
     private static final int BASE_FRICTION_PER_TICK = 2;
@@ -38,8 +68,12 @@ public class IntriguePacerScript implements EveryFrameScript {
         interval.advance(days);
         homelessCheckInterval.advance(days);
 
+        if (slicedTick != null) {
+            runSlice();
+        }
+
         if (interval.intervalElapsed()) {
-            doOneTick(false);
+            startTick();
         }
 
         if (homelessCheckInterval.intervalElapsed()) {
@@ -49,40 +83,84 @@ public class IntriguePacerScript implements EveryFrameScript {
 
     /** For console/debug: forces a tick immediately and returns a human-readable result. */
     public String forceTick() {
-        return doOneTick(true);
+        finishSlicedTick();
+        if (IntrigueServices.subfactions().getAll().isEmpty()) return "Pacer tick: no subfactions.";
+
+        StringBuilder result = new StringBuilder();
+        verboseOut = result;
+        try {
+            engine().runTick(tickCount++);
+        } finally {
+            verboseOut = null;
+        }
+        return result.toString();
     }
 
-    private String doOneTick(boolean verbose) {
-        IntrigueSubfactionAccess subfactions = IntrigueServices.subfactions();
-        List<IntrigueSubfaction> allSubfactions = new ArrayList<>(subfactions.getAll());
-        if (allSubfactions.isEmpty()) return "Pacer tick: no subfactions.";
+    /** Begin a regular tick and run its first slice this frame. */
+    private void startTick() {
+        finishSlicedTick();
+        if (IntrigueServices.subfactions().getAll().isEmpty()) return;
+        slicedTick = engine().beginTick(tickCount++);
+        runSlice();
+    }
 
-        StringBuilder result = new StringBuilder();
+    private void runSlice() {
+        long budget = frameBudgetNanos();
+        if (budget <= 0) {
+            finishSlicedTick();
+        } else if (slicedTick.runSlice(budget, System::nanoTime)) {
+            slicedTick = null;
+        }
+    }
 
-        // ── Op evaluation: each subfaction has a chance to start an operation ──
-        IntrigueOpRunner opsRunner = IntrigueServices.ops();
-        for (IntrigueSubfaction sf : allSubfactions) {
-            if (rng.nextFloat() > 0.20f) continue; // 20% chance per subfaction per tick
-            IntrigueOp op = OpEvaluator.evaluate(sf, opsRunner, "raid");
-            if (op != null) {
-                opsRunner.startOp(op);
-                if (verbose) {
-                    result.append("Op started: ").append(op.getOpTypeName())
-                          .append(" by ").append(sf.getSubfactionId())
-                          .append(" (").append(sf.getName()).append(")")
-                          .append(" (leader ").append(op.getInitiatorId()).append(")")
-                          .append(" targeting ").append(op.getTargetSubfactionId()).append("\n");
-                }
-            } else if (verbose) {
-                String reason = OpEvaluator.diagnose(sf, opsRunner);
-                result.append("  ").append(sf.getSubfactionId())
-                      .append(" (").append(sf.getName()).append(")")
-                      .append(": ").append(reason).append("\n");
+    /**
+     * Run what is left of a sliced tick, so the next one (or a save) starts from a
+     * finished tick. Does nothing between ticks.
+     */
+    public void finishSlicedTick() {
+        if (slicedTick == null) return;
+        slicedTick.finish();
+        slicedTick = null;
+    }
+
+    private long frameBudgetNanos() {
+        if (!frameBudgetRead) {
+            float ms = DEFAULT_FRAME_BUDGET_MS;
+            try {
+                JSONObject settings = Global.getSettings().loadJSON(SETTINGS_PATH);
+                ms = (float) settings.optDouble("pacerFrameBudgetMs", DEFAULT_FRAME_BUDGET_MS);
+            } catch (IOException | JSONException e) {
+                log.warning("Failed to read " + SETTINGS_PATH + ", using a " + ms + " ms pacer frame budget: "
+                        + e.getMessage());
             }
+            frameBudgetNanos = Math.max(0L, (long) (ms * 1_000_000L));
+            frameBudgetRead = true;
+        }
+        return frameBudgetNanos;
+    }
+
+    /** The campaign tick pipeline, built on first use (not saved). */
+    private IntrigueTickEngine engine() {
+        if (engine == null) {
+            engine = new IntrigueTickEngine(Arrays.asList(
+                    // 20% chance per subfaction per tick to start one operation
+                    IntrigueTickEngine.evaluateOps("raid", 1, 0.20f, rng),
+                    new IntrigueTickEngine.Stage("statNudge", (t, l) -> statNudge()),
+                    IntrigueTickEngine.territoryDecay(() -> IntrigueServices.territories().getDecayPerTick(),
+                            OpEvaluator.INFIGHTING_COHESION_THRESHOLD),
+                    IntrigueTickEngine.frictionAccumulation(BASE_FRICTION_PER_TICK,
+                            FRICTION_REL_DRAIN_DIVISOR, FRICTION_REL_DRAIN_CAP, FRICTION_THREAT_DIVISOR),
+                    IntrigueTickEngine.civilWarTracking(OpEvaluator.CIVIL_WAR_COHESION_THRESHOLD)))
+                    .withListener(new VerboseListener());
         }
+        return engine;
+    }
 
-        // ── Stat nudges: nudge a random subfaction's home cohesion or legitimacy ──
+    /** Stat nudges: nudge a random subfaction's home cohesion or legitimacy. */
+    private int statNudge() {
+        List<IntrigueSubfaction> allSubfactions = new ArrayList<>(IntrigueServices.subfactions().getAll());
         IntrigueSubfaction target = allSubfactions.get(rng.nextInt(allSubfactions.size()));
+        StringBuilder result = verboseOut;
 
         int delta = rng.nextInt(3) - 1; // -1,0,+1
         if (delta == 0) delta = (rng.nextBoolean() ? 1 : -1);
@@ -91,7 +169,7 @@ public class IntriguePacerScript implements EveryFrameScript {
         if (nudgeCohesion) {
             int before = target.getHomeCohesion();
             target.setHomeCohesion(before + delta);
-            if (verbose) {
+            if (result != null) {
                 result.append("Pacer tick: ").append(target.getSubfactionId())
                       .append(" Home ").append(target.getCohesionLabel())
                       .append(" ").append(before).append(" -> ").append(target.getHomeCohesion());
@@ -99,108 +177,56 @@ public class IntriguePacerScript implements EveryFrameScript {
         } else {
             int before = target.getLegitimacy();
             target.setLegitimacy(before + delta);
-            if (verbose) {
+            if (result != null) {
                 result.append("Pacer tick: ").append(target.getSubfactionId())
                       .append(" ").append(target.getLegitimacyLabel())
                       .append(" ").append(before).append(" -> ").append(target.getLegitimacy());
             }
         }
+        return 1;
+    }
 
-        // ── Territory cohesion decay: only ESTABLISHED subfactions decay each tick ──
-        IntrigueTerritoryAccess territoryAccess = IntrigueServices.territories();
-        if (territoryAccess != null) {
-            int decayAmount = territoryAccess.getDecayPerTick();
-            for (IntrigueTerritory territory : territoryAccess.getAll()) {
-                for (String sfId : new ArrayList<>(territory.getActiveSubfactionIds())) {
-                    // Only decay cohesion for established+ presence
-                    IntrigueTerritory.Presence presence = territory.getPresence(sfId);
-                    if (!presence.isEstablishedOrHigher()) continue;
-                    int before = territory.getCohesion(sfId);
-                    int scaledDecay = Math.round(decayAmount * presence.decayMultiplier());
-                    territory.setCohesion(sfId, before - scaledDecay);
-                    int after = territory.getCohesion(sfId);
-                    if (verbose && after != before) {
-                        result.append("\n  Territory decay: ").append(territory.getName())
-                              .append(" / ").append(sfId)
-                              .append(" ").append(before).append(" -> ").append(after);
-                    }
-
-                    // Track low-cohesion ticks for infighting/expulsion
-                    if (after < 30) {
-                        territory.incrementLowCohesionTicks(sfId);
-                    } else {
-                        territory.resetLowCohesionTicks(sfId);
-                    }
-                }
-
-                // ── Friction accumulation: crowding-scaled, directional, + relationship drain ──
-                java.util.List<String[]> pairs = territory.getEstablishedPairs();
-                int numEstablished = territory.getEstablishedCount();
-                int crowdingMult = Math.max(1, numEstablished - 1);
-
-                for (String[] pair : pairs) {
-                    IntrigueSubfaction sfA = subfactions.getById(pair[0]);
-                    IntrigueSubfaction sfB = subfactions.getById(pair[1]);
-                    if (sfA == null || sfB == null) continue;
-
-                    // Scale friction by the higher presence tier in the pair
-                    float presMultA = territory.getPresence(pair[0]).frictionMultiplier();
-                    float presMultB = territory.getPresence(pair[1]).frictionMultiplier();
-                    float presMult = Math.max(presMultA, presMultB);
-
-                    int baseGain = Math.round(BASE_FRICTION_PER_TICK * crowdingMult * presMult);
-
-                    // Territory cohesion for threat calculation
-                    int cohA = territory.getCohesion(pair[0]);
-                    int cohB = territory.getCohesion(pair[1]);
-
-                    // A→B friction (uses A's view of relationship with B)
-                    // Threat bonus: if B has higher territory cohesion, A is more annoyed
-                    int threatAB = Math.max(0, (cohB - cohA) / FRICTION_THREAT_DIVISOR);
-                    Integer relAB = sfA.getRelTo(pair[1]);
-                    int rAB = (relAB != null) ? relAB : 0;
-                    int drainAB = 0;
-                    if (rAB > 0 && FRICTION_REL_DRAIN_DIVISOR > 0) {
-                        drainAB = Math.min(rAB / FRICTION_REL_DRAIN_DIVISOR, FRICTION_REL_DRAIN_CAP);
-                    }
-                    int netAB = Math.max(0, baseGain + threatAB - drainAB);
-                    int curAB = territory.getFriction(pair[0], pair[1]);
-                    territory.setFriction(pair[0], pair[1], curAB + netAB);
-
-                    // B→A friction (uses B's view of relationship with A)
-                    // Threat bonus: if A has higher territory cohesion, B is more annoyed
-                    int threatBA = Math.max(0, (cohA - cohB) / FRICTION_THREAT_DIVISOR);
-                    Integer relBA = sfB.getRelTo(pair[0]);
-                    int rBA = (relBA != null) ? relBA : 0;
-                    int drainBA = 0;
-                    if (rBA > 0 && FRICTION_REL_DRAIN_DIVISOR > 0) {
-                        drainBA = Math.min(rBA / FRICTION_REL_DRAIN_DIVISOR, FRICTION_REL_DRAIN_CAP);
-                    }
-                    int netBA = Math.max(0, baseGain + threatBA - drainBA);
-                    int curBA = territory.getFriction(pair[1], pair[0]);
-                    territory.setFriction(pair[1], pair[0], curBA + netBA);
-
-                    if (verbose && (netAB > 0 || netBA > 0)) {
-                        result.append("\n  Friction: ").append(territory.getName())
-                              .append(" ").append(pair[0]).append("→").append(pair[1])
-                              .append(" +").append(netAB).append("→").append(territory.getFriction(pair[0], pair[1]))
-                              .append("  ").append(pair[1]).append("→").append(pair[0])
-                              .append(" +").append(netBA).append("→").append(territory.getFriction(pair[1], pair[0]));
-                    }
-                }
-            }
+    /** Writes what the stages did to the forced-tick report. */
+    private class VerboseListener implements IntrigueTickEngine.Listener {
+        @Override
+        public void opStarted(int tick, String subfactionId, IntrigueOp op, String label,
+                              IntrigueTickEngine.OpSource source) {
+            if (verboseOut == null) return;
+            IntrigueSubfaction sf = IntrigueServices.subfactions().getById(subfactionId);
+            verboseOut.append("Op started: ").append(op.getOpTypeName())
+                      .append(" by ").append(subfactionId)
+                      .append(" (").append(sf != null ? sf.getName() : subfactionId).append(")")
+                      .append(" (leader ").append(op.getInitiatorId()).append(")")
+                      .append(" targeting ").append(op.getTargetSubfactionId()).append("\n");
         }
 
-        // ── Home cohesion civil war tracking ──
-        for (IntrigueSubfaction sf : allSubfactions) {
-            if (sf.getHomeCohesion() < 10) {
-                sf.incrementLowHomeCohesionTicks();
-            } else {
-                sf.resetLowHomeCohesionTicks();
-            }
+        @Override
+        public void nothingToDo(int tick, IntrigueSubfaction sf, EvaluationContext ctx) {
+            if (verboseOut == null) return;
+            String reason = OpEvaluator.diagnose(sf, ctx);
+            verboseOut.append("  ").append(sf.getSubfactionId())
+                      .append(" (").append(sf.getName()).append(")")
+                      .append(": ").append(reason).append("\n");
         }
 
-        return result.toString();
+        @Override
+        public void territoryDecayed(int tick, IntrigueTerritory territory, String sfId, int before, int after) {
+            if (verboseOut == null || after == before) return;
+            verboseOut.append("\n  Territory decay: ").append(territory.getName())
+                      .append(" / ").append(sfId)
+                      .append(" ").append(before).append(" -> ").append(after);
+        }
+
+        @Override
+        public void frictionAccumulated(int tick, IntrigueTerritory territory, String a, String b,
+                                        int netAB, int netBA) {
+            if (verboseOut == null || (netAB <= 0 && netBA <= 0)) return;
+            verboseOut.append("\n  Friction: ").append(territory.getName())
+                      .append(" ").append(a).append("→").append(b)
+                      .append(" +").append(netAB).append("→").append(territory.getFriction(a, b))
+                      .append("  ").append(b).append("→").append(a)
+                      .append(" +").append(netBA).append("→").append(territory.getFriction(b, a));
+        }
     }
 
     private int clamp(int v, int lo, int hi) {
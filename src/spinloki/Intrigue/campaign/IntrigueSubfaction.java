@@ -59,6 +59,12 @@ public class IntrigueSubfaction implements Serializable {
      */
     private int lowHomeCohesionTicks = 0;
 
+    /**
+     * Receives legitimacy changes so the owning registry can keep its
+     * {@link VulnerabilityIndex} current. Not saved; re-attached when the index is rebuilt.
+     */
+    private transient LegitimacyListener legitimacyListener;
+
     /** Convenience constructor - uses subfactionId as name, defaults to POLITICAL. */
     public IntrigueSubfaction(String subfactionId, String factionId, String homeMarketId) {
         this(subfactionId, subfactionId, factionId, homeMarketId, SubfactionType.POLITICAL);
@@ -112,7 +118,7 @@ public class IntrigueSubfaction implements Serializable {
     public void setCohesion(int cohesion) { setHomeCohesion(cohesion); }
 
     public int getLegitimacy() { return legitimacy; }
-    public void setLegitimacy(int legitimacy) { this.legitimacy = Math.max(0, Math.min(100, legitimacy)); }
+    public void setLegitimacy(int legitimacy) { updateLegitimacy(Math.max(0, Math.min(100, legitimacy))); }
 
     /** Derived power: average of home cohesion and legitimacy (read-only). */
     public int getPower() { return (homeCohesion + legitimacy) / 2; }
@@ -122,7 +128,23 @@ public class IntrigueSubfaction implements Serializable {
     public void setPower(int power) {
         int clamped = Math.max(0, Math.min(100, power));
         this.homeCohesion = clamped;
-        this.legitimacy = clamped;
+        updateLegitimacy(clamped);
+    }
+
+    /** Listener for legitimacy changes on a subfaction. */
+    public interface LegitimacyListener {
+        void legitimacyChanged(IntrigueSubfaction subfaction, int before, int after);
+    }
+
+    /** Register the listener told about every legitimacy change (one per subfaction; replaces any previous one). */
+    public void setLegitimacyListener(LegitimacyListener listener) {
+        this.legitimacyListener = listener;
+    }
+
+    private void updateLegitimacy(int value) {
+        int before = legitimacy;
+        legitimacy = value;
+        if (before != value && legitimacyListener != null) legitimacyListener.legitimacyChanged(this, before, value);
     }
 
     public String getCohesionLabel() { return cohesionLabel; }
@@ -14,6 +14,7 @@ import spinloki.Intrigue.IntrigueIds;
 import spinloki.Intrigue.campaign.ops.DissidentFactions;
 import spinloki.Intrigue.config.SubfactionConfig;
 import spinloki.Intrigue.config.SubfactionConfigLoader;
+import spinloki.Intrigue.campaign.spi.IntrigueServices;
 import spinloki.Intrigue.campaign.spi.IntrigueSubfactionAccess;
 
 import java.io.Serializable;
@@ -32,6 +33,7 @@ public class IntrigueSubfactionManager implements Serializable, IntrigueSubfacti
     private static final Logger log = Logger.getLogger(IntrigueSubfactionManager.class.getName());
 
     private final Map<String, IntrigueSubfaction> subfactions = new LinkedHashMap<>();
+    private transient VulnerabilityIndex vulnerabilityIndex;
     private boolean bootstrapped = false;
     private int nextPersonId = 1;
 
@@ -81,12 +83,17 @@ public class IntrigueSubfactionManager implements Serializable, IntrigueSubfacti
 
     @Override
     public Collection<IntrigueSubfaction> getByFaction(String factionId) {
-        if (factionId == null) return Collections.emptyList();
-        List<IntrigueSubfaction> result = new ArrayList<>();
-        for (IntrigueSubfaction sf : subfactions.values()) {
-            if (factionId.equals(sf.getFactionId())) result.add(sf);
-        }
-        return result;
+        return new ArrayList<>(vulnerabilityIndex().getByFaction(factionId));
+    }
+
+    @Override
+    public List<IntrigueSubfaction> getZeroLegitimacy() {
+        return vulnerabilityIndex().getVulnerable();
+    }
+
+    @Override
+    public List<IntrigueSubfaction> getHostileTo(String factionId) {
+        return vulnerabilityIndex().getHostileTo(factionId, IntrigueServices.hostility());
     }
 
     @Override
@@ -109,6 +116,12 @@ public class IntrigueSubfactionManager implements Serializable, IntrigueSubfacti
         return null;
     }
 
+    /** Vulnerability index over the registry, rebuilt from the subfactions on first use after a load. */
+    private VulnerabilityIndex vulnerabilityIndex() {
+        if (vulnerabilityIndex == null) vulnerabilityIndex = VulnerabilityIndex.build(subfactions.values());
+        return vulnerabilityIndex;
+    }
+
     // ── Config-driven bootstrap ─────────────────────────────────────────
 
     /**
@@ -235,6 +248,7 @@ public class IntrigueSubfactionManager implements Serializable, IntrigueSubfacti
             }
 
             subfactions.put(sf.getSubfactionId(), sf);
+            if (vulnerabilityIndex != null) vulnerabilityIndex.add(sf);
             log.info("Bootstrapped subfaction: " + def.name + " [" + def.subfactionId + "]"
                      + " faction=" + def.factionId + " market=" + homeMarketId
                      + " power=" + sf.getPower() + " members=" + sf.getMemberIds().size());
@@ -128,6 +128,19 @@ public class IntrigueTerritory implements Serializable {
      */
     private final Map<String, Presence> subfactionPresence = new LinkedHashMap<>();
 
+    /**
+     * Receives presence changes so the owning registry can keep its
+     * {@link TerritoryPresenceIndex} current. Not saved; re-attached when the index is rebuilt.
+     */
+    private transient PresenceListener presenceListener;
+
+    /**
+     * Counts changes to per-subfaction state, base slots and friction here, so readers
+     * that mirror the territory every tick can skip it when the count hasn't moved.
+     * Not saved.
+     */
+    private transient int changes;
+
     /**
      * Per-subfaction tick counter for how many consecutive ticks territory
      * cohesion has been below the critical threshold (default 10).
@@ -136,11 +149,26 @@ public class IntrigueTerritory implements Serializable {
     private final Map<String, Integer> lowCohesionTicks = new LinkedHashMap<>();
 
     /**
-     * Directed friction from one subfaction toward another in this territory (0–100).
-     * Key = directed key "from|to", Value = friction level.
-     * A→B and B→A are stored independently.
+     * Directed friction from one subfaction toward another in this territory (0–100),
+     * as a dense square matrix: {@code friction[fromSlot * frictionStride + toSlot]}.
+     * A→B and B→A are stored independently. Subfactions get a slot the first time they
+     * take part in non-zero friction here and give it up when removed from the territory,
+     * so reads and writes look up two slots and touch one int, with no key building.
+     */
+    private int[] friction = new int[0];
+    private int frictionStride;
+
+    /** Subfaction ID of each friction slot; null for a free slot. */
+    private List<String> frictionSlots = new ArrayList<>();
+
+    /** Slot of each subfaction in {@link #frictionSlots}. Not saved; rebuilt on first use. */
+    private transient Map<String, Integer> frictionSlotIndex;
+
+    /**
+     * Friction as saved before the matrix: key "from|to", value friction level.
+     * Only ever set on territories loaded from such a save; moved into the matrix on load.
      */
-    private final Map<String, Integer> pairFriction = new LinkedHashMap<>();
+    private Map<String, Integer> pairFriction;
 
     /**
      * Pre-computed base slots within this territory. Each slot is a valid orbital
@@ -263,11 +291,10 @@ public class IntrigueTerritory implements Serializable {
      */
     public void setCohesion(String subfactionId, int value) {
         int clamped = Math.max(0, Math.min(100, value));
-        if (clamped <= 0) {
-            subfactionCohesion.remove(subfactionId);
-        } else {
-            subfactionCohesion.put(subfactionId, clamped);
-        }
+        Integer before = clamped <= 0
+                ? subfactionCohesion.remove(subfactionId)
+                : subfactionCohesion.put(subfactionId, clamped);
+        if ((before != null ? before : 0) != clamped) changes++;
     }
 
     /** Returns true if the subfaction has any presence in this territory (SCOUTING or ESTABLISHED). */
@@ -297,20 +324,27 @@ public class IntrigueTerritory implements Serializable {
         } else {
             subfactionBaseMarketId.put(subfactionId, marketId);
         }
+        changes++;
     }
 
     /** Remove a subfaction from this territory entirely (cohesion, presence, base, base slot, low-cohesion counter, and friction). */
     public void removeSubfaction(String subfactionId) {
+        changes++;
         subfactionCohesion.remove(subfactionId);
-        subfactionPresence.remove(subfactionId);
+        Presence before = subfactionPresence.remove(subfactionId);
+        if (before != null) notifyPresence(subfactionId, before, Presence.NONE);
         subfactionBaseMarketId.remove(subfactionId);
         lowCohesionTicks.remove(subfactionId);
         releaseSlot(subfactionId);
         // Remove all friction pairs involving this subfaction
-        pairFriction.entrySet().removeIf(e -> {
-            String[] parts = e.getKey().split("\\|");
-            return parts[0].equals(subfactionId) || parts[1].equals(subfactionId);
-        });
+        Integer slot = frictionSlotIndex().remove(subfactionId);
+        if (slot != null) {
+            for (int other = 0; other < frictionStride; other++) {
+                friction[slot * frictionStride + other] = 0;
+                friction[other * frictionStride + slot] = 0;
+            }
+            frictionSlots.set(slot, null);
+        }
     }
 
     // ── Base slots ──────────────────────────────────────────────────────
@@ -350,10 +384,12 @@ public class IntrigueTerritory implements Serializable {
     /** Claim a specific slot for a subfaction. */
     public void claimSlot(BaseSlot slot, String subfactionId) {
         if (slot != null) slot.claim(subfactionId);
+        changes++;
     }
 
     /** Release any slot claimed by a subfaction. */
     public void releaseSlot(String subfactionId) {
+        changes++;
         for (BaseSlot slot : baseSlots) {
             if (subfactionId.equals(slot.getClaimedBySubfactionId())) {
                 slot.release();
@@ -368,8 +404,11 @@ public class IntrigueTerritory implements Serializable {
      * Friction is asymmetric: A→B may differ from B→A. Returns 0 if no entry.
      */
     public int getFriction(String from, String to) {
-        Integer val = pairFriction.get(directedKey(from, to));
-        return val != null ? val : 0;
+        Map<String, Integer> slots = frictionSlotIndex();
+        Integer a = slots.get(from);
+        if (a == null) return 0;
+        Integer b = slots.get(to);
+        return b != null ? friction[a * frictionStride + b] : 0;
     }
 
     /**
@@ -378,17 +417,23 @@ public class IntrigueTerritory implements Serializable {
      */
     public void setFriction(String from, String to, int value) {
         int clamped = Math.max(0, Math.min(100, value));
-        String key = directedKey(from, to);
         if (clamped <= 0) {
-            pairFriction.remove(key);
-        } else {
-            pairFriction.put(key, clamped);
+            resetFriction(from, to);
+            return;
         }
+        int a = frictionSlot(from);
+        int b = frictionSlot(to);
+        friction[a * frictionStride + b] = clamped;
+        changes++;
     }
 
     /** Reset directed friction from one subfaction toward another to 0. */
     public void resetFriction(String from, String to) {
-        pairFriction.remove(directedKey(from, to));
+        Map<String, Integer> slots = frictionSlotIndex();
+        Integer a = slots.get(from);
+        Integer b = slots.get(to);
+        if (a != null && b != null) friction[a * frictionStride + b] = 0;
+        changes++;
     }
 
     /**
@@ -421,14 +466,75 @@ public class IntrigueTerritory implements Serializable {
         return count;
     }
 
-    /** Unmodifiable view of all pairwise friction values. */
+    /**
+     * Number of friction slots (free ones included). Together with
+     * {@link #getFrictionSlotHolder} and {@link #getFriction(int, int)} this walks the
+     * matrix in place, for callers that read every pair every tick.
+     */
+    public int getFrictionSlotCount() {
+        return frictionSlots.size();
+    }
+
+    /** Subfaction holding a friction slot, or null if the slot is free. */
+    public String getFrictionSlotHolder(int slot) {
+        return frictionSlots.get(slot);
+    }
+
+    /** Directed friction between two friction slots; 0 if either slot is free. */
+    public int getFriction(int fromSlot, int toSlot) {
+        return friction[fromSlot * frictionStride + toSlot];
+    }
+
+    /**
+     * Unmodifiable map of all non-zero pairwise friction values, keyed by directed key
+     * "from|to" (order matters: A→B ≠ B→A). Built fresh from the matrix on every call,
+     * so it is a snapshot for tests and diagnostics; per-tick readers walk the slots
+     * ({@link #getFrictionSlotCount}) or use {@link #getFriction(String, String)}.
+     */
     public Map<String, Integer> getPairFrictionView() {
-        return Collections.unmodifiableMap(pairFriction);
+        Map<String, Integer> view = new LinkedHashMap<>();
+        for (int a = 0; a < frictionStride; a++) {
+            for (int b = 0; b < frictionStride; b++) {
+                int value = friction[a * frictionStride + b];
+                if (value > 0) view.put(frictionSlots.get(a) + "|" + frictionSlots.get(b), value);
+            }
+        }
+        return Collections.unmodifiableMap(view);
+    }
+
+    /** Slot of a subfaction in the friction matrix, claiming a free one (and growing the matrix) if needed. */
+    private int frictionSlot(String subfactionId) {
+        Map<String, Integer> slots = frictionSlotIndex();
+        Integer slot = slots.get(subfactionId);
+        if (slot != null) return slot;
+        int free = frictionSlots.indexOf(null);
+        if (free < 0) {
+            free = frictionSlots.size();
+            frictionSlots.add(null);
+        }
+        if (free >= frictionStride) growFriction(Math.max(4, frictionStride * 2));
+        frictionSlots.set(free, subfactionId);
+        slots.put(subfactionId, free);
+        return free;
+    }
+
+    private void growFriction(int stride) {
+        int[] grown = new int[stride * stride];
+        for (int a = 0; a < frictionStride; a++) {
+            System.arraycopy(friction, a * frictionStride, grown, a * stride, frictionStride);
+        }
+        friction = grown;
+        frictionStride = stride;
     }
 
-    /** Directed key: "from|to" - order matters (A→B ≠ B→A). */
-    private static String directedKey(String from, String to) {
-        return from + "|" + to;
+    private Map<String, Integer> frictionSlotIndex() {
+        if (frictionSlotIndex == null) {
+            frictionSlotIndex = new HashMap<>();
+            for (int i = 0; i < frictionSlots.size(); i++) {
+                if (frictionSlots.get(i) != null) frictionSlotIndex.put(frictionSlots.get(i), i);
+            }
+        }
+        return frictionSlotIndex;
     }
 
     /** Get the number of consecutive ticks a subfaction's cohesion has been critically low. */
@@ -440,11 +546,22 @@ public class IntrigueTerritory implements Serializable {
     /** Increment the low-cohesion tick counter for a subfaction. */
     public void incrementLowCohesionTicks(String subfactionId) {
         lowCohesionTicks.put(subfactionId, getLowCohesionTicks(subfactionId) + 1);
+        changes++;
     }
 
     /** Reset the low-cohesion tick counter for a subfaction. */
     public void resetLowCohesionTicks(String subfactionId) {
-        lowCohesionTicks.remove(subfactionId);
+        if (lowCohesionTicks.remove(subfactionId) != null) changes++;
+    }
+
+    /** Set the low-cohesion tick counter directly (0 clears it). Used when restoring recorded state. */
+    public void setLowCohesionTicks(String subfactionId, int ticks) {
+        if (ticks <= 0) {
+            lowCohesionTicks.remove(subfactionId);
+        } else {
+            lowCohesionTicks.put(subfactionId, ticks);
+        }
+        changes++;
     }
 
     /**
@@ -480,6 +597,25 @@ public class IntrigueTerritory implements Serializable {
         return Collections.unmodifiableSet(result);
     }
 
+    /** Unmodifiable view of the subfactions with a base market here and their market IDs. */
+    public Map<String, String> getBaseMarketView() {
+        return Collections.unmodifiableMap(subfactionBaseMarketId);
+    }
+
+    /** Unmodifiable view of the non-zero low-cohesion tick counters. */
+    public Map<String, Integer> getLowCohesionTicksView() {
+        return Collections.unmodifiableMap(lowCohesionTicks);
+    }
+
+    /**
+     * Number of changes to per-subfaction state, base slots (made through this territory)
+     * and friction so far. Only meaningful compared with an earlier value: equal means
+     * nothing changed in between.
+     */
+    public int getChangeCount() {
+        return changes;
+    }
+
     /** Unmodifiable view of all per-subfaction cohesion values. */
     public Map<String, Integer> getSubfactionCohesionView() {
         return Collections.unmodifiableMap(subfactionCohesion);
@@ -495,18 +631,57 @@ public class IntrigueTerritory implements Serializable {
 
     /** Set a subfaction's presence level in this territory. Setting to NONE removes the entry. */
     public void setPresence(String subfactionId, Presence level) {
+        Presence before;
         if (level == null || level == Presence.NONE) {
-            subfactionPresence.remove(subfactionId);
+            before = subfactionPresence.remove(subfactionId);
+            level = Presence.NONE;
         } else {
-            subfactionPresence.put(subfactionId, level);
+            before = subfactionPresence.put(subfactionId, level);
+        }
+        if (before == null) before = Presence.NONE;
+        if (before != level) {
+            changes++;
+            notifyPresence(subfactionId, before, level);
         }
     }
 
+    /** Listener for presence changes on a territory. */
+    public interface PresenceListener {
+        void presenceChanged(IntrigueTerritory territory, String subfactionId, Presence before, Presence after);
+    }
+
+    /** Register the listener told about every presence change (one per territory; replaces any previous one). */
+    public void setPresenceListener(PresenceListener listener) {
+        this.presenceListener = listener;
+    }
+
+    private void notifyPresence(String subfactionId, Presence before, Presence after) {
+        if (presenceListener != null) presenceListener.presenceChanged(this, subfactionId, before, after);
+    }
+
     /** Unmodifiable view of all per-subfaction presence levels. */
     public Map<String, Presence> getSubfactionPresenceView() {
         return Collections.unmodifiableMap(subfactionPresence);
     }
 
+    /** Move friction from saves that predate the matrix into it. */
+    private Object readResolve() {
+        if (friction == null) {
+            friction = new int[0];
+            frictionStride = 0;
+        }
+        if (frictionSlots == null) frictionSlots = new ArrayList<>();
+        if (pairFriction != null) {
+            for (Map.Entry<String, Integer> e : pairFriction.entrySet()) {
+                int bar = e.getKey().indexOf('|');
+                if (bar < 0 || e.getValue() == null) continue;
+                setFriction(e.getKey().substring(0, bar), e.getKey().substring(bar + 1), e.getValue());
+            }
+            pairFriction = null;
+        }
+        return this;
+    }
+
     @Override
     public String toString() {
         return name + " [" + territoryId + "] tier=" + tier
@@ -31,6 +31,7 @@ public class IntrigueTerritoryManager implements Serializable, IntrigueTerritory
     private final Map<String, IntrigueTerritory> territories = new LinkedHashMap<>();
     private boolean bootstrapped = false;
     private int decayPerTick = 2;
+    private transient TerritoryPresenceIndex presenceIndex;
 
     // ── Singleton via persistent data ───────────────────────────────────
 
@@ -70,12 +71,12 @@ public class IntrigueTerritoryManager implements Serializable, IntrigueTerritory
 
     @Override
     public Collection<IntrigueTerritory> getTerritoriesForSubfaction(String subfactionId) {
-        if (subfactionId == null) return Collections.emptyList();
-        List<IntrigueTerritory> result = new ArrayList<>();
-        for (IntrigueTerritory t : territories.values()) {
-            if (t.hasPresence(subfactionId)) result.add(t);
-        }
-        return result;
+        return presenceIndex().getPresent(subfactionId);
+    }
+
+    @Override
+    public Collection<IntrigueTerritory> getEstablishedTerritoriesForSubfaction(String subfactionId) {
+        return presenceIndex().getEstablished(subfactionId);
     }
 
     @Override
@@ -83,6 +84,12 @@ public class IntrigueTerritoryManager implements Serializable, IntrigueTerritory
         return decayPerTick;
     }
 
+    /** Presence index over the registry, rebuilt from the territories on first use after a load. */
+    private TerritoryPresenceIndex presenceIndex() {
+        if (presenceIndex == null) presenceIndex = TerritoryPresenceIndex.build(territories.values());
+        return presenceIndex;
+    }
+
     // ── Bootstrap ───────────────────────────────────────────────────────
 
     /**
@@ -140,6 +147,7 @@ public class IntrigueTerritoryManager implements Serializable, IntrigueTerritory
             }
 
             territories.put(territory.getTerritoryId(), territory);
+            if (presenceIndex != null) presenceIndex.add(territory);
             log.info("Bootstrapped territory: " + territory);
 
             // Generate base slots for this territory
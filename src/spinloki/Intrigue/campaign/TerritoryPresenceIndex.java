@@ -0,0 +1,110 @@
+package spinloki.Intrigue.campaign;
+
+import java.util.*;
+
+/**
+ * Reverse index from subfaction to the territories it holds, kept current by
+ * {@link IntrigueTerritory#setPresence} and {@link IntrigueTerritory#removeSubfaction}.
+ *
+ * Each subfaction has two lists: territories with any presence (SCOUTING or higher)
+ * and territories with ESTABLISHED-or-higher presence. Both are kept in registry order
+ * (the order territories were added), so a walk over a subfaction's own territories
+ * visits them in the same order as a filtered walk over {@code getAll()}. Cohesion is
+ * not copied; read it from the returned territories.
+ *
+ * Owned by a territory registry ({@link IntrigueTerritoryManager}, SimTerritoryAccess).
+ * Not saved: registries hold it in a transient field and rebuild it from the territories
+ * on first use after loading. Not thread-safe; updates from worker threads go through
+ * {@link DeferredIndexUpdates}.
+ */
+public final class TerritoryPresenceIndex implements IntrigueTerritory.PresenceListener {
+
+    /** Registry position of each indexed territory. */
+    private final Map<IntrigueTerritory, Integer> position = new IdentityHashMap<>();
+    /** sfId → territories with SCOUTING or higher presence, in registry order. */
+    private final Map<String, List<IntrigueTerritory>> present = new HashMap<>();
+    /** sfId → territories with ESTABLISHED or higher presence, in registry order. */
+    private final Map<String, List<IntrigueTerritory>> established = new HashMap<>();
+
+    /** Build an index over {@code territories}, in iteration order. */
+    public static TerritoryPresenceIndex build(Collection<IntrigueTerritory> territories) {
+        TerritoryPresenceIndex index = new TerritoryPresenceIndex();
+        for (IntrigueTerritory t : territories) index.add(t);
+        return index;
+    }
+
+    /** Index a territory appended to the registry and start listening to its presence changes. */
+    public void add(IntrigueTerritory territory) {
+        if (position.containsKey(territory)) return;
+        position.put(territory, position.size());
+        for (Map.Entry<String, IntrigueTerritory.Presence> e : territory.getSubfactionPresenceView().entrySet()) {
+            presenceChanged(territory, e.getKey(), IntrigueTerritory.Presence.NONE, e.getValue());
+        }
+        territory.setPresenceListener(this);
+    }
+
+    /** Territories where the subfaction has SCOUTING or higher presence. Unmodifiable live view. */
+    public List<IntrigueTerritory> getPresent(String subfactionId) {
+        return view(present, subfactionId);
+    }
+
+    /** Territories where the subfaction has ESTABLISHED or higher presence. Unmodifiable live view. */
+    public List<IntrigueTerritory> getEstablished(String subfactionId) {
+        return view(established, subfactionId);
+    }
+
+    @Override
+    public void presenceChanged(IntrigueTerritory territory, String subfactionId,
+                                IntrigueTerritory.Presence before, IntrigueTerritory.Presence after) {
+        if (DeferredIndexUpdates.isCollecting()) {
+            DeferredIndexUpdates.defer(() -> presenceChanged(territory, subfactionId, before, after));
+            return;
+        }
+        Integer pos = position.get(territory);
+        if (pos == null) return;
+        update(present, subfactionId, territory, pos, isPresent(after));
+        update(established, subfactionId, territory, pos, after != null && after.isEstablishedOrHigher());
+    }
+
+    // ── Internals ───────────────────────────────────────────────────────
+
+    private static boolean isPresent(IntrigueTerritory.Presence p) {
+        return p != null && p != IntrigueTerritory.Presence.NONE;
+    }
+
+    private static List<IntrigueTerritory> view(Map<String, List<IntrigueTerritory>> bySf, String subfactionId) {
+        List<IntrigueTerritory> list = subfactionId != null ? bySf.get(subfactionId) : null;
+        return list != null ? Collections.unmodifiableList(list) : Collections.emptyList();
+    }
+
+    /** Insert or remove {@code territory} in the subfaction's list, keeping registry order. */
+    private void update(Map<String, List<IntrigueTerritory>> bySf, String subfactionId,
+                        IntrigueTerritory territory, int pos, boolean member) {
+        List<IntrigueTerritory> list = bySf.get(subfactionId);
+        int at = list != null ? find(list, pos) : -1;
+        if (member) {
+            if (at >= 0) return;
+            if (list == null) {
+                list = new ArrayList<>(4);
+                bySf.put(subfactionId, list);
+            }
+            list.add(-at - 1, territory);
+        } else if (at >= 0) {
+            list.remove(at);
+            if (list.isEmpty()) bySf.remove(subfactionId);
+        }
+    }
+
+    /** Binary search by registry position; same contract as {@link Collections#binarySearch}. */
+    private int find(List<IntrigueTerritory> list, int pos) {
+        int lo = 0, hi = list.size() - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int p = position.get(list.get(mid));
+            if (p < pos) lo = mid + 1;
+            else if (p > pos) hi = mid - 1;
+            else return mid;
+        }
+        return -(lo + 1);
+    }
+}
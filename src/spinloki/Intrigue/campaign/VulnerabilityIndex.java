@@ -0,0 +1,147 @@
+package spinloki.Intrigue.campaign;
+
+import spinloki.Intrigue.campaign.spi.FactionHostilityChecker;
+
+import java.util.*;
+
+/**
+ * Watch set of subfactions at zero legitimacy plus a roster of subfactions per game
+ * faction, kept current by {@link IntrigueSubfaction#setLegitimacy}. Lets the
+ * vulnerability-raid pass visit only actual victims and the subfactions of factions
+ * hostile to them, instead of pairing every subfaction with every other.
+ *
+ * Both the watch set and each faction roster are kept in registry order (the order
+ * subfactions were added), and {@link #getHostileTo} walks the registry once with a mask
+ * of hostile factions, so walks here visit subfactions in the same order as filtered
+ * walks over {@code getAll()}. Home market and leader are not indexed; check them on
+ * the results.
+ *
+ * Owned by a subfaction registry ({@link IntrigueSubfactionManager}, SimSubfactionAccess).
+ * Not saved: registries hold it in a transient field and rebuild it from the subfactions
+ * on first use after loading. Not thread-safe; updates from worker threads go through
+ * {@link DeferredIndexUpdates}.
+ */
+public final class VulnerabilityIndex implements IntrigueSubfaction.LegitimacyListener {
+
+    /** Registry position of each indexed subfaction. */
+    private final Map<IntrigueSubfaction, Integer> position = new IdentityHashMap<>();
+    /** Every indexed subfaction, in registry order. */
+    private final List<IntrigueSubfaction> registry = new ArrayList<>();
+    /** Slot in {@link #factionIds} of each registry entry (-1 without a faction). */
+    private int[] factionSlot = new int[16];
+    /** Factions of indexed subfactions, in order of first appearance (as in {@link #byFaction}). */
+    private final List<String> factionIds = new ArrayList<>();
+    /** Subfactions at legitimacy 0, in registry order. */
+    private final List<IntrigueSubfaction> vulnerable = new ArrayList<>();
+    /** factionId → subfactions of that faction, in registry order. */
+    private final Map<String, List<IntrigueSubfaction>> byFaction = new LinkedHashMap<>();
+
+    // Scratch for getHostileTo, reused by every call
+    private boolean[] hostileMask = new boolean[4];
+    private final List<IntrigueSubfaction> hostile = new ArrayList<>();
+    private final List<IntrigueSubfaction> hostileView = Collections.unmodifiableList(hostile);
+
+    /** Build an index over {@code subfactions}, in iteration order. */
+    public static VulnerabilityIndex build(Collection<IntrigueSubfaction> subfactions) {
+        VulnerabilityIndex index = new VulnerabilityIndex();
+        for (IntrigueSubfaction sf : subfactions) index.add(sf);
+        return index;
+    }
+
+    /** Index a subfaction appended to the registry and start listening to its legitimacy changes. */
+    public void add(IntrigueSubfaction subfaction) {
+        if (position.containsKey(subfaction)) return;
+        int pos = registry.size();
+        position.put(subfaction, pos);
+        registry.add(subfaction);
+        if (pos == factionSlot.length) factionSlot = Arrays.copyOf(factionSlot, pos * 2);
+        factionSlot[pos] = -1;
+        String factionId = subfaction.getFactionId();
+        if (factionId != null) {
+            List<IntrigueSubfaction> roster = byFaction.get(factionId);
+            if (roster == null) {
+                roster = new ArrayList<>(4);
+                byFaction.put(factionId, roster);
+                factionIds.add(factionId);
+            }
+            roster.add(subfaction);
+            factionSlot[pos] = factionIds.indexOf(factionId);
+        }
+        if (subfaction.getLegitimacy() <= 0) vulnerable.add(subfaction);
+        subfaction.setLegitimacyListener(this);
+    }
+
+    /** Subfactions at legitimacy 0. Unmodifiable live view. */
+    public List<IntrigueSubfaction> getVulnerable() {
+        return Collections.unmodifiableList(vulnerable);
+    }
+
+    /** Subfactions of {@code factionId}. Unmodifiable live view. */
+    public List<IntrigueSubfaction> getByFaction(String factionId) {
+        List<IntrigueSubfaction> list = factionId != null ? byFaction.get(factionId) : null;
+        return list != null ? Collections.unmodifiableList(list) : Collections.emptyList();
+    }
+
+    /**
+     * Subfactions of every other faction that {@code hostility} reports hostile to
+     * {@code factionId} (asked as {@code areHostile(attacker, factionId)}), in registry order.
+     * One hostility lookup per faction, not per subfaction, then one walk of the registry
+     * filtered by the hostile factions.
+     *
+     * Unmodifiable view of a scratch buffer the next call refills; copy it to keep it.
+     */
+    public List<IntrigueSubfaction> getHostileTo(String factionId, FactionHostilityChecker hostility) {
+        int factions = factionIds.size();
+        if (hostileMask.length < factions) hostileMask = new boolean[Math.max(factions, hostileMask.length * 2)];
+        int hostileFactions = 0;
+        int lastHostile = -1;
+        for (int f = 0; f < factions; f++) {
+            String other = factionIds.get(f);
+            boolean isHostile = !other.equals(factionId) && hostility.areHostile(other, factionId);
+            hostileMask[f] = isHostile;
+            if (isHostile) {
+                hostileFactions++;
+                lastHostile = f;
+            }
+        }
+        if (hostileFactions == 0) return Collections.emptyList();
+        if (hostileFactions == 1) return getByFaction(factionIds.get(lastHostile));
+        hostile.clear();
+        for (int i = 0; i < registry.size(); i++) {
+            int f = factionSlot[i];
+            if (f >= 0 && hostileMask[f]) hostile.add(registry.get(i));
+        }
+        return hostileView;
+    }
+
+    @Override
+    public void legitimacyChanged(IntrigueSubfaction subfaction, int before, int after) {
+        if (DeferredIndexUpdates.isCollecting()) {
+            DeferredIndexUpdates.defer(() -> legitimacyChanged(subfaction, before, after));
+            return;
+        }
+        Integer pos = position.get(subfaction);
+        if (pos == null || (before <= 0) == (after <= 0)) return;
+        int at = find(pos);
+        if (after <= 0) {
+            if (at < 0) vulnerable.add(-at - 1, subfaction);
+        } else if (at >= 0) {
+            vulnerable.remove(at);
+        }
+    }
+
+    // ── Internals ───────────────────────────────────────────────────────
+
+    /** Binary search of the watch set by registry position; same contract as {@link Collections#binarySearch}. */
+    private int find(int pos) {
+        int lo = 0, hi = vulnerable.size() - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int p = position.get(vulnerable.get(mid));
+            if (p < pos) lo = mid + 1;
+            else if (p > pos) hi = mid - 1;
+            else return mid;
+        }
+        return -(lo + 1);
+    }
+}
@@ -0,0 +1,348 @@
+package spinloki.Intrigue.campaign.ops;
+
+import spinloki.Intrigue.campaign.spi.IntrigueOpRunner;
+import spinloki.Intrigue.campaign.spi.IntrigueServices;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Active-op bookkeeping shared by the op runners ({@link IntrigueOpsManager} in the game,
+ * SimOpRunner in the sim): the active-op list in start order, the op id counter, and
+ * hash indexes over the active ops by op id, initiator, target, participant, initiating
+ * subfaction and territory. The per-person and per-subfaction queries the evaluator makes
+ * for every subfaction cost O(1) or O(result) instead of a scan of every active op.
+ *
+ * Runners register ops through {@link #startOp} and drop resolved ones in
+ * {@link #advanceOps}; an op stays listed and indexed until then, even if it resolved
+ * in between, exactly as in the active-op list. Ops are indexed under the territory and
+ * participants they have when started. Query results are in start order.
+ *
+ * Ops are advanced on a wake schedule rather than all of them every frame. The registry
+ * counts days, and each op sleeps until its current phase's wake time
+ * ({@link IntrigueOp#getDaysUntilWake()}), capped at {@link #MAX_SLEEP_DAYS} so
+ * {@code shouldAbort} is still checked regularly. When an op comes due it gets every day
+ * it slept in one {@code advance} call. Ops due together advance in start order. Phases
+ * that change through outside events bring their op forward with {@link #wake(OpPhase)},
+ * which finds the op through the phase it sleeps in, without a scan.
+ *
+ * Every op it drops is recorded in its {@link OpLedger}, the bounded outcome history.
+ *
+ * Only the list, the id counter, the day count and the ledger are saved (plus each op's
+ * last-advance day). The indexes and the wake queue live in transient fields and are rebuilt from the
+ * list on first use after loading. Not thread-safe.
+ */
+public abstract class ActiveOpRegistry implements IntrigueOpRunner, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Longest an op sleeps between advances, in days, whatever its phase asks for. */
+    public static final float MAX_SLEEP_DAYS = 1f;
+
+    private final List<IntrigueOp> activeOps = new ArrayList<>();
+    private int nextOpSeq = 1;
+    /** Days advanced so far; the time base of the wake schedule. */
+    private double days;
+    /** Created on first use, so saves from before the ledger load with none. */
+    private OpLedger ledger;
+    /** Rebuilt from activeOps on first use after a load. */
+    private transient Indexes indexes;
+    /** Rebuilt from activeOps on first use after a load. */
+    private transient WakeQueue wakeQueue;
+
+    /** Next value of the op id counter, for {@link #nextOpId}. */
+    protected int nextOpSeq() {
+        return nextOpSeq++;
+    }
+
+    /** Register an op and start it (PROPOSED → ACTIVE). */
+    @Override
+    public void startOp(IntrigueOp op) {
+        activeOps.add(op);
+        if (indexes != null) indexes.add(op);
+        op.lastAdvancedDay = days;
+        op.startTimestamp = IntrigueServices.clock().getTimestamp();
+        op.start();
+        wakeQueue().schedule(op, days);
+    }
+
+    /**
+     * Let {@code elapsed} days pass: advance the ops that are due, in start order, each by
+     * the days since its last advance, and drop the ones that resolved, recording each in
+     * the ledger and handing it to {@code onResolved} first. Sleeping ops are not touched.
+     */
+    protected void advanceOps(float elapsed, Consumer<IntrigueOp> onResolved) {
+        WakeQueue queue = wakeQueue();
+        days += elapsed;
+        List<IntrigueOp> due = queue.pollDue(days);
+        float[] slept = new float[due.size()];
+        for (int i = 0; i < slept.length; i++) {
+            IntrigueOp op = due.get(i);
+            slept[i] = (float) (days - op.lastAdvancedDay);
+            op.lastAdvancedDay = days;
+        }
+        advanceDue(due, slept);
+        for (IntrigueOp op : due) {
+            if (op.isResolved()) {
+                getLedger().record(op);
+                onResolved.accept(op);
+                activeOps.remove(op);
+                if (indexes != null) indexes.remove(op);
+                queue.forget(op);
+            } else {
+                queue.schedule(op, wakeDay(op));
+            }
+        }
+    }
+
+    /**
+     * Advance each due op by the days it slept ({@code slept[i]} for {@code due.get(i)}).
+     * Ops are in start order; resolved ones are dropped afterwards, in the same order.
+     * Runners may override this to advance ops concurrently, as long as every op ends up
+     * in the same state as when advanced one after the other here.
+     */
+    protected void advanceDue(List<IntrigueOp> due, float[] slept) {
+        for (int i = 0; i < slept.length; i++) due.get(i).advance(slept[i]);
+    }
+
+    /**
+     * Advance the op running {@code phase} at the next {@link #advanceOps}, whatever its
+     * wake time. For phases finished or changed early by an outside event.
+     */
+    @Override
+    public void wake(OpPhase phase) {
+        WakeQueue queue = wakeQueue();
+        IntrigueOp op = queue.sleeperIn(phase);
+        if (op != null) queue.schedule(op, days);
+    }
+
+    /** Ops currently sleeping: not due at the next advance however short. */
+    public int getSleepingOpCount() {
+        return wakeQueue().sleeping(days);
+    }
+
+    // ── Queries ─────────────────────────────────────────────────────────
+
+    @Override
+    public OpLedger getLedger() {
+        if (ledger == null) ledger = new OpLedger(OpLedger.DEFAULT_CAPACITY);
+        return ledger;
+    }
+
+    /** All currently active (non-resolved) ops. */
+    @Override
+    public List<IntrigueOp> getActiveOps() {
+        return Collections.unmodifiableList(activeOps);
+    }
+
+    @Override
+    public IntrigueOp getActiveOp(String opId) {
+        return opId != null ? indexes().byId.get(opId) : null;
+    }
+
+    @Override
+    public boolean hasActiveOp(String personId) {
+        return indexes().byInitiator.containsKey(personId);
+    }
+
+    @Override
+    public int getActiveOpCount(String personId) {
+        Set<IntrigueOp> ops = indexes().byInitiator.get(personId);
+        return ops != null ? ops.size() : 0;
+    }
+
+    @Override
+    public List<IntrigueOp> getOpsInitiatedBy(String personId) {
+        return copy(indexes().byInitiator, personId);
+    }
+
+    @Override
+    public List<IntrigueOp> getOpsTargeting(String personId) {
+        return copy(indexes().byTarget, personId);
+    }
+
+    @Override
+    public List<IntrigueOp> getOpsInvolving(String personId) {
+        Indexes idx = indexes();
+        Set<IntrigueOp> initiated = idx.byInitiator.get(personId);
+        Set<IntrigueOp> targeted = idx.byTarget.get(personId);
+        Set<IntrigueOp> joined = idx.byParticipant.get(personId);
+        if (targeted == null && joined == null) return copy(idx.byInitiator, personId);
+        Set<IntrigueOp> involved = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (initiated != null) involved.addAll(initiated);
+        if (targeted != null) involved.addAll(targeted);
+        if (joined != null) involved.addAll(joined);
+        List<IntrigueOp> result = new ArrayList<>(involved);
+        result.sort(Comparator.comparingLong(idx.startOrder::get));
+        return result;
+    }
+
+    @Override
+    public List<IntrigueOp> getOpsBySubfaction(String subfactionId) {
+        return copy(indexes().bySubfaction, subfactionId);
+    }
+
+    @Override
+    public List<IntrigueOp> getOpsInTerritory(String territoryId) {
+        return copy(indexes().byTerritory, territoryId);
+    }
+
+    @Override
+    public List<IntrigueOp> getMischiefTargets(String subfactionId) {
+        return indexes().mischiefTargets.getTargets(subfactionId);
+    }
+
+    // ── Wake schedule ───────────────────────────────────────────────────
+
+    private double wakeDay(IntrigueOp op) {
+        return op.lastAdvancedDay + Math.min(op.getDaysUntilWake(), MAX_SLEEP_DAYS);
+    }
+
+    private WakeQueue wakeQueue() {
+        if (wakeQueue == null) {
+            wakeQueue = new WakeQueue();
+            for (IntrigueOp op : activeOps) wakeQueue.schedule(op, wakeDay(op));
+        }
+        return wakeQueue;
+    }
+
+    /**
+     * Ops by wake day. Rescheduling an op leaves its old entry in the heap; entries that
+     * aren't an op's current one are skipped when they surface. Each scheduled op is also
+     * filed under the phase it sleeps in, which can't change until it is polled.
+     */
+    private static final class WakeQueue {
+        private static final class Entry {
+            final IntrigueOp op;
+            final OpPhase phase;
+            final double wakeDay;
+            final long order;
+
+            Entry(IntrigueOp op, double wakeDay, long order) {
+                this.op = op;
+                this.phase = op.getCurrentPhase();
+                this.wakeDay = wakeDay;
+                this.order = order;
+            }
+        }
+
+        private final PriorityQueue<Entry> heap = new PriorityQueue<>(
+                Comparator.comparingDouble((Entry e) -> e.wakeDay).thenComparingLong(e -> e.order));
+        private final Map<IntrigueOp, Entry> current = new IdentityHashMap<>();
+        /** The scheduled op sleeping in each phase. */
+        private final Map<OpPhase, IntrigueOp> sleepers = new IdentityHashMap<>();
+        /** Start sequence of each op, so ops due together run in start order. */
+        private final Map<IntrigueOp, Long> order = new IdentityHashMap<>();
+        private long scheduled;
+
+        void schedule(IntrigueOp op, double wakeDay) {
+            Long seq = order.computeIfAbsent(op, k -> scheduled++);
+            Entry entry = new Entry(op, wakeDay, seq);
+            Entry previous = current.put(op, entry);
+            if (previous != null && previous.phase != null) sleepers.remove(previous.phase, op);
+            if (entry.phase != null) sleepers.put(entry.phase, op);
+            heap.add(entry);
+        }
+
+        /** The scheduled op whose current phase is {@code phase}, or null. */
+        IntrigueOp sleeperIn(OpPhase phase) {
+            return phase != null ? sleepers.get(phase) : null;
+        }
+
+        /** Remove and return every op due by {@code day}, in start order. */
+        List<IntrigueOp> pollDue(double day) {
+            List<Entry> due = new ArrayList<>();
+            while (!heap.isEmpty() && heap.peek().wakeDay <= day) {
+                Entry e = heap.poll();
+                if (current.get(e.op) != e) continue;
+                current.remove(e.op);
+                if (e.phase != null) sleepers.remove(e.phase, e.op);
+                due.add(e);
+            }
+            due.sort(Comparator.comparingLong(e -> e.order));
+            List<IntrigueOp> ops = new ArrayList<>(due.size());
+            for (Entry e : due) ops.add(e.op);
+            return ops;
+        }
+
+        /** Drop a removed op. Its polled entry is already out of the heap. */
+        void forget(IntrigueOp op) {
+            current.remove(op);
+            order.remove(op);
+        }
+
+        int sleeping(double day) {
+            int count = 0;
+            for (Entry e : current.values()) if (e.wakeDay > day) count++;
+            return count;
+        }
+    }
+
+    // ── Indexes ─────────────────────────────────────────────────────────
+
+    private Indexes indexes() {
+        if (indexes == null) {
+            indexes = new Indexes();
+            for (IntrigueOp op : activeOps) indexes.add(op);
+        }
+        return indexes;
+    }
+
+    private static List<IntrigueOp> copy(Map<String, Set<IntrigueOp>> index, String key) {
+        Set<IntrigueOp> ops = key != null ? index.get(key) : null;
+        return ops != null ? new ArrayList<>(ops) : new ArrayList<>();
+    }
+
+    /**
+     * Hash indexes over the active ops. Buckets are insertion-ordered sets (ops have
+     * identity equality), so they iterate in start order and drop an op in O(1); empty
+     * buckets are removed.
+     */
+    private static final class Indexes {
+        final Map<String, IntrigueOp> byId = new HashMap<>();
+        final Map<String, Set<IntrigueOp>> byInitiator = new HashMap<>();
+        final Map<String, Set<IntrigueOp>> byTarget = new HashMap<>();
+        final Map<String, Set<IntrigueOp>> byParticipant = new HashMap<>();
+        final Map<String, Set<IntrigueOp>> bySubfaction = new HashMap<>();
+        final Map<String, Set<IntrigueOp>> byTerritory = new HashMap<>();
+        final MischiefTargetIndex mischiefTargets = new MischiefTargetIndex();
+        /** Start sequence of each op, to merge buckets back into start order. */
+        final Map<IntrigueOp, Long> startOrder = new IdentityHashMap<>();
+        long started;
+
+        void add(IntrigueOp op) {
+            startOrder.put(op, started++);
+            if (op.getOpId() != null) byId.put(op.getOpId(), op);
+            put(byInitiator, op.getInitiatorId(), op);
+            put(byTarget, op.getTargetId(), op);
+            for (String personId : op.getParticipantIds()) put(byParticipant, personId, op);
+            put(bySubfaction, op.getInitiatorSubfactionId(), op);
+            put(byTerritory, op.getTerritoryId(), op);
+            mischiefTargets.opStarted(op);
+        }
+
+        void remove(IntrigueOp op) {
+            startOrder.remove(op);
+            if (op.getOpId() != null) byId.remove(op.getOpId(), op);
+            take(byInitiator, op.getInitiatorId(), op);
+            take(byTarget, op.getTargetId(), op);
+            for (String personId : op.getParticipantIds()) take(byParticipant, personId, op);
+            take(bySubfaction, op.getInitiatorSubfactionId(), op);
+            take(byTerritory, op.getTerritoryId(), op);
+            mischiefTargets.opRemoved(op);
+        }
+
+        private static void put(Map<String, Set<IntrigueOp>> index, String key, IntrigueOp op) {
+            if (key == null) return;
+            index.computeIfAbsent(key, k -> new LinkedHashSet<>(4)).add(op);
+        }
+
+        private static void take(Map<String, Set<IntrigueOp>> index, String key, IntrigueOp op) {
+            Set<IntrigueOp> ops = key != null ? index.get(key) : null;
+            if (ops == null) return;
+            ops.remove(op);
+            if (ops.isEmpty()) index.remove(key);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package spinloki.Intrigue.campaign.ops;
+
+import spinloki.Intrigue.campaign.IntrigueSubfaction;
+import spinloki.Intrigue.campaign.IntrigueTerritory;
+import spinloki.Intrigue.campaign.spi.IntrigueOpRunner;
+import spinloki.Intrigue.campaign.spi.IntrigueServices;
+import spinloki.Intrigue.campaign.spi.IntrigueTerritoryAccess;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Memo of the per-subfaction numbers {@link OpEvaluator} keeps asking for while a tick's
+ * ops are evaluated: total cohesion, op capacity and active-op counts. Build one per
+ * evaluation pass and pass it to every {@code evaluate}/{@code diagnose} call of that pass.
+ *
+ * <ul>
+ *   <li>Total cohesion = live home cohesion + a cached sum over ESTABLISHED-or-higher
+ *       territories. Home cohesion is always read fresh; the territory sum is computed
+ *       once per subfaction and dropped by {@link #territoryCohesionChanged}.</li>
+ *   <li>Active-op counts per person are counted in one pass over the runner's active
+ *       ops on first use, then kept current by {@link #opStarted}.</li>
+ * </ul>
+ *
+ * Callers that start ops must report them through {@link #opStarted}; callers that
+ * change territory cohesion or presence mid-pass must report it through
+ * {@link #territoryCohesionChanged}. A pass that pauses while other code runs (a tick
+ * sliced over frames, with ops resolving in between) must call {@link #invalidate}
+ * before it continues. Starting an op doesn't touch territory cohesion
+ * or established presence (ops change those when they resolve), so a normal
+ * evaluate-then-start loop needs only the former.
+ *
+ * Not thread-safe; one context per evaluating thread. The exception is
+ * {@link OpEvaluator#evaluateAll}, which fills the lazy parts first and then lets its
+ * scoring threads read.
+ */
+public final class EvaluationContext {
+
+    private final IntrigueOpRunner ops;
+    /** sfId → cohesion summed over established territories. */
+    private final Map<String, Integer> territoryCohesion = new HashMap<>();
+    /** personId → active op count; null until first asked. */
+    private Map<String, Integer> activeOpsByPerson;
+    private int territoryWalks;
+    /** Scratch list for raid target selection, refilled by each evaluate/diagnose call. */
+    private final OpEvaluator.RaidTargets raidTargets = new OpEvaluator.RaidTargets(1);
+    /** Pass-wide inputs while {@link OpEvaluator#evaluateAll} runs; null otherwise. */
+    private OpEvaluator.SectorTables sectorTables;
+    /** Decision of the latest {@link OpEvaluator#evaluate} call; null before the first. */
+    private OpPlan lastPlan;
+    private OpCascade cascade = OpCascade.DEFAULT;
+    /** Scratch for the cascade's per-subfaction features, refilled by each plan. */
+    private final OpCascade.Features features = new OpCascade.Features();
+
+    public EvaluationContext(IntrigueOpRunner ops) {
+        this.ops = ops;
+    }
+
+    /** Priority cascade to plan with (default {@link OpCascade#DEFAULT}). */
+    public EvaluationContext withCascade(OpCascade cascade) {
+        this.cascade = cascade != null ? cascade : OpCascade.DEFAULT;
+        return this;
+    }
+
+    public IntrigueOpRunner getOps() { return ops; }
+    public OpCascade getCascade() { return cascade; }
+
+    /** Home cohesion plus cohesion from every ESTABLISHED-or-higher territory. */
+    public int totalCohesion(IntrigueSubfaction subfaction) {
+        Integer territory = territoryCohesion.get(subfaction.getSubfactionId());
+        if (territory == null) {
+            territory = sumTerritoryCohesion(subfaction.getSubfactionId());
+            territoryCohesion.put(subfaction.getSubfactionId(), territory);
+            territoryWalks++;
+        }
+        return subfaction.getHomeCohesion() + territory;
+    }
+
+    /** Concurrent ops the subfaction can sustain (see {@link OpEvaluator#maxConcurrentOps}). */
+    public int capacity(IntrigueSubfaction subfaction) {
+        return OpEvaluator.capacityFor(totalCohesion(subfaction));
+    }
+
+    /** Active ops initiated by {@code personId}. */
+    public int activeOps(String personId) {
+        if (activeOpsByPerson == null) {
+            activeOpsByPerson = new HashMap<>();
+            for (IntrigueOp op : ops.getActiveOps()) {
+                if (op.getInitiatorId() != null) activeOpsByPerson.merge(op.getInitiatorId(), 1, Integer::sum);
+            }
+        }
+        return activeOpsByPerson.getOrDefault(personId, 0);
+    }
+
+    public boolean hasActiveOp(String personId) {
+        return activeOps(personId) > 0;
+    }
+
+    /** Record an op the caller just started. */
+    public void opStarted(IntrigueOp op) {
+        if (activeOpsByPerson != null && op.getInitiatorId() != null) {
+            activeOpsByPerson.merge(op.getInitiatorId(), 1, Integer::sum);
+        }
+    }
+
+    /** Drop the cached territory cohesion of {@code subfactionId} after a territory cohesion or presence change. */
+    public void territoryCohesionChanged(String subfactionId) {
+        territoryCohesion.remove(subfactionId);
+    }
+
+    /**
+     * Forget everything memoized from live state: territory cohesion sums, active-op
+     * counts, and the pass's danger rows and raid shortlists. They are recomputed on
+     * next use, so decisions after this match a pass started now.
+     */
+    public void invalidate() {
+        territoryCohesion.clear();
+        activeOpsByPerson = null;
+        if (sectorTables != null) sectorTables.invalidate();
+    }
+
+    /** Plan behind the latest {@link OpEvaluator#evaluate} call in this context, or null. */
+    public OpPlan getLastPlan() { return lastPlan; }
+    void setLastPlan(OpPlan plan) { this.lastPlan = plan; }
+
+    OpEvaluator.RaidTargets raidTargets() { return raidTargets; }
+    OpCascade.Features features() { return features; }
+
+    OpEvaluator.SectorTables getSectorTables() { return sectorTables; }
+    void setSectorTables(OpEvaluator.SectorTables sectorTables) { this.sectorTables = sectorTables; }
+
+    /** Territory walks done so far (one per subfaction unless invalidated). */
+    public int getTerritoryWalks() { return territoryWalks; }
+
+    static int sumTerritoryCohesion(String subfactionId) {
+        int total = 0;
+        IntrigueTerritoryAccess territories = IntrigueServices.territories();
+        if (territories != null) {
+            for (IntrigueTerritory t : territories.getEstablishedTerritoriesForSubfaction(subfactionId)) {
+                total += t.getCohesion(subfactionId);
+            }
+        }
+        return total;
+    }
+}
@@ -64,6 +64,11 @@ public class GameWarAwareness implements WarAwareness {
         }
     }
 
+    @Override
+    public float maxDangerScoreModifier() {
+        return 5f;
+    }
+
     @Override
     public int scaleFPByDanger(int baseFP, String attackerFactionId, String targetMarketId) {
         Danger danger = getDangerForMarket(attackerFactionId, targetMarketId);
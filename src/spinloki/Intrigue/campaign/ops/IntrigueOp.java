@@ -21,7 +21,8 @@ import java.util.List;
  * Subclasses populate {@link #phases} in their constructor and implement
  * {@link #applyOutcome()} to modify power/relationships when done.
  *
- * The op is advanced each frame by {@link IntrigueOpsManager}.
+ * The op is advanced by {@link IntrigueOpsManager}: each frame, or less often
+ * while its current phase is only waiting (see {@link #getDaysUntilWake()}).
  */
 public abstract class IntrigueOp implements Serializable {
 
@@ -83,6 +84,12 @@ public abstract class IntrigueOp implements Serializable {
     /** Transient intel reference - set by IntrigueOpsManager, not serialized. */
     private transient Object intel;
 
+    /** The op runner's day count at this op's last advance; see {@link ActiveOpRegistry}. */
+    double lastAdvancedDay;
+
+    /** Clock timestamp when the op runner started this op. */
+    long startTimestamp;
+
     protected IntrigueOp(String opId, String initiatorId, String targetId,
                          String initiatorSubfactionId, String targetSubfactionId) {
         this.opId = opId;
@@ -228,6 +235,9 @@ public abstract class IntrigueOp implements Serializable {
     public Stage getStage() { return stage; }
     public OpOutcome getOutcome() { return outcome; }
 
+    /** Clock timestamp when the op was started (0 if it never was). */
+    public long getStartTimestamp() { return startTimestamp; }
+
     /** Start the op: transition from PROPOSED → ACTIVE. Called by the ops manager. */
     public void start() {
         if (stage != Stage.PROPOSED) return;
@@ -237,7 +247,8 @@ public abstract class IntrigueOp implements Serializable {
 
     /**
      * Advance the currently-active phase. When all phases complete, resolve.
-     * Called each frame by the ops manager.
+     * Called by the ops manager each frame, or with the days skipped since the
+     * last call once the op's wake time comes up.
      */
     public void advance(float days) {
         if (stage != Stage.ACTIVE) return;
@@ -269,6 +280,17 @@ public abstract class IntrigueOp implements Serializable {
         return stage == Stage.RESOLVED;
     }
 
+    /**
+     * Days the op can go without an {@link #advance} call: its current phase's
+     * {@link OpPhase#getDaysUntilWake()}, or 0 when it isn't running a phase.
+     */
+    public float getDaysUntilWake() {
+        if (stage != Stage.ACTIVE) return 0f;
+        OpPhase phase = getCurrentPhase();
+        if (phase == null || phase.isDone()) return 0f;
+        return Math.max(0f, phase.getDaysUntilWake());
+    }
+
     // ── Current state ───────────────────────────────────────────────────
 
     public OpPhase getCurrentPhase() {
@@ -320,7 +342,7 @@ public abstract class IntrigueOp implements Serializable {
         // sabotage, there is a chance the success is flipped to failure.
         // The penalty is a probability (e.g. 0.15 = 15% chance of sabotage).
         if (result == OpOutcome.SUCCESS && mischiefPenalty > 0f) {
-            float roll = (float) Math.random();
+            float roll = IntrigueServices.random().nextFloat();
             if (roll < mischiefPenalty) {
                 result = OpOutcome.FAILURE;
                 sabotagedByMischief = true;
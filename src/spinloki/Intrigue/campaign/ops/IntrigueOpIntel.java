@@ -401,14 +401,8 @@ public class IntrigueOpIntel extends BaseIntelPlugin {
         if (op != null) return;
         if (!PhaseUtil.isSectorAvailable()) return;
 
-        // Try to find the op in the active ops list
-        for (IntrigueOp active : IntrigueServices.ops().getActiveOps()) {
-            if (opId.equals(active.getOpId())) {
-                op = active;
-                return;
-            }
-        }
-        // Op no longer active - it resolved while we were unloaded
+        // Try to find the op among the active ops; null if it resolved while we were unloaded
+        op = IntrigueServices.ops().getActiveOp(opId);
     }
 
     // ── Utilities ───────────────────────────────────────────────────────
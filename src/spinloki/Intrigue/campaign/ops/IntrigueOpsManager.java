@@ -4,24 +4,21 @@ import com.fs.starfarer.api.EveryFrameScript;
 import com.fs.starfarer.api.Global;
 import com.fs.starfarer.api.util.Misc;
 import spinloki.Intrigue.IntrigueIds;
-import spinloki.Intrigue.campaign.spi.IntrigueOpRunner;
 
-import java.io.Serializable;
 import java.util.*;
 
 /**
  * Singleton that owns and advances all active {@link IntrigueOp} instances.
  *
- * Stored in sector persistent data. Registered as an EveryFrameScript so
- * ops are advanced each frame automatically.
+ * Stored in sector persistent data. Registered as an EveryFrameScript that
+ * advances the ops that are due each frame; ops whose phase is only waiting
+ * sleep until their wake time. The active-op list, its lookup indexes and the
+ * wake schedule live in {@link ActiveOpRegistry}.
  */
-public class IntrigueOpsManager implements EveryFrameScript, Serializable, IntrigueOpRunner {
+public class IntrigueOpsManager extends ActiveOpRegistry implements EveryFrameScript {
 
     private static final long serialVersionUID = 1L;
 
-    private final List<IntrigueOp> activeOps = new ArrayList<>();
-    private int nextOpSeq = 1;
-
     // ── Singleton access ────────────────────────────────────────────────
 
     public static IntrigueOpsManager get() {
@@ -42,7 +39,7 @@ public class IntrigueOpsManager implements EveryFrameScript, Serializable, Intri
     /** Generate a unique op ID. */
     @Override
     public String nextOpId(String prefix) {
-        return prefix + "_" + (nextOpSeq++);
+        return prefix + "_" + nextOpSeq();
     }
 
     /**
@@ -52,8 +49,7 @@ public class IntrigueOpsManager implements EveryFrameScript, Serializable, Intri
      */
     @Override
     public void startOp(IntrigueOp op) {
-        activeOps.add(op);
-        op.start();
+        super.startOp(op);
         registerIntelForOp(op);
     }
 
@@ -70,55 +66,6 @@ public class IntrigueOpsManager implements EveryFrameScript, Serializable, Intri
         op.setIntel(intel);
     }
 
-    /** All currently active (non-resolved) ops. */
-    public List<IntrigueOp> getActiveOps() {
-        return Collections.unmodifiableList(activeOps);
-    }
-
-    /** Get all active ops where the given person is the initiator. */
-    @Override
-    public List<IntrigueOp> getOpsInitiatedBy(String personId) {
-        List<IntrigueOp> result = new ArrayList<>();
-        for (IntrigueOp op : activeOps) {
-            if (personId.equals(op.getInitiatorId())) result.add(op);
-        }
-        return result;
-    }
-
-    /** Get all active ops where the given person is the target. */
-    public List<IntrigueOp> getOpsTargeting(String personId) {
-        List<IntrigueOp> result = new ArrayList<>();
-        for (IntrigueOp op : activeOps) {
-            if (personId.equals(op.getTargetId())) result.add(op);
-        }
-        return result;
-    }
-
-    /** Get all active ops involving a person (as initiator, target, or participant). */
-    public List<IntrigueOp> getOpsInvolving(String personId) {
-        List<IntrigueOp> result = new ArrayList<>();
-        for (IntrigueOp op : activeOps) {
-            if (personId.equals(op.getInitiatorId()) ||
-                personId.equals(op.getTargetId()) ||
-                op.getParticipantIds().contains(personId)) {
-                result.add(op);
-            }
-        }
-        return result;
-    }
-
-    /** Check if a person already has an active op (as initiator). */
-    @Override
-    public boolean hasActiveOp(String personId) {
-        return !getOpsInitiatedBy(personId).isEmpty();
-    }
-
-    /** Count active ops where the given person is the initiator. */
-    @Override
-    public int getActiveOpCount(String personId) {
-        return getOpsInitiatedBy(personId).size();
-    }
-
     // ── EveryFrameScript ────────────────────────────────────────────────
 
     @Override
@@ -135,19 +82,13 @@ public class IntrigueOpsManager implements EveryFrameScript, Serializable, Intri
     public void advance(float amount) {
         float days = Misc.getDays(amount);
 
-        // Advance all ops; collect resolved ones for cleanup.
-        Iterator<IntrigueOp> it = activeOps.iterator();
-        while (it.hasNext()) {
-            IntrigueOp op = it.next();
-            op.advance(days);
-            if (op.isResolved()) {
-                // Notify attached intel that the op has resolved
-                Object intelObj = op.getIntel();
-                if (intelObj instanceof IntrigueOpIntel) {
-                    ((IntrigueOpIntel) intelObj).notifyOpResolved();
-                }
-                it.remove();
+        // Advance the ops that are due; drop resolved ones.
+        advanceOps(days, op -> {
+            // Notify attached intel that the op has resolved
+            Object intelObj = op.getIntel();
+            if (intelObj instanceof IntrigueOpIntel) {
+                ((IntrigueOpIntel) intelObj).notifyOpResolved();
             }
-        }
+        });
     }
 }
@@ -0,0 +1,710 @@
+package spinloki.Intrigue.campaign.ops;
+
+import spinloki.Intrigue.campaign.IntrigueSubfaction;
+import spinloki.Intrigue.campaign.IntrigueTerritory;
+import spinloki.Intrigue.campaign.spi.CachedFactionHostilityChecker;
+import spinloki.Intrigue.campaign.spi.FactionHostilityChecker;
+import spinloki.Intrigue.campaign.spi.IntrigueOpRunner;
+import spinloki.Intrigue.campaign.spi.IntrigueServices;
+import spinloki.Intrigue.campaign.spi.IntrigueSubfactionAccess;
+import spinloki.Intrigue.campaign.spi.IntrigueTerritoryAccess;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.*;
+import java.util.function.IntFunction;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Staged tick pipeline shared by the campaign pacer ({@link spinloki.Intrigue.campaign.IntriguePacerScript})
+ * and the balance sim. A tick is an ordered list of named {@link Stage}s; the shared
+ * stages (op evaluation, vulnerability raids, friction ops, territory decay, friction
+ * accumulation, concurrent-op drain, civil-war tracking) live here, and each driver
+ * composes them with its own stages (player intervention, stat nudges, stats sampling).
+ *
+ * Drivers observe what stages do through a {@link Listener} rather than by inlining
+ * the stage logic, so the logic exists once.
+ *
+ * With profiling on, every stage run is timed and counted: nanoseconds, entities
+ * touched (as reported by the stage) and, where the JVM supports it, bytes allocated
+ * by the running thread. See {@link #formatProfile}.
+ *
+ * A tick can also run as a {@link SlicedTick}: the same stages in the same order, a
+ * few units of work at a time, so a driver can spread one logical tick over several
+ * frames under a time budget. Stages built with {@link Stage#sliced} split into one
+ * unit per subfaction or territory; plain stages are a single unit.
+ *
+ * Stages resolve services through {@link IntrigueServices}, so the engine must run
+ * with the sector's context bound.
+ */
+public class IntrigueTickEngine {
+
+    /** Which stage started an op. */
+    public enum OpSource {
+        /** Regular per-subfaction evaluation. */
+        EVALUATION,
+        /** Free raid against a zero-legitimacy subfaction. */
+        VULNERABILITY,
+        /** Mischief or raid triggered by territory friction. */
+        FRICTION
+    }
+
+    /** Driver hooks. All methods are optional. */
+    public interface Listener {
+        /**
+         * An op was started (already passed to the op runner).
+         * @param subfactionId subfaction credited with the op: the evaluating one, or the initiator
+         */
+        default void opStarted(int tick, String subfactionId, IntrigueOp op, String label, OpSource source) {}
+
+        /** Op evaluation found nothing for a subfaction; {@code ctx} is the tick's evaluation context. */
+        default void nothingToDo(int tick, IntrigueSubfaction subfaction, EvaluationContext ctx) {}
+
+        /** Territory cohesion decayed for an established subfaction. */
+        default void territoryDecayed(int tick, IntrigueTerritory territory, String subfactionId,
+                                      int before, int after) {}
+
+        /** Directed friction was added between an established pair (a→b and b→a). */
+        default void frictionAccumulated(int tick, IntrigueTerritory territory, String a, String b,
+                                         int netAB, int netBA) {}
+    }
+
+    private static final Listener NO_LISTENER = new Listener() {};
+
+    /** One named step of a tick. */
+    public static final class Stage {
+        /** Stage logic. Returns the number of entities it touched, for the profile. */
+        public interface Body {
+            int run(int tick, Listener listener);
+        }
+
+        /**
+         * Resumable stage logic: the tick's work for this stage as a {@link Cursor}. What
+         * the stage walks (subfactions, territories) is taken when the cursor is begun.
+         */
+        public interface Slices {
+            Cursor begin(int tick, Listener listener);
+        }
+
+        /** Remaining work of one stage run. */
+        public interface Cursor {
+            boolean hasNext();
+
+            /** Run the next unit of work. */
+            void next();
+
+            /** Entities touched so far, for the profile. */
+            int touched();
+
+            /**
+             * A {@link SlicedTick} is picking this cursor up again in a new slice, usually a
+             * later frame. Drop anything memoized from state that may have changed since.
+             */
+            default void resume() {}
+        }
+
+        /** Cursor with no work left. */
+        public static final Cursor DONE = new Cursor() {
+            @Override public boolean hasNext() { return false; }
+            @Override public void next() { throw new NoSuchElementException(); }
+            @Override public int touched() { return 0; }
+        };
+
+        private final String name;
+        private final Body body;
+        private final Slices slices;
+
+        public Stage(String name, Body body) {
+            this(name, body, null);
+        }
+
+        private Stage(String name, Body body, Slices slices) {
+            this.name = name;
+            this.body = body;
+            this.slices = slices;
+        }
+
+        /** Stage whose work a {@link SlicedTick} can spread over several slices. */
+        public static Stage sliced(String name, Slices slices) {
+            return new Stage(name, null, slices);
+        }
+
+        /**
+         * One unit per element of {@code items} (copied now), in iteration order.
+         * {@code unit} returns the entities it touched.
+         */
+        public static <T> Cursor each(Collection<? extends T> items, ToIntFunction<? super T> unit) {
+            List<T> pending = new ArrayList<>(items);
+            return new Cursor() {
+                private int next;
+                private int touched;
+
+                @Override
+                public boolean hasNext() { return next < pending.size(); }
+
+                @Override
+                public void next() {
+                    touched += unit.applyAsInt(pending.get(next++));
+                }
+
+                @Override
+                public int touched() { return touched; }
+            };
+        }
+
+        public String getName() { return name; }
+
+        /** Run the whole stage. */
+        int run(int tick, Listener listener) {
+            if (body != null) return body.run(tick, listener);
+            Cursor cursor = slices.begin(tick, listener);
+            while (cursor.hasNext()) cursor.next();
+            return cursor.touched();
+        }
+
+        /** The stage's work as a cursor; a plain stage is a single unit. */
+        Cursor begin(int tick, Listener listener) {
+            if (slices != null) return slices.begin(tick, listener);
+            return new Cursor() {
+                private boolean done;
+                private int touched;
+
+                @Override
+                public boolean hasNext() { return !done; }
+
+                @Override
+                public void next() {
+                    done = true;
+                    touched = body.run(tick, listener);
+                }
+
+                @Override
+                public int touched() { return touched; }
+            };
+        }
+    }
+
+    /** Accumulated profile of one stage. */
+    public static final class StageStats {
+        public final String name;
+        public long runs;
+        public long nanos;
+        public long touched;
+        /** Bytes allocated by the ticking thread, or -1 if the JVM doesn't report it. */
+        public long allocatedBytes;
+
+        StageStats(String name) {
+            this.name = name;
+        }
+
+        void reset() {
+            runs = 0;
+            nanos = 0;
+            touched = 0;
+            allocatedBytes = allocationTracking() ? 0 : -1;
+        }
+    }
+
+    /** Slicing totals: how a tick's work was spread over slices. */
+    public static final class SliceStats {
+        public long ticks;
+        public long slices;
+        public long units;
+        /** Most slices any one tick took. */
+        public long maxSlicesPerTick;
+        /** Longest slice, as measured on the slicing timer. */
+        public long longestSliceNanos;
+        /** Slices that ran past their budget (the unit that crossed it was already running). */
+        public long overBudget;
+
+        void reset() {
+            ticks = slices = units = maxSlicesPerTick = longestSliceNanos = overBudget = 0;
+        }
+    }
+
+    /** Time source for slice budgets: {@code System::nanoTime} in the game, a fake in tests. */
+    public interface FrameTimer {
+        long nanoTime();
+    }
+
+    private final List<Stage> stages;
+    private final List<StageStats> stats = new ArrayList<>();
+    private final SliceStats sliceStats = new SliceStats();
+    /** Running estimate of one unit's cost per stage, on the slicing timer. */
+    private final long[] unitNanos;
+    private Listener listener = NO_LISTENER;
+    private boolean profiling;
+
+    public IntrigueTickEngine(List<Stage> stages) {
+        this.stages = new ArrayList<>(stages);
+        this.unitNanos = new long[stages.size()];
+        for (Stage s : stages) {
+            StageStats ss = new StageStats(s.name);
+            ss.reset();
+            stats.add(ss);
+        }
+    }
+
+    public IntrigueTickEngine withListener(Listener listener) {
+        this.listener = listener != null ? listener : NO_LISTENER;
+        return this;
+    }
+
+    /** Time, count and measure allocations of every stage run. */
+    public IntrigueTickEngine withProfiling(boolean profiling) {
+        this.profiling = profiling;
+        return this;
+    }
+
+    /** Run every stage, in order, for tick {@code tick}. */
+    public void runTick(int tick) {
+        if (!profiling) {
+            for (Stage s : stages) {
+                s.run(tick, listener);
+            }
+            return;
+        }
+        for (int i = 0; i < stages.size(); i++) {
+            StageStats ss = stats.get(i);
+            long allocStart = allocatedBytes();
+            long start = System.nanoTime();
+            int touched = stages.get(i).run(tick, listener);
+            ss.nanos += System.nanoTime() - start;
+            long allocEnd = allocatedBytes();
+            ss.runs++;
+            ss.touched += touched;
+            if (ss.allocatedBytes >= 0 && allocStart >= 0 && allocEnd >= 0) {
+                ss.allocatedBytes += allocEnd - allocStart;
+            }
+        }
+    }
+
+    /**
+     * Start tick {@code tick} without running any of it; run it with
+     * {@link SlicedTick#runSlice} or {@link SlicedTick#finish}.
+     */
+    public SlicedTick beginTick(int tick) {
+        return new SlicedTick(tick);
+    }
+
+    /**
+     * One tick in progress. Runs the same stages, in the same order, with the same work
+     * as {@link #runTick}, a unit at a time. A unit always runs to the end, so a slice
+     * stops before the next unit when the engine's running estimate of that stage's
+     * unit cost would take it past the budget; keep units small (one subfaction, one
+     * territory).
+     */
+    public final class SlicedTick {
+        private final int tick;
+        private final Listener tickListener = listener;
+        private int stage;
+        private Stage.Cursor cursor;
+        private int slices;
+
+        private SlicedTick(int tick) {
+            this.tick = tick;
+            sliceStats.ticks++;
+        }
+
+        public int getTick() { return tick; }
+
+        public boolean isDone() { return stage >= stages.size(); }
+
+        /** Slices run so far. */
+        public int getSlices() { return slices; }
+
+        /**
+         * Run units until the tick is done or the next unit is expected to overrun
+         * {@code budgetNanos} on {@code timer}. Always runs at least one unit, so every
+         * tick finishes.
+         * @return true once the tick is done
+         */
+        public boolean runSlice(long budgetNanos, FrameTimer timer) {
+            if (cursor != null) cursor.resume();
+            long start = timer.nanoTime();
+            long now = start;
+            int units = 0;
+            while (hasNextUnit()) {
+                long estimate = unitNanos[stage];
+                if (units > 0 && now - start + estimate > budgetNanos) break;
+                runUnit();
+                long after = timer.nanoTime();
+                unitNanos[stage] = estimate == 0 ? after - now : (3 * estimate + after - now) / 4;
+                now = after;
+                units++;
+            }
+            if (units == 0) return true;
+            long spent = now - start;
+            slices++;
+            sliceStats.slices++;
+            sliceStats.units += units;
+            sliceStats.maxSlicesPerTick = Math.max(sliceStats.maxSlicesPerTick, slices);
+            sliceStats.longestSliceNanos = Math.max(sliceStats.longestSliceNanos, spent);
+            if (spent > budgetNanos) sliceStats.overBudget++;
+            return isDone();
+        }
+
+        /** Run whatever is left of the tick now. */
+        public void finish() {
+            while (hasNextUnit()) runUnit();
+        }
+
+        /** Begin stages until one has work left; false once every stage is done. */
+        private boolean hasNextUnit() {
+            while (stage < stages.size()) {
+                if (cursor == null) {
+                    long start = profiling ? System.nanoTime() : 0;
+                    cursor = stages.get(stage).begin(tick, tickListener);
+                    if (profiling) stats.get(stage).nanos += System.nanoTime() - start;
+                }
+                if (cursor.hasNext()) return true;
+                if (profiling) {
+                    StageStats ss = stats.get(stage);
+                    ss.runs++;
+                    ss.touched += cursor.touched();
+                }
+                cursor = null;
+                stage++;
+            }
+            return false;
+        }
+
+        private void runUnit() {
+            if (!profiling) {
+                cursor.next();
+                return;
+            }
+            StageStats ss = stats.get(stage);
+            long allocStart = allocatedBytes();
+            long start = System.nanoTime();
+            cursor.next();
+            ss.nanos += System.nanoTime() - start;
+            long allocEnd = allocatedBytes();
+            if (ss.allocatedBytes >= 0 && allocStart >= 0 && allocEnd >= 0) {
+                ss.allocatedBytes += allocEnd - allocStart;
+            }
+        }
+    }
+
+    /** Per-stage profile in stage order (empty counts unless profiling is on). */
+    public List<StageStats> getStageStats() {
+        return Collections.unmodifiableList(stats);
+    }
+
+    /** Slicing totals of every {@link #beginTick} tick since the last reset. */
+    public SliceStats getSliceStats() {
+        return sliceStats;
+    }
+
+    public void resetStats() {
+        for (StageStats ss : stats) ss.reset();
+        sliceStats.reset();
+    }
+
+    /** Profile as a table: average time, share of the tick, entities and allocation per run. */
+    public static String formatProfile(List<StageStats> stats) {
+        long totalNanos = 0;
+        for (StageStats ss : stats) totalNanos += ss.nanos;
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("  %-22s %8s %12s %6s %12s %12s%n",
+                "Stage", "Runs", "us/run", "%", "touched/run", "B/run"));
+        for (StageStats ss : stats) {
+            double runs = Math.max(1, ss.runs);
+            sb.append(String.format("  %-22s %8d %12.1f %6.1f %12.1f %12s%n",
+                    ss.name, ss.runs, ss.nanos / runs / 1000.0,
+                    totalNanos > 0 ? 100.0 * ss.nanos / totalNanos : 0.0,
+                    ss.touched / runs,
+                    ss.allocatedBytes < 0 ? "n/a" : String.format("%.0f", ss.allocatedBytes / runs)));
+        }
+        return sb.toString();
+    }
+
+    /** Slicing totals as one line, against a per-slice budget of {@code budgetNanos}. */
+    public static String formatSlicing(SliceStats ss, long budgetNanos) {
+        return String.format("  %d ticks in %d slices (max %d per tick, %.1f units per slice),"
+                        + " longest slice %.3f ms of %.3f ms budget, %d over budget%n",
+                ss.ticks, ss.slices, ss.maxSlicesPerTick, ss.units / (double) Math.max(1, ss.slices),
+                ss.longestSliceNanos / 1e6, budgetNanos / 1e6, ss.overBudget);
+    }
+
+    // ── Allocation tracking ─────────────────────────────────────────────
+
+    private static boolean allocationTracking() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        return bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemoryEnabled();
+    }
+
+    /** Bytes allocated so far by the current thread, or -1 if the JVM doesn't report it. */
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+            if (sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled()) {
+                return sunBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    // ── Shared stages ───────────────────────────────────────────────────
+
+    /**
+     * Each subfaction evaluates up to {@code maxOpsPerSubfaction} ops, stopping at the
+     * first null. With {@code chance < 1}, a subfaction only gets to evaluate when
+     * {@code rng} rolls under the chance. All evaluations of a tick share one
+     * {@link EvaluationContext}.
+     */
+    public static Stage evaluateOps(String context, int maxOpsPerSubfaction, float chance, Random rng) {
+        return evaluateOps(context, maxOpsPerSubfaction, chance, rng, 1);
+    }
+
+    /**
+     * {@link #evaluateOps(String, int, float, Random)} through {@link OpEvaluator#evaluateAll},
+     * scoring raid targets on {@code parallelism} threads. Same ops either way.
+     */
+    public static Stage evaluateOps(String context, int maxOpsPerSubfaction, float chance, Random rng,
+                                    int parallelism) {
+        return evaluateOps(context, maxOpsPerSubfaction, chance, rng, parallelism, OpCascade.DEFAULT);
+    }
+
+    /**
+     * {@link #evaluateOps(String, int, float, Random, int)} planning with {@code cascade}.
+     * Sliced one subfaction per unit; the chance rolls all happen when the stage begins.
+     * A pass resumed in a later slice drops what it memoized, so it plans from the state
+     * of that frame.
+     */
+    public static Stage evaluateOps(String context, int maxOpsPerSubfaction, float chance, Random rng,
+                                    int parallelism, OpCascade cascade) {
+        return Stage.sliced("evaluateOps", (tick, listener) -> {
+            CachedFactionHostilityChecker hostility = passHostility();
+            return withHostility(hostility, () -> beginEvaluation(tick, listener, hostility, context,
+                    maxOpsPerSubfaction, chance, rng, parallelism, cascade));
+        });
+    }
+
+    /** Begin one evaluation pass, with {@code hostility} (if any) bound by the caller. */
+    private static Stage.Cursor beginEvaluation(int tick, Listener listener, CachedFactionHostilityChecker hostility,
+                                                String context, int maxOpsPerSubfaction, float chance, Random rng,
+                                                int parallelism, OpCascade cascade) {
+        IntrigueOpRunner ops = IntrigueServices.ops();
+        EvaluationContext ctx = new EvaluationContext(ops).withCascade(cascade);
+        List<IntrigueSubfaction> rolled = new ArrayList<>();
+        for (IntrigueSubfaction sf : IntrigueServices.subfactions().getAll()) {
+            if (chance < 1f && rng.nextFloat() > chance) continue;
+            rolled.add(sf);
+        }
+        OpEvaluator.Batch batch = OpEvaluator.beginAll(rolled, ctx, context, maxOpsPerSubfaction, parallelism,
+                new OpEvaluator.BatchSink() {
+                    @Override
+                    public void opChosen(IntrigueSubfaction sf, IntrigueOp op) {
+                        ops.startOp(op);
+                        listener.opStarted(tick, sf.getSubfactionId(), op, op.getOpTypeName(), OpSource.EVALUATION);
+                    }
+
+                    @Override
+                    public void idle(IntrigueSubfaction sf) {
+                        listener.nothingToDo(tick, sf, ctx);
+                    }
+                });
+        return new Stage.Cursor() {
+            @Override public boolean hasNext() { return batch.hasNext(); }
+            @Override public void next() { withHostility(hostility, () -> { batch.next(); return null; }); }
+            @Override public int touched() { return batch.size(); }
+            @Override
+            public void resume() {
+                // Ops resolved and relations may have changed since the last slice
+                ctx.invalidate();
+                if (hostility != null) hostility.invalidate();
+            }
+        };
+    }
+
+    /** Free raids from every hostile subfaction against zero-legitimacy targets. */
+    public static Stage vulnerabilityRaids(String context) {
+        return new Stage("vulnerabilityRaids", (tick, listener) -> {
+            IntrigueOpRunner ops = IntrigueServices.ops();
+            List<IntrigueOp> raids = withHostility(passHostility(),
+                    () -> OpEvaluator.evaluateVulnerabilityRaids(ops, context));
+            for (IntrigueOp op : raids) {
+                ops.startOp(op);
+                listener.opStarted(tick, op.getInitiatorSubfactionId(), op, op.getOpTypeName() + " (free)",
+                        OpSource.VULNERABILITY);
+            }
+            return raids.size();
+        });
+    }
+
+    /** Mischief (same faction) or raids (hostile) from pairs whose friction crossed the threshold. */
+    public static Stage frictionOps(String context, int frictionThreshold) {
+        return new Stage("frictionOps", (tick, listener) -> {
+            IntrigueOpRunner ops = IntrigueServices.ops();
+            List<IntrigueOp> frictionOps = withHostility(passHostility(),
+                    () -> OpEvaluator.evaluateMischiefOps(ops, context, frictionThreshold));
+            for (IntrigueOp op : frictionOps) {
+                ops.startOp(op);
+                String label = "Mischief".equals(op.getOpTypeName())
+                        ? "Mischief" : op.getOpTypeName() + " (friction)";
+                listener.opStarted(tick, op.getInitiatorSubfactionId(), op, label, OpSource.FRICTION);
+            }
+            return frictionOps.size();
+        });
+    }
+
+    /**
+     * Territory cohesion decay for ESTABLISHED-or-higher subfactions (scaled by presence
+     * tier), and the low-cohesion tick counters that drive infighting and expulsion.
+     * Sliced one territory per unit.
+     */
+    public static Stage territoryDecay(IntSupplier decayPerTick, int lowCohesionThreshold) {
+        return Stage.sliced("territoryDecay", (tick, listener) -> {
+            IntrigueTerritoryAccess territories = IntrigueServices.territories();
+            if (territories == null) return Stage.DONE;
+            int decay = decayPerTick.getAsInt();
+            return Stage.each(territories.getAll(), territory -> {
+                int touched = 0;
+                for (String sfId : territory.getActiveSubfactionIds()) {
+                    IntrigueTerritory.Presence presence = territory.getPresence(sfId);
+                    if (!presence.isEstablishedOrHigher()) continue;
+                    touched++;
+                    int before = territory.getCohesion(sfId);
+                    territory.setCohesion(sfId, before - Math.round(decay * presence.decayMultiplier()));
+                    int after = territory.getCohesion(sfId);
+                    listener.territoryDecayed(tick, territory, sfId, before, after);
+                    if (after < lowCohesionThreshold) {
+                        territory.incrementLowCohesionTicks(sfId);
+                    } else {
+                        territory.resetLowCohesionTicks(sfId);
+                    }
+                }
+                return touched;
+            });
+        });
+    }
+
+    /**
+     * Directed friction between every established pair in each territory: a base gain
+     * scaled by crowding and the higher presence tier, plus a threat bonus toward the
+     * stronger side, minus a drain from positive relationships. Sliced one territory per unit.
+     */
+    public static Stage frictionAccumulation(int basePerTick, int relDrainDivisor, int relDrainCap,
+                                             int threatDivisor) {
+        return Stage.sliced("frictionAccumulation", (tick, listener) -> {
+            IntrigueTerritoryAccess territories = IntrigueServices.territories();
+            if (territories == null) return Stage.DONE;
+            IntrigueSubfactionAccess subfactions = IntrigueServices.subfactions();
+            return Stage.each(territories.getAll(), territory -> {
+                int touched = 0;
+                List<String[]> pairs = territory.getEstablishedPairs();
+                int crowdingMult = Math.max(1, territory.getEstablishedCount() - 1);
+                for (String[] pair : pairs) {
+                    IntrigueSubfaction sfA = subfactions.getById(pair[0]);
+                    IntrigueSubfaction sfB = subfactions.getById(pair[1]);
+                    if (sfA == null || sfB == null) continue;
+                    touched++;
+
+                    // Scale friction by the higher presence tier in the pair
+                    float presMult = Math.max(territory.getPresence(pair[0]).frictionMultiplier(),
+                            territory.getPresence(pair[1]).frictionMultiplier());
+                    int baseGain = Math.round(basePerTick * crowdingMult * presMult);
+                    int cohA = territory.getCohesion(pair[0]);
+                    int cohB = territory.getCohesion(pair[1]);
+
+                    // A→B: B dominating gives A extra friction toward B
+                    int netAB = Math.max(0, baseGain + threat(cohB - cohA, threatDivisor)
+                            - relDrain(sfA.getRelTo(pair[1]), relDrainDivisor, relDrainCap));
+                    territory.setFriction(pair[0], pair[1], territory.getFriction(pair[0], pair[1]) + netAB);
+
+                    // B→A: A dominating gives B extra friction toward A
+                    int netBA = Math.max(0, baseGain + threat(cohA - cohB, threatDivisor)
+                            - relDrain(sfB.getRelTo(pair[0]), relDrainDivisor, relDrainCap));
+                    territory.setFriction(pair[1], pair[0], territory.getFriction(pair[1], pair[0]) + netBA);
+
+                    listener.frictionAccumulated(tick, territory, pair[0], pair[1], netAB, netBA);
+                }
+                return touched;
+            });
+        });
+    }
+
+    private static int threat(int cohesionGap, int divisor) {
+        return divisor > 0 ? Math.max(0, cohesionGap / divisor) : 0;
+    }
+
+    private static int relDrain(Integer rel, int divisor, int cap) {
+        int r = rel != null ? rel : 0;
+        return (r > 0 && divisor > 0) ? Math.min(r / divisor, cap) : 0;
+    }
+
+    /**
+     * Each active op beyond a subfaction's first drains {@code drainPerExtraOp} cohesion,
+     * one point at a time, from home or a random established territory. Sliced one
+     * subfaction per unit.
+     * @param rngForTick drain RNG for a tick, so drivers control reproducibility
+     */
+    public static Stage concurrentOpDrain(int drainPerExtraOp, IntFunction<Random> rngForTick) {
+        return Stage.sliced("concurrentOpDrain", (tick, listener) -> {
+            IntrigueOpRunner ops = IntrigueServices.ops();
+            IntrigueTerritoryAccess territories = IntrigueServices.territories();
+            Random rng = rngForTick.apply(tick);
+            return Stage.each(IntrigueServices.subfactions().getAll(), sf -> {
+                String leaderId = sf.getLeaderId();
+                if (leaderId == null) return 0;
+                int extraOps = ops.getActiveOpCount(leaderId) - 1;
+                if (extraOps <= 0) return 0;
+
+                // Drain targets: home (null) + established territories
+                List<IntrigueTerritory> targets = new ArrayList<>();
+                targets.add(null);
+                if (territories != null) {
+                    targets.addAll(territories.getEstablishedTerritoriesForSubfaction(sf.getSubfactionId()));
+                }
+                int drain = extraOps * drainPerExtraOp;
+                for (int d = 0; d < drain; d++) {
+                    IntrigueTerritory target = targets.get(rng.nextInt(targets.size()));
+                    if (target == null) {
+                        sf.setHomeCohesion(sf.getHomeCohesion() - 1);
+                    } else {
+                        target.setCohesion(sf.getSubfactionId(), target.getCohesion(sf.getSubfactionId()) - 1);
+                    }
+                }
+                return 1;
+            });
+        });
+    }
+
+    // ── Pass-scoped hostility ───────────────────────────────────────────
+
+    /**
+     * Fresh memo over the sector's hostility checker for one evaluation pass, or null if
+     * the sector's checker already memoizes (the sim, whose relations are pinned). The
+     * memo is only bound while the pass runs, so ops and phases always ask the live
+     * checker, and a sliced pass drops it whenever it resumes in a later frame.
+     */
+    private static CachedFactionHostilityChecker passHostility() {
+        FactionHostilityChecker hostility = IntrigueServices.hostility();
+        return hostility instanceof CachedFactionHostilityChecker ? null : new CachedFactionHostilityChecker(hostility);
+    }
+
+    /** Run {@code body} with {@code memo} (if any) as the sector's hostility checker. */
+    private static <T> T withHostility(CachedFactionHostilityChecker memo, Supplier<T> body) {
+        if (memo == null) return body.get();
+        return IntrigueServices.callWith(IntrigueServices.current().withHostility(memo), body);
+    }
+
+    /** Low home cohesion tick counter that drives civil war. Sliced one subfaction per unit. */
+    public static Stage civilWarTracking(int lowHomeCohesionThreshold) {
+        return Stage.sliced("civilWarTracking", (tick, listener) ->
+                Stage.each(IntrigueServices.subfactions().getAll(), sf -> {
+                    if (sf.getHomeCohesion() < lowHomeCohesionThreshold) {
+                        sf.incrementLowHomeCohesionTicks();
+                    } else {
+                        sf.resetLowHomeCohesionTicks();
+                    }
+                    return 1;
+                }));
+    }
+}
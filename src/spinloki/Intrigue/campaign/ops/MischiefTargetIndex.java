@@ -0,0 +1,62 @@
+package spinloki.Intrigue.campaign.ops;
+
+import java.util.*;
+
+/**
+ * Active ops that mischief can sabotage ({@link IntrigueOp#canBeTargetedByMischief}),
+ * grouped by initiating subfaction in start order. Op runners keep one current from
+ * {@code startOp} and their resolved-op cleanup, so the mischief evaluator looks up a
+ * victim's ops directly instead of scanning every active op.
+ *
+ * Not saved: runners hold it in a transient field and rebuild it from their active-op
+ * list on first use after loading. Not thread-safe.
+ */
+public final class MischiefTargetIndex {
+
+    /** sfId → targetable ops initiated by that subfaction, in start order. */
+    private final Map<String, List<IntrigueOp>> bySubfaction = new HashMap<>();
+
+    /** Index {@code activeOps}, in list order. */
+    public static MischiefTargetIndex build(Collection<IntrigueOp> activeOps) {
+        MischiefTargetIndex index = new MischiefTargetIndex();
+        for (IntrigueOp op : activeOps) index.opStarted(op);
+        return index;
+    }
+
+    /** Record an op appended to the runner's active list. */
+    public void opStarted(IntrigueOp op) {
+        String sfId = op.getInitiatorSubfactionId();
+        if (sfId == null || !op.canBeTargetedByMischief()) return;
+        bySubfaction.computeIfAbsent(sfId, k -> new ArrayList<>(2)).add(op);
+    }
+
+    /** Drop an op the runner removed from its active list. */
+    public void opRemoved(IntrigueOp op) {
+        String sfId = op.getInitiatorSubfactionId();
+        List<IntrigueOp> ops = sfId != null ? bySubfaction.get(sfId) : null;
+        if (ops == null) return;
+        ops.remove(op);
+        if (ops.isEmpty()) bySubfaction.remove(sfId);
+    }
+
+    /** Unresolved targetable ops of {@code subfactionId}, in start order. */
+    public List<IntrigueOp> getTargets(String subfactionId) {
+        return getTargets(subfactionId, null);
+    }
+
+    /**
+     * Unresolved targetable ops of {@code subfactionId} running in {@code territoryId}
+     * (any territory if null), in start order.
+     */
+    public List<IntrigueOp> getTargets(String subfactionId, String territoryId) {
+        List<IntrigueOp> ops = subfactionId != null ? bySubfaction.get(subfactionId) : null;
+        if (ops == null) return Collections.emptyList();
+        List<IntrigueOp> result = new ArrayList<>(ops.size());
+        for (IntrigueOp op : ops) {
+            if (op.isResolved() || !op.canBeTargetedByMischief()) continue;
+            if (territoryId != null && !territoryId.equals(op.getTerritoryId())) continue;
+            result.add(op);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,337 @@
+package spinloki.Intrigue.campaign.ops;
+
+import spinloki.Intrigue.campaign.IntriguePerson;
+import spinloki.Intrigue.campaign.IntrigueSubfaction;
+import spinloki.Intrigue.campaign.IntrigueTerritory;
+import spinloki.Intrigue.campaign.spi.IntrigueServices;
+import spinloki.Intrigue.campaign.spi.IntrigueTerritoryAccess;
+
+/**
+ * The op priority ladder as a rule table, compiled once from {@link Thresholds} into
+ * flat arrays and run by {@link OpEvaluator#plan} once a subfaction passes the
+ * availability checks.
+ *
+ * Each row names a stage, an action and a guard (a feature with a [lo, hi) range).
+ * Rows run in order: a row whose guard fails or whose action finds nothing falls
+ * through to the next; a STOP row whose guard holds ends the ladder with nothing to do.
+ * The default table, top to bottom:
+ * <ol>
+ *   <li>dysfunction (civil war, expulsion, infighting)</li>
+ *   <li>patrol while legitimacy &lt; critical</li>
+ *   <li>supplies while the neediest territory &lt; urgent-supply cohesion</li>
+ *   <li>rally while home cohesion &lt; rally threshold</li>
+ *   <li>stop while home cohesion &lt; minimum</li>
+ *   <li>presence building (upgrade, scout, establish, assault)</li>
+ *   <li>supplies while the neediest territory &lt; routine-supply cohesion</li>
+ *   <li>patrol while critical &le; legitimacy &lt; low</li>
+ *   <li>stop while legitimacy &ge; high</li>
+ *   <li>patrol while legitimacy &ge; low</li>
+ *   <li>raid</li>
+ * </ol>
+ *
+ * Guards read precomputed features: the territory-derived ones (dysfunction site,
+ * neediest territory, first patrol territory, upgrade candidate) come from one walk over
+ * the subfaction's established territories into a scratch held by the
+ * {@link EvaluationContext}, so running the table allocates nothing beyond the
+ * returned {@link OpPlan}. Only presence expansion, which looks at territories the
+ * subfaction doesn't hold, walks the sector, and only when its row is reached.
+ *
+ * Immutable once compiled; share one per sector.
+ */
+public final class OpCascade {
+
+    /** Tunable thresholds; defaults are {@link OpEvaluator}'s constants. */
+    public static final class Thresholds {
+        /** Legitimacy below which patrol beats everything but dysfunction. */
+        public int criticalLegitimacy = OpEvaluator.CRITICAL_LEGITIMACY_THRESHOLD;
+        /** Legitimacy below which patrol comes before raids. */
+        public int lowLegitimacy = OpEvaluator.LOW_LEGITIMACY_THRESHOLD;
+        /** Legitimacy at or above which patrols and raids are skipped. */
+        public int highLegitimacy = OpEvaluator.HIGH_LEGITIMACY_THRESHOLD;
+        /** Home cohesion below which a rally is launched. */
+        public int rallyCohesion = OpEvaluator.RALLY_COHESION_THRESHOLD;
+        /** Home cohesion below which nothing past rally runs (half of it for homeless criminals). */
+        public int minHomeCohesion = OpEvaluator.MIN_COHESION_THRESHOLD;
+        /** Territory cohesion below which supplies are urgent. */
+        public int urgentSupplyCohesion = OpEvaluator.INFIGHTING_COHESION_THRESHOLD;
+        /** Territory cohesion below which routine supplies are sent. */
+        public int routineSupplyCohesion = 50;
+        /** Territory cohesion below which, held for {@link #expulsionTicks}, expulsion fires. */
+        public int expulsionCohesion = OpEvaluator.EXPULSION_COHESION_THRESHOLD;
+        public int expulsionTicks = OpEvaluator.EXPULSION_TICKS_REQUIRED;
+        /** Low-home-cohesion ticks after which civil war fires. */
+        public int civilWarTicks = OpEvaluator.CIVIL_WAR_TICKS_REQUIRED;
+        /** Territory cohesion to upgrade ESTABLISHED → FORTIFIED. */
+        public int fortifyCohesion = OpEvaluator.FORTIFY_COHESION_THRESHOLD;
+        /** Territory cohesion to upgrade FORTIFIED → DOMINANT. */
+        public int dominateCohesion = OpEvaluator.DOMINATE_COHESION_THRESHOLD;
+
+        public static Thresholds defaults() {
+            return new Thresholds();
+        }
+    }
+
+    /** What a row does when its guard holds. */
+    enum Action { DYSFUNCTION, PATROL, SUPPLIES, RALLY, PRESENCE, RAID, STOP }
+
+    /** Feature a row's guard tests. */
+    enum Feature { ALWAYS, LEGITIMACY, HOME_COHESION, NEEDIEST_COHESION }
+
+    /** Cascade built from {@link Thresholds#defaults()}. */
+    public static final OpCascade DEFAULT = compile(Thresholds.defaults());
+
+    private final Thresholds thresholds;
+    private final OpPlan.Stage[] stage;
+    private final Action[] action;
+    private final Feature[] feature;
+    private final int[] lo;
+    private final int[] hi;
+    private int rows;
+
+    private OpCascade(Thresholds thresholds, int capacity) {
+        this.thresholds = thresholds;
+        this.stage = new OpPlan.Stage[capacity];
+        this.action = new Action[capacity];
+        this.feature = new Feature[capacity];
+        this.lo = new int[capacity];
+        this.hi = new int[capacity];
+    }
+
+    /** Compile the rule table for {@code t}. The thresholds are copied; later edits don't affect it. */
+    public static OpCascade compile(Thresholds t) {
+        Thresholds copy = copy(t);
+        OpCascade c = new OpCascade(copy, 11);
+        int min = Integer.MIN_VALUE, max = Integer.MAX_VALUE;
+        c.row(OpPlan.Stage.DYSFUNCTION,     Action.DYSFUNCTION, Feature.ALWAYS, min, max);
+        c.row(OpPlan.Stage.CRITICAL_PATROL, Action.PATROL,      Feature.LEGITIMACY, min, copy.criticalLegitimacy);
+        c.row(OpPlan.Stage.URGENT_SUPPLIES, Action.SUPPLIES,    Feature.NEEDIEST_COHESION, min, copy.urgentSupplyCohesion);
+        c.row(OpPlan.Stage.RALLY,           Action.RALLY,       Feature.HOME_COHESION, min, copy.rallyCohesion);
+        c.row(OpPlan.Stage.MIN_COHESION,    Action.STOP,        Feature.HOME_COHESION, min, copy.minHomeCohesion);
+        c.row(OpPlan.Stage.PRESENCE,        Action.PRESENCE,    Feature.ALWAYS, min, max);
+        c.row(OpPlan.Stage.SUPPLIES,        Action.SUPPLIES,    Feature.NEEDIEST_COHESION, min, copy.routineSupplyCohesion);
+        c.row(OpPlan.Stage.LOW_PATROL,      Action.PATROL,      Feature.LEGITIMACY, copy.criticalLegitimacy, copy.lowLegitimacy);
+        c.row(OpPlan.Stage.EXHAUSTED,       Action.STOP,        Feature.LEGITIMACY, copy.highLegitimacy, max);
+        c.row(OpPlan.Stage.PATROL,          Action.PATROL,      Feature.LEGITIMACY,
+                Math.max(copy.criticalLegitimacy, copy.lowLegitimacy), max);
+        c.row(OpPlan.Stage.RAID,            Action.RAID,        Feature.ALWAYS, min, max);
+        return c;
+    }
+
+    private void row(OpPlan.Stage s, Action a, Feature f, int low, int high) {
+        stage[rows] = s;
+        action[rows] = a;
+        feature[rows] = f;
+        lo[rows] = low;
+        hi[rows] = high;
+        rows++;
+    }
+
+    /** Copy of the thresholds this cascade was compiled from. */
+    public Thresholds getThresholds() { return copy(thresholds); }
+
+    int minHomeCohesion() { return thresholds.minHomeCohesion; }
+
+    private static Thresholds copy(Thresholds t) {
+        Thresholds c = new Thresholds();
+        c.criticalLegitimacy = t.criticalLegitimacy;
+        c.lowLegitimacy = t.lowLegitimacy;
+        c.highLegitimacy = t.highLegitimacy;
+        c.rallyCohesion = t.rallyCohesion;
+        c.minHomeCohesion = t.minHomeCohesion;
+        c.urgentSupplyCohesion = t.urgentSupplyCohesion;
+        c.routineSupplyCohesion = t.routineSupplyCohesion;
+        c.expulsionCohesion = t.expulsionCohesion;
+        c.expulsionTicks = t.expulsionTicks;
+        c.civilWarTicks = t.civilWarTicks;
+        c.fortifyCohesion = t.fortifyCohesion;
+        c.dominateCohesion = t.dominateCohesion;
+        return c;
+    }
+
+    // ── Running ─────────────────────────────────────────────────────────
+
+    /** Per-subfaction inputs to the guards; one reusable instance per {@link EvaluationContext}. */
+    static final class Features {
+        int legitimacy;
+        int homeCohesion;
+        /** First territory where expulsion or infighting fires, and which. */
+        IntrigueTerritory dysfunctionSite;
+        OpPlan.Kind dysfunctionKind;
+        /** Lowest-cohesion interested territory (first on ties) and its cohesion. */
+        IntrigueTerritory neediest;
+        int neediestCohesion;
+        /** First interested established territory. */
+        IntrigueTerritory patrolSite;
+        /** First territory ready to upgrade presence. */
+        IntrigueTerritory upgradeSite;
+
+        void clear() {
+            dysfunctionSite = null;
+            dysfunctionKind = null;
+            neediest = null;
+            neediestCohesion = Integer.MAX_VALUE;
+            patrolSite = null;
+            upgradeSite = null;
+        }
+    }
+
+    /** Run the table for a subfaction that passed the availability checks. */
+    OpPlan run(IntrigueSubfaction subfaction, IntriguePerson leader, EvaluationContext ctx) {
+        Features f = ctx.features();
+        collect(subfaction, f);
+        for (int r = 0; r < rows; r++) {
+            int value;
+            switch (feature[r]) {
+                case LEGITIMACY:        value = f.legitimacy; break;
+                case HOME_COHESION:     value = f.homeCohesion; break;
+                case NEEDIEST_COHESION: value = f.neediestCohesion; break;
+                default:                value = 0; break;
+            }
+            if (feature[r] != Feature.ALWAYS && (value < lo[r] || value >= hi[r])) continue;
+
+            OpPlan plan = act(r, subfaction, leader, ctx, f);
+            if (plan != null) return plan;
+        }
+        return OpPlan.blocked(subfaction, OpPlan.Stage.EXHAUSTED, OpPlan.Reason.NO_OPS);
+    }
+
+    private OpPlan act(int r, IntrigueSubfaction sf, IntriguePerson leader, EvaluationContext ctx, Features f) {
+        OpPlan.Stage s = stage[r];
+        switch (action[r]) {
+            case DYSFUNCTION:
+                // Don't stack dysfunction ops on top of each other (intentionally binary, not capacity-based)
+                if (sf.getLeaderId() != null && ctx.hasActiveOp(sf.getLeaderId())) return null;
+                if (sf.getLowHomeCohesionTicks() >= thresholds.civilWarTicks) {
+                    return OpPlan.ready(sf, s, OpPlan.Kind.CIVIL_WAR, null);
+                }
+                return f.dysfunctionSite != null
+                        ? OpPlan.ready(sf, s, f.dysfunctionKind, f.dysfunctionSite.getTerritoryId()) : null;
+            case PATROL:
+                return f.patrolSite != null
+                        ? OpPlan.ready(sf, s, OpPlan.Kind.PATROL, f.patrolSite.getTerritoryId(), hi[r]) : null;
+            case SUPPLIES:
+                // The guard already checked the neediest territory's cohesion
+                return f.neediest != null
+                        ? OpPlan.ready(sf, s, OpPlan.Kind.SEND_SUPPLIES, f.neediest.getTerritoryId(), hi[r]) : null;
+            case RALLY:
+                return OpPlan.ready(sf, s, OpPlan.Kind.RALLY, null, hi[r]);
+            case PRESENCE:
+                if (f.upgradeSite != null) {
+                    return OpPlan.ready(sf, s, OpPlan.Kind.UPGRADE_PRESENCE, f.upgradeSite.getTerritoryId());
+                }
+                return expand(sf, s);
+            case RAID:
+                return OpEvaluator.planRaid(sf, leader, ctx);
+            case STOP:
+                return s == OpPlan.Stage.MIN_COHESION
+                        ? OpPlan.blocked(sf, s, OpPlan.Reason.WEAK_HOME, f.homeCohesion, hi[r], 0)
+                        : OpPlan.blocked(sf, s, OpPlan.Reason.HIGH_LEGITIMACY, f.legitimacy, lo[r], 0);
+            default:
+                return null;
+        }
+    }
+
+    /** One walk over the subfaction's established territories fills every territory feature. */
+    private void collect(IntrigueSubfaction sf, Features f) {
+        f.clear();
+        f.legitimacy = sf.getLegitimacy();
+        f.homeCohesion = sf.getHomeCohesion();
+        IntrigueTerritoryAccess territories = IntrigueServices.territories();
+        if (territories == null) return;
+
+        String factionId = sf.getFactionId();
+        String sfId = sf.getSubfactionId();
+        for (IntrigueTerritory t : territories.getEstablishedTerritoriesForSubfaction(sfId)) {
+            if (!t.isFactionInterested(factionId)) continue;
+            int coh = t.getCohesion(sfId);
+
+            if (f.dysfunctionSite == null) {
+                int lowTicks = t.getLowCohesionTicks(sfId);
+                // Expulsion: cohesion critically low AND sustained for too many ticks
+                if (coh < thresholds.expulsionCohesion && lowTicks >= thresholds.expulsionTicks) {
+                    f.dysfunctionSite = t;
+                    f.dysfunctionKind = OpPlan.Kind.EXPULSION;
+                } else if (lowTicks == 1) {
+                    // Infighting: fires exactly once - on the first tick the counter increments
+                    f.dysfunctionSite = t;
+                    f.dysfunctionKind = OpPlan.Kind.INFIGHTING;
+                }
+            }
+            if (f.patrolSite == null) f.patrolSite = t;
+            if (coh < f.neediestCohesion) {
+                f.neediestCohesion = coh;
+                f.neediest = t;
+            }
+            if (f.upgradeSite == null) {
+                IntrigueTerritory.Presence presence = t.getPresence(sfId);
+                if ((presence == IntrigueTerritory.Presence.ESTABLISHED && coh >= thresholds.fortifyCohesion)
+                        || (presence == IntrigueTerritory.Presence.FORTIFIED && coh >= thresholds.dominateCohesion)) {
+                    f.upgradeSite = t;
+                }
+            }
+        }
+    }
+
+    /** Expand into new territories (scout, establish, assault), first match in registry order. */
+    private static OpPlan expand(IntrigueSubfaction sf, OpPlan.Stage s) {
+        IntrigueTerritoryAccess territories = IntrigueServices.territories();
+        if (territories == null) return null;
+
+        String factionId = sf.getFactionId();
+        String sfId = sf.getSubfactionId();
+        for (IntrigueTerritory territory : territories.getAll()) {
+            if (!territory.isFactionInterested(factionId)) continue;
+
+            IntrigueTerritory.Presence presence = territory.getPresence(sfId);
+            if (presence == IntrigueTerritory.Presence.NONE) {
+                return OpPlan.ready(sf, s, OpPlan.Kind.SCOUT_TERRITORY, territory.getTerritoryId());
+            }
+
+            if (presence == IntrigueTerritory.Presence.SCOUTING) {
+                // Check if there are free base slots
+                if (!territory.getFreeSlots().isEmpty()) {
+                    return OpPlan.ready(sf, s, OpPlan.Kind.ESTABLISH_TERRITORY_BASE, territory.getTerritoryId());
+                }
+
+                // No free slots — try to assault the weakest hostile occupant
+                IntrigueSubfaction assaultTarget = findWeakestHostileOccupant(sf, territory);
+                if (assaultTarget != null) {
+                    return OpPlan.ready(sf, s, OpPlan.Kind.ASSAULT_TERRITORY_BASE,
+                            territory.getTerritoryId(), assaultTarget, 0f);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Find the ESTABLISHED subfaction in the territory (from a hostile faction)
+     * with the lowest territory cohesion, suitable as an assault target.
+     * Returns null if no valid target exists.
+     */
+    private static IntrigueSubfaction findWeakestHostileOccupant(
+            IntrigueSubfaction attacker, IntrigueTerritory territory) {
+        IntrigueSubfaction weakest = null;
+        int lowestCohesion = Integer.MAX_VALUE;
+
+        for (String sfId : territory.getActiveSubfactionIds()) {
+            if (!territory.getPresence(sfId).isEstablishedOrHigher()) continue;
+
+            IntrigueSubfaction candidate = IntrigueServices.subfactions().getById(sfId);
+            if (candidate == null) continue;
+
+            // Must be from a different faction that is hostile
+            if (candidate.getFactionId().equals(attacker.getFactionId())) continue;
+            if (!IntrigueServices.hostility().areHostile(
+                    attacker.getFactionId(), candidate.getFactionId())) continue;
+
+            int coh = territory.getCohesion(sfId);
+            if (coh < lowestCohesion) {
+                lowestCohesion = coh;
+                weakest = candidate;
+            }
+        }
+
+        return weakest;
+    }
+}
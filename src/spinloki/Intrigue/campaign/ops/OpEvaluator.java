@@ -5,12 +5,16 @@ import spinloki.Intrigue.campaign.IntriguePerson;
 import spinloki.Intrigue.campaign.IntrigueSubfaction;
 import spinloki.Intrigue.campaign.IntrigueSubfaction.SubfactionType;
 import spinloki.Intrigue.campaign.IntrigueTerritory;
+import spinloki.Intrigue.campaign.spi.FactionHostilityChecker;
+import spinloki.Intrigue.campaign.spi.IntrigueContext;
 import spinloki.Intrigue.campaign.spi.IntrigueOpRunner;
 import spinloki.Intrigue.campaign.spi.IntrigueServices;
+import spinloki.Intrigue.campaign.spi.IntrigueSubfactionAccess;
 import spinloki.Intrigue.campaign.spi.IntrigueTerritoryAccess;
 import spinloki.Intrigue.campaign.spi.WarAwareness;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Stateless evaluator that decides whether a subfaction should launch an
@@ -55,24 +59,21 @@ public final class OpEvaluator {
      */
     public static final float THREAT_WEIGHT = 0.25f;
 
+    /** Minimum raid score for a subfaction to actually launch a raid. */
+    public static final float RAID_SCORE_THRESHOLD = 10f;
+
     /** Hard cap on concurrent ops per subfaction. */
     public static final int MAX_CONCURRENT_OPS = 3;
 
+    /** Raid targets per subfaction that {@link #evaluateAll} scores ahead in parallel. */
+    static final int RAID_SHORTLIST_SIZE = 4;
+
     /**
      * Compute a subfaction's total cohesion pool: home cohesion plus
      * cohesion from all ESTABLISHED territories.
      */
     public static int computeTotalCohesion(IntrigueSubfaction subfaction) {
-        int total = subfaction.getHomeCohesion();
-        IntrigueTerritoryAccess territories = IntrigueServices.territories();
-        if (territories != null) {
-            for (IntrigueTerritory t : territories.getAll()) {
-                if (t.getPresence(subfaction.getSubfactionId()).isEstablishedOrHigher()) {
-                    total += t.getCohesion(subfaction.getSubfactionId());
-                }
-            }
-        }
-        return total;
+        return subfaction.getHomeCohesion() + EvaluationContext.sumTerritoryCohesion(subfaction.getSubfactionId());
     }
 
     /**
@@ -80,7 +81,10 @@ public final class OpEvaluator {
      * Always at least 1 (the base slot). Each extra slot costs EXTRA_OP_COHESION_COST total cohesion.
      */
     public static int maxConcurrentOps(IntrigueSubfaction subfaction) {
-        int totalCohesion = computeTotalCohesion(subfaction);
+        return capacityFor(computeTotalCohesion(subfaction));
+    }
+
+    static int capacityFor(int totalCohesion) {
         int slots = 1 + totalCohesion / EXTRA_OP_COHESION_COST;
         return Math.min(slots, MAX_CONCURRENT_OPS);
     }
@@ -96,253 +100,313 @@ public final class OpEvaluator {
     public static IntrigueOp evaluate(IntrigueSubfaction subfaction,
                                        IntrigueOpRunner opsRunner,
                                        String opIdPrefix) {
+        return evaluate(subfaction, new EvaluationContext(opsRunner), opIdPrefix);
+    }
+
+    /**
+     * {@link #evaluate(IntrigueSubfaction, IntrigueOpRunner, String)} with cohesion, capacity
+     * and active-op counts taken from {@code ctx}, shared across a tick's evaluations.
+     * Report ops you start to {@link EvaluationContext#opStarted}.
+     *
+     * Runs {@link #plan} and builds the op from a ready plan; the plan stays in
+     * {@code ctx} for {@link #diagnose}.
+     */
+    public static IntrigueOp evaluate(IntrigueSubfaction subfaction,
+                                       EvaluationContext ctx,
+                                       String opIdPrefix) {
         if (subfaction == null) return null;
+        OpPlan plan = plan(subfaction, ctx);
+        ctx.setLastPlan(plan);
+        return plan.isReady() ? plan.build(ctx.getOps(), opIdPrefix) : null;
+    }
+
+    /**
+     * Dry run of {@link #evaluate}: walk the priority cascade and return what it decided,
+     * without building an op or consuming an op id.
+     */
+    public static OpPlan plan(IntrigueSubfaction subfaction, EvaluationContext ctx) {
+        if (subfaction == null) return OpPlan.blocked(null, OpPlan.Stage.GATE, OpPlan.Reason.NULL_SUBFACTION);
 
         // Homeless CRIMINAL subfactions can establish a base instead of raiding
         if (!subfaction.hasHomeMarket()) {
             if (subfaction.getType() == SubfactionType.CRIMINAL) {
-                return evaluateEstablishBase(subfaction, opsRunner, opIdPrefix);
+                return planEstablishBase(subfaction, ctx);
             }
             // Political subfactions are dormant without a base
-            return null;
+            return OpPlan.blocked(subfaction, OpPlan.Stage.GATE, OpPlan.Reason.DORMANT);
         }
 
         // Need a leader to execute the op
         String leaderId = subfaction.getLeaderId();
-        if (leaderId == null) return null;
+        if (leaderId == null) return OpPlan.blocked(subfaction, OpPlan.Stage.GATE, OpPlan.Reason.NO_LEADER);
 
         IntriguePerson leader = IntrigueServices.people().getById(leaderId);
-        if (leader == null) return null;
+        if (leader == null) return OpPlan.blocked(subfaction, OpPlan.Stage.GATE, OpPlan.Reason.LEADER_NOT_FOUND);
 
         // Leader must be available
-        if (leader.isCheckedOut()) return null;
-        int activeOps = opsRunner.getActiveOpCount(leaderId);
-        int maxOps = maxConcurrentOps(subfaction);
-        if (activeOps >= maxOps) return null;
-
-        // Cooldown on the subfaction
-        if (isOnCooldown(subfaction)) return null;
-
-        // ── Priority 0: dysfunction (infighting, expulsion, civil war) ──
-        // These fire regardless of home cohesion - they ARE the consequence of low cohesion.
-        IntrigueOp dysfunctionOp = evaluateDysfunction(subfaction, opsRunner, opIdPrefix);
-        if (dysfunctionOp != null) return dysfunctionOp;
-
-        // ── Priority 0b: CRITICAL patrol - legitimacy < 30, patrol beats everything else ──
-        // When legitimacy is this low, restoring it is the single most urgent need
-        // (prevents vulnerability raids at 0 legitimacy). Even urgent supplies can wait.
-        boolean criticalLegitimacy = subfaction.getLegitimacy() < CRITICAL_LEGITIMACY_THRESHOLD;
-        if (criticalLegitimacy) {
-            IntrigueOp patrolOp = evaluatePatrol(subfaction, opsRunner, opIdPrefix);
-            if (patrolOp != null) return patrolOp;
+        if (leader.isCheckedOut()) return OpPlan.blocked(subfaction, OpPlan.Stage.GATE, OpPlan.Reason.LEADER_CHECKED_OUT);
+        int activeOps = ctx.activeOps(leaderId);
+        int maxOps = ctx.capacity(subfaction);
+        if (activeOps >= maxOps) {
+            return OpPlan.blocked(subfaction, OpPlan.Stage.GATE, OpPlan.Reason.AT_CAPACITY,
+                    activeOps, maxOps, ctx.totalCohesion(subfaction));
         }
 
+        // Cooldown on the subfaction
+        if (isOnCooldown(subfaction)) return OpPlan.blocked(subfaction, OpPlan.Stage.GATE, OpPlan.Reason.ON_COOLDOWN);
 
-        // ── Priority 1a: urgent supplies - established territory about to collapse ──
-        // Convoys still run even when the subfaction is weak.
-        IntrigueOp urgentSupplyOp = evaluateSendSupplies(subfaction, opsRunner, opIdPrefix,
-                INFIGHTING_COHESION_THRESHOLD);
-        if (urgentSupplyOp != null) return urgentSupplyOp;
+        // ── Priority ladder: dysfunction → critical patrol → urgent supplies → rally
+        //    → presence → routine supplies → low patrol → patrol → raids (see OpCascade) ──
+        return ctx.getCascade().run(subfaction, leader, ctx);
+    }
 
-        // ── Priority 1b: rally - consolidate home base when cohesion is low ──
-        // Fires regardless of MIN_COHESION_THRESHOLD so factions can recover.
-        if (subfaction.getHomeCohesion() < RALLY_COHESION_THRESHOLD) {
-            String opId = opsRunner.nextOpId(opIdPrefix);
-            return IntrigueServices.opFactory().createRallyOp(opId, subfaction);
+    /** Priority 4 of the ladder: the best raid target scoring at least {@link #RAID_SCORE_THRESHOLD}. */
+    static OpPlan planRaid(IntrigueSubfaction subfaction, IntriguePerson leader, EvaluationContext ctx) {
+        RaidTargets best = ctx.raidTargets();
+        if (!fromShortlist(subfaction, ctx, best)) {
+            selectRaidTargets(subfaction, leader, ctx, RAID_SCORE_THRESHOLD, best);
         }
 
-        // ── Below this point, the subfaction must be strong enough to project power ──
-        if (subfaction.getHomeCohesion() < MIN_COHESION_THRESHOLD) return null;
-
-        // ── Priority 1b: territory presence building (scout, establish) ──
-        IntrigueOp presenceOp = evaluatePresenceOp(subfaction, leader, opsRunner, opIdPrefix);
-        if (presenceOp != null) return presenceOp;
-
-        // ── Priority 2b: routine supplies to established territories ──
-        IntrigueOp supplyOp = evaluateSendSupplies(subfaction, opsRunner, opIdPrefix, 50);
-        if (supplyOp != null) return supplyOp;
-
-        // ── Priority 2c: LOW patrol - legitimacy < 50, patrol before raids ──
-        boolean lowLegitimacy = !criticalLegitimacy && subfaction.getLegitimacy() < LOW_LEGITIMACY_THRESHOLD;
-        if (lowLegitimacy) {
-            IntrigueOp patrolOp = evaluatePatrol(subfaction, opsRunner, opIdPrefix);
-            if (patrolOp != null) return patrolOp;
+        if (best.size() > 0) {
+            return OpPlan.ready(subfaction, OpPlan.Stage.RAID, OpPlan.Kind.RAID, null,
+                    best.getTarget(0), best.getScore(0));
         }
 
-        // Below this point, ops are deprioritized when legitimacy is high
-        boolean highLegitimacy = subfaction.getLegitimacy() >= HIGH_LEGITIMACY_THRESHOLD;
+        return OpPlan.blocked(subfaction, OpPlan.Stage.RAID, OpPlan.Reason.NO_RAID_TARGET,
+                0, (int) RAID_SCORE_THRESHOLD, 0);
+    }
 
-        // ── Priority 3: patrol (skip if legitimacy is already high) ──
-        if (!highLegitimacy && !criticalLegitimacy && !lowLegitimacy) {
-            IntrigueOp patrolOp = evaluatePatrol(subfaction, opsRunner, opIdPrefix);
-            if (patrolOp != null) return patrolOp;
-        }
+    // ── Batch evaluation ────────────────────────────────────────────────
 
-        // ── Priority 4: raids (skip if legitimacy is already high) ──
-        if (!highLegitimacy) {
-            Collection<IntrigueSubfaction> allSubfactions = IntrigueServices.subfactions().getAll();
-            List<ScoredTarget> targets = scoreTargets(subfaction, leader, allSubfactions, opsRunner);
+    /** Receives a batch's decisions in evaluation order, while the batch runs. */
+    public interface BatchSink {
+        /** {@code op} was chosen for {@code subfaction}; start it now. */
+        void opChosen(IntrigueSubfaction subfaction, IntrigueOp op);
 
-            if (!targets.isEmpty()) {
-                targets.sort((a, b) -> Float.compare(b.score, a.score));
-                ScoredTarget best = targets.get(0);
+        /** {@code subfaction} had nothing to do (its first evaluation returned null). */
+        default void idle(IntrigueSubfaction subfaction) {}
+    }
 
-                if (best.score >= 10f) {
-                    String opId = opsRunner.nextOpId(opIdPrefix);
-                    return IntrigueServices.opFactory().createRaidOp(opId, subfaction, best.target);
-                }
-            }
+    /**
+     * Evaluate a whole pass of subfactions: each gets up to {@code maxOpsPerSubfaction}
+     * {@link #evaluate} calls, stopping at its first null, in list order.
+     *
+     * Shared inputs are derived once for the pass instead of once per call: the
+     * subfaction list and, per attacking faction, the danger modifier of every target.
+     * With {@code parallelism > 1}, each subfaction's raid shortlist (the best
+     * {@value #RAID_SHORTLIST_SIZE} targets against the pass-start state) is scored on
+     * that many threads first. Decisions are then made one subfaction at a time, so
+     * ops chosen earlier in the pass still exclude their leaders as raid targets, and
+     * op ids follow list order. The result is the same as calling {@link #evaluate} in
+     * a loop, whatever the parallelism.
+     *
+     * {@code sink} must start each op it is given before the next decision. Parallel
+     * scoring reads the sector from worker threads, so only use it where those reads
+     * are safe (the sim); the game passes 1.
+     *
+     * @return every op chosen, in the order they were passed to {@code sink}
+     */
+    public static List<IntrigueOp> evaluateAll(List<IntrigueSubfaction> subfactions,
+                                               EvaluationContext ctx,
+                                               String opIdPrefix,
+                                               int maxOpsPerSubfaction,
+                                               int parallelism,
+                                               BatchSink sink) {
+        Batch batch = beginAll(subfactions, ctx, opIdPrefix, maxOpsPerSubfaction, parallelism, sink);
+        try {
+            while (batch.hasNext()) batch.next();
+            return batch.getChosen();
+        } finally {
+            ctx.setSectorTables(null);
         }
-
-        return null;
     }
 
     /**
-     * Diagnostic: returns a human-readable explanation of why evaluate() would
-     * return null for this subfaction, or "READY" with target info if it would act.
+     * {@link #evaluateAll} one subfaction at a time, for drivers that spread a pass over
+     * several frames. The shared inputs (and any parallel scoring) are prepared here;
+     * {@link Batch#next} then decides for the next subfaction. Stepping a batch to the
+     * end gives the same ops, in the same order, as {@link #evaluateAll}.
      */
-    public static String diagnose(IntrigueSubfaction subfaction, IntrigueOpRunner opsRunner) {
-        if (subfaction == null) return "null subfaction";
+    public static Batch beginAll(List<IntrigueSubfaction> subfactions,
+                                 EvaluationContext ctx,
+                                 String opIdPrefix,
+                                 int maxOpsPerSubfaction,
+                                 int parallelism,
+                                 BatchSink sink) {
+        SectorTables tables = new SectorTables(IntrigueServices.subfactions().getAll());
+        ctx.setSectorTables(tables);
+        if (parallelism > 1) scoreShortlists(subfactions, ctx, tables, parallelism);
+        return new Batch(new ArrayList<>(subfactions), ctx, opIdPrefix, maxOpsPerSubfaction, sink);
+    }
 
-        if (!subfaction.hasHomeMarket()) {
-            if (subfaction.getType() == SubfactionType.CRIMINAL) {
-                return diagnoseEstablishBase(subfaction, opsRunner);
+    /** A pass begun by {@link #beginAll}. Holds the pass's tables on its context until the last decision. */
+    public static final class Batch {
+        private final List<IntrigueSubfaction> subfactions;
+        private final EvaluationContext ctx;
+        private final String opIdPrefix;
+        private final int maxOpsPerSubfaction;
+        private final BatchSink sink;
+        private final List<IntrigueOp> chosen = new ArrayList<>();
+        private int next;
+
+        private Batch(List<IntrigueSubfaction> subfactions, EvaluationContext ctx, String opIdPrefix,
+                      int maxOpsPerSubfaction, BatchSink sink) {
+            this.subfactions = subfactions;
+            this.ctx = ctx;
+            this.opIdPrefix = opIdPrefix;
+            this.maxOpsPerSubfaction = maxOpsPerSubfaction;
+            this.sink = sink;
+            if (subfactions.isEmpty()) ctx.setSectorTables(null);
+        }
+
+        public boolean hasNext() { return next < subfactions.size(); }
+
+        /** Decide for the next subfaction: up to the per-subfaction limit of ops, stopping at the first null. */
+        public void next() {
+            IntrigueSubfaction sf = subfactions.get(next++);
+            for (int slot = 0; slot < maxOpsPerSubfaction; slot++) {
+                IntrigueOp op = evaluate(sf, ctx, opIdPrefix);
+                if (op == null) {
+                    if (slot == 0) sink.idle(sf);
+                    break;
+                }
+                sink.opChosen(sf, op);
+                ctx.opStarted(op);
+                chosen.add(op);
             }
-            return "homeless (dormant) - waiting for a base";
-        }
-
-        String leaderId = subfaction.getLeaderId();
-        if (leaderId == null) return "no leader";
-
-        IntriguePerson leader = IntrigueServices.people().getById(leaderId);
-        if (leader == null) return "leader '" + leaderId + "' not found in people registry";
-
-        if (leader.isCheckedOut()) return "leader checked out";
-        int activeOps = opsRunner.getActiveOpCount(leaderId);
-        int maxOps = maxConcurrentOps(subfaction);
-        if (activeOps >= maxOps) {
-            return "at op capacity (" + activeOps + "/" + maxOps
-                    + ", totalCoh=" + computeTotalCohesion(subfaction) + ")";
-        }
-        if (isOnCooldown(subfaction)) return "on cooldown";
-
-        String territoryInfo = diagnoseTerritoryOp(subfaction);
-
-        // Priority 0: dysfunction
-        IntrigueOp dysfunctionOp = evaluateDysfunction(subfaction, opsRunner, "diag");
-        if (dysfunctionOp != null) {
-            return "READY → " + dysfunctionOp.getOpTypeName()
-                    + " (territory=" + dysfunctionOp.getTerritoryId() + ")"
-                    + "; " + territoryInfo;
-        }
-
-        // Priority 1a: urgent supplies
-        IntrigueOp urgentSupplyOp = evaluateSendSupplies(subfaction, opsRunner, "diag",
-                INFIGHTING_COHESION_THRESHOLD);
-        if (urgentSupplyOp != null) {
-            return "READY → " + urgentSupplyOp.getOpTypeName()
-                    + " (URGENT, territory=" + urgentSupplyOp.getTerritoryId() + ")"
-                    + "; " + territoryInfo;
+            if (!hasNext()) ctx.setSectorTables(null);
         }
 
-        // Priority 1b: rally
-        if (subfaction.getHomeCohesion() < RALLY_COHESION_THRESHOLD) {
-            return "READY → Rally (home cohesion " + subfaction.getHomeCohesion()
-                    + " < " + RALLY_COHESION_THRESHOLD + "); " + territoryInfo;
-        }
-
-        if (subfaction.getHomeCohesion() < MIN_COHESION_THRESHOLD) {
-            return "home cohesion " + subfaction.getHomeCohesion() + " < " + MIN_COHESION_THRESHOLD
-                    + " (only dysfunction/urgent supply ops allowed); " + territoryInfo;
-        }
-
-        // Priority 1b: presence building
-        IntrigueOp presenceOp = evaluatePresenceOp(subfaction, leader, opsRunner, "diag");
-        if (presenceOp != null) {
-            return "READY → " + presenceOp.getOpTypeName()
-                    + " (territory=" + presenceOp.getTerritoryId() + ")"
-                    + "; " + territoryInfo;
-        }
+        /** Subfactions in the pass. */
+        public int size() { return subfactions.size(); }
 
-        // Priority 2a: critical patrol (legitimacy < 30)
-        boolean criticalLegitimacy = subfaction.getLegitimacy() < CRITICAL_LEGITIMACY_THRESHOLD;
-        if (criticalLegitimacy) {
-            IntrigueOp patrolOp = evaluatePatrol(subfaction, opsRunner, "diag");
-            if (patrolOp != null) {
-                return "READY → " + patrolOp.getOpTypeName()
-                        + " (CRITICAL, legitimacy " + subfaction.getLegitimacy()
-                        + " < " + CRITICAL_LEGITIMACY_THRESHOLD
-                        + ", territory=" + patrolOp.getTerritoryId() + ")"
-                        + "; " + territoryInfo;
-            }
-        }
+        /** Every op chosen so far, in the order they were passed to the sink. */
+        public List<IntrigueOp> getChosen() { return chosen; }
+    }
 
-        // Priority 2b: routine supplies
-        IntrigueOp supplyOp = evaluateSendSupplies(subfaction, opsRunner, "diag", 50);
-        if (supplyOp != null) {
-            return "READY → " + supplyOp.getOpTypeName()
-                    + " (territory=" + supplyOp.getTerritoryId() + ")"
-                    + "; " + territoryInfo;
+    /**
+     * Fill every subfaction's raid shortlist on {@code parallelism} threads. Everything the
+     * workers read lazily (active-op counts, danger rows, memoized hostility) is filled
+     * first, so the workers only read.
+     */
+    private static void scoreShortlists(List<IntrigueSubfaction> subfactions, EvaluationContext ctx,
+                                        SectorTables tables, int parallelism) {
+        IntrigueContext context = IntrigueServices.current();
+        ctx.activeOps("");
+        Set<String> factions = new LinkedHashSet<>();
+        for (IntrigueSubfaction sf : tables.sector) factions.add(sf.getFactionId());
+        FactionHostilityChecker hostility = IntrigueServices.hostility();
+        for (String a : factions) {
+            for (String b : factions) hostility.areHostile(a, b);
+        }
+
+        int n = subfactions.size();
+        IntriguePerson[] leaders = new IntriguePerson[n];
+        for (int i = 0; i < n; i++) {
+            IntrigueSubfaction sf = subfactions.get(i);
+            leaders[i] = sf.getLeaderId() != null ? IntrigueServices.people().getById(sf.getLeaderId()) : null;
+            if (leaders[i] != null) tables.dangerRow(sf.getFactionId());
+        }
+
+        RaidTargets[] shortlists = new RaidTargets[n];
+        int chunks = Math.min(parallelism, Math.max(1, n));
+        List<CompletableFuture<Void>> work = new ArrayList<>(chunks);
+        for (int c = 0; c < chunks; c++) {
+            int from = (int) ((long) n * c / chunks);
+            int to = (int) ((long) n * (c + 1) / chunks);
+            work.add(CompletableFuture.runAsync(() -> IntrigueServices.runWith(context, () -> {
+                for (int i = from; i < to; i++) {
+                    if (leaders[i] == null || !subfactions.get(i).hasHomeMarket()) continue;
+                    RaidTargets list = new RaidTargets(RAID_SHORTLIST_SIZE);
+                    selectRaidTargets(subfactions.get(i), leaders[i], ctx, RAID_SCORE_THRESHOLD, list);
+                    shortlists[i] = list;
+                }
+            })));
         }
+        for (CompletableFuture<Void> w : work) w.join();
 
-        // Priority 2c: low patrol (legitimacy < 50)
-        boolean lowLegitimacy = !criticalLegitimacy && subfaction.getLegitimacy() < LOW_LEGITIMACY_THRESHOLD;
-        if (lowLegitimacy) {
-            IntrigueOp patrolOp = evaluatePatrol(subfaction, opsRunner, "diag");
-            if (patrolOp != null) {
-                return "READY → " + patrolOp.getOpTypeName()
-                        + " (LOW legitimacy " + subfaction.getLegitimacy()
-                        + " < " + LOW_LEGITIMACY_THRESHOLD
-                        + ", territory=" + patrolOp.getTerritoryId() + ")"
-                        + "; " + territoryInfo;
-            }
-        }
-
-        boolean highLegitimacy = subfaction.getLegitimacy() >= HIGH_LEGITIMACY_THRESHOLD;
-
-        // Priority 3: patrol
-        if (!highLegitimacy && !criticalLegitimacy && !lowLegitimacy) {
-            IntrigueOp patrolOp = evaluatePatrol(subfaction, opsRunner, "diag");
-            if (patrolOp != null) {
-                return "READY → " + patrolOp.getOpTypeName()
-                        + " (territory=" + patrolOp.getTerritoryId() + ")"
-                        + "; " + territoryInfo;
-            }
+        for (int i = 0; i < n; i++) {
+            if (shortlists[i] != null) tables.shortlists.put(subfactions.get(i), shortlists[i]);
         }
+    }
 
-        // Priority 4: raids
-        if (!highLegitimacy) {
-            Collection<IntrigueSubfaction> allSubfactions = IntrigueServices.subfactions().getAll();
-            List<ScoredTarget> targets = scoreTargets(subfaction, leader, allSubfactions, opsRunner);
-
-            if (!targets.isEmpty()) {
-                targets.sort((a, b) -> Float.compare(b.score, a.score));
-                ScoredTarget best = targets.get(0);
-                if (best.score >= 10f) {
-                    return "READY → raid " + best.target.getSubfactionId() + " (score=" + best.score + ")"
-                            + "; " + territoryInfo;
-                }
-                return "best raid score " + best.score + " < 10 (target: "
-                        + best.target.getSubfactionId() + "); " + territoryInfo;
-            }
-        }
+    /**
+     * Take the best raid target from the attacker's precomputed shortlist, skipping targets
+     * whose leader got busy since it was scored. Returns false when there is no shortlist,
+     * or when a full shortlist ran dry (a target further down might still qualify).
+     */
+    private static boolean fromShortlist(IntrigueSubfaction attacker, EvaluationContext ctx, RaidTargets out) {
+        SectorTables tables = ctx.getSectorTables();
+        RaidTargets shortlist = tables != null ? tables.shortlists.get(attacker) : null;
+        if (shortlist == null) return false;
+        out.clear();
+        for (int i = 0; i < shortlist.size(); i++) {
+            IntrigueSubfaction target = shortlist.getTarget(i);
+            String leaderId = target.getLeaderId();
+            if (leaderId != null && ctx.hasActiveOp(leaderId)) continue;
+            out.offer(target, shortlist.getScore(i));
+            return true;
+        }
+        return !shortlist.isFull();
+    }
 
-        if (highLegitimacy) {
-            return "high legitimacy (" + subfaction.getLegitimacy() + " >= " + HIGH_LEGITIMACY_THRESHOLD
-                    + "), patrol/raid deprioritized; no supplies needed; " + territoryInfo;
-        }
+    /**
+     * Diagnostic: returns a human-readable explanation of why evaluate() would
+     * return null for this subfaction, or "READY" with target info if it would act.
+     */
+    public static String diagnose(IntrigueSubfaction subfaction, IntrigueOpRunner opsRunner) {
+        return diagnose(subfaction, new EvaluationContext(opsRunner));
+    }
 
-        return "no ops available; " + territoryInfo;
+    /**
+     * {@link #diagnose(IntrigueSubfaction, IntrigueOpRunner)} sharing a tick's {@link EvaluationContext}.
+     * If the context's latest {@link #evaluate} was for this subfaction and started nothing,
+     * its plan is described as is; otherwise the subfaction is planned (dry run) now.
+     */
+    public static String diagnose(IntrigueSubfaction subfaction, EvaluationContext ctx) {
+        OpPlan last = ctx.getLastPlan();
+        boolean reuse = last != null && !last.isReady() && subfaction != null && last.getSubfaction() == subfaction;
+        return (reuse ? last : plan(subfaction, ctx)).describe();
     }
     // ── Scoring ─────────────────────────────────────────────────────────
 
-    private static List<ScoredTarget> scoreTargets(IntrigueSubfaction attacker,
-                                                    IntriguePerson leader,
-                                                    Collection<IntrigueSubfaction> allSubfactions,
-                                                    IntrigueOpRunner opsRunner) {
-        List<ScoredTarget> results = new ArrayList<>();
+    /**
+     * The {@code k} best raid targets for a subfaction, best first, for diagnostics.
+     * Only targets scoring above zero are kept; empty if the leader is missing.
+     */
+    public static RaidTargets topRaidTargets(IntrigueSubfaction attacker, EvaluationContext ctx, int k) {
+        RaidTargets top = new RaidTargets(k);
+        IntriguePerson leader = attacker.getLeaderId() != null
+                ? IntrigueServices.people().getById(attacker.getLeaderId()) : null;
+        if (leader != null) selectRaidTargets(attacker, leader, ctx, 0f, top);
+        return top;
+    }
 
-        for (IntrigueSubfaction other : allSubfactions) {
+    /**
+     * Fill {@code out} with the best valid raid targets scoring at least {@code minScore}
+     * (and above zero), in one pass and without allocating. Ties keep the target met
+     * first, as a stable sort would.
+     *
+     * Everything but the danger modifier is cheap to score, so that part plus
+     * {@link WarAwareness#maxDangerScoreModifier} bounds the full score. Targets whose bound
+     * can't reach {@code minScore} or beat the weakest score kept so far are skipped
+     * before the busy-leader, hostility and danger lookups.
+     */
+    private static void selectRaidTargets(IntrigueSubfaction attacker,
+                                          IntriguePerson leader,
+                                          EvaluationContext ctx,
+                                          float minScore,
+                                          RaidTargets out) {
+        out.clear();
+        SectorTables tables = ctx.getSectorTables();
+        Collection<IntrigueSubfaction> candidates = tables != null
+                ? tables.sector : IntrigueServices.subfactions().getAll();
+        float[] dangerRow = tables != null ? tables.dangerRow(attacker.getFactionId()) : null;
+        float maxDanger = dangerRow != null ? tables.maxDanger : maxDangerScoreModifier();
+
+        int index = -1;
+        for (IntrigueSubfaction other : candidates) {
+            index++;
             if (other.getSubfactionId().equals(attacker.getSubfactionId())) continue;
 
             // Can't raid a subfaction with no market
@@ -351,27 +415,36 @@ public final class OpEvaluator {
             // Hidden subfactions (e.g. criminal bases) are not valid raid targets
             if (other.isHidden()) continue;
 
-            // Don't target subfactions whose leader is already busy
-            String otherLeaderId = other.getLeaderId();
-            if (otherLeaderId != null && opsRunner.hasActiveOp(otherLeaderId)) continue;
-
             // Same-faction subfactions don't raid each other
             if (attacker.getFactionId().equals(other.getFactionId())) continue;
 
+            float base = computeScore(attacker, leader, other);
+            float bound = base + maxDanger;
+            if (bound <= 0 || bound < minScore || !out.couldTake(bound)) {
+                out.pruned++;
+                continue;
+            }
+
+            // Don't target subfactions whose leader is already busy
+            String otherLeaderId = other.getLeaderId();
+            if (otherLeaderId != null && ctx.hasActiveOp(otherLeaderId)) continue;
+
             // Cross-faction raids require parent factions to be hostile
             if (!IntrigueServices.hostility().areHostile(attacker.getFactionId(), other.getFactionId())) {
                 continue;
             }
 
-            float score = computeScore(attacker, leader, other);
-            if (score > 0) {
-                results.add(new ScoredTarget(other, score));
-            }
+            // ── System danger modifier (vanilla military awareness) ─────
+            // Heavily defended target systems are less attractive to raid.
+            // In sim mode, dangerScoreModifier returns 0 (no effect).
+            float danger = dangerRow != null ? dangerRow[index]
+                    : dangerScoreModifier(attacker.getFactionId(), other.getHomeMarketId());
+            float score = base + danger;
+            if (score > 0 && score >= minScore) out.offer(other, score);
         }
-
-        return results;
     }
 
+    /** Raid score of {@code target} before the system danger modifier. */
     private static float computeScore(IntrigueSubfaction attacker,
                                        IntriguePerson leader,
                                        IntrigueSubfaction target) {
@@ -420,11 +493,6 @@ public final class OpEvaluator {
             score -= 10f;
         }
 
-        // ── System danger modifier (vanilla military awareness) ─────
-        // Heavily defended target systems are less attractive to raid.
-        // In sim mode, dangerScoreModifier returns 0 (no effect).
-        score += dangerScoreModifier(attacker.getFactionId(), target.getHomeMarketId());
-
         return score;
     }
 
@@ -438,47 +506,42 @@ public final class OpEvaluator {
         return wa.dangerScoreModifier(attackerFactionId, targetMarketId);
     }
 
+    private static float maxDangerScoreModifier() {
+        WarAwareness wa = IntrigueServices.warAwareness();
+        if (wa == null) return 0f;
+        return wa.maxDangerScoreModifier();
+    }
+
     // ── Establish Base evaluation (for homeless CRIMINAL subfactions) ──
 
-    private static IntrigueOp evaluateEstablishBase(IntrigueSubfaction subfaction,
-                                                     IntrigueOpRunner opsRunner,
-                                                     String opIdPrefix) {
+    private static OpPlan planEstablishBase(IntrigueSubfaction subfaction, EvaluationContext ctx) {
+        OpPlan.Stage stage = OpPlan.Stage.ESTABLISH_BASE;
         String leaderId = subfaction.getLeaderId();
-        if (leaderId == null) return null;
+        if (leaderId == null) return OpPlan.blocked(subfaction, stage, OpPlan.Reason.NO_LEADER);
 
         IntriguePerson leader = IntrigueServices.people().getById(leaderId);
-        if (leader == null) return null;
-        if (leader.isCheckedOut()) return null;
-        if (opsRunner.getActiveOpCount(leaderId) >= maxConcurrentOps(subfaction)) return null;
+        if (leader == null) return OpPlan.blocked(subfaction, stage, OpPlan.Reason.LEADER_NOT_FOUND);
+        if (leader.isCheckedOut()) return OpPlan.blocked(subfaction, stage, OpPlan.Reason.LEADER_CHECKED_OUT);
+        int activeOps = ctx.activeOps(leaderId);
+        int maxOps = ctx.capacity(subfaction);
+        if (activeOps >= maxOps) {
+            return OpPlan.blocked(subfaction, stage, OpPlan.Reason.AT_CAPACITY,
+                    activeOps, maxOps, ctx.totalCohesion(subfaction));
+        }
 
         // Lower home cohesion threshold for establishing a base - desperate factions act sooner
-        if (subfaction.getHomeCohesion() < MIN_COHESION_THRESHOLD / 2) return null;
-
-        if (isOnCooldown(subfaction)) return null;
-
-        String opId = opsRunner.nextOpId(opIdPrefix);
-        return IntrigueServices.opFactory().createEstablishBaseOp(opId, subfaction);
-    }
+        int minCohesion = ctx.getCascade().minHomeCohesion() / 2;
+        if (subfaction.getHomeCohesion() < minCohesion) {
+            return OpPlan.blocked(subfaction, stage, OpPlan.Reason.WEAK_HOME,
+                    subfaction.getHomeCohesion(), minCohesion, 0);
+        }
 
-    private static String diagnoseEstablishBase(IntrigueSubfaction subfaction,
-                                                 IntrigueOpRunner opsRunner) {
-        String leaderId = subfaction.getLeaderId();
-        if (leaderId == null) return "CRIMINAL homeless, no leader";
+        if (isOnCooldown(subfaction)) return OpPlan.blocked(subfaction, stage, OpPlan.Reason.ON_COOLDOWN);
 
-        IntriguePerson leader = IntrigueServices.people().getById(leaderId);
-        if (leader == null) return "CRIMINAL homeless, leader not found";
-        if (leader.isCheckedOut()) return "CRIMINAL homeless, leader checked out";
-        int activeOps = opsRunner.getActiveOpCount(leaderId);
-        int maxOps = maxConcurrentOps(subfaction);
-        if (activeOps >= maxOps) return "CRIMINAL homeless, at op capacity (" + activeOps + "/" + maxOps + ")";
-        if (subfaction.getHomeCohesion() < MIN_COHESION_THRESHOLD / 2)
-            return "CRIMINAL homeless, home cohesion " + subfaction.getHomeCohesion() + " < " + (MIN_COHESION_THRESHOLD / 2);
-        if (isOnCooldown(subfaction)) return "CRIMINAL homeless, on cooldown";
-
-        return "CRIMINAL homeless → READY to establish base";
+        return OpPlan.ready(subfaction, stage, OpPlan.Kind.ESTABLISH_BASE, null);
     }
 
-    // ── Dysfunction evaluation ───────────────────────────────────────────
+    // ── Dysfunction thresholds (defaults of OpCascade.Thresholds) ───────
 
     /** Thresholds for territory infighting and expulsion. */
     public static final int INFIGHTING_COHESION_THRESHOLD = 30;
@@ -489,221 +552,10 @@ public final class OpEvaluator {
     public static final int CIVIL_WAR_COHESION_THRESHOLD = 10;
     public static final int CIVIL_WAR_TICKS_REQUIRED = 3;
 
-    /**
-     * Check for dysfunction consequences that fire when the subfaction is ready.
-     * Priority: Civil War > Expulsion > Infighting.
-     *
-     * Low-cohesion ticks are tracked externally (by the pacer/sim loop).
-     * - Infighting fires exactly once: on the first tick cohesion drops below INFIGHTING threshold.
-     * - Expulsion fires after cohesion has been below EXPULSION threshold for N ticks.
-     * - Civil War fires after home cohesion has been below threshold for N ticks.
-     *
-     * Returns null if no dysfunction event should fire.
-     */
-    private static IntrigueOp evaluateDysfunction(IntrigueSubfaction subfaction,
-                                                   IntrigueOpRunner opsRunner,
-                                                   String opIdPrefix) {
-        // Don't stack dysfunction ops on top of each other (intentionally binary, not capacity-based)
-        String leaderId = subfaction.getLeaderId();
-        if (leaderId != null && opsRunner.hasActiveOp(leaderId)) return null;
-
-        // ── Civil War: home cohesion critically low for too long ──
-        if (subfaction.getLowHomeCohesionTicks() >= CIVIL_WAR_TICKS_REQUIRED) {
-            String opId = opsRunner.nextOpId(opIdPrefix);
-            return IntrigueServices.opFactory().createCivilWarOp(opId, subfaction);
-        }
+    // ── Territory status ────────────────────────────────────────────────
 
-        // ── Territory dysfunction: check each established territory ──
-        IntrigueTerritoryAccess territories = IntrigueServices.territories();
-        if (territories == null) return null;
-
-        String factionId = subfaction.getFactionId();
-        String sfId = subfaction.getSubfactionId();
-
-        for (IntrigueTerritory territory : territories.getAll()) {
-            if (!territory.isFactionInterested(factionId)) continue;
-            if (!territory.getPresence(sfId).isEstablishedOrHigher()) continue;
-
-            int lowTicks = territory.getLowCohesionTicks(sfId);
-            int cohesion = territory.getCohesion(sfId);
-
-            // Expulsion: cohesion critically low AND sustained for too many ticks
-            if (cohesion < EXPULSION_COHESION_THRESHOLD && lowTicks >= EXPULSION_TICKS_REQUIRED) {
-                String opId = opsRunner.nextOpId(opIdPrefix);
-                return IntrigueServices.opFactory().createExpulsionOp(opId, subfaction, territory.getTerritoryId());
-            }
-
-            // Infighting: fires exactly once - on the first tick the counter increments
-            if (lowTicks == 1) {
-                String opId = opsRunner.nextOpId(opIdPrefix);
-                return IntrigueServices.opFactory().createInfightingOp(opId, subfaction, territory.getTerritoryId());
-            }
-        }
-
-        return null;
-    }
-
-    // ── Territory Op evaluation ────────────────────────────────────────
-
-    /**
-     * Priority 1: Presence building. If any interested territory has NONE or SCOUTING
-     * presence, launch a scout or establish op to advance it.
-     */
-    private static IntrigueOp evaluatePresenceOp(IntrigueSubfaction subfaction,
-                                                  IntriguePerson leader,
-                                                  IntrigueOpRunner opsRunner,
-                                                  String opIdPrefix) {
-        IntrigueTerritoryAccess territories = IntrigueServices.territories();
-        if (territories == null) return null;
-
-        String factionId = subfaction.getFactionId();
-        String sfId = subfaction.getSubfactionId();
-
-        // Pass 1: check for upgrade opportunities (highest priority — invest in existing holdings)
-        for (IntrigueTerritory territory : territories.getAll()) {
-            if (!territory.isFactionInterested(factionId)) continue;
-
-            IntrigueTerritory.Presence presence = territory.getPresence(sfId);
-            if (presence == IntrigueTerritory.Presence.ESTABLISHED
-                    || presence == IntrigueTerritory.Presence.FORTIFIED) {
-                int terrCoh = territory.getCohesion(sfId);
-                int threshold = (presence == IntrigueTerritory.Presence.ESTABLISHED)
-                        ? FORTIFY_COHESION_THRESHOLD : DOMINATE_COHESION_THRESHOLD;
-                if (terrCoh >= threshold) {
-                    String opId = opsRunner.nextOpId(opIdPrefix);
-                    return IntrigueServices.opFactory().createUpgradePresenceOp(
-                            opId, subfaction, territory.getTerritoryId());
-                }
-            }
-        }
-
-        // Pass 2: expand into new territories (scout, establish, assault)
-        for (IntrigueTerritory territory : territories.getAll()) {
-            if (!territory.isFactionInterested(factionId)) continue;
-
-            IntrigueTerritory.Presence presence = territory.getPresence(sfId);
-
-            if (presence == IntrigueTerritory.Presence.NONE) {
-                String opId = opsRunner.nextOpId(opIdPrefix);
-                return IntrigueServices.opFactory().createScoutTerritoryOp(
-                        opId, subfaction, territory.getTerritoryId());
-            }
-
-            if (presence == IntrigueTerritory.Presence.SCOUTING) {
-                // Check if there are free base slots
-                if (!territory.getFreeSlots().isEmpty()) {
-                    String opId = opsRunner.nextOpId(opIdPrefix);
-                    return IntrigueServices.opFactory().createEstablishTerritoryBaseOp(
-                            opId, subfaction, territory.getTerritoryId());
-                }
-
-                // No free slots — try to assault the weakest hostile occupant
-                IntrigueSubfaction assaultTarget = findWeakestHostileOccupant(
-                        subfaction, territory);
-                if (assaultTarget != null) {
-                    String opId = opsRunner.nextOpId(opIdPrefix);
-                    return IntrigueServices.opFactory().createAssaultTerritoryBaseOp(
-                            opId, subfaction, assaultTarget, territory.getTerritoryId());
-                }
-            }
-        }
-
-        return null;
-    }
-
-    /**
-     * Find the ESTABLISHED subfaction in the territory (from a hostile faction)
-     * with the lowest territory cohesion, suitable as an assault target.
-     * Returns null if no valid target exists.
-     */
-    private static IntrigueSubfaction findWeakestHostileOccupant(
-            IntrigueSubfaction attacker, IntrigueTerritory territory) {
-        IntrigueSubfaction weakest = null;
-        int lowestCohesion = Integer.MAX_VALUE;
-
-        for (String sfId : territory.getActiveSubfactionIds()) {
-            if (!territory.getPresence(sfId).isEstablishedOrHigher()) continue;
-
-            IntrigueSubfaction candidate = IntrigueServices.subfactions().getById(sfId);
-            if (candidate == null) continue;
-
-            // Must be from a different faction that is hostile
-            if (candidate.getFactionId().equals(attacker.getFactionId())) continue;
-            if (!IntrigueServices.hostility().areHostile(
-                    attacker.getFactionId(), candidate.getFactionId())) continue;
-
-            int coh = territory.getCohesion(sfId);
-            if (coh < lowestCohesion) {
-                lowestCohesion = coh;
-                weakest = candidate;
-            }
-        }
-
-        return weakest;
-    }
-
-    /**
-     * Send supplies to the established territory with the lowest cohesion,
-     * if any territory cohesion is below the given threshold.
-     */
-    private static IntrigueOp evaluateSendSupplies(IntrigueSubfaction subfaction,
-                                                    IntrigueOpRunner opsRunner,
-                                                    String opIdPrefix,
-                                                    int threshold) {
-        IntrigueTerritoryAccess territories = IntrigueServices.territories();
-        if (territories == null) return null;
-
-        String factionId = subfaction.getFactionId();
-        String sfId = subfaction.getSubfactionId();
-
-        IntrigueTerritory neediest = null;
-        int lowestCohesion = Integer.MAX_VALUE;
-
-        for (IntrigueTerritory territory : territories.getAll()) {
-            if (!territory.isFactionInterested(factionId)) continue;
-            if (!territory.getPresence(sfId).isEstablishedOrHigher()) continue;
-
-            int coh = territory.getCohesion(sfId);
-            if (coh < threshold && coh < lowestCohesion) {
-                lowestCohesion = coh;
-                neediest = territory;
-            }
-        }
-
-        if (neediest != null) {
-            String opId = opsRunner.nextOpId(opIdPrefix);
-            return IntrigueServices.opFactory().createSendSuppliesOp(
-                    opId, subfaction, neediest.getTerritoryId());
-        }
-
-        return null;
-    }
-
-    /**
-     * Priority 3: Patrol an established territory. Picks the first
-     * established territory found.
-     */
-    private static IntrigueOp evaluatePatrol(IntrigueSubfaction subfaction,
-                                              IntrigueOpRunner opsRunner,
-                                              String opIdPrefix) {
-        IntrigueTerritoryAccess territories = IntrigueServices.territories();
-        if (territories == null) return null;
-
-        String factionId = subfaction.getFactionId();
-
-        for (IntrigueTerritory territory : territories.getAll()) {
-            if (!territory.isFactionInterested(factionId)) continue;
-            if (territory.getPresence(subfaction.getSubfactionId()).isEstablishedOrHigher()) {
-                String opId = opsRunner.nextOpId(opIdPrefix);
-                return IntrigueServices.opFactory().createPatrolOp(
-                        opId, subfaction, territory.getTerritoryId());
-            }
-        }
-
-        return null;
-    }
-
-    private static String diagnoseTerritoryOp(IntrigueSubfaction subfaction) {
+    /** "territory status: name=PRESENCE ..." over the territories the subfaction's faction wants. */
+    static String describeTerritories(IntrigueSubfaction subfaction) {
         IntrigueTerritoryAccess territories = IntrigueServices.territories();
         if (territories == null) return "territories not available";
 
@@ -732,23 +584,21 @@ public final class OpEvaluator {
      *   - don't cost the attacker anything on failure
      *   - are in addition to the attacker's normal op for this tick
      *
+     * Victims come from the registry's zero-legitimacy watch set and attackers from its
+     * per-faction rosters, so a tick with no victims costs nothing.
+     *
      * @return list of free raid ops to start (may be empty, never null)
      */
     public static List<IntrigueOp> evaluateVulnerabilityRaids(
             IntrigueOpRunner opsRunner, String opIdPrefix) {
         List<IntrigueOp> raids = new ArrayList<>();
-        Collection<IntrigueSubfaction> allSubfactions = IntrigueServices.subfactions().getAll();
-        for (IntrigueSubfaction victim : allSubfactions) {
-            if (victim.getLegitimacy() > 0) continue;
+        IntrigueSubfactionAccess subfactions = IntrigueServices.subfactions();
+        for (IntrigueSubfaction victim : subfactions.getZeroLegitimacy()) {
             if (!victim.hasHomeMarket()) continue;
-            for (IntrigueSubfaction attacker : allSubfactions) {
-                if (attacker == victim) continue;
+            // Already limited to different, hostile factions
+            for (IntrigueSubfaction attacker : subfactions.getHostileTo(victim.getFactionId())) {
                 if (attacker.getSubfactionId().equals(victim.getSubfactionId())) continue;
                 if (!attacker.hasHomeMarket()) continue;
-                // Must be from a different, hostile faction
-                if (attacker.getFactionId().equals(victim.getFactionId())) continue;
-                if (!IntrigueServices.hostility().areHostile(
-                        attacker.getFactionId(), victim.getFactionId())) continue;
                 // Must have a leader (but don't check if leader is busy - this is free)
                 if (attacker.getLeaderId() == null) continue;
                 String opId = opsRunner.nextOpId(opIdPrefix + "_vuln");
@@ -787,8 +637,6 @@ public final class OpEvaluator {
         List<IntrigueOp> ops = new ArrayList<>();
         if (IntrigueServices.territories() == null) return ops;
 
-        List<IntrigueOp> activeOps = opsRunner.getActiveOps();
-
         for (IntrigueTerritory territory : IntrigueServices.territories().getAll()) {
             for (String[] pair : territory.getEstablishedPairs()) {
                 String sfA = pair[0];
@@ -834,21 +682,13 @@ public final class OpEvaluator {
                         territory.resetFriction(initId, victId);
                     } else {
                         // Non-hostile: mischief, but only if the victim has a targetable active op
-                        List<IntrigueOp> victimOps = new ArrayList<>();
-                        for (IntrigueOp op : activeOps) {
-                            if (op.isResolved()) continue;
-                            String opSfId = op.getInitiatorSubfactionId();
-                            if (opSfId != null && opSfId.equals(victim.getSubfactionId())
-                                    && op.canBeTargetedByMischief()) {
-                                victimOps.add(op);
-                            }
-                        }
+                        List<IntrigueOp> victimOps = opsRunner.getMischiefTargets(victim.getSubfactionId());
                         if (victimOps.isEmpty()) {
                             // No targetable op - friction stays, re-check next tick
                             continue;
                         }
 
-                        IntrigueOp targetOp = victimOps.get((int) (Math.random() * victimOps.size()));
+                        IntrigueOp targetOp = victimOps.get(IntrigueServices.random().nextInt(victimOps.size()));
                         String opId = opsRunner.nextOpId(opIdPrefix + "_mischief");
                         IntrigueOp mischiefOp = IntrigueServices.opFactory().createMischiefOp(
                                 opId, initiator, victim, territory.getTerritoryId(), targetOp);
@@ -879,13 +719,89 @@ public final class OpEvaluator {
 
     // ── Internal ────────────────────────────────────────────────────────
 
-    private static class ScoredTarget {
-        final IntrigueSubfaction target;
-        final float score;
+    /**
+     * Inputs {@link #evaluateAll} derives once per pass and hangs on the
+     * {@link EvaluationContext}: the subfaction list, danger rows per attacking faction
+     * (indexed like the list) and the parallel raid shortlists.
+     */
+    static final class SectorTables {
+        final List<IntrigueSubfaction> sector;
+        private final Map<String, float[]> danger = new HashMap<>();
+        /** Largest value in any danger row computed so far. */
+        float maxDanger = Float.NEGATIVE_INFINITY;
+        final Map<IntrigueSubfaction, RaidTargets> shortlists = new IdentityHashMap<>();
+
+        SectorTables(Collection<IntrigueSubfaction> sector) {
+            this.sector = new ArrayList<>(sector);
+        }
+
+        /** Drop the danger rows and shortlists; targets are then scored as they are asked for. */
+        void invalidate() {
+            danger.clear();
+            maxDanger = Float.NEGATIVE_INFINITY;
+            shortlists.clear();
+        }
+
+        /** Danger modifier of every target for {@code factionId} attackers, computed on first use. */
+        float[] dangerRow(String factionId) {
+            float[] row = danger.get(factionId);
+            if (row == null) {
+                row = new float[sector.size()];
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = dangerScoreModifier(factionId, sector.get(i).getHomeMarketId());
+                    maxDanger = Math.max(maxDanger, row[i]);
+                }
+                danger.put(factionId, row);
+            }
+            return row;
+        }
+    }
+
+    /**
+     * Bounded best-first list of raid targets. Holds at most {@code capacity} entries in
+     * fixed arrays, so one instance can be refilled every evaluation without garbage.
+     */
+    public static final class RaidTargets {
+        private final IntrigueSubfaction[] targets;
+        private final float[] scores;
+        private int size;
+        private int pruned;
+
+        public RaidTargets(int capacity) {
+            targets = new IntrigueSubfaction[Math.max(1, capacity)];
+            scores = new float[targets.length];
+        }
+
+        public int size() { return size; }
+        public IntrigueSubfaction getTarget(int i) { return targets[i]; }
+        public float getScore(int i) { return scores[i]; }
+        /** Candidates skipped on their score bound in the last fill. */
+        public int getPruned() { return pruned; }
+
+        void clear() {
+            Arrays.fill(targets, 0, size, null);
+            size = 0;
+            pruned = 0;
+        }
+
+        boolean isFull() { return size == targets.length; }
 
-        ScoredTarget(IntrigueSubfaction target, float score) {
-            this.target = target;
-            this.score = score;
+        /** True if a target scoring {@code score} would make the list. */
+        boolean couldTake(float score) {
+            return size < targets.length || score > scores[size - 1];
+        }
+
+        /** Insert behind any equal scores, dropping the weakest entry if full. */
+        void offer(IntrigueSubfaction target, float score) {
+            if (!couldTake(score)) return;
+            int i = size < targets.length ? size++ : size - 1;
+            while (i > 0 && scores[i - 1] < score) {
+                targets[i] = targets[i - 1];
+                scores[i] = scores[i - 1];
+                i--;
+            }
+            targets[i] = target;
+            scores[i] = score;
         }
     }
 }
\ No newline at end of file
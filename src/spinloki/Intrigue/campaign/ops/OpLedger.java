@@ -0,0 +1,350 @@
+package spinloki.Intrigue.campaign.ops;
+
+import spinloki.Intrigue.campaign.spi.IntrigueServices;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Bounded history of resolved ops: op type, initiating and target subfaction, territory,
+ * start and end timestamps, outcome and mischief sabotage. Answers aggregate questions
+ * ("raids X won in the last year") for consoles and intel after the ops themselves are
+ * gone.
+ *
+ * Rows are kept in primitive columns of a ring buffer. The columns start small and double
+ * as rows arrive, up to {@link #getCapacity()}; from then on each new row overwrites the
+ * oldest, so a new game saves a few rows rather than a full-size table. Type names and ids are interned into a symbol
+ * table and stored as ints (-1 for null). The table is compacted down to the symbols live
+ * rows still use whenever it outgrows four per row. Save size is therefore bounded by the
+ * capacity, however long the game runs.
+ *
+ * Owned by {@link ActiveOpRegistry}, which records every op it drops. Not thread-safe.
+ */
+public final class OpLedger implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int DEFAULT_CAPACITY = 2048;
+    /** Column length of a new ledger, before any growth. */
+    private static final int INITIAL_ROWS = 16;
+
+    private static final OpOutcome[] OUTCOMES = OpOutcome.values();
+    /** Query criterion symbols: unset, and naming an id no row has. */
+    private static final int ANY = -2;
+    private static final int MISSING = -3;
+
+    private final int capacity;
+    /** Slot the next row is written to. */
+    private int head;
+    private int size;
+    private long recorded;
+
+    // ── Columns ─────────────────────────────────────────────────────────
+
+    private int[] type;
+    private int[] initiator;
+    private int[] target;
+    private int[] territory;
+    private long[] started;
+    private long[] ended;
+    private byte[] outcome;
+    private final BitSet sabotaged = new BitSet();
+
+    private final List<String> symbols = new ArrayList<>();
+    /** Rebuilt from symbols on first use after a load. */
+    private transient Map<String, Integer> symbolIds;
+
+    public OpLedger(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        this.capacity = capacity;
+        int rows = Math.min(capacity, INITIAL_ROWS);
+        type = new int[rows];
+        initiator = new int[rows];
+        target = new int[rows];
+        territory = new int[rows];
+        started = new long[rows];
+        ended = new long[rows];
+        outcome = new byte[rows];
+    }
+
+    // ── Recording ───────────────────────────────────────────────────────
+
+    /** Record a resolved op, ending now on the services clock. */
+    public void record(IntrigueOp op) {
+        record(op.getOpTypeName(), op.getInitiatorSubfactionId(), op.getTargetSubfactionId(),
+                op.getTerritoryId(), op.getStartTimestamp(), IntrigueServices.clock().getTimestamp(),
+                op.getOutcome(), op.wasSabotagedByMischief());
+    }
+
+    public void record(String opType, String initiatorSubfactionId, String targetSubfactionId,
+                       String territoryId, long startTimestamp, long endTimestamp,
+                       OpOutcome result, boolean sabotagedByMischief) {
+        if (symbols.size() >= 4 * capacity + 4) compactSymbols();
+        if (head == type.length) grow();
+        int row = head;
+        type[row] = intern(opType);
+        initiator[row] = intern(initiatorSubfactionId);
+        target[row] = intern(targetSubfactionId);
+        territory[row] = intern(territoryId);
+        started[row] = startTimestamp;
+        ended[row] = endTimestamp;
+        outcome[row] = (byte) result.ordinal();
+        sabotaged.set(row, sabotagedByMischief);
+        head = (head + 1) % capacity;
+        if (size < capacity) size++;
+        recorded++;
+    }
+
+    // ── Size ────────────────────────────────────────────────────────────
+
+    public int getCapacity() { return capacity; }
+
+    /** Rows held: the most recent {@code min(recorded, capacity)} ops. */
+    public int size() { return size; }
+
+    /** Ops recorded since the ledger was created, including overwritten ones. */
+    public long getTotalRecorded() { return recorded; }
+
+    // ── Queries ─────────────────────────────────────────────────────────
+
+    /** Outcome counts of the rows matching {@code query}. */
+    public Tally tally(Query query) {
+        Tally tally = new Tally();
+        Matcher m = new Matcher(query);
+        for (int i = 0; i < size; i++) {
+            int row = rowAt(i);
+            if (m.matches(row)) addTo(tally, row);
+        }
+        return tally;
+    }
+
+    /** {@link #tally} per op type, in order of first appearance (oldest first). */
+    public Map<String, Tally> tallyByType(Query query) {
+        return tallyBy(query, type);
+    }
+
+    /** {@link #tally} per initiating subfaction, in order of first appearance (oldest first). */
+    public Map<String, Tally> tallyByInitiator(Query query) {
+        return tallyBy(query, initiator);
+    }
+
+    /** Up to {@code limit} rows matching {@code query}, most recent first. */
+    public List<Entry> recent(Query query, int limit) {
+        List<Entry> entries = new ArrayList<>();
+        Matcher m = new Matcher(query);
+        for (int i = size - 1; i >= 0 && entries.size() < limit; i--) {
+            int row = rowAt(i);
+            if (m.matches(row)) entries.add(new Entry(row));
+        }
+        return entries;
+    }
+
+    private Map<String, Tally> tallyBy(Query query, int[] column) {
+        Map<Integer, Tally> bySymbol = new LinkedHashMap<>();
+        Matcher m = new Matcher(query);
+        for (int i = 0; i < size; i++) {
+            int row = rowAt(i);
+            if (m.matches(row)) addTo(bySymbol.computeIfAbsent(column[row], k -> new Tally()), row);
+        }
+        Map<String, Tally> result = new LinkedHashMap<>();
+        for (Map.Entry<Integer, Tally> e : bySymbol.entrySet()) result.put(symbol(e.getKey()), e.getValue());
+        return result;
+    }
+
+    /**
+     * Row filter; every criterion left unset matches all rows. Ids are resolved to symbols
+     * once per query, so the scan compares ints.
+     */
+    public static final class Query {
+        private String opType;
+        private String initiatorSubfactionId;
+        private String targetSubfactionId;
+        private String involvedSubfactionId;
+        private String territoryId;
+        private OpOutcome outcome;
+        private float withinDays = -1f;
+
+        public static Query all() { return new Query(); }
+
+        public Query withType(String opType) { this.opType = opType; return this; }
+        public Query withInitiator(String subfactionId) { this.initiatorSubfactionId = subfactionId; return this; }
+        public Query withTarget(String subfactionId) { this.targetSubfactionId = subfactionId; return this; }
+        /** Rows where the subfaction is initiator or target. */
+        public Query involving(String subfactionId) { this.involvedSubfactionId = subfactionId; return this; }
+        public Query inTerritory(String territoryId) { this.territoryId = territoryId; return this; }
+        public Query withOutcome(OpOutcome outcome) { this.outcome = outcome; return this; }
+        /** Rows that ended at most {@code days} ago on the services clock. */
+        public Query withinDays(float days) { this.withinDays = days; return this; }
+    }
+
+    /** Outcome counts over a set of rows. */
+    public static final class Tally {
+        public int total;
+        public int successes;
+        public int failures;
+        public int aborted;
+        /** Failures caused by mischief sabotage (also counted in {@link #failures}). */
+        public int sabotaged;
+
+        /** Successes over successes plus failures; 0 when none finished either way. */
+        public float getSuccessRate() {
+            int decided = successes + failures;
+            return decided > 0 ? successes / (float) decided : 0f;
+        }
+
+        private void add(OpOutcome result, boolean wasSabotaged) {
+            total++;
+            switch (result) {
+                case SUCCESS: successes++; break;
+                case FAILURE: failures++; break;
+                case ABORTED: aborted++; break;
+                default: break;
+            }
+            if (wasSabotaged) sabotaged++;
+        }
+
+        @Override
+        public String toString() {
+            return total + " ops: " + successes + " won, " + failures + " lost"
+                    + (sabotaged > 0 ? " (" + sabotaged + " sabotaged)" : "")
+                    + (aborted > 0 ? ", " + aborted + " aborted" : "");
+        }
+    }
+
+    /** One row, copied out of the columns. */
+    public final class Entry {
+        public final String opType;
+        public final String initiatorSubfactionId;
+        public final String targetSubfactionId;
+        public final String territoryId;
+        public final long startTimestamp;
+        public final long endTimestamp;
+        public final OpOutcome outcome;
+        public final boolean sabotagedByMischief;
+
+        private Entry(int row) {
+            opType = symbol(type[row]);
+            initiatorSubfactionId = symbol(initiator[row]);
+            targetSubfactionId = symbol(target[row]);
+            territoryId = symbol(territory[row]);
+            startTimestamp = started[row];
+            endTimestamp = ended[row];
+            outcome = OUTCOMES[OpLedger.this.outcome[row]];
+            sabotagedByMischief = sabotaged.get(row);
+        }
+
+        @Override
+        public String toString() {
+            return opType + " by " + initiatorSubfactionId
+                    + (targetSubfactionId != null ? " vs " + targetSubfactionId : "")
+                    + (territoryId != null ? " @" + territoryId : "")
+                    + ": " + outcome + (sabotagedByMischief ? " (sabotaged)" : "");
+        }
+    }
+
+    // ── Internals ───────────────────────────────────────────────────────
+
+    /**
+     * Double the columns, up to the capacity. Only needed before the ring first wraps, when
+     * rows fill slots 0..size-1 in order, so a plain copy keeps them in place.
+     */
+    private void grow() {
+        int rows = Math.min(capacity, type.length * 2);
+        type = Arrays.copyOf(type, rows);
+        initiator = Arrays.copyOf(initiator, rows);
+        target = Arrays.copyOf(target, rows);
+        territory = Arrays.copyOf(territory, rows);
+        started = Arrays.copyOf(started, rows);
+        ended = Arrays.copyOf(ended, rows);
+        outcome = Arrays.copyOf(outcome, rows);
+    }
+
+    /** Ring slot of the {@code i}-th oldest row. */
+    private int rowAt(int i) {
+        return (head - size + i + capacity) % capacity;
+    }
+
+    private void addTo(Tally tally, int row) {
+        tally.add(OUTCOMES[outcome[row]], sabotaged.get(row));
+    }
+
+    /** Query with ids resolved to symbols; a criterion naming an unknown id matches nothing. */
+    private final class Matcher {
+        private final int opType, initiatorId, targetId, involvedId, territoryId;
+        private final boolean impossible;
+        private final byte result;
+        private final float withinDays;
+
+        Matcher(Query q) {
+            opType = lookup(q.opType);
+            initiatorId = lookup(q.initiatorSubfactionId);
+            targetId = lookup(q.targetSubfactionId);
+            involvedId = lookup(q.involvedSubfactionId);
+            territoryId = lookup(q.territoryId);
+            impossible = opType == MISSING || initiatorId == MISSING || targetId == MISSING
+                    || involvedId == MISSING || territoryId == MISSING;
+            result = q.outcome != null ? (byte) q.outcome.ordinal() : -1;
+            withinDays = q.withinDays;
+        }
+
+        boolean matches(int row) {
+            if (impossible) return false;
+            if (opType != ANY && type[row] != opType) return false;
+            if (initiatorId != ANY && initiator[row] != initiatorId) return false;
+            if (targetId != ANY && target[row] != targetId) return false;
+            if (involvedId != ANY && initiator[row] != involvedId && target[row] != involvedId) return false;
+            if (territoryId != ANY && territory[row] != territoryId) return false;
+            if (result >= 0 && outcome[row] != result) return false;
+            return withinDays < 0f || IntrigueServices.clock().getElapsedDaysSince(ended[row]) <= withinDays;
+        }
+    }
+
+    /** Symbol of a query criterion: ANY if unset, MISSING if never interned. */
+    private int lookup(String value) {
+        if (value == null) return ANY;
+        Integer id = symbolIds().get(value);
+        return id != null ? id : MISSING;
+    }
+
+    private int intern(String value) {
+        if (value == null) return -1;
+        Map<String, Integer> ids = symbolIds();
+        Integer id = ids.get(value);
+        if (id == null) {
+            id = symbols.size();
+            symbols.add(value);
+            ids.put(value, id);
+        }
+        return id;
+    }
+
+    private String symbol(int id) {
+        return id >= 0 ? symbols.get(id) : null;
+    }
+
+    private Map<String, Integer> symbolIds() {
+        if (symbolIds == null) {
+            symbolIds = new HashMap<>();
+            for (int i = 0; i < symbols.size(); i++) symbolIds.put(symbols.get(i), i);
+        }
+        return symbolIds;
+    }
+
+    /** Drop symbols no held row uses and renumber the columns. */
+    private void compactSymbols() {
+        List<String> old = new ArrayList<>(symbols);
+        symbols.clear();
+        symbolIds = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            int row = rowAt(i);
+            type[row] = intern(symbolOf(old, type[row]));
+            initiator[row] = intern(symbolOf(old, initiator[row]));
+            target[row] = intern(symbolOf(old, target[row]));
+            territory[row] = intern(symbolOf(old, territory[row]));
+        }
+    }
+
+    private static String symbolOf(List<String> table, int id) {
+        return id >= 0 ? table.get(id) : null;
+    }
+}
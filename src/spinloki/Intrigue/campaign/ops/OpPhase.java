@@ -5,17 +5,33 @@ import java.io.Serializable;
 /**
  * A single phase/step within an IntrigueOp.
  *
- * Phases are advanced each frame by the owning op and signal completion
- * via {@link #isDone()}. Phases are Serializable so they survive save/load.
+ * Phases are advanced by the owning op and signal completion via
+ * {@link #isDone()}. Phases that are only waiting for a deadline say so
+ * through {@link #getDaysUntilWake()}, and the op runner skips them until
+ * then. Phases are Serializable so they survive save/load.
  */
 public interface OpPhase extends Serializable {
 
     /**
-     * Called each frame while this phase is active.
-     * @param days elapsed campaign days this frame
+     * Called each frame while this phase is active, or less often if it
+     * asked to sleep (see {@link #getDaysUntilWake()}).
+     * @param days elapsed campaign days since the last call
      */
     void advance(float days);
 
+    /**
+     * Days this phase can go without an {@link #advance} call. The op runner
+     * may skip it until then and pass the skipped days in one call. Default 0:
+     * advance every frame.
+     *
+     * A phase that returns more than 0 and can also change through outside
+     * events (fleet listeners) must wake its op when one fires, via
+     * {@code IntrigueServices.ops().wake(this)}.
+     */
+    default float getDaysUntilWake() {
+        return 0f;
+    }
+
     /**
      * @return true when this phase has completed its work
      */
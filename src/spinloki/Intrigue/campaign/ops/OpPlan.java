@@ -0,0 +1,247 @@
+package spinloki.Intrigue.campaign.ops;
+
+import spinloki.Intrigue.campaign.IntrigueSubfaction;
+import spinloki.Intrigue.campaign.spi.IntrigueOpRunner;
+import spinloki.Intrigue.campaign.spi.IntrigueServices;
+
+/**
+ * Decision trace of one pass through {@link OpEvaluator}'s priority cascade: the stage it
+ * stopped at and either the op it would start there (kind, territory, target, raid score)
+ * or the reason it starts none.
+ *
+ * Planning builds nothing: no op factory calls, no op ids consumed. {@link OpEvaluator#evaluate}
+ * plans first and builds the op from a ready plan with {@link #build}, and keeps the plan
+ * in its {@link EvaluationContext}, so diagnostics ({@link OpEvaluator#diagnose}, the pacer's
+ * forced-tick report, the verbose sim) read the decision already made instead of running
+ * the cascade again. Text is only assembled by {@link #describe}.
+ */
+public final class OpPlan {
+
+    /** Cascade stages, in priority order. */
+    public enum Stage {
+        /** Availability checks before the cascade: base, leader, capacity, cooldown. */
+        GATE,
+        /** Homeless CRIMINAL subfaction looking for a new base. */
+        ESTABLISH_BASE,
+        DYSFUNCTION,
+        /** Patrol while legitimacy is below the critical threshold. */
+        CRITICAL_PATROL,
+        URGENT_SUPPLIES,
+        RALLY,
+        /** Home cohesion below the minimum; nothing further runs. */
+        MIN_COHESION,
+        PRESENCE,
+        SUPPLIES,
+        /** Patrol while legitimacy is below the low threshold. */
+        LOW_PATROL,
+        PATROL,
+        RAID,
+        /** Every stage passed without an op. */
+        EXHAUSTED
+    }
+
+    /** Op a ready plan builds. */
+    public enum Kind {
+        CIVIL_WAR("Civil War"),
+        EXPULSION("Expulsion"),
+        INFIGHTING("Infighting"),
+        ESTABLISH_BASE("Establish Base"),
+        UPGRADE_PRESENCE("Upgrade Presence"),
+        SCOUT_TERRITORY("Scout Territory"),
+        ESTABLISH_TERRITORY_BASE("Establish Territory Base"),
+        ASSAULT_TERRITORY_BASE("Assault Territory Base"),
+        SEND_SUPPLIES("Send Supplies"),
+        PATROL("Patrol"),
+        RALLY("Rally"),
+        RAID("Raid");
+
+        private final String opTypeName;
+
+        Kind(String opTypeName) { this.opTypeName = opTypeName; }
+
+        /** Matches {@link IntrigueOp#getOpTypeName} of the op it builds. */
+        public String getOpTypeName() { return opTypeName; }
+    }
+
+    /** Why a plan starts nothing. */
+    public enum Reason {
+        NULL_SUBFACTION,
+        DORMANT,
+        NO_LEADER,
+        LEADER_NOT_FOUND,
+        LEADER_CHECKED_OUT,
+        /** {@code value}/{@code limit} active ops, {@code total} cohesion. */
+        AT_CAPACITY,
+        ON_COOLDOWN,
+        /** Home cohesion {@code value} below {@code limit}. */
+        WEAK_HOME,
+        /** Legitimacy {@code value} at or above {@code limit}, so patrols and raids are skipped. */
+        HIGH_LEGITIMACY,
+        /** No valid raid target scores at least {@code limit}. */
+        NO_RAID_TARGET,
+        /** Every rule of the cascade fell through. */
+        NO_OPS
+    }
+
+    private final IntrigueSubfaction subfaction;
+    private final Stage stage;
+    private final Kind kind;
+    private final Reason reason;
+    private final String territoryId;
+    private final IntrigueSubfaction target;
+    private final float score;
+    private final int value;
+    private final int limit;
+    private final int total;
+
+    private OpPlan(IntrigueSubfaction subfaction, Stage stage, Kind kind, Reason reason,
+                   String territoryId, IntrigueSubfaction target, float score,
+                   int value, int limit, int total) {
+        this.subfaction = subfaction;
+        this.stage = stage;
+        this.kind = kind;
+        this.reason = reason;
+        this.territoryId = territoryId;
+        this.target = target;
+        this.score = score;
+        this.value = value;
+        this.limit = limit;
+        this.total = total;
+    }
+
+    static OpPlan ready(IntrigueSubfaction subfaction, Stage stage, Kind kind, String territoryId) {
+        return new OpPlan(subfaction, stage, kind, null, territoryId, null, 0f, 0, 0, 0);
+    }
+
+    /** Ready plan from a threshold rule; {@code limit} is the threshold that let it fire. */
+    static OpPlan ready(IntrigueSubfaction subfaction, Stage stage, Kind kind, String territoryId, int limit) {
+        return new OpPlan(subfaction, stage, kind, null, territoryId, null, 0f, 0, limit, 0);
+    }
+
+    static OpPlan ready(IntrigueSubfaction subfaction, Stage stage, Kind kind, String territoryId,
+                        IntrigueSubfaction target, float score) {
+        return new OpPlan(subfaction, stage, kind, null, territoryId, target, score, 0, 0, 0);
+    }
+
+    static OpPlan blocked(IntrigueSubfaction subfaction, Stage stage, Reason reason) {
+        return blocked(subfaction, stage, reason, 0, 0, 0);
+    }
+
+    static OpPlan blocked(IntrigueSubfaction subfaction, Stage stage, Reason reason,
+                          int value, int limit, int total) {
+        return new OpPlan(subfaction, stage, null, reason, null, null, 0f, value, limit, total);
+    }
+
+    // ── Accessors ───────────────────────────────────────────────────────
+
+    public IntrigueSubfaction getSubfaction() { return subfaction; }
+    public Stage getStage() { return stage; }
+
+    /** Op this plan builds, or null if it starts none. */
+    public Kind getKind() { return kind; }
+    public boolean isReady() { return kind != null; }
+
+    /** Why nothing starts; null for a ready plan. */
+    public Reason getReason() { return reason; }
+
+    /** Territory the op runs in, or null for home and raid ops. */
+    public String getTerritoryId() { return territoryId; }
+
+    /** Raid or assault target, or null. */
+    public IntrigueSubfaction getTarget() { return target; }
+
+    /** Raid score of the chosen target (0 for other kinds). */
+    public float getScore() { return score; }
+
+    // ── Building ────────────────────────────────────────────────────────
+
+    /** Build the planned op through the op factory, taking one id from {@code opsRunner}. */
+    public IntrigueOp build(IntrigueOpRunner opsRunner, String opIdPrefix) {
+        if (kind == null) throw new IllegalStateException("Plan starts no op: " + reason);
+        String opId = opsRunner.nextOpId(opIdPrefix);
+        OpFactory factory = IntrigueServices.opFactory();
+        switch (kind) {
+            case CIVIL_WAR:                return factory.createCivilWarOp(opId, subfaction);
+            case EXPULSION:                return factory.createExpulsionOp(opId, subfaction, territoryId);
+            case INFIGHTING:               return factory.createInfightingOp(opId, subfaction, territoryId);
+            case ESTABLISH_BASE:           return factory.createEstablishBaseOp(opId, subfaction);
+            case UPGRADE_PRESENCE:         return factory.createUpgradePresenceOp(opId, subfaction, territoryId);
+            case SCOUT_TERRITORY:          return factory.createScoutTerritoryOp(opId, subfaction, territoryId);
+            case ESTABLISH_TERRITORY_BASE: return factory.createEstablishTerritoryBaseOp(opId, subfaction, territoryId);
+            case ASSAULT_TERRITORY_BASE:
+                return factory.createAssaultTerritoryBaseOp(opId, subfaction, target, territoryId);
+            case SEND_SUPPLIES:            return factory.createSendSuppliesOp(opId, subfaction, territoryId);
+            case PATROL:                   return factory.createPatrolOp(opId, subfaction, territoryId);
+            case RALLY:                    return factory.createRallyOp(opId, subfaction);
+            case RAID:                     return factory.createRaidOp(opId, subfaction, target);
+            default: throw new IllegalStateException("Unhandled kind " + kind);
+        }
+    }
+
+    // ── Description ─────────────────────────────────────────────────────
+
+    /**
+     * Human-readable decision: "READY → op (details)" or the blocking reason. Past the
+     * availability checks, the subfaction's territory status is appended.
+     */
+    public String describe() {
+        String text = kind != null ? "READY → " + kind.getOpTypeName() + readyDetail() : reasonText();
+        if (stage == Stage.GATE || stage == Stage.ESTABLISH_BASE) return text;
+        return text + "; " + OpEvaluator.describeTerritories(subfaction);
+    }
+
+    @Override
+    public String toString() {
+        return "OpPlan[" + stage + (kind != null ? " → " + kind : ": " + reason)
+                + (territoryId != null ? " @" + territoryId : "")
+                + (target != null ? " vs " + target.getSubfactionId() : "") + "]";
+    }
+
+    private String readyDetail() {
+        switch (stage) {
+            case URGENT_SUPPLIES:
+                return " (URGENT, territory=" + territoryId + ")";
+            case CRITICAL_PATROL:
+                return " (CRITICAL, legitimacy " + subfaction.getLegitimacy()
+                        + " < " + limit + ", territory=" + territoryId + ")";
+            case LOW_PATROL:
+                return " (LOW legitimacy " + subfaction.getLegitimacy()
+                        + " < " + limit + ", territory=" + territoryId + ")";
+            case RALLY:
+                return " (home cohesion " + subfaction.getHomeCohesion() + " < " + limit + ")";
+            case RAID:
+                return " " + target.getSubfactionId() + " (score=" + score + ")";
+            case ESTABLISH_BASE:
+                return " (CRIMINAL homeless)";
+            default:
+                return " (territory=" + territoryId
+                        + (target != null ? ", target=" + target.getSubfactionId() : "") + ")";
+        }
+    }
+
+    private String reasonText() {
+        String prefix = stage == Stage.ESTABLISH_BASE ? "CRIMINAL homeless, " : "";
+        switch (reason) {
+            case NULL_SUBFACTION:    return "null subfaction";
+            case DORMANT:            return "homeless (dormant) - waiting for a base";
+            case NO_LEADER:          return prefix + "no leader";
+            case LEADER_NOT_FOUND:
+                return prefix + "leader '" + subfaction.getLeaderId() + "' not found in people registry";
+            case LEADER_CHECKED_OUT: return prefix + "leader checked out";
+            case AT_CAPACITY:
+                return prefix + "at op capacity (" + value + "/" + limit + ", totalCoh=" + total + ")";
+            case ON_COOLDOWN:        return prefix + "on cooldown";
+            case WEAK_HOME:
+                return prefix + "home cohesion " + value + " < " + limit
+                        + (stage == Stage.MIN_COHESION ? " (only dysfunction/urgent supply ops allowed)" : "");
+            case HIGH_LEGITIMACY:
+                return "high legitimacy (" + value + " >= " + limit
+                        + "), patrol/raid deprioritized; no supplies needed";
+            case NO_RAID_TARGET:
+                return "no raid target scores >= " + limit;
+            case NO_OPS:             return "no ops available";
+            default:
+                return String.valueOf(reason);
+        }
+    }
+}
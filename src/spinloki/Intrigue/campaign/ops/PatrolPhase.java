@@ -13,6 +13,7 @@ import com.fs.starfarer.api.impl.campaign.fleets.RouteManager.RouteFleetSpawner;
 import com.fs.starfarer.api.impl.campaign.fleets.RouteManager.RouteSegment;
 import com.fs.starfarer.api.impl.campaign.ids.FleetTypes;
 import spinloki.Intrigue.campaign.IntrigueFleetUtil;
+import spinloki.Intrigue.campaign.spi.IntrigueServices;
 import java.io.Serializable;
 import java.util.logging.Logger;
 /**
@@ -24,6 +25,9 @@ import java.util.logging.Logger;
  * abstractly and the patrol is treated as a success when the route expires.
  * If the player is nearby and the fleet is spawned, it can be engaged and
  * destroyed, which counts as failure.</p>
+ *
+ * <p>While the route runs the phase sleeps until it is due to expire; a battle or
+ * despawn of the spawned fleet wakes its op through the fleet listener.</p>
  */
 public class PatrolPhase implements OpPhase, RouteFleetSpawner, FleetEventListener, Serializable {
     private static final long serialVersionUID = 2L;
@@ -39,6 +43,8 @@ public class PatrolPhase implements OpPhase, RouteFleetSpawner, FleetEventListen
     private boolean done = false;
     private boolean succeeded = false;
     private boolean routeStarted = false;
+    /** Days advanced since the route was registered. */
+    private float routeDays = 0f;
     private transient CampaignFleetAPI fleet;
     private String routeSource;
 
@@ -68,6 +74,7 @@ public class PatrolPhase implements OpPhase, RouteFleetSpawner, FleetEventListen
             startRoute();
             return;
         }
+        routeDays += days;
         RouteData route = findOurRoute();
         if (route == null && !done) {
             log.info("PatrolPhase: route expired (abstract patrol complete). Success.");
@@ -154,6 +161,7 @@ public class PatrolPhase implements OpPhase, RouteFleetSpawner, FleetEventListen
             succeeded = false;
             done = true;
             removeRoute();
+            IntrigueServices.ops().wake(this);
             log.info("PatrolPhase: patrol fleet defeated in battle.");
         }
     }
@@ -168,6 +176,7 @@ public class PatrolPhase implements OpPhase, RouteFleetSpawner, FleetEventListen
         }
         done = true;
         removeRoute();
+        IntrigueServices.ops().wake(this);
         log.info("PatrolPhase: fleet despawned. Reason: " + reason + ", succeeded: " + succeeded);
     }
     private void removeRoute() {
@@ -176,6 +185,12 @@ public class PatrolPhase implements OpPhase, RouteFleetSpawner, FleetEventListen
     }
     // ── OpPhase ──
     @Override public boolean isDone() { return done; }
+
+    @Override
+    public float getDaysUntilWake() {
+        if (!routeStarted || done) return 0f;
+        return Math.max(0f, patrolDays - routeDays);
+    }
     @Override
     public String getStatus() {
         if (!routeStarted) return "Preparing patrol fleet";
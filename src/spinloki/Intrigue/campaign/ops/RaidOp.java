@@ -101,7 +101,8 @@ public class RaidOp extends IntrigueOp {
     protected boolean shouldAbort() {
         if (super.shouldAbort()) return true;
 
-        // Cancel cross-faction raids if parent factions are no longer hostile
+        // Cancel cross-faction raids if parent factions are no longer hostile. This asks
+        // the sector's live checker; hostility is only memoized inside evaluation passes.
         IntrigueSubfaction attacker = getInitiatorSubfaction();
         IntrigueSubfaction defender = getTargetSubfaction();
         if (attacker == null || defender == null) return true;
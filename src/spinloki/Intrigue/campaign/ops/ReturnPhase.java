@@ -28,6 +28,11 @@ public class ReturnPhase implements OpPhase {
         return elapsed >= durationDays;
     }
 
+    @Override
+    public float getDaysUntilWake() {
+        return Math.max(0f, durationDays - elapsed);
+    }
+
     @Override
     public String getStatus() {
         float remaining = Math.max(0, durationDays - elapsed);
@@ -19,6 +19,7 @@ public class TimedPhase implements OpPhase, Serializable {
 
     @Override public void advance(float days) { elapsed += days; }
     @Override public boolean isDone() { return elapsed >= duration; }
+    @Override public float getDaysUntilWake() { return Math.max(0f, duration - elapsed); }
     @Override public String getStatus() { return isDone() ? label + " complete" : label + " ongoing"; }
 }
 
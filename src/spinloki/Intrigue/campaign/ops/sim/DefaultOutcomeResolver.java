@@ -2,25 +2,29 @@ package spinloki.Intrigue.campaign.ops.sim;
 
 import spinloki.Intrigue.campaign.IntrigueSubfaction;
 import spinloki.Intrigue.campaign.ops.OpOutcome;
+import spinloki.Intrigue.campaign.spi.IntrigueServices;
 
+import java.io.Serializable;
 import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Random;
 
 /**
  * Default outcome resolver that uses {@link SimConfig} probabilities and
  * a sigmoid model for combat. Supports per-subfaction probability modifiers
  * (e.g. from simulated player intervention) and verbose probability logging.
+ *
+ * Rolls come from {@link IntrigueServices#random()}, which {@link SimOpRunner} binds to
+ * the resolving op's own stream.
  */
-public class DefaultOutcomeResolver implements OpOutcomeResolver {
+public class DefaultOutcomeResolver implements OpOutcomeResolver, Serializable {
+
+    private static final long serialVersionUID = 1L;
 
-    private final Random rng;
     private final SimConfig config;
     private final boolean verbose;
     private final Map<String, Float> modifiers = new LinkedHashMap<>();
 
-    public DefaultOutcomeResolver(Random rng, SimConfig config) {
-        this.rng = rng;
+    public DefaultOutcomeResolver(SimConfig config) {
         this.config = config;
         this.verbose = "true".equals(System.getProperty("intrigue.verbose"));
     }
@@ -57,7 +61,7 @@ public class DefaultOutcomeResolver implements OpOutcomeResolver {
 
         double diff = attackerFP - defenderFP;
         double prob = 1.0 / (1.0 + Math.exp(-config.combatSteepness * diff));
-        double roll = rng.nextDouble();
+        double roll = IntrigueServices.random().nextDouble();
         OpOutcome result = roll < prob ? OpOutcome.SUCCESS : OpOutcome.FAILURE;
 
         if (verbose) {
@@ -102,7 +106,18 @@ public class DefaultOutcomeResolver implements OpOutcomeResolver {
         return resolveFlat("Mischief", initiator, config.mischiefSuccessProb);
     }
 
-    // ── Shared helper ──
+    @Override
+    public OpOutcome resolveUpgradePresence(IntrigueSubfaction subfaction, String territoryId) {
+        // High success rate (75%) since the subfaction already invested heavily in cohesion
+        return resolveUnmodified("Upgrade Presence", subfaction, 0.75f);
+    }
+
+    @Override
+    public OpOutcome resolveAssaultTerritoryBase(IntrigueSubfaction attacker, String territoryId, float chance) {
+        return resolveUnmodified("Assault Terr. Base", attacker, chance);
+    }
+
+    // ── Shared helpers ──
 
     /**
      * Resolve a flat-probability op with modifier support and verbose logging.
@@ -116,7 +131,7 @@ public class DefaultOutcomeResolver implements OpOutcomeResolver {
         String sfId = subfaction != null ? subfaction.getSubfactionId() : "?";
         float modifier = getSubfactionModifier(sfId);
         float effective = Math.max(0f, Math.min(1f, baseProb + modifier));
-        float roll = rng.nextFloat();
+        float roll = IntrigueServices.random().nextFloat();
         OpOutcome result = roll < effective ? OpOutcome.SUCCESS : OpOutcome.FAILURE;
 
         if (verbose) {
@@ -128,4 +143,17 @@ public class DefaultOutcomeResolver implements OpOutcomeResolver {
 
         return result;
     }
+
+    /** Resolve a fixed-probability op. Player modifiers do not apply. */
+    private OpOutcome resolveUnmodified(String opName, IntrigueSubfaction subfaction, float prob) {
+        float roll = IntrigueServices.random().nextFloat();
+        OpOutcome result = roll < prob ? OpOutcome.SUCCESS : OpOutcome.FAILURE;
+
+        if (verbose) {
+            String sfId = subfaction != null ? subfaction.getSubfactionId() : "?";
+            System.out.printf("    [prob] %-20s %-20s chance=%.0f%%  roll=%.3f -> %s%n",
+                    opName, sfId, prob * 100, roll, result);
+        }
+        return result;
+    }
 }
@@ -37,6 +37,15 @@ public interface OpOutcomeResolver {
     /** Resolve a mischief op (sabotage another subfaction's op in a shared territory). */
     OpOutcome resolveMischief(IntrigueSubfaction initiator, IntrigueSubfaction victim);
 
+    /** Resolve a presence upgrade (ESTABLISHED → FORTIFIED → DOMINANT). */
+    OpOutcome resolveUpgradePresence(IntrigueSubfaction subfaction, String territoryId);
+
+    /**
+     * Resolve an assault on a hostile territory base.
+     * @param chance success chance already derived from relative cohesion
+     */
+    OpOutcome resolveAssaultTerritoryBase(IntrigueSubfaction attacker, String territoryId, float chance);
+
     /**
      * Set a probability modifier for a subfaction (e.g. from player intervention).
      * Positive = favor (higher success), negative = disfavor (lower success).
@@ -0,0 +1,67 @@
+package spinloki.Intrigue.campaign.ops.sim;
+
+import spinloki.Intrigue.campaign.ops.IntrigueOp;
+
+import java.util.*;
+
+/**
+ * Splits a batch of ops into groups that share no state: two ops land in the same group
+ * when they touch a common subfaction (initiator or target), territory or person
+ * (initiator, target or participant), directly or through a chain of other ops. Every
+ * sim op only changes and reads entities named by those ids (plus immutable data and the
+ * listener-driven indexes, see {@link spinloki.Intrigue.campaign.DeferredIndexUpdates}),
+ * so groups can be advanced on different threads. Nothing checks that at run time;
+ * SimIntegrationTest advances every op type with the groups reversed and on threads and
+ * compares the whole sector, so a new op that writes shared state fails there.
+ *
+ * Union-find over op positions. Groups come out ordered by their first op, and each lists
+ * its ops' positions in ascending (start) order.
+ */
+final class OpPartitioner {
+
+    private OpPartitioner() {}
+
+    /** Groups of positions in {@code ops}; together they cover every position once. */
+    static List<int[]> partition(List<IntrigueOp> ops) {
+        int n = ops.size();
+        int[] parent = new int[n];
+        for (int i = 0; i < n; i++) parent[i] = i;
+        Map<String, Integer> owner = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            IntrigueOp op = ops.get(i);
+            join(parent, owner, "s:", op.getInitiatorSubfactionId(), i);
+            join(parent, owner, "s:", op.getTargetSubfactionId(), i);
+            join(parent, owner, "t:", op.getTerritoryId(), i);
+            join(parent, owner, "p:", op.getInitiatorId(), i);
+            join(parent, owner, "p:", op.getTargetId(), i);
+            for (String personId : op.getParticipantIds()) join(parent, owner, "p:", personId, i);
+        }
+
+        Map<Integer, List<Integer>> byRoot = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) byRoot.computeIfAbsent(find(parent, i), k -> new ArrayList<>()).add(i);
+        List<int[]> groups = new ArrayList<>(byRoot.size());
+        for (List<Integer> members : byRoot.values()) {
+            int[] group = new int[members.size()];
+            for (int j = 0; j < group.length; j++) group[j] = members.get(j);
+            groups.add(group);
+        }
+        return groups;
+    }
+
+    private static void join(int[] parent, Map<String, Integer> owner, String kind, String id, int op) {
+        if (id == null) return;
+        Integer first = owner.putIfAbsent(kind + id, op);
+        if (first == null) return;
+        int a = find(parent, first);
+        int b = find(parent, op);
+        if (a != b) parent[Math.max(a, b)] = Math.min(a, b);
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+}
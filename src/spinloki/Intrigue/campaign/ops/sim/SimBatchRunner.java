@@ -0,0 +1,244 @@
+package spinloki.Intrigue.campaign.ops.sim;
+
+import spinloki.Intrigue.campaign.IntrigueTerritory;
+
+import java.io.PrintStream;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Monte Carlo batch mode for the balance simulation. Runs N independently seeded
+ * {@link SimRun}s on a worker pool and merges their per-subfaction statistics into
+ * mean/percentile tables.
+ *
+ * Every run owns its own sector context, so runs execute truly in parallel. Run i
+ * uses seed {@code baseSeed + i}, and results are merged in run order, so a batch is
+ * reproducible regardless of thread count or how the pool schedules its workers.
+ *
+ * Usage: {@code ./run_balance_tests.sh --batch=1000 [--threads=N] [--seed=N]}
+ */
+public class SimBatchRunner {
+
+    private final SimConfig config;
+    private final int runs;
+    private final int ticks;
+
+    private long baseSeed = SimRun.DEFAULT_SEED;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private String configPath;
+    private String territoriesPath;
+    private SimSectorGenerator generator;
+    private String playerMode;
+    private int playerInterval;
+
+    public SimBatchRunner(SimConfig config, int runs, int ticks) {
+        this.config = config;
+        this.runs = runs;
+        this.ticks = ticks;
+        this.playerInterval = config.playerActionInterval;
+    }
+
+    public SimBatchRunner withBaseSeed(long baseSeed) {
+        this.baseSeed = baseSeed;
+        return this;
+    }
+
+    public SimBatchRunner withThreads(int threads) {
+        this.threads = Math.max(1, threads);
+        return this;
+    }
+
+    public SimBatchRunner withScenario(String configPath, String territoriesPath) {
+        this.configPath = configPath;
+        this.territoriesPath = territoriesPath;
+        return this;
+    }
+
+    public SimBatchRunner withGenerator(SimSectorGenerator generator) {
+        this.generator = generator;
+        return this;
+    }
+
+    public SimBatchRunner withPlayer(String playerMode, int playerInterval) {
+        this.playerMode = playerMode;
+        this.playerInterval = playerInterval;
+        return this;
+    }
+
+    /** Number of runs in the batch. */
+    int getRuns() { return runs; }
+    int getThreads() { return threads; }
+
+    /** Build the run for batch index i. Each run gets its own copy of the config. */
+    SimRun createRun(int index) {
+        SimRun run = new SimRun(config.copy(), baseSeed + index, ticks)
+                .withPlayer(playerMode, playerInterval);
+        if (configPath != null) run.withScenario(configPath, territoriesPath);
+        if (generator != null) run.withGenerator(generator);
+        return run;
+    }
+
+    /** Run every seed and return the stats in run order. */
+    public List<SimRunStats> run() {
+        List<SimRun> batch = new ArrayList<>(runs);
+        for (int i = 0; i < runs; i++) {
+            batch.add(createRun(i));
+        }
+        return runAll(batch, threads);
+    }
+
+    /**
+     * Run independent {@link SimRun}s (fresh seeds or {@link SimSnapshot} forks) on a pool
+     * of {@code threads} workers and return their stats in list order.
+     */
+    public static List<SimRunStats> runAll(List<SimRun> batch, int threads) {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(Math.max(1, threads), Math.max(1, batch.size())));
+        try {
+            List<Future<SimRunStats>> futures = new ArrayList<>(batch.size());
+            for (SimRun run : batch) {
+                futures.add(pool.submit(run::run));
+            }
+            List<SimRunStats> results = new ArrayList<>(batch.size());
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Batch run failed for seed " + batch.get(i).getSeed(), e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Batch interrupted", e);
+                }
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // ── Merging ─────────────────────────────────────────────────────────
+
+    /** Distribution of one per-subfaction metric across runs. */
+    public static SimDistribution metric(List<SimRunStats> results, String subfactionId,
+                                         ToDoubleFunction<SimRunStats.SubfactionStats> extractor) {
+        double[] samples = new double[results.size()];
+        int n = 0;
+        for (SimRunStats r : results) {
+            SimRunStats.SubfactionStats ss = r.get(subfactionId);
+            if (ss != null) samples[n++] = extractor.applyAsDouble(ss);
+        }
+        return new SimDistribution(Arrays.copyOf(samples, n));
+    }
+
+    /** Print mean/percentile tables for every subfaction, in first-run order. */
+    public static void printReport(List<SimRunStats> results, PrintStream out) {
+        if (results.isEmpty()) {
+            out.println("  (no runs)");
+            return;
+        }
+        int n = results.size();
+        for (SimRunStats.SubfactionStats first : results.get(0).getAll()) {
+            String id = first.subfactionId;
+            out.printf("  %-35s [%s]%n", first.name, first.factionId);
+            out.printf("    %-24s %8s %8s %8s %8s %8s%n", "metric", "mean", "p10", "p50", "p90", "max");
+            printRow(out, "End home cohesion", metric(results, id, ss -> ss.endCohesion));
+            printRow(out, "End legitimacy", metric(results, id, ss -> ss.endLegitimacy));
+            printRow(out, "Min home cohesion", metric(results, id, ss -> ss.minCohesion));
+            printRow(out, "Ops launched", metric(results, id, SimRunStats.SubfactionStats::totalOps));
+            printRow(out, "Ops succeeded", metric(results, id, SimRunStats.SubfactionStats::totalSuccesses));
+            printRow(out, "Territories held (end)", metric(results, id, SimRunStats.SubfactionStats::territoriesHeld));
+            printRow(out, "Evictions", metric(results, id, ss -> ss.evictions));
+            printRow(out, "Civil wars", metric(results, id, ss -> ss.civilWars));
+            printRow(out, "Vuln raids launched", metric(results, id, ss -> ss.vulnRaidsLaunched));
+            printRow(out, "Vuln raids suffered", metric(results, id, ss -> ss.vulnRaidsSuffered));
+
+            // Mean op mix per run
+            Map<String, Integer> opTotals = new LinkedHashMap<>();
+            for (SimRunStats r : results) {
+                SimRunStats.SubfactionStats ss = r.get(id);
+                if (ss == null) continue;
+                for (Map.Entry<String, Integer> e : ss.opCounts.entrySet()) {
+                    opTotals.merge(e.getKey(), e.getValue(), Integer::sum);
+                }
+            }
+            if (!opTotals.isEmpty()) {
+                StringBuilder sb = new StringBuilder("    Ops/run: ");
+                boolean firstOp = true;
+                for (Map.Entry<String, Integer> e : opTotals.entrySet()) {
+                    if (!firstOp) sb.append(", ");
+                    sb.append(e.getKey()).append(String.format("=%.1f", e.getValue() / (float) n));
+                    firstOp = false;
+                }
+                out.println(sb);
+            }
+
+            // Presence outcomes: share of runs ending at each tier
+            for (SimRunStats.TerritoryStats firstTs : first.territories.values()) {
+                int[] endTiers = new int[IntrigueTerritory.Presence.values().length];
+                for (SimRunStats r : results) {
+                    SimRunStats.SubfactionStats ss = r.get(id);
+                    SimRunStats.TerritoryStats ts = ss != null ? ss.territories.get(firstTs.territoryId) : null;
+                    if (ts != null) endTiers[ts.endPresence.ordinal()]++;
+                }
+                if (endTiers[IntrigueTerritory.Presence.NONE.ordinal()] == n) continue;
+                StringBuilder sb = new StringBuilder(String.format("    Territory %-22s  end presence:", firstTs.name));
+                for (IntrigueTerritory.Presence p : IntrigueTerritory.Presence.values()) {
+                    int c = endTiers[p.ordinal()];
+                    if (c > 0) sb.append(String.format(" %s %.0f%%", p, 100f * c / n));
+                }
+                out.println(sb);
+            }
+            out.println();
+        }
+    }
+
+    private static void printRow(PrintStream out, String label, SimDistribution d) {
+        out.printf("    %-24s %8.1f %8.0f %8.0f %8.0f %8.0f%n",
+                label, d.mean(), d.percentile(10), d.percentile(50), d.percentile(90), d.max());
+    }
+
+    // ── Entry point ─────────────────────────────────────────────────────
+
+    /** Batch configured from system properties (seed, player, threads, scenario, synthetic sector). */
+    static SimBatchRunner fromProperties(int runs, int ticks) {
+        SimConfig config = SimConfig.defaults();
+        SimBatchRunner batch = new SimBatchRunner(config, runs, ticks)
+                .withBaseSeed(SimIntegrationTest.seedProperty())
+                .withPlayer(System.getProperty("intrigue.player"),
+                        SimIntegrationTest.playerIntervalProperty(config));
+        String threadsProp = System.getProperty("intrigue.threads");
+        if (threadsProp != null) {
+            try { batch.withThreads(Integer.parseInt(threadsProp)); } catch (NumberFormatException ignored) {}
+        }
+        String configPath = System.getProperty("intrigue.config");
+        if (configPath != null) {
+            batch.withScenario(configPath, System.getProperty("intrigue.territories"));
+        }
+        SimSectorGenerator generator = SimIntegrationTest.generatorProperty();
+        if (generator != null) batch.withGenerator(generator);
+        return batch;
+    }
+
+    /** Batch run configured from system properties (see run_balance_tests.sh). */
+    static void runFromProperties(int runs, int ticks) {
+        SimBatchRunner batch = fromProperties(runs, ticks);
+
+        System.out.printf("%n╔═══════════════════════════════════════════════════╗%n");
+        System.out.printf("║   Monte Carlo Batch: %5d runs x %5d ticks        ║%n", runs, ticks);
+        System.out.printf("╚═══════════════════════════════════════════════════╝%n%n");
+
+        long startNanos = System.nanoTime();
+        List<SimRunStats> results = batch.run();
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+
+        printReport(results, System.out);
+        System.out.printf("  Batch: %d runs (seeds %d..%d), %d threads, %.1fs%n",
+                results.size(), batch.baseSeed, batch.baseSeed + runs - 1, batch.threads, seconds);
+    }
+
+    public static void main(String[] args) {
+        int runs = Integer.parseInt(System.getProperty("intrigue.batch", "100"));
+        int ticks = Integer.parseInt(System.getProperty("intrigue.ticks", "200"));
+        runFromProperties(runs, ticks);
+    }
+}
@@ -0,0 +1,268 @@
+package spinloki.Intrigue.campaign.ops.sim;
+
+import spinloki.Intrigue.campaign.IntrigueSubfaction;
+import spinloki.Intrigue.campaign.ops.EvaluationContext;
+import spinloki.Intrigue.campaign.ops.IntrigueOp;
+import spinloki.Intrigue.campaign.ops.OpEvaluator;
+import spinloki.Intrigue.campaign.spi.IntrigueContext;
+import spinloki.Intrigue.campaign.spi.IntrigueServices;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Micro-benchmarks for OpEvaluator and the sim tick pipeline over synthetic sectors
+ * of increasing size. Reports average time and allocated bytes per operation,
+ * JMH-style.
+ *
+ * Each benchmark runs a number of warmup iterations followed by measured iterations.
+ * Every iteration builds a fresh sector (untimed), so benchmarks that mutate state
+ * (a full tick) always measure the same starting regime.
+ *
+ * Usage: {@code ./run_balance_tests.sh --bench [--bench-sizes=14,100,1000]}
+ */
+public class SimBenchmark {
+
+    /** Default sector sizes (subfaction counts). */
+    public static final int[] DEFAULT_SIZES = {14, 100, 1000, 5000};
+
+    private static final long SECTOR_SEED = 4242L;
+
+    /** One benchmarked operation. Returns a value that is folded into {@link #sink}. */
+    interface BenchOp {
+        int run(int invocation);
+    }
+
+    /** A benchmark: binds its op to a freshly built sector. */
+    static class Benchmark {
+        final Function<IntrigueContext, BenchOp> setup;
+        /** True if the op changes the sector, so iterations are capped at maxInvocations. */
+        final boolean mutatesSector;
+
+        Benchmark(Function<IntrigueContext, BenchOp> setup, boolean mutatesSector) {
+            this.setup = setup;
+            this.mutatesSector = mutatesSector;
+        }
+    }
+
+    /** Sink for benchmark results, so the JIT can't eliminate the measured work. */
+    static volatile int sink;
+
+    private final int warmupIterations;
+    private final int measureIterations;
+    private final long iterationNanos;
+    /** Cap on invocations per iteration for benchmarks that change the sector as they run. */
+    private final int maxInvocations;
+
+    public SimBenchmark(int warmupIterations, int measureIterations, long iterationMillis, int maxInvocations) {
+        this.warmupIterations = warmupIterations;
+        this.measureIterations = measureIterations;
+        this.iterationNanos = iterationMillis * 1_000_000L;
+        this.maxInvocations = maxInvocations;
+    }
+
+    // ── Result ──────────────────────────────────────────────────────────
+
+    /** Per-iteration scores for one (benchmark, size) pair. */
+    public static class Result {
+        public final String benchmark;
+        public final int subfactions;
+        public final SimDistribution nanosPerOp;
+        /** Bytes allocated per op, or null if the JVM can't report thread allocation. */
+        public final SimDistribution bytesPerOp;
+
+        Result(String benchmark, int subfactions, SimDistribution nanosPerOp, SimDistribution bytesPerOp) {
+            this.benchmark = benchmark;
+            this.subfactions = subfactions;
+            this.nanosPerOp = nanosPerOp;
+            this.bytesPerOp = bytesPerOp;
+        }
+    }
+
+    // ── Benchmarks ──────────────────────────────────────────────────────
+
+    /**
+     * Benchmarks in report order. Only the tick mutates the sector: the synthetic sector's
+     * friction stays below the threshold, so evaluateMischiefOps measures the pair scan.
+     */
+    static Map<String, Benchmark> benchmarks() {
+        Map<String, Benchmark> b = new LinkedHashMap<>();
+        b.put("computeTotalCohesion", new Benchmark(ctx -> {
+            List<IntrigueSubfaction> all = new ArrayList<>(ctx.subfactions().getAll());
+            return i -> OpEvaluator.computeTotalCohesion(all.get(i % all.size()));
+        }, false));
+        b.put("evaluate", new Benchmark(ctx -> {
+            List<IntrigueSubfaction> all = new ArrayList<>(ctx.subfactions().getAll());
+            SimOpRunner ops = (SimOpRunner) ctx.ops();
+            return i -> {
+                IntrigueOp op = OpEvaluator.evaluate(all.get(i % all.size()), ops, "bench");
+                return op != null ? 1 : 0;
+            };
+        }, false));
+        b.put("evaluateSharedContext", new Benchmark(ctx -> {
+            // One EvaluationContext per pass over the sector, like a tick's evaluation stage
+            List<IntrigueSubfaction> all = new ArrayList<>(ctx.subfactions().getAll());
+            SimOpRunner ops = (SimOpRunner) ctx.ops();
+            EvaluationContext[] pass = new EvaluationContext[1];
+            return i -> {
+                if (i % all.size() == 0 || pass[0] == null) pass[0] = new EvaluationContext(ops);
+                IntrigueOp op = OpEvaluator.evaluate(all.get(i % all.size()), pass[0], "bench");
+                return op != null ? 1 : 0;
+            };
+        }, false));
+        b.put("evaluateVulnerabilityRaids", new Benchmark(ctx -> {
+            SimOpRunner ops = (SimOpRunner) ctx.ops();
+            return i -> OpEvaluator.evaluateVulnerabilityRaids(ops, "bench").size();
+        }, false));
+        b.put("evaluateMischiefOps", new Benchmark(ctx -> {
+            SimOpRunner ops = (SimOpRunner) ctx.ops();
+            int threshold = SimConfig.defaults().frictionThreshold;
+            return i -> OpEvaluator.evaluateMischiefOps(ops, "bench", threshold).size();
+        }, false));
+        b.put("tick", new Benchmark(ctx -> {
+            SimRun run = new SimRun(SimConfig.defaults(), SECTOR_SEED, Integer.MAX_VALUE);
+            run.begin((SimClock) ctx.clock());
+            return i -> {
+                run.tick();
+                return i;
+            };
+        }, true));
+        return b;
+    }
+
+    /** Run every benchmark at every size. */
+    public List<Result> runAll(int[] sizes, PrintStream progress) {
+        List<Result> results = new ArrayList<>();
+        for (Map.Entry<String, Benchmark> e : benchmarks().entrySet()) {
+            for (int size : sizes) {
+                if (progress != null) progress.printf("  # %s (subfactions=%d)%n", e.getKey(), size);
+                results.add(measure(e.getKey(), size, e.getValue()));
+            }
+        }
+        return results;
+    }
+
+    /** Warm up, then measure one benchmark at one sector size. */
+    public Result measure(String name, int subfactions, Benchmark benchmark) {
+        for (int w = 0; w < warmupIterations; w++) {
+            iteration(subfactions, benchmark);
+        }
+        double[] nanos = new double[measureIterations];
+        double[] bytes = new double[measureIterations];
+        boolean allocSupported = true;
+        for (int m = 0; m < measureIterations; m++) {
+            double[] score = iteration(subfactions, benchmark);
+            nanos[m] = score[0];
+            bytes[m] = score[1];
+            if (score[1] < 0) allocSupported = false;
+        }
+        return new Result(name, subfactions, new SimDistribution(nanos),
+                allocSupported ? new SimDistribution(bytes) : null);
+    }
+
+    /** One iteration on a fresh sector: returns {ns/op, bytes/op (-1 if unsupported)}. */
+    private double[] iteration(int subfactions, Benchmark benchmark) {
+        IntrigueContext ctx = buildSector(subfactions, SECTOR_SEED);
+        int cap = benchmark.mutatesSector ? maxInvocations : Integer.MAX_VALUE;
+        return IntrigueServices.callWith(ctx, () -> {
+            BenchOp op = benchmark.setup.apply(ctx);
+            int acc = 0;
+            int n = 0;
+            long allocStart = allocatedBytes();
+            long start = System.nanoTime();
+            long elapsed;
+            do {
+                acc += op.run(n++);
+                elapsed = System.nanoTime() - start;
+            } while (elapsed < iterationNanos && n < cap);
+            long allocEnd = allocatedBytes();
+            sink += acc;
+            double bytesPerOp = (allocStart < 0 || allocEnd < 0) ? -1 : (allocEnd - allocStart) / (double) n;
+            return new double[]{elapsed / (double) n, bytesPerOp};
+        });
+    }
+
+    /** Bytes allocated so far by the current thread, or -1 if the JVM doesn't report it. */
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+            if (sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled()) {
+                return sunBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    // ── Synthetic sector ────────────────────────────────────────────────
+
+    /**
+     * Build a seeded synthetic sector with {@code n} subfactions (see {@link SimSectorGenerator}).
+     * Territories scale with n/20 (clamped to 4..100), and each territory starts with a mix
+     * of scouting and established subfactions, sub-threshold friction between established
+     * pairs and a few zero-legitimacy subfactions (vulnerability raid victims).
+     */
+    static IntrigueContext buildSector(int n, long seed) {
+        return new SimSectorGenerator(n)
+                .withTerritories(Math.max(4, Math.min(100, n / 20)))
+                .withZeroLegitimacyShare(0.05)
+                .withInitialPresence(0.3, 0.2, true)
+                .withLayoutSeed(seed)
+                .build(seed, SimConfig.defaults());
+    }
+
+    // ── Report ──────────────────────────────────────────────────────────
+
+    /** Print results in a JMH-like table (error = one sample standard deviation). */
+    public static void printReport(List<Result> results, PrintStream out) {
+        out.printf("  %-32s %13s %5s %14s %12s  %s%n",
+                "Benchmark", "(subfactions)", "Cnt", "Score", "Error", "Units");
+        for (Result r : results) {
+            out.printf("  %-32s %13d %5d %14.1f +- %10.1f  ns/op%n",
+                    r.benchmark, r.subfactions, r.nanosPerOp.count(),
+                    r.nanosPerOp.mean(), r.nanosPerOp.stdDev());
+            if (r.bytesPerOp != null) {
+                out.printf("  %-32s %13d %5d %14.1f +- %10.1f  B/op%n",
+                        r.benchmark + ":alloc", r.subfactions, r.bytesPerOp.count(),
+                        r.bytesPerOp.mean(), r.bytesPerOp.stdDev());
+            }
+        }
+    }
+
+    // ── Entry point ─────────────────────────────────────────────────────
+
+    /** Parse a comma-separated size list, falling back to {@link #DEFAULT_SIZES}. */
+    static int[] parseSizes(String prop) {
+        if (prop == null || prop.trim().isEmpty()) return DEFAULT_SIZES;
+        String[] parts = prop.split(",");
+        int[] sizes = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            sizes[i] = Integer.parseInt(parts[i].trim());
+        }
+        return sizes;
+    }
+
+    /** Benchmark run configured from system properties (see run_balance_tests.sh). */
+    static void runFromProperties() {
+        int[] sizes = parseSizes(System.getProperty("intrigue.bench.sizes"));
+        SimBenchmark bench = new SimBenchmark(
+                Integer.getInteger("intrigue.bench.warmup", 3),
+                Integer.getInteger("intrigue.bench.iterations", 5),
+                Integer.getInteger("intrigue.bench.millis", 200),
+                Integer.getInteger("intrigue.bench.maxTicks", 50));
+
+        System.out.printf("%n╔═══════════════════════════════════════════════════╗%n");
+        System.out.printf("║   Sim Benchmarks: sizes %-26s║%n", Arrays.toString(sizes));
+        System.out.printf("╚═══════════════════════════════════════════════════╝%n%n");
+
+        List<Result> results = bench.runAll(sizes, System.out);
+        System.out.println();
+        printReport(results, System.out);
+    }
+
+    public static void main(String[] args) {
+        runFromProperties();
+    }
+}
@@ -2,10 +2,14 @@ package spinloki.Intrigue.campaign.ops.sim;
 
 import spinloki.Intrigue.campaign.spi.IntrigueClock;
 
+import java.io.Serializable;
+
 /**
  * Sim-side clock implementation. Time is advanced by explicit calls.
  */
-public class SimClock implements IntrigueClock {
+public class SimClock implements IntrigueClock, Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private long currentTimestamp = 0;
 
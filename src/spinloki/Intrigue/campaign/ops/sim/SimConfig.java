@@ -1,5 +1,7 @@
 package spinloki.Intrigue.campaign.ops.sim;
 
+import spinloki.Intrigue.campaign.ops.OpCascade;
+
 /**
  * Configuration for sim-mode operations. All tunable parameters in one place.
  */
@@ -62,6 +64,14 @@ public class SimConfig {
     public int rallyCohesionThreshold = 50;
     /** Legitimacy threshold above which Patrol and Raid are deprioritized. */
     public int highLegitimacyThreshold = 80;
+    /** Legitimacy below which patrol is prioritized above routine supplies. */
+    public int criticalLegitimacyThreshold = 30;
+    /** Legitimacy below which patrol is prioritized above raids (but after supplies). */
+    public int lowLegitimacyThreshold = 50;
+    /** Minimum home cohesion to initiate anything past rally. */
+    public int minCohesionThreshold = 35;
+    /** Territory cohesion below which routine supplies are sent (urgent below infightingCohesionThreshold). */
+    public int routineSupplyCohesionThreshold = 50;
     /** Territory cohesion decay per tick. */
     public int territoryCohesionDecayPerTick = 1;
 
@@ -185,6 +195,10 @@ public class SimConfig {
         c.rallyCohesionGain = rallyCohesionGain;
         c.rallyCohesionThreshold = rallyCohesionThreshold;
         c.highLegitimacyThreshold = highLegitimacyThreshold;
+        c.criticalLegitimacyThreshold = criticalLegitimacyThreshold;
+        c.lowLegitimacyThreshold = lowLegitimacyThreshold;
+        c.minCohesionThreshold = minCohesionThreshold;
+        c.routineSupplyCohesionThreshold = routineSupplyCohesionThreshold;
         c.territoryCohesionDecayPerTick = territoryCohesionDecayPerTick;
         c.infightingCohesionThreshold = infightingCohesionThreshold;
         c.infightingLegitimacyLoss = infightingLegitimacyLoss;
@@ -215,5 +229,21 @@ public class SimConfig {
         c.mischiefTargetSuccessPenalty = mischiefTargetSuccessPenalty;
         return c;
     }
+
+    /** Op priority thresholds for {@link OpCascade#compile}. */
+    public OpCascade.Thresholds cascadeThresholds() {
+        OpCascade.Thresholds t = OpCascade.Thresholds.defaults();
+        t.criticalLegitimacy = criticalLegitimacyThreshold;
+        t.lowLegitimacy = lowLegitimacyThreshold;
+        t.highLegitimacy = highLegitimacyThreshold;
+        t.rallyCohesion = rallyCohesionThreshold;
+        t.minHomeCohesion = minCohesionThreshold;
+        t.urgentSupplyCohesion = infightingCohesionThreshold;
+        t.routineSupplyCohesion = routineSupplyCohesionThreshold;
+        t.expulsionCohesion = expulsionCohesionThreshold;
+        t.expulsionTicks = expulsionTicksRequired;
+        t.civilWarTicks = civilWarTicksRequired;
+        return t;
+    }
 }
 
@@ -0,0 +1,38 @@
+package spinloki.Intrigue.campaign.ops.sim;
+
+import java.util.Arrays;
+
+/**
+ * Sample distribution of one metric across sim runs: mean, spread and nearest-rank percentiles.
+ */
+public class SimDistribution {
+
+    private final double[] sorted;
+    private final double mean;
+    private final double stdDev;
+
+    public SimDistribution(double[] samples) {
+        this.sorted = samples.clone();
+        Arrays.sort(sorted);
+        double sum = 0;
+        for (double v : sorted) sum += v;
+        this.mean = sorted.length > 0 ? sum / sorted.length : 0;
+        double sq = 0;
+        for (double v : sorted) sq += (v - mean) * (v - mean);
+        this.stdDev = sorted.length > 1 ? Math.sqrt(sq / (sorted.length - 1)) : 0;
+    }
+
+    public int count() { return sorted.length; }
+    public double mean() { return mean; }
+    /** Sample standard deviation (n - 1 denominator). */
+    public double stdDev() { return stdDev; }
+    public double min() { return sorted.length > 0 ? sorted[0] : 0; }
+    public double max() { return sorted.length > 0 ? sorted[sorted.length - 1] : 0; }
+
+    /** Nearest-rank percentile, p in [0, 100]. */
+    public double percentile(double p) {
+        if (sorted.length == 0) return 0;
+        int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+}
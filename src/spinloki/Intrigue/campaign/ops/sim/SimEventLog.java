@@ -0,0 +1,419 @@
+package spinloki.Intrigue.campaign.ops.sim;
+
+import spinloki.Intrigue.campaign.IntrigueSubfaction;
+import spinloki.Intrigue.campaign.IntrigueTerritory;
+import spinloki.Intrigue.campaign.ops.IntrigueOp;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Compact binary event log for one sim run. Records every op start and outcome plus
+ * every change to subfaction and territory state, tick by tick, so {@link SimReplay}
+ * can rebuild the sector at any tick without re-running the evaluator.
+ *
+ * <p>File layout (big-endian, {@link DataOutputStream}):</p>
+ * <ul>
+ *   <li>Header: magic, version, seed, planned ticks, then the subfaction table
+ *       (id, name, faction, type) and the territory table (id, name, tier, slot count,
+ *       interested factions).
+ *       Subfactions and territories are referred to by their index in these tables.</li>
+ *   <li>Events: fixed-width {@value #RECORD_BYTES}-byte records
+ *       {@code type:u8 field:u8 a:u16 b:u16 c:u16 tick:i32 value:i64}, ending with an
+ *       {@link #END} record. Setup state is recorded at tick -1.</li>
+ *   <li>Footer: the string table (op labels, market ids) that string-valued records index.</li>
+ * </ul>
+ *
+ * State changes are detected by diffing against the last recorded state at the end of
+ * every tick, so ops never need to know they're being recorded. A territory is only
+ * diffed when its change count moved ({@link IntrigueTerritory#getChangeCount}), and then
+ * only for the subfactions that have or had state there.
+ */
+public class SimEventLog implements Closeable {
+
+    public static final int MAGIC = 0x494E5452; // "INTR"
+    public static final short VERSION = 1;
+    public static final int RECORD_BYTES = 20;
+
+    /** Index value meaning "none" in the a/b/c slots. */
+    public static final int NONE = 0xFFFF;
+    /** Value of a cleared string-valued field. */
+    public static final long ABSENT = Long.MIN_VALUE;
+
+    // ── Record types ──
+    /** End of tick. */
+    public static final byte TICK_END = 1;
+    /** Op started: a=initiator, b=target, c=territory, value = label string &lt;&lt; 32 | op seq. */
+    public static final byte OP_START = 2;
+    /** Op resolved: field=outcome ordinal, a=initiator, b=mischief penalty %, c=1 if sabotaged, value=op seq. */
+    public static final byte OP_OUTCOME = 3;
+    /** Subfaction stat: field=SF_* code, a=subfaction. */
+    public static final byte SF_STAT = 4;
+    /** Relationship a→b, recorded per direction. Relationships are never cleared. */
+    public static final byte RELATIONSHIP = 5;
+    /** Territory stat: field=TERR_* code, a=subfaction, b=territory (c=slot index for TERR_SLOT). */
+    public static final byte TERR_STAT = 6;
+    /** Directed friction: a=from, c=to, b=territory. */
+    public static final byte FRICTION = 7;
+    /** Player success modifier: a=subfaction, value=float bits. */
+    public static final byte PLAYER_MODIFIER = 8;
+    /** Last record before the footer. */
+    public static final byte END = (byte) 0xFF;
+
+    // ── SF_STAT fields ──
+    public static final byte SF_HOME_COHESION = 0;
+    public static final byte SF_LEGITIMACY = 1;
+    public static final byte SF_LOW_HOME_TICKS = 2;
+    public static final byte SF_LAST_OP = 3;
+    /** value = string index, or ABSENT. */
+    public static final byte SF_HOME_MARKET = 4;
+    public static final byte SF_HIDDEN = 5;
+
+    // ── TERR_STAT fields ──
+    public static final byte TERR_COHESION = 0;
+    /** value = Presence ordinal. */
+    public static final byte TERR_PRESENCE = 1;
+    public static final byte TERR_LOW_TICKS = 2;
+    /** value = string index, or ABSENT. */
+    public static final byte TERR_BASE_MARKET = 3;
+    /** Slot c is claimed by subfaction a (NONE = released). */
+    public static final byte TERR_SLOT = 4;
+
+    private final DataOutputStream out;
+    private final Map<String, Integer> strings = new LinkedHashMap<>();
+    private final Map<IntrigueOp, Integer> opSeq = new IdentityHashMap<>();
+    private int nextOpSeq;
+    private long records;
+
+    // ── Last recorded state (diff baseline) ──
+    private List<IntrigueSubfaction> subfactions;
+    private List<IntrigueTerritory> territories;
+    private final Map<String, Integer> sfIndex = new HashMap<>();
+    private final Map<String, Integer> territoryIndex = new HashMap<>();
+    private int[] home, legitimacy, lowHome;
+    private long[] lastOp, homeMarket;
+    private boolean[] hidden;
+    private List<Map<String, Integer>> rels;
+    private int[][] terrCoh, terrPres, terrLow;
+    private long[][] terrBase;
+    private int[][] slotClaims;
+    /** Change count of each territory when last diffed. */
+    private int[] territoryChanges;
+    /** Subfactions with non-default recorded state, per territory. */
+    private BitSet[] territoryState;
+    private final BitSet touched = new BitSet();
+    /** Last recorded friction by the territory's friction slots: [territory][from * stride + to]. */
+    private int[][] friction;
+    private int[] frictionStride;
+    /** Subfaction index holding each friction slot when last recorded. */
+    private int[][] frictionHolders;
+
+    public SimEventLog(OutputStream out) {
+        this.out = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+    }
+
+    /** Number of event records written so far. */
+    public long getRecordCount() { return records; }
+
+    /** Write the header and the setup state (tick -1). */
+    public void begin(long seed, int ticks, Collection<IntrigueSubfaction> sfs, Collection<IntrigueTerritory> terrs) {
+        subfactions = new ArrayList<>(sfs);
+        territories = new ArrayList<>(terrs);
+        int n = subfactions.size();
+        int m = territories.size();
+        if (n >= NONE || m >= NONE) throw new IllegalArgumentException("Too many subfactions/territories for the event log");
+        try {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeLong(seed);
+            out.writeInt(ticks);
+            out.writeInt(n);
+            for (int i = 0; i < n; i++) {
+                IntrigueSubfaction sf = subfactions.get(i);
+                sfIndex.put(sf.getSubfactionId(), i);
+                out.writeUTF(sf.getSubfactionId());
+                out.writeUTF(sf.getName());
+                out.writeUTF(sf.getFactionId());
+                out.writeByte(sf.getType().ordinal());
+            }
+            out.writeInt(m);
+            for (IntrigueTerritory t : territories) {
+                territoryIndex.put(t.getTerritoryId(), territoryIndex.size());
+                out.writeUTF(t.getTerritoryId());
+                out.writeUTF(t.getName());
+                out.writeUTF(t.getTier().name());
+                out.writeInt(t.getBaseSlots().size());
+                out.writeInt(t.getInterestedFactions().size());
+                for (String factionId : t.getInterestedFactions()) out.writeUTF(factionId);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        home = new int[n];
+        legitimacy = new int[n];
+        lowHome = new int[n];
+        lastOp = new long[n];
+        homeMarket = new long[n];
+        hidden = new boolean[n];
+        rels = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) rels.add(new HashMap<>());
+        terrCoh = new int[m][n];
+        terrPres = new int[m][n];
+        terrLow = new int[m][n];
+        terrBase = new long[m][n];
+        slotClaims = new int[m][];
+        territoryChanges = new int[m];
+        territoryState = new BitSet[m];
+        friction = new int[m][0];
+        frictionStride = new int[m];
+        frictionHolders = new int[m][0];
+        for (int t = 0; t < m; t++) {
+            Arrays.fill(terrBase[t], ABSENT);
+            slotClaims[t] = new int[territories.get(t).getBaseSlots().size()];
+            Arrays.fill(slotClaims[t], NONE);
+            territoryState[t] = new BitSet();
+        }
+        sync(-1, true);
+    }
+
+    // ── Events ──────────────────────────────────────────────────────────
+
+    public void opStarted(int tick, IntrigueOp op, String label) {
+        int seq = nextOpSeq++;
+        opSeq.put(op, seq);
+        long value = ((long) intern(label) << 32) | (seq & 0xFFFFFFFFL);
+        write(OP_START, 0, sf(op.getInitiatorSubfactionId()), sf(op.getTargetSubfactionId()),
+                territory(op.getTerritoryId()), tick, value);
+    }
+
+    public void opResolved(int tick, IntrigueOp op) {
+        Integer seq = opSeq.remove(op);
+        if (seq == null) return;
+        int outcome = op.getOutcome() != null ? op.getOutcome().ordinal() : 0;
+        write(OP_OUTCOME, outcome, sf(op.getInitiatorSubfactionId()),
+                Math.round(op.getMischiefPenalty() * 100), op.wasSabotagedByMischief() ? 1 : 0, tick, seq);
+    }
+
+    public void playerModifier(int tick, String subfactionId, float modifier) {
+        write(PLAYER_MODIFIER, 0, sf(subfactionId), NONE, NONE, tick, Float.floatToIntBits(modifier));
+    }
+
+    /** Record every state change since the last tick, then the end-of-tick marker. */
+    public void endTick(int tick) {
+        sync(tick, false);
+        write(TICK_END, 0, NONE, NONE, NONE, tick, 0);
+    }
+
+    /** Write the END record and the string table, and flush. */
+    public void finish() {
+        write(END, 0, NONE, NONE, NONE, 0, records);
+        try {
+            out.writeInt(strings.size());
+            for (String s : strings.keySet()) out.writeUTF(s);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    // ── Diffing ─────────────────────────────────────────────────────────
+
+    private void sync(int tick, boolean force) {
+        for (int i = 0; i < subfactions.size(); i++) {
+            IntrigueSubfaction sf = subfactions.get(i);
+            if (force || home[i] != sf.getHomeCohesion()) {
+                home[i] = sf.getHomeCohesion();
+                write(SF_STAT, SF_HOME_COHESION, i, NONE, NONE, tick, home[i]);
+            }
+            if (force || legitimacy[i] != sf.getLegitimacy()) {
+                legitimacy[i] = sf.getLegitimacy();
+                write(SF_STAT, SF_LEGITIMACY, i, NONE, NONE, tick, legitimacy[i]);
+            }
+            if (force || lowHome[i] != sf.getLowHomeCohesionTicks()) {
+                lowHome[i] = sf.getLowHomeCohesionTicks();
+                write(SF_STAT, SF_LOW_HOME_TICKS, i, NONE, NONE, tick, lowHome[i]);
+            }
+            if (force || lastOp[i] != sf.getLastOpTimestamp()) {
+                lastOp[i] = sf.getLastOpTimestamp();
+                write(SF_STAT, SF_LAST_OP, i, NONE, NONE, tick, lastOp[i]);
+            }
+            long market = sf.hasHomeMarket() ? intern(sf.getHomeMarketId()) : ABSENT;
+            if (force || homeMarket[i] != market) {
+                homeMarket[i] = market;
+                write(SF_STAT, SF_HOME_MARKET, i, NONE, NONE, tick, market);
+            }
+            if (force || hidden[i] != sf.isHidden()) {
+                hidden[i] = sf.isHidden();
+                write(SF_STAT, SF_HIDDEN, i, NONE, NONE, tick, hidden[i] ? 1 : 0);
+            }
+            syncRelationships(tick, i, sf);
+        }
+        for (int t = 0; t < territories.size(); t++) {
+            syncTerritory(tick, t, territories.get(t), force);
+        }
+    }
+
+    private void syncRelationships(int tick, int i, IntrigueSubfaction sf) {
+        Map<String, Integer> last = rels.get(i);
+        Map<String, Integer> now = sf.getRelToOthersView();
+        for (Map.Entry<String, Integer> e : now.entrySet()) {
+            Integer other = sfIndex.get(e.getKey());
+            if (other == null) continue;
+            if (!e.getValue().equals(last.get(e.getKey()))) {
+                last.put(e.getKey(), e.getValue());
+                write(RELATIONSHIP, 0, i, other, NONE, tick, e.getValue());
+            }
+        }
+    }
+
+    private void syncTerritory(int tick, int t, IntrigueTerritory territory, boolean force) {
+        boolean changed = force || territory.getChangeCount() != territoryChanges[t];
+        territoryChanges[t] = territory.getChangeCount();
+        if (changed) syncTerritorySubfactions(tick, t, territory);
+
+        List<IntrigueTerritory.BaseSlot> slots = territory.getBaseSlots();
+        for (int s = 0; s < slots.size() && s < slotClaims[t].length; s++) {
+            int claim = sf(slots.get(s).getClaimedBySubfactionId());
+            if (slotClaims[t][s] != claim) {
+                slotClaims[t][s] = claim;
+                write(TERR_STAT, TERR_SLOT, claim, t, s, tick, 0);
+            }
+        }
+
+        if (changed) syncFriction(tick, t, territory);
+    }
+
+    /** Diff the subfactions that have state in the territory now or had it when last recorded. */
+    private void syncTerritorySubfactions(int tick, int t, IntrigueTerritory territory) {
+        touched.clear();
+        touched.or(territoryState[t]);
+        mark(territory.getSubfactionCohesionView().keySet());
+        mark(territory.getSubfactionPresenceView().keySet());
+        mark(territory.getLowCohesionTicksView().keySet());
+        mark(territory.getBaseMarketView().keySet());
+
+        for (int i = touched.nextSetBit(0); i >= 0; i = touched.nextSetBit(i + 1)) {
+            String sfId = subfactions.get(i).getSubfactionId();
+            int coh = territory.getCohesion(sfId);
+            if (terrCoh[t][i] != coh) {
+                terrCoh[t][i] = coh;
+                write(TERR_STAT, TERR_COHESION, i, t, NONE, tick, coh);
+            }
+            int pres = territory.getPresence(sfId).ordinal();
+            if (terrPres[t][i] != pres) {
+                terrPres[t][i] = pres;
+                write(TERR_STAT, TERR_PRESENCE, i, t, NONE, tick, pres);
+            }
+            int low = territory.getLowCohesionTicks(sfId);
+            if (terrLow[t][i] != low) {
+                terrLow[t][i] = low;
+                write(TERR_STAT, TERR_LOW_TICKS, i, t, NONE, tick, low);
+            }
+            String baseId = territory.getBaseMarketId(sfId);
+            long base = baseId != null ? intern(baseId) : ABSENT;
+            if (terrBase[t][i] != base) {
+                terrBase[t][i] = base;
+                write(TERR_STAT, TERR_BASE_MARKET, i, t, NONE, tick, base);
+            }
+            territoryState[t].set(i, coh != 0 || pres != 0 || low != 0 || base != ABSENT);
+        }
+    }
+
+    private void mark(Set<String> subfactionIds) {
+        for (String id : subfactionIds) {
+            Integer i = sfIndex.get(id);
+            if (i != null) touched.set(i);
+        }
+    }
+
+    /** Diff the territory's friction matrix slot by slot, without building keys. */
+    private void syncFriction(int tick, int t, IntrigueTerritory territory) {
+        int slots = territory.getFrictionSlotCount();
+        if (slots > frictionStride[t]) growFriction(t, slots);
+        int stride = frictionStride[t];
+        int[] last = friction[t];
+        int[] holders = frictionHolders[t];
+
+        // A slot that changed hands had its row and column zeroed; record that under the old holder
+        for (int a = 0; a < slots; a++) {
+            if (holders[a] == sf(territory.getFrictionSlotHolder(a))) continue;
+            for (int other = 0; other < stride; other++) {
+                clearFriction(tick, t, a, other);
+                clearFriction(tick, t, other, a);
+            }
+        }
+        for (int a = 0; a < slots; a++) holders[a] = sf(territory.getFrictionSlotHolder(a));
+
+        for (int a = 0; a < slots; a++) {
+            for (int b = 0; b < slots; b++) {
+                int value = territory.getFriction(a, b);
+                if (last[a * stride + b] != value) {
+                    last[a * stride + b] = value;
+                    write(FRICTION, 0, holders[a], t, holders[b], tick, value);
+                }
+            }
+        }
+    }
+
+    private void clearFriction(int tick, int t, int from, int to) {
+        int cell = from * frictionStride[t] + to;
+        if (friction[t][cell] == 0) return;
+        friction[t][cell] = 0;
+        write(FRICTION, 0, frictionHolders[t][from], t, frictionHolders[t][to], tick, 0);
+    }
+
+    private void growFriction(int t, int slots) {
+        int old = frictionStride[t];
+        int stride = Math.max(slots, old * 2);
+        int[] grown = new int[stride * stride];
+        for (int a = 0; a < old; a++) System.arraycopy(friction[t], a * old, grown, a * stride, old);
+        friction[t] = grown;
+        frictionStride[t] = stride;
+        frictionHolders[t] = Arrays.copyOf(frictionHolders[t], stride);
+        Arrays.fill(frictionHolders[t], old, stride, NONE);
+    }
+
+    // ── Encoding ────────────────────────────────────────────────────────
+
+    private int sf(String subfactionId) {
+        if (subfactionId == null) return NONE;
+        Integer idx = sfIndex.get(subfactionId);
+        return idx != null ? idx : NONE;
+    }
+
+    private int territory(String territoryId) {
+        if (territoryId == null) return NONE;
+        Integer idx = territoryIndex.get(territoryId);
+        return idx != null ? idx : NONE;
+    }
+
+    private int intern(String s) {
+        Integer idx = strings.get(s);
+        if (idx == null) {
+            idx = strings.size();
+            strings.put(s, idx);
+        }
+        return idx;
+    }
+
+    private void write(byte type, int field, int a, int b, int c, int tick, long value) {
+        try {
+            out.writeByte(type);
+            out.writeByte(field);
+            out.writeShort(a);
+            out.writeShort(b);
+            out.writeShort(c);
+            out.writeInt(tick);
+            out.writeLong(value);
+            records++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
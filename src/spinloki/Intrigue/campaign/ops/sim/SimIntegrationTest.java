@@ -4,14 +4,33 @@ import spinloki.Intrigue.IntrigueTraits;
 import spinloki.Intrigue.campaign.IntriguePerson;
 import spinloki.Intrigue.campaign.IntrigueSubfaction;
 import spinloki.Intrigue.campaign.IntrigueTerritory;
+import spinloki.Intrigue.campaign.ops.EvaluationContext;
 import spinloki.Intrigue.campaign.ops.IntrigueOp;
+import spinloki.Intrigue.campaign.ops.IntrigueTickEngine;
+import spinloki.Intrigue.campaign.ops.MischiefTargetIndex;
+import spinloki.Intrigue.campaign.ops.OpCascade;
 import spinloki.Intrigue.campaign.ops.OpEvaluator;
+import spinloki.Intrigue.campaign.ops.OpFactory;
+import spinloki.Intrigue.campaign.ops.OpLedger;
 import spinloki.Intrigue.campaign.ops.OpOutcome;
+import spinloki.Intrigue.campaign.ops.OpPhase;
+import spinloki.Intrigue.campaign.ops.OpPlan;
+import spinloki.Intrigue.campaign.ops.TimedPhase;
+import spinloki.Intrigue.campaign.spi.CachedFactionHostilityChecker;
+import spinloki.Intrigue.campaign.spi.FactionHostilityChecker;
+import spinloki.Intrigue.campaign.spi.IntrigueContext;
+import spinloki.Intrigue.campaign.spi.IntrigueOpRunner;
 import spinloki.Intrigue.campaign.spi.IntrigueServices;
+import spinloki.Intrigue.campaign.spi.IntrigueSubfactionAccess;
+import spinloki.Intrigue.campaign.spi.IntrigueTerritoryAccess;
 import spinloki.Intrigue.config.SubfactionConfig;
 import spinloki.Intrigue.config.TerritoryConfig;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -48,13 +67,67 @@ public class SimIntegrationTest {
         testTerritoryPresenceLifecycle();
         testPatrolOpLifecycle();
         testFullSimLoop();
+        testBatchRunnerMergesRuns();
+        testContextBindingIsThreadConfined();
+        testParallelBatchMatchesSequential();
+        testSweepStreamsGridInOrder();
+        testEventLogReplayMatchesRun();
+        testEventLogTracksFrictionSlots();
+        testSnapshotForksMatchContinuation();
+        testMetricsSinkStreamsEveryTick();
+        testSyntheticSectorGenerator();
+        testTickEngineProfilesStages();
+        testSequentialBatchStopsWhenTight();
+        testEvaluationContextMemoizes();
+        testPresenceIndexMatchesScan();
+        testRaidTargetSelection();
+        testHostilityCache();
+        testHostilityMemoIsPassScoped();
+        testParallelEvaluationMatchesSequential();
+        testMischiefTargetIndexMatchesScan();
+        testVulnerabilityIndexMatchesScan();
+        testOpPlanIsDryRun();
+        testOpCascadeTunesFromConfig();
+        testSlicedTickMatchesWhole();
+        testSlicedEvaluationSeesNewState();
+        testActiveOpRegistryMatchesScan();
+        testOpWakeScheduler();
+        testOpLedgerBoundedAndQueryable();
+        testParallelAdvanceMatchesSequential();
+        testParallelAdvanceKeepsEveryOpTypeApart();
+        testFrictionMatrix();
 
         System.out.println("\n═══════════════════════════════════════════════════");
         System.out.printf("Results: %d passed, %d failed%n", passed, failed);
         System.out.println("═══════════════════════════════════════════════════");
 
         // Informational - not a pass/fail test
-        runLongSimStats();
+        String batchProp = System.getProperty("intrigue.batch");
+        String sweepProp = System.getProperty("intrigue.sweep");
+        String ciProp = System.getProperty("intrigue.ci");
+        if (sweepProp != null) {
+            try {
+                SimSweep.runFromProperties(sweepProp,
+                        Integer.parseInt(System.getProperty("intrigue.ticks", "200")));
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println("ERROR: Sweep failed: " + e.getMessage());
+                failed++;
+            }
+        } else if (ciProp != null) {
+            try {
+                SimSequentialBatch.runFromProperties(ciProp,
+                        batchProp != null ? Integer.parseInt(batchProp) : 1000,
+                        Integer.parseInt(System.getProperty("intrigue.ticks", "200")));
+            } catch (IllegalArgumentException e) {
+                System.err.println("ERROR: Sequential batch failed: " + e.getMessage());
+                failed++;
+            }
+        } else if (batchProp != null) {
+            SimBatchRunner.runFromProperties(Integer.parseInt(batchProp),
+                    Integer.parseInt(System.getProperty("intrigue.ticks", "200")));
+        } else {
+            runLongSimStats();
+        }
 
         System.exit(failed > 0 ? 1 : 0);
     }
@@ -66,198 +139,18 @@ public class SimIntegrationTest {
      *   - sf_tri:  tritachyon subfaction, leader=leader3, member=member2, power=50
      */
     static SimClock setupSim() {
-        IntrigueServices.reset();
-        SimClock clock = new SimClock();
-        SimPeopleAccess people = new SimPeopleAccess();
-        SimOpRunner ops = new SimOpRunner();
-        SimOpFactory opFactory = new SimOpFactory(new Random(100), SimConfig.defaults());
-        SimSubfactionAccess subfactions = new SimSubfactionAccess();
-
-        // ── People ──
-        IntriguePerson leader1 = new IntriguePerson("leader1", "hegemony", "heg_market_1");
-        leader1.setRole(IntriguePerson.Role.LEADER);
-        leader1.setSubfactionId("sf_heg1");
-        leader1.getTraits().add(IntrigueTraits.MERCILESS);
-
-        IntriguePerson member1 = new IntriguePerson("member1", "hegemony", "heg_market_1");
-        member1.setRole(IntriguePerson.Role.MEMBER);
-        member1.setSubfactionId("sf_heg1");
-        member1.setBonus("Commander skills for patrol fleets");
-
-        IntriguePerson leader2 = new IntriguePerson("leader2", "hegemony", "heg_market_2");
-        leader2.setRole(IntriguePerson.Role.LEADER);
-        leader2.setSubfactionId("sf_heg2");
-
-        IntriguePerson leader3 = new IntriguePerson("leader3", "tritachyon", "tri_market");
-        leader3.setRole(IntriguePerson.Role.LEADER);
-        leader3.setSubfactionId("sf_tri");
-
-        IntriguePerson member2 = new IntriguePerson("member2", "tritachyon", "tri_market");
-        member2.setRole(IntriguePerson.Role.MEMBER);
-        member2.setSubfactionId("sf_tri");
-        member2.setBonus("Access to midline hull designs");
-
-        people.addPerson(leader1);
-        people.addPerson(member1);
-        people.addPerson(leader2);
-        people.addPerson(leader3);
-        people.addPerson(member2);
-
-        // ── Subfactions ──
-        IntrigueSubfaction sfHeg1 = new IntrigueSubfaction("sf_heg1", "Eventide Aristocracy", "hegemony", "heg_market_1");
-        sfHeg1.setHomeCohesion(55);
-        sfHeg1.setLegitimacy(65);
-        sfHeg1.setCohesionLabel("Discipline");
-        sfHeg1.setLegitimacyLabel("Authority");
-        sfHeg1.setLeaderId("leader1");
-        sfHeg1.getMemberIds().add("member1");
-
-        IntrigueSubfaction sfHeg2 = new IntrigueSubfaction("sf_heg2", "14th Battlegroup Detachment", "hegemony", "heg_market_2");
-        sfHeg2.setHomeCohesion(50);
-        sfHeg2.setLegitimacy(40);
-        sfHeg2.setCohesionLabel("Discipline");
-        sfHeg2.setLegitimacyLabel("Authority");
-        sfHeg2.setLeaderId("leader2");
-
-        IntrigueSubfaction sfTri = new IntrigueSubfaction("sf_tri", "Tri-Tachyon Capital Assurance", "tritachyon", "tri_market");
-        sfTri.setHomeCohesion(55);
-        sfTri.setLegitimacy(45);
-        sfTri.setCohesionLabel("Synergy");
-        sfTri.setLegitimacyLabel("Mandate");
-        sfTri.setLeaderId("leader3");
-        sfTri.getMemberIds().add("member2");
-
-        subfactions.addSubfaction(sfHeg1);
-        subfactions.addSubfaction(sfHeg2);
-        subfactions.addSubfaction(sfTri);
-
-        // ── Territories ──
-        SimTerritoryAccess territories = new SimTerritoryAccess();
-        IntrigueTerritory remnantFrontier = new IntrigueTerritory(
-                "territory_remnant_frontier", "Remnant Frontier",
-                TerritoryConfig.Tier.HIGH, "Remnant activity has spiked.");
-        remnantFrontier.addInterestedFaction("hegemony");
-        remnantFrontier.addInterestedFaction("tritachyon");
-        remnantFrontier.addConstellationName("Alpha Constellation");
-        SimTerritoryAccess.addSyntheticSlots(remnantFrontier, 2); // capacity = interested factions
-        territories.addTerritory(remnantFrontier);
-
-        IntrigueTerritory domainCache = new IntrigueTerritory(
-                "territory_domain_cache", "Domain Cache",
-                TerritoryConfig.Tier.MEDIUM, "Domain-era supply caches.");
-        domainCache.addInterestedFaction("tritachyon");
-        domainCache.addConstellationName("Beta Constellation");
-        SimTerritoryAccess.addSyntheticSlots(domainCache, 1); // capacity = interested factions
-        territories.addTerritory(domainCache);
-
-        IntrigueServices.init(clock, people, ops, opFactory, subfactions,
-                // Sim hostility: different factions are always hostile
-                (a, b) -> a != null && b != null && !a.equals(b),
-                territories,
-                new SimWarAwareness());
-        return clock;
+        return SimSetup.hardcoded(SimRun.DEFAULT_SEED, SimConfig.defaults());
     }
+
     /**
      * Set up the sim from the actual intrigue_subfactions.json config file.
-     * Parses the JSON, creates IntriguePerson + IntrigueSubfaction objects,
-     * and registers them with IntrigueServices.
+     * Territories come from the intrigue.territories property, if set.
      */
     static SimClock setupSimFromConfig(String configPath) throws IOException {
-        String json = Files.readString(Path.of(configPath));
-        SubfactionConfig config = SubfactionConfig.parseFromJson(json);
-        IntrigueServices.reset();
-        SimClock clock = new SimClock();
-        SimPeopleAccess people = new SimPeopleAccess();
-        SimOpRunner ops = new SimOpRunner();
-        SimOpFactory opFactory = new SimOpFactory(new Random(100), SimConfig.defaults());
-        SimSubfactionAccess subfactions = new SimSubfactionAccess();
-        Set<String> allFactionIds = new LinkedHashSet<>();
-        for (SubfactionConfig.SubfactionDef def : config.subfactions) {
-            allFactionIds.add(def.factionId);
-            IntrigueSubfaction.SubfactionType sfType = IntrigueSubfaction.SubfactionType.POLITICAL;
-            if ("CRIMINAL".equals(def.type)) {
-                sfType = IntrigueSubfaction.SubfactionType.CRIMINAL;
-            }
-            IntrigueSubfaction sf = new IntrigueSubfaction(
-                    def.subfactionId, def.name, def.factionId, def.homeMarketId, sfType);
-            sf.setHomeCohesion(def.cohesion);
-            sf.setLegitimacy(def.legitimacy);
-            if (def.cohesionLabel != null) sf.setCohesionLabel(def.cohesionLabel);
-            if (def.legitimacyLabel != null) sf.setLegitimacyLabel(def.legitimacyLabel);
-            int memberIdx = 0;
-            for (SubfactionConfig.MemberDef m : def.members) {
-                IntriguePerson.Role role = IntriguePerson.Role.MEMBER;
-                if ("LEADER".equals(m.role)) role = IntriguePerson.Role.LEADER;
-                String personId = def.subfactionId + "_" + m.role.toLowerCase() + "_" + memberIdx;
-                IntriguePerson person = new IntriguePerson(
-                        personId, def.factionId, def.homeMarketId,
-                        def.subfactionId, role, m.bonus);
-                if (m.traits != null) {
-                    for (String trait : m.traits) {
-                        person.getTraits().add(trait);
-                    }
-                }
-                people.addPerson(person);
-                if (role == IntriguePerson.Role.LEADER) {
-                    sf.setLeaderId(personId);
-                } else {
-                    sf.getMemberIds().add(personId);
-                }
-                memberIdx++;
-            }
-            subfactions.addSubfaction(sf);
-        }
-        // Territories - load from intrigue_territories.json if available, else hardcoded fallback
-        SimTerritoryAccess territories = new SimTerritoryAccess();
-        String territoriesPath = System.getProperty("intrigue.territories");
-        if (territoriesPath != null) {
-            String terrJson = Files.readString(Path.of(territoriesPath));
-            TerritoryConfig terrConfig = TerritoryConfig.parseFromJson(terrJson);
-            for (TerritoryConfig.TerritoryDef tDef : terrConfig.territories) {
-                IntrigueTerritory t = new IntrigueTerritory(
-                        tDef.territoryId, tDef.name, tDef.tier, tDef.plotHook);
-                for (int ci = 0; ci < tDef.numConstellations; ci++) {
-                    t.addConstellationName(tDef.name + " Constellation " + (ci + 1));
-                }
-                if (tDef.interestedFactions != null) {
-                    for (String fid : tDef.interestedFactions) {
-                        t.addInterestedFaction(fid);
-                    }
-                }
-                SimTerritoryAccess.addSyntheticSlots(t, tDef.getEffectiveCapacity());
-                territories.addTerritory(t);
-            }
-            System.out.printf("  Loaded %d territories from: %s%n",
-                    terrConfig.territories.size(), territoriesPath);
-        } else {
-            // Hardcoded fallback - two territories, all non-criminal factions interested
-            IntrigueTerritory remnantFrontier = new IntrigueTerritory(
-                    "territory_remnant_frontier", "Remnant Frontier",
-                    TerritoryConfig.Tier.HIGH, "Remnant activity has spiked.");
-            remnantFrontier.addConstellationName("Alpha Constellation");
-            IntrigueTerritory domainCache = new IntrigueTerritory(
-                    "territory_domain_cache", "Domain Cache",
-                    TerritoryConfig.Tier.MEDIUM, "Domain-era supply caches.");
-            domainCache.addConstellationName("Beta Constellation");
-            for (SubfactionConfig.SubfactionDef def2 : config.subfactions) {
-                if (!"CRIMINAL".equals(def2.type)) {
-                    remnantFrontier.addInterestedFaction(def2.factionId);
-                    domainCache.addInterestedFaction(def2.factionId);
-                }
-            }
-            SimTerritoryAccess.addSyntheticSlots(remnantFrontier, remnantFrontier.getInterestedFactions().size());
-            SimTerritoryAccess.addSyntheticSlots(domainCache, domainCache.getInterestedFactions().size());
-            territories.addTerritory(remnantFrontier);
-            territories.addTerritory(domainCache);
-        }
-        IntrigueServices.init(clock, people, ops, opFactory, subfactions,
-                (a, b) -> a != null && b != null && !a.equals(b),
-                territories,
-                new SimWarAwareness());
-        System.out.printf("  Loaded %d subfactions (%d factions) from: %s%n",
-                config.subfactions.size(), allFactionIds.size(), configPath);
-        return clock;
+        return SimSetup.fromConfig(configPath, System.getProperty("intrigue.territories"),
+                SimRun.DEFAULT_SEED, SimConfig.defaults(), true);
     }
+
     static void testServicesInitialization() {
         test("IntrigueServices initializes with sim implementations", () -> {
             setupSim();
@@ -678,10 +571,10 @@ public class SimIntegrationTest {
         System.out.printf("    Civil War threshold:          <%d home cohesion for %d ticks%n",
                 config.civilWarCohesionThreshold, config.civilWarTicksRequired);
         System.out.printf("    High legitimacy threshold:    %d%n", config.highLegitimacyThreshold);
-        System.out.printf("    Low legitimacy threshold:     %d (patrol > raids)%n", OpEvaluator.LOW_LEGITIMACY_THRESHOLD);
-        System.out.printf("    Critical legitimacy threshold:%d (patrol > supplies)%n", OpEvaluator.CRITICAL_LEGITIMACY_THRESHOLD);
+        System.out.printf("    Low legitimacy threshold:     %d (patrol > raids)%n", config.lowLegitimacyThreshold);
+        System.out.printf("    Critical legitimacy threshold:%d (patrol > supplies)%n", config.criticalLegitimacyThreshold);
         System.out.printf("    Op cooldown:                  %.0f days%n", (float) OpEvaluator.COOLDOWN_DAYS);
-        System.out.printf("    Min cohesion threshold:       %d%n", OpEvaluator.MIN_COHESION_THRESHOLD);
+        System.out.printf("    Min cohesion threshold:       %d%n", config.minCohesionThreshold);
         System.out.printf("    Concurrent ops:               max %d, extra costs %d totalCoh each, drains %d coh/tick%n",
                 config.maxConcurrentOps, config.extraOpCohesionCost, config.concurrentOpDrainPerTick);
         System.out.printf("    Player action interval:       every %d ticks%n", config.playerActionInterval);
@@ -702,461 +595,114 @@ public class SimIntegrationTest {
         System.out.printf("    Upgrade to DOMINANT:           ≥%d territory cohesion%n", OpEvaluator.DOMINATE_COHESION_THRESHOLD);
         System.out.println();
 
-        SimClock clock;
+        SimRun run = new SimRun(config, seedProperty(), ticks)
+                .withVerbose("true".equals(System.getProperty("intrigue.verbose")))
+                .withSetupLog(true);
         String configPath = System.getProperty("intrigue.config");
         if (configPath != null) {
-            try {
-                clock = setupSimFromConfig(configPath);
-            } catch (IOException e) {
-                System.err.println("ERROR: Failed to load config from " + configPath + ": " + e.getMessage());
-                return;
-            }
-        } else {
-            clock = setupSim();
+            run.withScenario(configPath, System.getProperty("intrigue.territories"));
         }
-        SimOpRunner ops = (SimOpRunner) IntrigueServices.ops();
-
-        float daysPerTick = 7f;
-
-        // Snapshot starting state
-        Map<String, int[]> startStats = new LinkedHashMap<>(); // sfId -> [cohesion, legitimacy]
-        for (IntrigueSubfaction sf : IntrigueServices.subfactions().getAll()) {
-            startStats.put(sf.getSubfactionId(),
-                    new int[]{sf.getHomeCohesion(), sf.getLegitimacy()});
-        }
-
-        Map<String, Map<String, int[]>> startTerritoryCohesion = new LinkedHashMap<>();
-        // sfId -> { territoryId -> [cohesion, presenceOrdinal] }
-        for (IntrigueSubfaction sf : IntrigueServices.subfactions().getAll()) {
-            Map<String, int[]> perTerritory = new LinkedHashMap<>();
-            for (IntrigueTerritory t : IntrigueServices.territories().getAll()) {
-                perTerritory.put(t.getTerritoryId(), new int[]{
-                        t.getCohesion(sf.getSubfactionId()),
-                        t.getPresence(sf.getSubfactionId()).ordinal()
-                });
-            }
-            startTerritoryCohesion.put(sf.getSubfactionId(), perTerritory);
-        }
-
-
-        // Per-tick tracking: sfId -> [minCoh, maxCoh, sumCoh, minLeg, maxLeg, sumLeg, samples]
-        Map<String, int[]> statTracking = new LinkedHashMap<>();
-        for (IntrigueSubfaction sf : IntrigueServices.subfactions().getAll()) {
-            int c = sf.getHomeCohesion();
-            int l = sf.getLegitimacy();
-            statTracking.put(sf.getSubfactionId(), new int[]{c, c, c, l, l, l, 1});
-        }
-
-        // Territory cohesion tracking: sfId -> { territoryId -> [minCoh, maxCoh, sumCoh, samples, maxPresenceOrdinal] }
-        Map<String, Map<String, int[]>> terrStatTracking = new LinkedHashMap<>();
-        for (IntrigueSubfaction sf : IntrigueServices.subfactions().getAll()) {
-            Map<String, int[]> perTerr = new LinkedHashMap<>();
-            for (IntrigueTerritory t : IntrigueServices.territories().getAll()) {
-                int c = t.getCohesion(sf.getSubfactionId());
-                int p = t.getPresence(sf.getSubfactionId()).ordinal();
-                perTerr.put(t.getTerritoryId(), new int[]{c, c, c, 1, p});
-            }
-            terrStatTracking.put(sf.getSubfactionId(), perTerr);
-        }
-        // Op counters: sfId -> { opType -> count }
-        Map<String, Map<String, Integer>> opCounts = new LinkedHashMap<>();
-        // Outcome counters: sfId -> { opType -> [successes, failures] }
-        Map<String, Map<String, int[]>> outcomeCounts = new LinkedHashMap<>();
-        // Dysfunction event counters: sfId -> [infightings, expulsions, civilWars, mischiefs, evictions]
-        // "evictions" = total times this subfaction was removed from a territory
-        //   (expulsions from low cohesion + successful assaults suffered)
-        Map<String, int[]> dysfunctionCounts = new LinkedHashMap<>();
-        // Vulnerability raid counters: sfId -> [raids_launched, raids_suffered]
-        Map<String, int[]> vulnRaidCounts = new LinkedHashMap<>();
-        for (IntrigueSubfaction sf : IntrigueServices.subfactions().getAll()) {
-            opCounts.put(sf.getSubfactionId(), new LinkedHashMap<>());
-            outcomeCounts.put(sf.getSubfactionId(), new LinkedHashMap<>());
-            dysfunctionCounts.put(sf.getSubfactionId(), new int[5]);
-            vulnRaidCounts.put(sf.getSubfactionId(), new int[2]);
+        SimSectorGenerator generator = generatorProperty();
+        if (generator != null) {
+            run.withGenerator(generator);
+            System.out.printf("  Synthetic sector: %d subfactions, %d territories%n%n",
+                    generator.getSubfactionCount(), generator.getTerritoryCount());
         }
 
-
-        // Track ops that need resolution checking
-        List<IntrigueOp> pendingOps = new ArrayList<>();
-        Map<String, String> opToSubfaction = new LinkedHashMap<>(); // opId -> sfId
-        Map<String, String> opToLabel = new LinkedHashMap<>(); // opId -> display label
-
-        boolean verbose = "true".equals(System.getProperty("intrigue.verbose"));
-
         // Player mode: "help", "hurt", "both", or null (disabled)
         String playerMode = System.getProperty("intrigue.player");
         boolean playerEnabled = playerMode != null;
+        int playerInterval = playerIntervalProperty(config);
+        run.withPlayer(playerMode, playerInterval);
 
-        // Configurable player interval
-        int playerInterval = config.playerActionInterval;
-        String intervalProp = System.getProperty("intrigue.player.interval");
-        if (intervalProp != null) {
-            try { playerInterval = Integer.parseInt(intervalProp); } catch (NumberFormatException ignored) {}
-        }
-
-        // Get resolver for player modifiers
-        OpOutcomeResolver resolver = ((SimOpFactory) IntrigueServices.opFactory()).getResolver();
-        Random playerRng = new Random(99); // separate RNG so player actions don't disturb op RNG sequence
-
-        // Player action tracking: sfId -> [favors, disfavors]
-        Map<String, int[]> playerActions = new LinkedHashMap<>();
-        for (IntrigueSubfaction sf : IntrigueServices.subfactions().getAll()) {
-            playerActions.put(sf.getSubfactionId(), new int[2]);
-        }
-        String currentTargetId = null; // only one faction at a time
-
-        // Run
-        for (int t = 0; t < ticks; t++) {
-
-            // ── Player intervention: pick one faction, clear the previous ──
-            if (playerEnabled && t > 0 && t % playerInterval == 0) {
-                // Clear previous target's modifier
-                if (currentTargetId != null) {
-                    resolver.setSubfactionModifier(currentTargetId, 0f);
-                }
-
-                List<IntrigueSubfaction> allSf = new ArrayList<>(IntrigueServices.subfactions().getAll());
-                IntrigueSubfaction target = allSf.get(playerRng.nextInt(allSf.size()));
-                currentTargetId = target.getSubfactionId();
-
-                // Determine favor/disfavor based on mode
-                boolean favor;
-                if ("help".equals(playerMode)) {
-                    favor = true;
-                } else if ("hurt".equals(playerMode)) {
-                    favor = false;
-                } else {
-                    favor = playerRng.nextBoolean(); // "both" mode
-                }
-
-                float mod = favor ? config.playerFavorBonus : config.playerDisfavorPenalty;
-                resolver.setSubfactionModifier(currentTargetId, mod);
-                int[] pa = playerActions.get(currentTargetId);
-                if (favor) pa[0]++; else pa[1]++;
-
-                if (verbose) {
-                    System.out.printf("  [t=%3d] ** PLAYER %s %s ** (modifier %+.0f%%)%n",
-                            t, favor ? "FAVORS" : "DISFAVORS", target.getName(), mod * 100);
-                }
-            }
-            for (IntrigueSubfaction sf : IntrigueServices.subfactions().getAll()) {
-                // Evaluate up to maxConcurrentOps - each call may return a new op
-                // until the subfaction runs out of capacity or has nothing to do
-                for (int slot = 0; slot < OpEvaluator.MAX_CONCURRENT_OPS; slot++) {
-                    IntrigueOp op = OpEvaluator.evaluate(sf, ops, "sim");
-                    if (op == null) break; // no more ops to launch
-
-                    ops.startOp(op);
-                    opCounts.get(sf.getSubfactionId())
-                            .merge(op.getOpTypeName(), 1, Integer::sum);
-                    pendingOps.add(op);
-                    opToSubfaction.put(op.getOpId(), sf.getSubfactionId());
-                    opToLabel.put(op.getOpId(), op.getOpTypeName());
-
-                    if (verbose) {
-                        int activeCount = ops.getActiveOpCount(sf.getLeaderId());
-                        int maxOps = OpEvaluator.maxConcurrentOps(sf);
-                        System.out.printf("  [t=%3d] %-35s \u2192 %-20s (homeCoh=%d leg=%d ops=%d/%d",
-                                t, sf.getName(), op.getOpTypeName(),
-                                sf.getHomeCohesion(), sf.getLegitimacy(),
-                                activeCount, maxOps);
-                        if (op.getTerritoryId() != null) {
-                            IntrigueTerritory terr = IntrigueServices.territories().getById(op.getTerritoryId());
-                            if (terr != null) {
-                                System.out.printf(" terrCoh=%d pres=%s",
-                                        terr.getCohesion(sf.getSubfactionId()),
-                                        terr.getPresence(sf.getSubfactionId()));
-                            }
-                        }
-                        System.out.println(")");
-                    }
-                }
-            }
-            // ── Vulnerability raids: legitimacy == 0 triggers free raids from all hostiles ──
-            List<IntrigueOp> vulnRaids = OpEvaluator.evaluateVulnerabilityRaids(ops, "sim");
-            for (IntrigueOp vr : vulnRaids) {
-                ops.startOp(vr);
-                String atkId = vr.getInitiatorSubfactionId();
-                String defId = vr.getTargetSubfactionId();
-                opCounts.get(atkId).merge(vr.getOpTypeName() + " (free)", 1, Integer::sum);
-                pendingOps.add(vr);
-                opToSubfaction.put(vr.getOpId(), atkId);
-                opToLabel.put(vr.getOpId(), vr.getOpTypeName() + " (free)");
-                vulnRaidCounts.get(atkId)[0]++;
-                vulnRaidCounts.get(defId)[1]++;
-                if (verbose) {
-                    IntrigueSubfaction atkSf = IntrigueServices.subfactions().getById(atkId);
-                    IntrigueSubfaction defSf = IntrigueServices.subfactions().getById(defId);
-                    System.out.printf("  [t=%3d] !! %-35s \u2192 VULNERABILITY RAID vs %-20s (victim leg=0)%n",
-                            t,
-                            atkSf != null ? atkSf.getName() : atkId,
-                            defSf != null ? defSf.getName() : defId);
-                }
-            }
-            // ── Friction-triggered ops: mischief or raids depending on hostility ──
-            List<IntrigueOp> frictionOps = OpEvaluator.evaluateMischiefOps(ops, "sim", config.frictionThreshold);
-            for (IntrigueOp fo : frictionOps) {
-                ops.startOp(fo);
-                String atkId = fo.getInitiatorSubfactionId();
-                String defId = fo.getTargetSubfactionId();
-                boolean isMischief = "Mischief".equals(fo.getOpTypeName());
-                String label = isMischief ? "Mischief" : fo.getOpTypeName() + " (friction)";
-                opCounts.get(atkId).merge(label, 1, Integer::sum);
-                pendingOps.add(fo);
-                opToSubfaction.put(fo.getOpId(), atkId);
-                opToLabel.put(fo.getOpId(), label);
-                if (verbose) {
-                    IntrigueSubfaction atkSf = IntrigueServices.subfactions().getById(atkId);
-                    IntrigueSubfaction defSf = IntrigueServices.subfactions().getById(defId);
-                    String symbol = isMischief ? "~~" : "!!";
-                    String tag = isMischief ? "MISCHIEF" : "FRICTION RAID";
-                    System.out.printf("  [t=%3d] %s %-35s \u2192 %s vs %-20s (friction triggered)%n",
-                            t, symbol,
-                            atkSf != null ? atkSf.getName() : atkId,
-                            tag,
-                            defSf != null ? defSf.getName() : defId);
-                }
-            }
-            clock.advanceDays(daysPerTick);
-            ops.advance(daysPerTick);
-
-            // Territory cohesion decay per tick + low-cohesion tick tracking
-            for (IntrigueTerritory territory : IntrigueServices.territories().getAll()) {
-                for (IntrigueSubfaction sf : IntrigueServices.subfactions().getAll()) {
-                    String sfId = sf.getSubfactionId();
-                    IntrigueTerritory.Presence presence = territory.getPresence(sfId);
-                    if (presence.isEstablishedOrHigher()) {
-                        int before = territory.getCohesion(sfId);
-                        int scaledDecay = Math.round(config.territoryCohesionDecayPerTick * presence.decayMultiplier());
-                        territory.setCohesion(sfId, before - scaledDecay);
-
-                        int after = territory.getCohesion(sfId);
-                        // Track low-cohesion ticks for infighting/expulsion
-                        if (after < config.infightingCohesionThreshold) {
-                            territory.incrementLowCohesionTicks(sfId);
-                        } else {
-                            territory.resetLowCohesionTicks(sfId);
-                        }
-                    }
-                }
-
-                // ── Friction accumulation: crowding-scaled, directional, + relationship drain ──
-                List<String[]> pairs = territory.getEstablishedPairs();
-                int numEstablished = territory.getEstablishedCount();
-                int crowdingMult = Math.max(1, numEstablished - 1);
-                for (String[] pair : pairs) {
-                    IntrigueSubfaction sfA = IntrigueServices.subfactions().getById(pair[0]);
-                    IntrigueSubfaction sfB = IntrigueServices.subfactions().getById(pair[1]);
-                    if (sfA == null || sfB == null) continue;
-
-                    // Scale friction by the higher presence tier in the pair
-                    float presMultA = territory.getPresence(pair[0]).frictionMultiplier();
-                    float presMultB = territory.getPresence(pair[1]).frictionMultiplier();
-                    float presMult = Math.max(presMultA, presMultB);
-                    int baseGain = Math.round(config.baseFrictionPerTick * crowdingMult * presMult);
-
-                    // Territory cohesion for threat calculation
-                    int cohA = territory.getCohesion(pair[0]);
-                    int cohB = territory.getCohesion(pair[1]);
-
-                    // A→B direction (threat: B dominates → A gets extra friction toward B)
-                    int threatAB = (config.frictionThreatDivisor > 0)
-                            ? Math.max(0, (cohB - cohA) / config.frictionThreatDivisor) : 0;
-                    Integer relAB = sfA.getRelTo(pair[1]);
-                    int rAB = (relAB != null) ? relAB : 0;
-                    int drainAB = 0;
-                    if (rAB > 0 && config.frictionRelDrainDivisor > 0) {
-                        drainAB = Math.min(rAB / config.frictionRelDrainDivisor, config.frictionRelDrainCap);
-                    }
-                    int netAB = Math.max(0, baseGain + threatAB - drainAB);
-                    territory.setFriction(pair[0], pair[1],
-                            territory.getFriction(pair[0], pair[1]) + netAB);
-
-                    // B→A direction (threat: A dominates → B gets extra friction toward A)
-                    int threatBA = (config.frictionThreatDivisor > 0)
-                            ? Math.max(0, (cohA - cohB) / config.frictionThreatDivisor) : 0;
-                    Integer relBA = sfB.getRelTo(pair[0]);
-                    int rBA = (relBA != null) ? relBA : 0;
-                    int drainBA = 0;
-                    if (rBA > 0 && config.frictionRelDrainDivisor > 0) {
-                        drainBA = Math.min(rBA / config.frictionRelDrainDivisor, config.frictionRelDrainCap);
-                    }
-                    int netBA = Math.max(0, baseGain + threatBA - drainBA);
-                    territory.setFriction(pair[1], pair[0],
-                            territory.getFriction(pair[1], pair[0]) + netBA);
-                }
+        // Binary event log for post-mortem replay (see SimReplay)
+        String recordPath = System.getProperty("intrigue.record");
+        SimEventLog eventLog = null;
+        if (recordPath != null) {
+            try {
+                eventLog = new SimEventLog(Files.newOutputStream(Path.of(recordPath)));
+                run.withEventLog(eventLog);
+            } catch (IOException e) {
+                System.err.println("ERROR: Cannot open event log " + recordPath + ": " + e.getMessage());
             }
+        }
 
-            // Concurrent op cohesion drain: each extra active op (beyond the first)
-            // drains cohesion from a random established territory or home
-            Random drainRng = new Random(t * 31L + 7);
-            for (IntrigueSubfaction sf : IntrigueServices.subfactions().getAll()) {
-                String leaderId = sf.getLeaderId();
-                if (leaderId == null) continue;
-                int activeCount = ops.getActiveOpCount(leaderId);
-                int extraOps = activeCount - 1;
-                if (extraOps <= 0) continue;
-
-                int drain = extraOps * config.concurrentOpDrainPerTick;
-
-                // Build pool of drain targets: home + established territories
-                List<String> drainTargets = new ArrayList<>();
-                drainTargets.add("__home__"); // sentinel for home cohesion
-                for (IntrigueTerritory terr : IntrigueServices.territories().getAll()) {
-                    if (terr.getPresence(sf.getSubfactionId()).isEstablishedOrHigher()) {
-                        drainTargets.add(terr.getTerritoryId());
-                    }
-                }
-
-                for (int d = 0; d < drain; d++) {
-                    String target = drainTargets.get(drainRng.nextInt(drainTargets.size()));
-                    if ("__home__".equals(target)) {
-                        sf.setHomeCohesion(sf.getHomeCohesion() - 1);
-                    } else {
-                        IntrigueTerritory terr = IntrigueServices.territories().getById(target);
-                        if (terr != null) {
-                            terr.setCohesion(sf.getSubfactionId(),
-                                    terr.getCohesion(sf.getSubfactionId()) - 1);
-                        }
-                    }
-                }
+        // Streaming per-tick metrics (NDJSON, "-" = stdout)
+        String metricsPath = System.getProperty("intrigue.metrics");
+        SimNdjsonMetricsSink metrics = null;
+        if (metricsPath != null) {
+            try {
+                metrics = SimNdjsonMetricsSink.open(metricsPath);
+                run.withMetrics(metrics);
+            } catch (IOException e) {
+                System.err.println("ERROR: Cannot open metrics output " + metricsPath + ": " + e.getMessage());
             }
+        }
 
-            // Home cohesion civil war tick tracking
-            for (IntrigueSubfaction sf : IntrigueServices.subfactions().getAll()) {
-                if (sf.getHomeCohesion() < config.civilWarCohesionThreshold) {
-                    sf.incrementLowHomeCohesionTicks();
-                } else {
-                    sf.resetLowHomeCohesionTicks();
-                }
-            }
+        boolean profile = "true".equals(System.getProperty("intrigue.profile"));
+        run.withProfiling(profile);
+        run.withEvaluationThreads(Integer.parseInt(System.getProperty("intrigue.evalThreads", "1")));
+        run.withAdvanceThreads(Integer.parseInt(System.getProperty("intrigue.advanceThreads", "1")));
+        float frameBudgetMs = Float.parseFloat(System.getProperty("intrigue.frameBudgetMs", "0"));
+        run.withFrameBudget(frameBudgetMs, System::nanoTime);
 
-            // ── Sample stats for min/max/avg tracking ──
-            for (IntrigueSubfaction sf : IntrigueServices.subfactions().getAll()) {
-                String sfId = sf.getSubfactionId();
-                int c = sf.getHomeCohesion();
-                int l = sf.getLegitimacy();
-                int[] st = statTracking.get(sfId);
-                st[0] = Math.min(st[0], c);
-                st[1] = Math.max(st[1], c);
-                st[2] += c;
-                st[3] = Math.min(st[3], l);
-                st[4] = Math.max(st[4], l);
-                st[5] += l;
-                st[6]++;
-
-                Map<String, int[]> perTerr = terrStatTracking.get(sfId);
-                for (IntrigueTerritory terr : IntrigueServices.territories().getAll()) {
-                    int tc = terr.getCohesion(sfId);
-                    int po = terr.getPresence(sfId).ordinal();
-                    int[] ts = perTerr.get(terr.getTerritoryId());
-                    ts[0] = Math.min(ts[0], tc);
-                    ts[1] = Math.max(ts[1], tc);
-                    ts[2] += tc;
-                    ts[3]++;
-                    ts[4] = Math.max(ts[4], po);
-                }
+        SimRunStats stats;
+        try {
+            stats = run.run();
+        } catch (IOException e) {
+            System.err.println("ERROR: Failed to load config from " + configPath + ": " + e.getMessage());
+            return;
+        } finally {
+            if (eventLog != null) {
+                try { eventLog.close(); } catch (IOException ignored) {}
             }
-
-            // Check for resolved ops and track outcomes
-            Iterator<IntrigueOp> it = pendingOps.iterator();
-            while (it.hasNext()) {
-                IntrigueOp op = it.next();
-                if (op.isResolved()) {
-                    String sfId = opToSubfaction.get(op.getOpId());
-                    String label = opToLabel.getOrDefault(op.getOpId(), op.getOpTypeName());
-                    int[] counts = outcomeCounts.get(sfId)
-                            .computeIfAbsent(label, k -> new int[2]);
-                    if (op.getOutcome() == OpOutcome.SUCCESS) {
-                        counts[0]++;
-                    } else {
-                        counts[1]++;
-                    }
-                    // Track dysfunction events
-                    int[] dys = dysfunctionCounts.get(sfId);
-                    if (dys != null) {
-                        switch (op.getOpTypeName()) {
-                            case "Infighting": dys[0]++; break;
-                            case "Expulsion":  dys[1]++; dys[4]++; break; // expulsion = eviction for self
-                            case "Civil War":  dys[2]++; break;
-                            case "Mischief":   dys[3]++; break;
-                        }
-                    }
-                    // Successful assault = eviction suffered by the defender
-                    if ("Assault Territory Base".equals(op.getOpTypeName())
-                            && op.getOutcome() == OpOutcome.SUCCESS) {
-                        String defId = op.getTargetSubfactionId();
-                        if (defId != null) {
-                            int[] defDys = dysfunctionCounts.get(defId);
-                            if (defDys != null) defDys[4]++;
-                        }
-                    }
-                    if (verbose) {
-                        IntrigueSubfaction rsf = null;
-                        for (IntrigueSubfaction s : IntrigueServices.subfactions().getAll()) {
-                            if (s.getSubfactionId().equals(sfId)) { rsf = s; break; }
-                        }
-                        String rsfName = rsf != null ? rsf.getName() : sfId;
-                        System.out.printf("  [t=%3d]   %-35s   %-20s \u2192 %s",
-                                t, rsfName, op.getOpTypeName(), op.getOutcome());
-                        if (op.wasSabotagedByMischief()) {
-                            System.out.printf(" [SABOTAGED penalty=%.0f%%]", op.getMischiefPenalty() * 100);
-                        }
-                        if (rsf != null) {
-                            System.out.printf("  (homeCoh=%d leg=%d)", rsf.getHomeCohesion(), rsf.getLegitimacy());
-                        }
-                        System.out.println();
-                    }
-                    it.remove();
-                }
+            if (metrics != null) {
+                try { metrics.close(); } catch (IOException ignored) {}
             }
         }
+        if (profile) {
+            System.out.println("  Tick stage profile:");
+            System.out.print(IntrigueTickEngine.formatProfile(run.getStageStats()));
+            System.out.println();
+        }
+        if (frameBudgetMs > 0) {
+            System.out.println("  Tick slicing:");
+            System.out.print(IntrigueTickEngine.formatSlicing(run.getSliceStats(),
+                    (long) (frameBudgetMs * 1_000_000L)));
+            System.out.println();
+        }
 
         // Print per-subfaction stats
-        for (IntrigueSubfaction sf : IntrigueServices.subfactions().getAll()) {
-            String id = sf.getSubfactionId();
-            int[] start = startStats.get(id);
-            int[] st = statTracking.get(id);
-            int samples = st[6];
-            System.out.printf("  %-35s [%s]%n", sf.getName(), sf.getFactionId());
+        for (SimRunStats.SubfactionStats ss : stats.getAll()) {
+            System.out.printf("  %-35s [%s]%n", ss.name, ss.factionId);
             System.out.printf("    Home Cohesion:  %3d \u2192 %3d  (%+d)    min=%d  avg=%d  max=%d%n",
-                    start[0], sf.getHomeCohesion(), sf.getHomeCohesion() - start[0],
-                    st[0], st[2] / samples, st[1]);
+                    ss.startCohesion, ss.endCohesion, ss.endCohesion - ss.startCohesion,
+                    ss.minCohesion, ss.avgCohesion(), ss.maxCohesion);
             System.out.printf("    Legitimacy:     %3d \u2192 %3d  (%+d)    min=%d  avg=%d  max=%d%n",
-                    start[1], sf.getLegitimacy(), sf.getLegitimacy() - start[1],
-                    st[3], st[5] / samples, st[4]);
+                    ss.startLegitimacy, ss.endLegitimacy, ss.endLegitimacy - ss.startLegitimacy,
+                    ss.minLegitimacy, ss.avgLegitimacy(), ss.maxLegitimacy);
 
             // Territory presence & cohesion
-            Map<String, int[]> startTerr = startTerritoryCohesion.get(id);
-            Map<String, int[]> terrStats = terrStatTracking.get(id);
-            for (IntrigueTerritory t : IntrigueServices.territories().getAll()) {
-                int[] ts = startTerr.get(t.getTerritoryId());
-                IntrigueTerritory.Presence startP = IntrigueTerritory.Presence.values()[ts[1]];
-                IntrigueTerritory.Presence endP = t.getPresence(id);
-                int startCoh = ts[0];
-                int endCoh = t.getCohesion(id);
-                int[] tst = terrStats.get(t.getTerritoryId());
-                int tSamples = tst[3];
-                IntrigueTerritory.Presence maxP = IntrigueTerritory.Presence.values()[tst[4]];
-                String maxPTag = (maxP.ordinal() > endP.ordinal()) ? String.format("  (peak: %s)", maxP) : "";
+            for (SimRunStats.TerritoryStats ts : ss.territories.values()) {
+                String maxPTag = (ts.peakPresence.ordinal() > ts.endPresence.ordinal())
+                        ? String.format("  (peak: %s)", ts.peakPresence) : "";
                 System.out.printf("    Territory %-22s  presence: %-11s \u2192 %-11s  cohesion: %3d \u2192 %3d  (%+d)  min=%d avg=%d max=%d%s%n",
-                        t.getName(), startP, endP, startCoh, endCoh, endCoh - startCoh,
-                        tst[0], tst[2] / tSamples, tst[1], maxPTag);
+                        ts.name, ts.startPresence, ts.endPresence, ts.startCohesion, ts.endCohesion,
+                        ts.endCohesion - ts.startCohesion,
+                        ts.minCohesion, ts.avgCohesion(), ts.maxCohesion, maxPTag);
             }
 
             // Op breakdown
-            Map<String, Integer> counts = opCounts.get(id);
-            Map<String, int[]> outcomes = outcomeCounts.get(id);
-            if (counts.isEmpty()) {
+            if (ss.opCounts.isEmpty()) {
                 System.out.println("    Ops: (none)");
             } else {
                 StringBuilder sb = new StringBuilder("    Ops: ");
                 int total = 0;
-                for (Map.Entry<String, Integer> e : counts.entrySet()) {
+                for (Map.Entry<String, Integer> e : ss.opCounts.entrySet()) {
                     if (total > 0) sb.append(", ");
                     String opType = e.getKey();
                     int count = e.getValue();
-                    int[] oc = outcomes.getOrDefault(opType, new int[]{0, 0});
+                    int[] oc = ss.outcomeCounts.getOrDefault(opType, new int[]{0, 0});
                     sb.append(opType).append("=").append(count);
                     sb.append(" (").append(oc[0]).append("W/").append(oc[1]).append("L)");
                     total += count;
@@ -1166,19 +712,19 @@ public class SimIntegrationTest {
             }
 
             // Dysfunction events
-            int[] dys = dysfunctionCounts.get(id);
-            int[] vr = vulnRaidCounts.get(id);
-            boolean hasDys = dys[0] > 0 || dys[1] > 0 || dys[2] > 0 || dys[3] > 0 || dys[4] > 0;
-            boolean hasVuln = vr[0] > 0 || vr[1] > 0;
+            boolean hasDys = ss.infightings > 0 || ss.expulsions > 0 || ss.civilWars > 0
+                    || ss.mischiefs > 0 || ss.evictions > 0;
+            boolean hasVuln = ss.vulnRaidsLaunched > 0 || ss.vulnRaidsSuffered > 0;
             if (hasDys || hasVuln) {
                 StringBuilder ev = new StringBuilder("    Events:");
                 if (hasDys) {
                     ev.append(String.format(" %d infighting, %d expulsions, %d civil wars, %d mischief, %d evictions",
-                            dys[0], dys[1], dys[2], dys[3], dys[4]));
+                            ss.infightings, ss.expulsions, ss.civilWars, ss.mischiefs, ss.evictions));
                 }
                 if (hasVuln) {
                     if (hasDys) ev.append(" |");
-                    ev.append(String.format(" vuln raids: %d launched, %d suffered", vr[0], vr[1]));
+                    ev.append(String.format(" vuln raids: %d launched, %d suffered",
+                            ss.vulnRaidsLaunched, ss.vulnRaidsSuffered));
                 }
                 System.out.println(ev);
             }
@@ -1186,23 +732,52 @@ public class SimIntegrationTest {
         }
 
         System.out.printf("  Simulation: %d ticks x %.0f days = %.0f days (~%.1f cycles)%n",
-                ticks, daysPerTick, ticks * daysPerTick, ticks * daysPerTick / 365f);
+                ticks, stats.daysPerTick, ticks * stats.daysPerTick, ticks * stats.daysPerTick / 365f);
 
         // Player action summary
         if (playerEnabled) {
             System.out.println();
             System.out.printf("  Player Mode: %s (reconsiders every %d ticks)%n", playerMode, playerInterval);
-            for (IntrigueSubfaction sf : IntrigueServices.subfactions().getAll()) {
-                String id = sf.getSubfactionId();
-                int[] pa = playerActions.get(id);
-                float mod = resolver.getSubfactionModifier(id);
+            for (SimRunStats.SubfactionStats ss : stats.getAll()) {
+                float mod = ss.endPlayerModifier;
                 String modStr = mod == 0f ? "none" : String.format("%+.0f%%", mod * 100);
                 System.out.printf("    %-35s  favors=%d  disfavors=%d  current modifier=%s%n",
-                        sf.getName(), pa[0], pa[1], modStr);
+                        ss.name, ss.playerFavors, ss.playerDisfavors, modStr);
             }
         }
     }
 
+    /** Run seed from -Dintrigue.seed, or {@link SimRun#DEFAULT_SEED}. */
+    static long seedProperty() {
+        String seedProp = System.getProperty("intrigue.seed");
+        if (seedProp != null) {
+            try { return Long.parseLong(seedProp); } catch (NumberFormatException ignored) {}
+        }
+        return SimRun.DEFAULT_SEED;
+    }
+
+    /**
+     * Synthetic sector from -Dintrigue.synthetic=N (subfactions) and optional
+     * -Dintrigue.synthetic.territories=N, or null to use the hardcoded/config sector.
+     */
+    static SimSectorGenerator generatorProperty() {
+        Integer subfactions = Integer.getInteger("intrigue.synthetic");
+        if (subfactions == null) return null;
+        SimSectorGenerator generator = new SimSectorGenerator(subfactions);
+        Integer territories = Integer.getInteger("intrigue.synthetic.territories");
+        if (territories != null) generator.withTerritories(territories);
+        return generator;
+    }
+
+    /** Player reconsider interval from -Dintrigue.player.interval, or the config default. */
+    static int playerIntervalProperty(SimConfig config) {
+        String intervalProp = System.getProperty("intrigue.player.interval");
+        if (intervalProp != null) {
+            try { return Integer.parseInt(intervalProp); } catch (NumberFormatException ignored) {}
+        }
+        return config.playerActionInterval;
+    }
+
     static void testFullSimLoop() {
         test("Full sim loop: 50 ticks with subfaction logic", () -> {
             SimClock clock = setupSim();
@@ -1236,6 +811,1321 @@ public class SimIntegrationTest {
         });
     }
 
+    static void testBatchRunnerMergesRuns() {
+        test("Batch runner: seeded runs merged in order", () -> {
+            SimBatchRunner batch = new SimBatchRunner(SimConfig.defaults(), 4, 30)
+                    .withBaseSeed(500)
+                    .withThreads(2);
+            List<SimRunStats> results = batch.run();
+
+            assertEquals("Run count", 4, results.size());
+            for (int i = 0; i < results.size(); i++) {
+                SimRunStats r = results.get(i);
+                assertEquals("Seed of run " + i, 500L + i, r.seed);
+                assertEquals("Subfactions in run " + i, 3, r.getAll().size());
+                assertNotNull("sf_heg1 stats", r.get("sf_heg1"));
+                assertEquals("Territories tracked", 2, r.get("sf_heg1").territories.size());
+            }
+
+            SimDistribution ops = SimBatchRunner.metric(results, "sf_heg1",
+                    SimRunStats.SubfactionStats::totalOps);
+            assertEquals("One sample per run", 4, ops.count());
+            assertTrue("Ops happened", ops.max() > 0);
+            assertTrue("Percentiles ordered", ops.percentile(10) <= ops.percentile(90));
+        });
+    }
+
+    static void testContextBindingIsThreadConfined() {
+        test("Context binding: per-thread, default untouched", () -> {
+            setupSim();
+            IntrigueContext defaultCtx = IntrigueServices.current();
+            IntrigueContext other = SimSetup.buildHardcoded(7, SimConfig.defaults());
+
+            IntrigueServices.runWith(other, () -> {
+                assertTrue("Bound context visible", IntrigueServices.current() == other);
+                assertTrue("Getters resolve through bound context",
+                        IntrigueServices.subfactions() == other.subfactions());
+                Thread t = new Thread(() -> {
+                    if (IntrigueServices.current() != defaultCtx) {
+                        throw new IllegalStateException("binding leaked to another thread");
+                    }
+                });
+                t.start();
+                try { t.join(); } catch (InterruptedException e) { throw new RuntimeException(e); }
+            });
+
+            assertTrue("Default restored", IntrigueServices.current() == defaultCtx);
+            assertNotNull("Default sector intact", IntrigueServices.subfactions().getById("sf_heg1"));
+        });
+    }
+
+    static void testParallelBatchMatchesSequential() {
+        test("Batch runner: parallel == sequential per seed", () -> {
+            List<SimRunStats> sequential = new SimBatchRunner(SimConfig.defaults(), 6, 60)
+                    .withBaseSeed(900).withThreads(1).run();
+            List<SimRunStats> parallel = new SimBatchRunner(SimConfig.defaults(), 6, 60)
+                    .withBaseSeed(900).withThreads(3).run();
+            for (int i = 0; i < sequential.size(); i++) {
+                assertEquals("Run " + i, fingerprint(sequential.get(i)), fingerprint(parallel.get(i)));
+            }
+            assertFalse("Different seeds diverge",
+                    fingerprint(sequential.get(0)).equals(fingerprint(sequential.get(1))));
+        });
+    }
+
+    static void testSweepStreamsGridInOrder() {
+        test("Sweep: one CSV row per (point, seed), in grid order", () -> {
+            List<SimSweep.Axis> axes = SimSweep.parseSpec("frictionThreshold=40:60:20;mischiefSuccessProb=0.3,0.9");
+            assertEquals("Range expanded", 2, axes.get(0).values.length);
+
+            java.io.StringWriter sequential = new java.io.StringWriter();
+            java.io.StringWriter parallel = new java.io.StringWriter();
+            try {
+                int rows = new SimSweep(SimConfig.defaults(), axes, 2, 30)
+                        .withBaseSeed(300).withThreads(1).run(sequential);
+                assertEquals("Rows = points x seeds", 8, rows);
+                new SimSweep(SimConfig.defaults(), axes, 2, 30)
+                        .withBaseSeed(300).withThreads(3).run(parallel);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+
+            String[] lines = sequential.toString().split("\n");
+            assertEquals("Header + 8 rows", 9, lines.length);
+            assertTrue("Header names axes", lines[0].startsWith("point,seed,frictionThreshold,mischiefSuccessProb,"));
+            assertTrue("Header names metrics", lines[0].contains("sf_heg1.endCohesion"));
+            assertTrue("First row: first point, first seed", lines[1].startsWith("0,300,40,0.3,"));
+            assertTrue("Seeds innermost", lines[2].startsWith("0,301,40,0.3,"));
+            assertTrue("Last axis varies fastest", lines[3].startsWith("1,300,40,0.9,"));
+            assertTrue("Last row", lines[8].startsWith("3,301,60,0.9,"));
+            assertEquals("Thread count doesn't change output", sequential.toString(), parallel.toString());
+
+            boolean rejected = false;
+            try { SimSweep.parseSpec("noSuchField=1,2"); } catch (IllegalArgumentException e) { rejected = true; }
+            assertTrue("Unknown field rejected", rejected);
+
+            // Sweeping the player interval reaches the runs, unless it is pinned
+            SimSweep playerSweep = new SimSweep(SimConfig.defaults(),
+                    SimSweep.parseSpec("playerActionInterval=5,20"), 1, 30).withPlayer("both");
+            assertEquals("First point's interval", 5, playerSweep.createRun(0, 0).getPlayerInterval());
+            assertEquals("Second point's interval", 20, playerSweep.createRun(1, 0).getPlayerInterval());
+            SimSweep pinned = new SimSweep(SimConfig.defaults(), axes, 1, 30).withPlayer("both", 7);
+            assertEquals("Pinned interval", 7, pinned.createRun(3, 0).getPlayerInterval());
+            rejected = false;
+            try { playerSweep.withPlayer("both", 7); } catch (IllegalArgumentException e) { rejected = true; }
+            assertTrue("Pinned interval conflicts with a playerActionInterval axis", rejected);
+        });
+    }
+
+    static void testEventLogReplayMatchesRun() {
+        test("Event log: replay rebuilds state at any tick", () -> {
+            java.io.ByteArrayOutputStream bytes = new java.io.ByteArrayOutputStream();
+            SimRunStats full;
+            SimRunStats prefix;
+            try {
+                full = new SimRun(SimConfig.defaults(), 77, 80).withPlayer("both", 10)
+                        .withEventLog(new SimEventLog(bytes)).run();
+                prefix = new SimRun(SimConfig.defaults(), 77, 41).withPlayer("both", 10).run();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+
+            SimReplay replay;
+            try {
+                replay = new SimReplay(bytes.toByteArray());
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            assertEquals("Last tick", 79, replay.getLastTick());
+
+            int opsLaunched = 0;
+            for (SimRunStats.SubfactionStats ss : full.getAll()) opsLaunched += ss.totalOps();
+            assertEquals("Every op start recorded", opsLaunched, replay.getOps().size());
+
+            assertEquals("End state", endState(full), endState(replay.stateAt(79)));
+            assertEquals("Mid-run state", endState(prefix), endState(replay.stateAt(40)));
+            SimReplay.Frame setup = replay.stateAt(-1);
+            assertEquals("Setup cohesion", full.get("sf_heg1").startCohesion,
+                    setup.getSubfaction("sf_heg1").getHomeCohesion());
+        });
+    }
+
+    static void testEventLogTracksFrictionSlots() {
+        test("Event log: friction survives slot reuse in replay", () -> {
+            setupSim();
+            IntrigueTerritory territory = IntrigueServices.territories().getAll().iterator().next();
+            java.io.ByteArrayOutputStream bytes = new java.io.ByteArrayOutputStream();
+            SimEventLog log = new SimEventLog(bytes);
+            log.begin(0, 3, IntrigueServices.subfactions().getAll(), IntrigueServices.territories().getAll());
+
+            List<Map<String, Integer>> recorded = new ArrayList<>();
+            territory.setFriction("sf_heg1", "sf_tri", 30);
+            territory.setFriction("sf_tri", "sf_heg1", 10);
+            log.endTick(0);
+            recorded.add(new LinkedHashMap<>(territory.getPairFrictionView()));
+            // sf_heg2 takes the slot sf_heg1 gives up, in the same tick
+            territory.removeSubfaction("sf_heg1");
+            territory.setFriction("sf_heg2", "sf_tri", 20);
+            log.endTick(1);
+            recorded.add(new LinkedHashMap<>(territory.getPairFrictionView()));
+            territory.setFriction("sf_heg2", "sf_tri", 25);
+            territory.setFriction("sf_tri", "sf_heg2", 5);
+            log.endTick(2);
+            recorded.add(new LinkedHashMap<>(territory.getPairFrictionView()));
+
+            // Writes that change nothing leave the territory's change count, and the log, alone
+            int changes = territory.getChangeCount();
+            long records = log.getRecordCount();
+            territory.setCohesion("sf_tri", territory.getCohesion("sf_tri"));
+            territory.resetLowCohesionTicks("sf_tri");
+            territory.setPresence("sf_tri", territory.getPresence("sf_tri"));
+            assertEquals("Change count", changes, territory.getChangeCount());
+            log.endTick(3);
+            assertEquals("Only the tick end", records + 1, log.getRecordCount());
+            log.finish();
+
+            SimReplay replay;
+            try {
+                replay = new SimReplay(bytes.toByteArray());
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            for (int tick = 0; tick < recorded.size(); tick++) {
+                assertEquals("Friction at tick " + tick, recorded.get(tick),
+                        replay.stateAt(tick).getTerritory(territory.getTerritoryId()).getPairFrictionView());
+            }
+        });
+    }
+
+    static void testSnapshotForksMatchContinuation() {
+        test("Snapshot: forks continue the run from the snapshot tick", () -> {
+            SimRunStats full;
+            SimSnapshot snapshot;
+            try {
+                full = new SimRun(SimConfig.defaults(), 88, 80).withPlayer("both", 10).run();
+                snapshot = new SimRun(SimConfig.defaults(), 88, 80).withPlayer("both", 10).runPrefix(40);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            assertEquals("Snapshot tick", 40, snapshot.getTick());
+
+            SimConfig harsh = SimConfig.defaults();
+            harsh.frictionThreshold = 10;
+            List<SimRunStats> forks = SimBatchRunner.runAll(List.of(
+                    snapshot.fork(),
+                    snapshot.fork(),
+                    snapshot.fork(harsh),
+                    snapshot.fork().withPlayer("hurt", 5)), 2);
+
+            assertEquals("Same-config fork == un-forked run", fingerprint(full), fingerprint(forks.get(0)));
+            assertEquals("Snapshot reusable", fingerprint(forks.get(0)), fingerprint(forks.get(1)));
+            assertEquals("Prefix samples kept", full.get("sf_heg1").samples, forks.get(0).get("sf_heg1").samples);
+            assertFalse("Config fork diverges", fingerprint(full).equals(fingerprint(forks.get(2))));
+            assertFalse("Player fork diverges", fingerprint(full).equals(fingerprint(forks.get(3))));
+        });
+    }
+
+    static void testMetricsSinkStreamsEveryTick() {
+        test("Metrics sink: one NDJSON line per tick per subfaction/territory", () -> {
+            java.io.StringWriter json = new java.io.StringWriter();
+            SimRunStats plain;
+            SimRunStats streamed;
+            try (SimNdjsonMetricsSink sink = new SimNdjsonMetricsSink(json, false, 1024, 7)) {
+                plain = new SimRun(SimConfig.defaults(), 55, 30).run();
+                streamed = new SimRun(SimConfig.defaults(), 55, 30).withMetrics(sink).run();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            assertEquals("Sink doesn't change the run", fingerprint(plain), fingerprint(streamed));
+
+            String[] lines = json.toString().split("\n");
+            int perTick = streamed.getAll().size() + streamed.get("sf_heg1").territories.size();
+            assertEquals("Line count", 30 * perTick, lines.length);
+            for (String line : lines) {
+                assertTrue("JSON object per line", line.startsWith("{\"seed\":55,") && line.endsWith("}"));
+            }
+            SimRunStats.SubfactionStats heg1 = streamed.get("sf_heg1");
+            String last = null;
+            for (String line : lines) {
+                if (line.contains("\"tick\":29,") && line.contains("\"id\":\"sf_heg1\"")) last = line;
+            }
+            assertNotNull("Last tick of sf_heg1", last);
+            assertTrue("End cohesion", last.contains("\"cohesion\":" + heg1.endCohesion + ","));
+            assertTrue("End legitimacy", last.contains("\"legitimacy\":" + heg1.endLegitimacy + ","));
+            assertTrue("Territory lines", json.toString().contains("\"kind\":\"territory\""));
+        });
+    }
+
+    static void testSyntheticSectorGenerator() {
+        test("Synthetic sector: seeded, large, runnable", () -> {
+            SimSectorGenerator gen = new SimSectorGenerator(400).withTerritories(30);
+            IntrigueContext a = gen.build(11, SimConfig.defaults());
+            IntrigueContext b = gen.build(11, SimConfig.defaults());
+
+            assertEquals("Subfactions", 400, a.subfactions().getAll().size());
+            assertEquals("Territories", 30, a.territories().getAll().size());
+            int criminal = 0;
+            for (IntrigueSubfaction sf : a.subfactions().getAll()) {
+                assertNotNull("Leader of " + sf.getSubfactionId(), a.people().getById(sf.getLeaderId()));
+                if (sf.getType() == IntrigueSubfaction.SubfactionType.CRIMINAL) criminal++;
+                IntrigueSubfaction twin = b.subfactions().getById(sf.getSubfactionId());
+                assertEquals("Same seed, same cohesion", sf.getHomeCohesion(), twin.getHomeCohesion());
+                assertEquals("Same seed, same faction", sf.getFactionId(), twin.getFactionId());
+            }
+            assertTrue("Some criminal subfactions", criminal > 0 && criminal < 400);
+            for (IntrigueTerritory t : a.territories().getAll()) {
+                assertTrue("Slots for every interested faction",
+                        t.getCapacity() >= t.getInterestedFactions().size());
+                assertTrue("3-4 interested factions", t.getInterestedFactions().size() >= 3);
+            }
+
+            SimRunStats stats;
+            try {
+                stats = new SimRun(SimConfig.defaults(), 11, 10).withGenerator(gen).run();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            int ops = 0;
+            for (SimRunStats.SubfactionStats ss : stats.getAll()) ops += ss.totalOps();
+            assertTrue("Ops happened", ops > 0);
+        });
+    }
+
+    static void testTickEngineProfilesStages() {
+        test("Tick engine: every stage timed and counted, results unchanged", () -> {
+            SimRun profiled = new SimRun(SimConfig.defaults(), 21, 40).withPlayer("both", 10).withProfiling(true);
+            SimRunStats plain;
+            SimRunStats stats;
+            try {
+                plain = new SimRun(SimConfig.defaults(), 21, 40).withPlayer("both", 10).run();
+                stats = profiled.run();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            assertEquals("Profiling doesn't change the run", fingerprint(plain), fingerprint(stats));
+
+            List<String> names = new ArrayList<>();
+            for (IntrigueTickEngine.StageStats ss : profiled.getStageStats()) {
+                names.add(ss.name);
+                assertEquals("Runs of " + ss.name, 40L, ss.runs);
+                assertTrue("Time of " + ss.name, ss.nanos > 0);
+            }
+            assertEquals("Stage order", List.of("player", "evaluateOps", "vulnerabilityRaids", "frictionOps",
+                    "advanceOps", "territoryDecay", "frictionAccumulation", "concurrentOpDrain",
+                    "civilWarTracking", "sampleStats", "resolveOps"), names);
+            for (IntrigueTickEngine.StageStats ss : profiled.getStageStats()) {
+                if (ss.name.equals("evaluateOps") || ss.name.equals("civilWarTracking")) {
+                    assertEquals("Every subfaction touched by " + ss.name, 40L * stats.getAll().size(), ss.touched);
+                }
+            }
+            assertTrue("Profile table", IntrigueTickEngine.formatProfile(profiled.getStageStats())
+                    .contains("frictionAccumulation"));
+        });
+    }
+
+    static void testSequentialBatchStopsWhenTight() {
+        test("Sequential batch: stops once every interval is tight", () -> {
+            SimSequentialBatch.RunningStat welford = new SimSequentialBatch.RunningStat();
+            SimDistribution direct = new SimDistribution(new double[]{3, 7, 7, 19, 4});
+            for (double x : new double[]{3, 7, 7, 19, 4}) welford.add(x);
+            assertTrue("Welford mean", Math.abs(welford.mean() - direct.mean()) < 1e-9);
+            assertTrue("Welford variance", Math.abs(Math.sqrt(welford.variance()) - direct.stdDev()) < 1e-9);
+            assertTrue("z(0.95)", Math.abs(SimSequentialBatch.zScore(0.95) - 1.95996) < 1e-4);
+            assertTrue("t(0.95, 9)", Math.abs(SimSequentialBatch.tScore(0.95, 9) - 2.2622) < 1e-3);
+            assertTrue("t(0.95, 2)", Math.abs(SimSequentialBatch.tScore(0.95, 2) - 4.3027) < 1e-3);
+            assertEquals("Looks", List.of(10, 15, 23, 35, 40), SimSequentialBatch.looks(10, 40));
+
+            List<SimSequentialBatch.Target> loose = SimSequentialBatch.parseSpec("endCohesion=1000");
+            SimSequentialBatch.Result quick = new SimSequentialBatch(
+                    new SimBatchRunner(SimConfig.defaults(), 40, 20).withBaseSeed(300).withThreads(3), loose)
+                    .withMinRuns(4).run();
+            assertTrue("Loose target converges", quick.converged);
+            assertEquals("Stops at the minimum", 4, quick.runs.size());
+            assertEquals("Keys per subfaction", 3, quick.intervals.size());
+
+            SimSequentialBatch.Result single = new SimSequentialBatch(
+                    new SimBatchRunner(SimConfig.defaults(), 40, 20).withBaseSeed(300).withThreads(1), loose)
+                    .withMinRuns(4).run();
+            for (int i = 0; i < 4; i++) {
+                assertEquals("Same runs for any thread count", fingerprint(single.runs.get(i)),
+                        fingerprint(quick.runs.get(i)));
+            }
+
+            SimSequentialBatch.Result capped = new SimSequentialBatch(
+                    new SimBatchRunner(SimConfig.defaults(), 6, 20).withBaseSeed(300).withThreads(2),
+                    SimSequentialBatch.parseSpec("sf_heg1.endCohesion=0.0001")).withMinRuns(2).run();
+            assertFalse("Tight target hits the cap", capped.converged);
+            assertEquals("All runs kept", 6, capped.runs.size());
+            assertEquals("Subfaction target", List.of("sf_heg1.endCohesion"), capped.unconverged());
+
+            // Ten runs without a single civil war are not "0 ± 0"
+            SimSequentialBatch.RunningStat zeros = new SimSequentialBatch.RunningStat(true);
+            for (int i = 0; i < 10; i++) zeros.add(0);
+            assertTrue("Zero-count bound", Math.abs(zeros.halfWidth(0.95) - 0.29957) < 1e-4);
+            // ...but ten equal cohesion readings are exact, with no absolute floor
+            SimSequentialBatch.RunningStat flat = new SimSequentialBatch.RunningStat(false);
+            for (int i = 0; i < 10; i++) flat.add(62);
+            assertEquals("No floor on continuous metrics", 0.0, flat.halfWidth(0.95));
+            assertTrue("civilWars is a rate", SimSequentialBatch.parseSpec("civilWars=1").get(0).rate);
+            assertTrue("territoryShare is a proportion", SimSequentialBatch.parseSpec("territoryShare=1").get(0).rate);
+            assertFalse("endCohesion is not", SimSequentialBatch.parseSpec("endCohesion=1").get(0).rate);
+            assertFalse("ops is not", SimSequentialBatch.parseSpec("ops=1").get(0).rate);
+            for (String rate : SimSequentialBatch.RATES) {
+                assertTrue("Rate is a metric: " + rate, SimSequentialBatch.METRICS.contains(rate));
+            }
+            SimSequentialBatch.Result rare = new SimSequentialBatch(
+                    new SimBatchRunner(SimConfig.defaults(), 15, 10).withBaseSeed(300).withThreads(3),
+                    SimSequentialBatch.parseSpec("sf_heg1.civilWars=0.1")).run();
+            assertEquals("Every run had none", 0.0, rare.intervals.get("sf_heg1.civilWars").mean());
+            assertFalse("All-zero runs don't stop at the minimum", rare.converged);
+            assertEquals("Ran to the cap", 15, rare.runs.size());
+
+            boolean rejected = false;
+            try { SimSequentialBatch.parseSpec("noSuchMetric=1"); } catch (IllegalArgumentException e) { rejected = true; }
+            assertTrue("Unknown metric rejected", rejected);
+        });
+    }
+
+    static void testEvaluationContextMemoizes() {
+        test("Evaluation context: memoized cohesion, capacity, op counts", () -> {
+            setupSim();
+            SimOpRunner ops = (SimOpRunner) IntrigueServices.ops();
+            IntrigueSubfaction sf = IntrigueServices.subfactions().getById("sf_heg1");
+            IntrigueTerritory territory = IntrigueServices.territories().getAll().iterator().next();
+            territory.setPresence("sf_heg1", IntrigueTerritory.Presence.ESTABLISHED);
+            territory.setCohesion("sf_heg1", 40);
+
+            EvaluationContext ctx = new EvaluationContext(ops);
+            assertEquals("Total cohesion", OpEvaluator.computeTotalCohesion(sf), ctx.totalCohesion(sf));
+            assertEquals("Capacity", OpEvaluator.maxConcurrentOps(sf), ctx.capacity(sf));
+            ctx.capacity(sf);
+            assertEquals("One territory walk", 1, ctx.getTerritoryWalks());
+
+            sf.setHomeCohesion(sf.getHomeCohesion() - 20);
+            assertEquals("Home cohesion read live", OpEvaluator.computeTotalCohesion(sf), ctx.totalCohesion(sf));
+            assertEquals("Still one walk", 1, ctx.getTerritoryWalks());
+
+            territory.setCohesion("sf_heg1", 90);
+            ctx.territoryCohesionChanged("sf_heg1");
+            assertEquals("Invalidated", OpEvaluator.computeTotalCohesion(sf), ctx.totalCohesion(sf));
+            assertEquals("Rewalked", 2, ctx.getTerritoryWalks());
+
+            assertEquals("No ops yet", 0, ctx.activeOps(sf.getLeaderId()));
+            IntrigueOp op = OpEvaluator.evaluate(sf, ctx, "test");
+            assertNotNull("Op", op);
+            ops.startOp(op);
+            ctx.opStarted(op);
+            assertEquals("Op counted", ops.getActiveOpCount(sf.getLeaderId()), ctx.activeOps(sf.getLeaderId()));
+            assertTrue("hasActiveOp", ctx.hasActiveOp(sf.getLeaderId()));
+            assertEquals("Diagnose agrees", OpEvaluator.diagnose(sf, ops), OpEvaluator.diagnose(sf, ctx));
+        });
+    }
+
+    static void testPresenceIndexMatchesScan() {
+        test("Presence index: matches a full scan through a run and a save/load", () -> {
+            SimRun run = new SimRun(SimConfig.defaults(), 13, 40);
+            IntrigueContext context = new SimSectorGenerator(60).withTerritories(12).build(13, SimConfig.defaults());
+            IntrigueServices.runWith(context, () -> {
+                run.begin((SimClock) context.clock());
+                for (int t = 0; t < 40; t++) {
+                    run.tick();
+                    assertPresenceIndexMatches(IntrigueServices.territories());
+                }
+            });
+
+            SimTerritoryAccess loaded;
+            try {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                    out.writeObject(context.territories());
+                }
+                try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+                    loaded = (SimTerritoryAccess) in.readObject();
+                }
+            } catch (IOException | ClassNotFoundException e) {
+                throw new RuntimeException(e);
+            }
+            assertPresenceIndexMatches(loaded);
+            IntrigueTerritory first = loaded.getAll().iterator().next();
+            first.setPresence("sf_new", IntrigueTerritory.Presence.FORTIFIED);
+            assertTrue("Rebuilt index follows later changes",
+                    loaded.getEstablishedTerritoriesForSubfaction("sf_new").contains(first));
+            first.removeSubfaction("sf_new");
+            assertTrue("Removal drops the entry", loaded.getTerritoriesForSubfaction("sf_new").isEmpty());
+        });
+    }
+
+    static void testRaidTargetSelection() {
+        test("Raid targets: bounded top-K agrees with the best pick, weak targets pruned", () -> {
+            IntrigueContext context = new SimSectorGenerator(80).build(17, SimConfig.defaults());
+            IntrigueServices.runWith(context, () -> {
+                EvaluationContext ctx = new EvaluationContext(IntrigueServices.ops());
+                int pruned = 0;
+                int raids = 0;
+                for (IntrigueSubfaction sf : IntrigueServices.subfactions().getAll()) {
+                    OpEvaluator.RaidTargets top = OpEvaluator.topRaidTargets(sf, ctx, 3);
+                    OpEvaluator.RaidTargets wide = OpEvaluator.topRaidTargets(sf, ctx, 6);
+                    OpEvaluator.RaidTargets one = OpEvaluator.topRaidTargets(sf, ctx, 1);
+                    assertTrue("At most K", top.size() <= 3);
+                    assertTrue("Wider list is a superset", wide.size() >= top.size());
+                    for (int i = 0; i < top.size(); i++) {
+                        if (i > 0) assertTrue("Best first", top.getScore(i - 1) >= top.getScore(i));
+                        assertTrue("Positive", top.getScore(i) > 0);
+                        assertEquals("Prefix of wider list", wide.getTarget(i), top.getTarget(i));
+                    }
+                    if (one.size() > 0) {
+                        assertEquals("Top-1 is the head of top-K", top.getTarget(0), one.getTarget(0));
+                        if (one.getScore(0) >= OpEvaluator.RAID_SCORE_THRESHOLD) raids++;
+                    }
+                    pruned += one.getPruned();
+                }
+                assertTrue("Some subfactions would raid", raids > 0);
+                assertTrue("Bound skipped some targets", pruned > 0);
+            });
+        });
+    }
+
+    static void testHostilityCache() {
+        test("Hostility cache: one source lookup per pair until invalidated", () -> {
+            int[] asked = {0};
+            CachedFactionHostilityChecker cache = new CachedFactionHostilityChecker((a, b) -> {
+                asked[0]++;
+                return !a.equals(b) && !(a + b).contains("pirates");
+            });
+            for (int round = 0; round < 3; round++) {
+                for (int a = 0; a < 40; a++) {
+                    for (int b = 0; b < 40; b++) {
+                        assertEquals("f" + a + " vs f" + b, a != b, cache.areHostile("f" + a, "f" + b));
+                    }
+                }
+            }
+            assertEquals("Each ordered pair asked once, across growth", 40 * 40, asked[0]);
+            assertTrue("Pirates friendly", !cache.areHostile("pirates", "f1"));
+
+            cache.setHostile("pirates", "f1", true);
+            assertTrue("Pinned both ways", cache.areHostile("pirates", "f1") && cache.areHostile("f1", "pirates"));
+            CachedFactionHostilityChecker fork = cache.copy();
+            cache.invalidate("pirates");
+            assertTrue("Invalidated pair re-asked", !cache.areHostile("f1", "pirates"));
+            assertTrue("Copy keeps its own answers", fork.areHostile("f1", "pirates"));
+            int before = asked[0];
+            cache.areHostile("f2", "f3");
+            assertEquals("Other pairs still cached", before, asked[0]);
+            cache.invalidate();
+            cache.areHostile("f2", "f3");
+            assertEquals("Full invalidation", before + 1, asked[0]);
+        });
+    }
+
+    static void testHostilityMemoIsPassScoped() {
+        test("Hostility cache: memo lives only inside an evaluation slice", () -> {
+            setupSim();
+            // Live checker like the game's: relations change whenever they change
+            boolean[] atWar = {true};
+            FactionHostilityChecker live = (a, b) -> a != null && b != null && !a.equals(b) && atWar[0];
+            List<Boolean> seen = new ArrayList<>();
+            List<FactionHostilityChecker> bound = new ArrayList<>();
+            IntrigueTickEngine engine = new IntrigueTickEngine(List.of(
+                    IntrigueTickEngine.evaluateOps("test", 1, 1f, null))).withListener(new IntrigueTickEngine.Listener() {
+                @Override
+                public void opStarted(int t, String sfId, IntrigueOp op, String label, IntrigueTickEngine.OpSource source) {
+                    record();
+                }
+
+                @Override
+                public void nothingToDo(int t, IntrigueSubfaction sf, EvaluationContext ctx) {
+                    record();
+                }
+
+                private void record() {
+                    bound.add(IntrigueServices.hostility());
+                    seen.add(IntrigueServices.hostility().areHostile("hegemony", "tritachyon"));
+                }
+            });
+
+            IntrigueServices.runWith(IntrigueServices.current().withHostility(live), () -> {
+                long[] now = {0};
+                IntrigueTickEngine.SlicedTick tick = engine.beginTick(0);
+                tick.runSlice(0, () -> now[0]++);
+                atWar[0] = false; // peace between frames
+                while (!tick.runSlice(0, () -> now[0]++)) { }
+                assertEquals("One subfaction per slice", 3, seen.size());
+                assertEquals("Later slices see the peace", List.of(true, false, false), seen);
+                for (FactionHostilityChecker h : bound) {
+                    assertTrue("Memo bound during the pass", h instanceof CachedFactionHostilityChecker);
+                }
+
+                // What RaidOp.shouldAbort asks between passes is the live checker
+                assertTrue("Live checker outside the pass", IntrigueServices.hostility() == live);
+                atWar[0] = true;
+                assertTrue("War seen at once", IntrigueServices.hostility().areHostile("hegemony", "tritachyon"));
+            });
+        });
+    }
+
+    static void testParallelEvaluationMatchesSequential() {
+        test("Batch evaluation: parallel raid scoring picks the same ops", () -> {
+            SimSectorGenerator gen = new SimSectorGenerator(120);
+            SimRunStats sequential;
+            SimRunStats parallel;
+            try {
+                sequential = new SimRun(SimConfig.defaults(), 31, 40).withGenerator(gen).run();
+                parallel = new SimRun(SimConfig.defaults(), 31, 40).withGenerator(gen).withEvaluationThreads(4).run();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            int ops = 0;
+            for (SimRunStats.SubfactionStats ss : sequential.getAll()) {
+                SimRunStats.SubfactionStats ps = parallel.get(ss.subfactionId);
+                assertEquals("Ops of " + ss.subfactionId, ss.totalOps(), ps.totalOps());
+                ops += ss.totalOps();
+            }
+            assertTrue("Ops happened", ops > 0);
+            assertEquals("End state", endState(sequential), endState(parallel));
+        });
+    }
+
+    static void testMischiefTargetIndexMatchesScan() {
+        test("Mischief targets: runner index tracks start, resolve and rebuild", () -> {
+            setupSim();
+            SimOpRunner ops = (SimOpRunner) IntrigueServices.ops();
+            IntrigueSubfaction heg = IntrigueServices.subfactions().getById("sf_heg1");
+            IntrigueSubfaction tri = IntrigueServices.subfactions().getById("sf_tri");
+            String territoryId = IntrigueServices.territories().getAll().iterator().next().getTerritoryId();
+
+            IntrigueOp rally = IntrigueServices.opFactory().createRallyOp(ops.nextOpId("test"), heg);
+            IntrigueOp raid = IntrigueServices.opFactory().createRaidOp(ops.nextOpId("test"), heg, tri);
+            IntrigueOp patrol = IntrigueServices.opFactory().createPatrolOp(ops.nextOpId("test"), heg, territoryId);
+            IntrigueOp supplies = IntrigueServices.opFactory().createSendSuppliesOp(ops.nextOpId("test"), tri, territoryId);
+            for (IntrigueOp op : Arrays.asList(rally, raid, patrol, supplies)) ops.startOp(op);
+
+            assertEquals("Targetable heg ops in start order", Arrays.asList(rally, patrol),
+                    ops.getMischiefTargets("sf_heg1"));
+            assertEquals("Tri ops", Collections.singletonList(supplies), ops.getMischiefTargets("sf_tri"));
+            assertTrue("Unknown subfaction", ops.getMischiefTargets("sf_none").isEmpty());
+
+            MischiefTargetIndex rebuilt = MischiefTargetIndex.build(ops.getActiveOps());
+            assertEquals("Rebuilt like after a load", ops.getMischiefTargets("sf_heg1"), rebuilt.getTargets("sf_heg1"));
+            assertEquals("By territory", Collections.singletonList(patrol), rebuilt.getTargets("sf_heg1", territoryId));
+
+            for (int i = 0; i < 10 && !patrol.isResolved(); i++) ops.advance(7f);
+            assertTrue("Patrol resolved", patrol.isResolved());
+            for (IntrigueOp op : ops.getMischiefTargets("sf_heg1")) {
+                assertTrue("Only active ops", ops.getActiveOps().contains(op) && !op.isResolved());
+            }
+            assertTrue("Patrol dropped", !ops.getMischiefTargets("sf_heg1").contains(patrol));
+        });
+    }
+
+    /** Compare the indexed per-subfaction territory lists with a filtered walk over every territory. */
+    static void assertPresenceIndexMatches(IntrigueTerritoryAccess territories) {
+        Set<String> sfIds = new TreeSet<>();
+        for (IntrigueTerritory t : territories.getAll()) sfIds.addAll(t.getSubfactionPresenceView().keySet());
+        sfIds.add("sf_absent");
+        for (String sfId : sfIds) {
+            List<IntrigueTerritory> present = new ArrayList<>();
+            List<IntrigueTerritory> established = new ArrayList<>();
+            for (IntrigueTerritory t : territories.getAll()) {
+                if (t.hasPresence(sfId)) present.add(t);
+                if (t.getPresence(sfId).isEstablishedOrHigher()) established.add(t);
+            }
+            assertEquals("Present " + sfId, present, new ArrayList<>(territories.getTerritoriesForSubfaction(sfId)));
+            assertEquals("Established " + sfId, established,
+                    new ArrayList<>(territories.getEstablishedTerritoriesForSubfaction(sfId)));
+        }
+    }
+
+    static void testVulnerabilityIndexMatchesScan() {
+        test("Vulnerability index: watch set and hostile rosters match a full scan", () -> {
+            SimRun run = new SimRun(SimConfig.defaults(), 19, 30);
+            IntrigueContext context = new SimSectorGenerator(60).build(19, SimConfig.defaults());
+            IntrigueServices.runWith(context, () -> {
+                IntrigueSubfactionAccess subfactions = IntrigueServices.subfactions();
+                run.begin((SimClock) context.clock());
+                int i = 0;
+                for (IntrigueSubfaction sf : subfactions.getAll()) {
+                    if (i++ % 7 == 0) sf.setLegitimacy(0);
+                }
+                for (int t = 0; t < 30; t++) {
+                    assertVulnerabilityIndexMatches(subfactions);
+                    assertEquals("Same free raids as the all-pairs loop", vulnerabilityRaidsByScan(),
+                            vulnerabilityRaidPairs(OpEvaluator.evaluateVulnerabilityRaids(IntrigueServices.ops(), "t")));
+                    run.tick();
+                }
+                IntrigueSubfaction victim = subfactions.getAll().iterator().next();
+                victim.setLegitimacy(0);
+                assertTrue("Drop to 0 joins the watch set", subfactions.getZeroLegitimacy().contains(victim));
+                victim.setLegitimacy(5);
+                assertTrue("Recovery leaves it", !subfactions.getZeroLegitimacy().contains(victim));
+            });
+        });
+    }
+
+    static void testOpPlanIsDryRun() {
+        test("Op plan: dry run matches evaluate and builds nothing", () -> {
+            IntrigueContext context = new SimSectorGenerator(60).withTerritories(12).build(23, SimConfig.defaults());
+            IntrigueServices.runWith(context, () -> {
+                int i = 0;
+                for (IntrigueSubfaction sf : IntrigueServices.subfactions().getAll()) {
+                    // Spread the sector over the cascade's stages
+                    sf.setHomeCohesion(new int[]{20, 40, 60, 90}[i % 4]);
+                    sf.setLegitimacy(new int[]{10, 40, 60, 90, 70}[i++ % 5]);
+                }
+
+                SimOpRunner ops = (SimOpRunner) IntrigueServices.ops();
+                EvaluationContext planCtx = new EvaluationContext(ops);
+                List<OpPlan> plans = new ArrayList<>();
+                String before = ops.nextOpId("seq");
+                for (IntrigueSubfaction sf : IntrigueServices.subfactions().getAll()) {
+                    plans.add(OpEvaluator.plan(sf, planCtx));
+                }
+                String after = ops.nextOpId("seq");
+                assertEquals("No op ids taken", seqOf(before) + 1, seqOf(after));
+
+                EvaluationContext ctx = new EvaluationContext(ops);
+                Set<OpPlan.Stage> stages = EnumSet.noneOf(OpPlan.Stage.class);
+                i = 0;
+                for (IntrigueSubfaction sf : IntrigueServices.subfactions().getAll()) {
+                    OpPlan plan = plans.get(i++);
+                    stages.add(plan.getStage());
+                    IntrigueOp op = OpEvaluator.evaluate(sf, ctx, "plan");
+                    assertTrue("Same trace as evaluate", ctx.getLastPlan().getSubfaction() == sf);
+                    assertEquals("Stage " + sf.getSubfactionId(), plan.getStage(), ctx.getLastPlan().getStage());
+                    assertEquals("Ready iff op " + sf.getSubfactionId(), plan.isReady(), op != null);
+                    if (op == null) {
+                        assertTrue("Diagnose reuses the trace",
+                                OpEvaluator.diagnose(sf, ctx).startsWith(plan.describe().split(";")[0]));
+                        continue;
+                    }
+                    assertEquals("Type", plan.getKind().getOpTypeName(), op.getOpTypeName());
+                    assertEquals("Territory", plan.getTerritoryId(), op.getTerritoryId());
+                    if (plan.getTarget() != null) {
+                        assertEquals("Target", plan.getTarget().getSubfactionId(), op.getTargetSubfactionId());
+                    }
+                    assertTrue("Describe says READY", OpEvaluator.diagnose(sf, ctx).startsWith("READY"));
+                }
+                assertTrue("Several stages reached", stages.size() > 1);
+            });
+        });
+    }
+
+    static void testOpCascadeTunesFromConfig() {
+        test("Op cascade: thresholds from config move the decision", () -> {
+            setupSim();
+            IntrigueSubfaction sf = IntrigueServices.subfactions().getById("sf_heg1");
+            IntrigueTerritory held = null;
+            for (IntrigueTerritory t : IntrigueServices.territories().getAll()) {
+                if (t.isFactionInterested(sf.getFactionId())) { held = t; break; }
+            }
+            assertNotNull("Interested territory", held);
+            held.setPresence("sf_heg1", IntrigueTerritory.Presence.ESTABLISHED);
+            held.setCohesion("sf_heg1", 60);
+            sf.setHomeCohesion(55);
+            sf.setLegitimacy(40);
+
+            SimConfig config = SimConfig.defaults();
+            EvaluationContext ctx = new EvaluationContext(IntrigueServices.ops())
+                    .withCascade(OpCascade.compile(config.cascadeThresholds()));
+            OpPlan.Stage byDefault = OpEvaluator.plan(sf, ctx).getStage();
+            assertEquals("Config defaults = built-in ladder",
+                    OpEvaluator.plan(sf, new EvaluationContext(IntrigueServices.ops())).getStage(), byDefault);
+            assertEquals("Low patrol by default", OpPlan.Stage.LOW_PATROL, byDefault);
+
+            config.criticalLegitimacyThreshold = 45;
+            OpPlan critical = OpEvaluator.plan(sf, ctx.withCascade(OpCascade.compile(config.cascadeThresholds())));
+            assertEquals("Critical patrol", OpPlan.Stage.CRITICAL_PATROL, critical.getStage());
+            assertEquals("Patrols the held territory", held.getTerritoryId(), critical.getTerritoryId());
+            assertTrue("Describes the tuned threshold", critical.describe().contains("< 45"));
+
+            config = SimConfig.defaults();
+            config.rallyCohesionThreshold = 60;
+            assertEquals("Rally", OpPlan.Kind.RALLY,
+                    OpEvaluator.plan(sf, ctx.withCascade(OpCascade.compile(config.cascadeThresholds()))).getKind());
+
+            config = SimConfig.defaults();
+            config.minCohesionThreshold = 60;
+            OpPlan weak = OpEvaluator.plan(sf, ctx.withCascade(OpCascade.compile(config.cascadeThresholds())));
+            assertEquals("Too weak to expand", OpPlan.Stage.MIN_COHESION, weak.getStage());
+            assertEquals("Reason", OpPlan.Reason.WEAK_HOME, weak.getReason());
+        });
+    }
+
+    static void testSlicedTickMatchesWhole() {
+        test("Sliced tick: same work as a whole tick, within the frame budget", () -> {
+            // Every unit costs 1 ms on a fake timer; a 3 ms budget fits three per slice
+            long[] now = {0};
+            List<String> sliced = new ArrayList<>();
+            List<String> whole = new ArrayList<>();
+            List<Integer> units = Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+            IntrigueTickEngine.FrameTimer timer = () -> now[0];
+            IntrigueTickEngine engine = tickEngine(units, sliced, now);
+            IntrigueTickEngine.SlicedTick tick = engine.beginTick(0);
+            int frames = 0;
+            while (!tick.runSlice(3_000_000L, timer)) frames++;
+            tickEngine(units, whole, now).runTick(0);
+
+            assertEquals("Same units in the same order", whole, sliced);
+            assertEquals("Eleven units over four slices", 4, tick.getSlices());
+            assertEquals("Three frames before the last", 3, frames);
+            IntrigueTickEngine.SliceStats stats = engine.getSliceStats();
+            assertEquals("Units", 11L, stats.units);
+            assertEquals("No slice over budget", 0L, stats.overBudget);
+            assertTrue("Longest slice " + stats.longestSliceNanos, stats.longestSliceNanos <= 3_000_000L);
+
+            // A whole sim run, sliced on a fake 0.1 ms-per-read timer, ends in the same state
+            long[] clock = {0};
+            SimSectorGenerator gen = new SimSectorGenerator(80);
+            SimRun slicedRun = new SimRun(SimConfig.defaults(), 17, 30).withGenerator(gen)
+                    .withFrameBudget(0.5f, () -> clock[0] += 100_000L);
+            SimRunStats slicedStats;
+            SimRunStats wholeStats;
+            try {
+                slicedStats = slicedRun.run();
+                wholeStats = new SimRun(SimConfig.defaults(), 17, 30).withGenerator(gen).run();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            assertEquals("End state", endState(wholeStats), endState(slicedStats));
+            assertEquals("Ticks", 30L, slicedRun.getSliceStats().ticks);
+            assertTrue("Ticks were spread over several slices",
+                    slicedRun.getSliceStats().maxSlicesPerTick > 1);
+        });
+    }
+
+    static void testSlicedEvaluationSeesNewState() {
+        test("Sliced tick: a resumed evaluation pass plans from current state", () -> {
+            setupSim();
+            SimOpRunner ops = (SimOpRunner) IntrigueServices.ops();
+            List<String> mismatches = new ArrayList<>();
+            int[] units = {0};
+            IntrigueTickEngine engine = new IntrigueTickEngine(List.of(
+                    IntrigueTickEngine.evaluateOps("test", 1, 1f, null))).withListener(new IntrigueTickEngine.Listener() {
+                @Override
+                public void nothingToDo(int t, IntrigueSubfaction sf, EvaluationContext ctx) {
+                    units[0]++;
+                    for (String leader : List.of("leader1", "leader2", "leader3")) {
+                        int live = 0;
+                        for (IntrigueOp op : ops.getActiveOps()) if (leader.equals(op.getInitiatorId())) live++;
+                        if (ctx.activeOps(leader) != live) mismatches.add(sf.getSubfactionId() + "/" + leader);
+                    }
+                }
+            });
+
+            // Leaderless subfactions idle, so every unit reports its context. The first slice
+            // fills the memo; then an op starts behind its back, as a frame of op resolution would
+            IntrigueOp rally = IntrigueServices.opFactory().createRallyOp(ops.nextOpId("test"),
+                    IntrigueServices.subfactions().getById("sf_tri"));
+            for (IntrigueSubfaction sf : IntrigueServices.subfactions().getAll()) sf.setLeaderId(null);
+            long[] now = {0};
+            IntrigueTickEngine.SlicedTick tick = engine.beginTick(0);
+            tick.runSlice(0, () -> now[0]++);
+            ops.startOp(rally);
+            while (!tick.runSlice(0, () -> now[0]++)) { }
+            assertEquals("Every unit idle", 3, units[0]);
+            assertEquals("Active-op counts current in later slices", List.of(), mismatches);
+        });
+    }
+
+    static void testActiveOpRegistryMatchesScan() {
+        test("Active-op registry: indexed lookups match a full scan through a run", () -> {
+            SimRun run = new SimRun(SimConfig.defaults(), 23, 30);
+            IntrigueContext context = new SimSectorGenerator(60).withTerritories(12).build(23, SimConfig.defaults());
+            IntrigueServices.runWith(context, () -> {
+                run.begin((SimClock) context.clock());
+                int seen = 0;
+                for (int t = 0; t < 30; t++) {
+                    run.tick();
+                    assertOpRegistryMatches(IntrigueServices.ops());
+                    seen += IntrigueServices.ops().getActiveOps().size();
+                }
+                assertTrue("Ops were running", seen > 0);
+                assertNull("Unknown op id", IntrigueServices.ops().getActiveOp("no_such_op"));
+            });
+        });
+    }
+
+    static void testOpWakeScheduler() {
+        test("Wake scheduler: sleeping ops skip frames and resolve on time", () -> {
+            // Quarter-day frames: a 5-day timed op per-frame resolves on frame 20
+            WakeTestOp polled = new WakeTestOp("polled", new TimedPhase("Waiting", 5f));
+            polled.start();
+            int polledFrame = 0;
+            while (!polled.isResolved()) {
+                polled.advance(0.25f);
+                polledFrame++;
+            }
+
+            SimOpRunner runner = new SimOpRunner();
+            WakeTestOp timed = new WakeTestOp("timed", new TimedPhase("Waiting", 5f));
+            List<Float> frames = new ArrayList<>();
+            boolean[] signalled = {false};
+            OpPhase signal = new OpPhase() {
+                @Override public void advance(float days) { }
+                @Override public boolean isDone() { return signalled[0]; }
+                @Override public float getDaysUntilWake() { return 30f; }
+                @Override public String getStatus() { return "Waiting for a signal"; }
+            };
+            OpPhase everyFrame = new OpPhase() {
+                @Override public void advance(float days) { frames.add(days); }
+                @Override public boolean isDone() { return false; }
+                @Override public String getStatus() { return "Polling"; }
+            };
+            WakeTestOp waiting = new WakeTestOp("signal", signal);
+            runner.startOp(timed);
+            runner.startOp(new WakeTestOp("polling", everyFrame));
+            runner.startOp(waiting);
+
+            int frame = 0;
+            int timedFrame = -1;
+            while (frame < 22) {
+                runner.advance(0.25f);
+                frame++;
+                if (timed.isResolved() && timedFrame < 0) timedFrame = frame;
+                if (frame == 2) assertEquals("Timed and signal ops asleep", 2, runner.getSleepingOpCount());
+            }
+            assertEquals("Resolves on the per-frame frame", polledFrame, timedFrame);
+            assertEquals("Timed op checked once a day, not every frame", 6, timed.checks);
+            assertEquals("Polling phase every frame", 22, frames.size());
+            assertTrue("Polling phase gets one frame each", frames.stream().allMatch(d -> d == 0.25f));
+            assertNull("Resolved op dropped", runner.getActiveOp("timed"));
+
+            // An outside event wakes the sleeping op (last advanced on frame 21) on the next frame
+            int before = waiting.checks;
+            signalled[0] = true;
+            runner.advance(0.25f);
+            assertTrue("Still sleeping without a wake", !waiting.isResolved());
+            runner.wake(signal);
+            runner.advance(0.25f);
+            assertTrue("Woken op resolved", waiting.isResolved());
+            assertEquals("Advanced once per wake", before + 1, waiting.checks);
+
+            // Phases no sleeping op is in wake nothing
+            runner.wake(signal);
+            runner.wake(new TimedPhase("Unrelated", 1f));
+            runner.wake(null);
+            runner.advance(0.25f);
+            assertEquals("Only the polling op left", 1, runner.getActiveOps().size());
+            assertEquals("Nothing asleep", 0, runner.getSleepingOpCount());
+        });
+    }
+
+    static void testOpLedgerBoundedAndQueryable() {
+        test("Op ledger: queries match its rows, size stays bounded", () -> {
+            SimRun run = new SimRun(SimConfig.defaults(), 29, 60);
+            IntrigueContext context = new SimSectorGenerator(60).withTerritories(12).build(29, SimConfig.defaults());
+            IntrigueServices.runWith(context, () -> {
+                run.begin((SimClock) context.clock());
+                for (int t = 0; t < 60; t++) run.tick();
+                OpLedger ledger = IntrigueServices.ops().getLedger();
+                assertTrue("Ops were recorded", ledger.size() > 0);
+                assertEquals("Ring holds the newest", (int) Math.min(ledger.getTotalRecorded(), ledger.getCapacity()),
+                        ledger.size());
+
+                List<OpLedger.Entry> rows = ledger.recent(OpLedger.Query.all(), Integer.MAX_VALUE);
+                assertEquals("Total", rows.size(), ledger.tally(OpLedger.Query.all()).total);
+                int byType = 0;
+                for (OpLedger.Tally tally : ledger.tallyByType(OpLedger.Query.all()).values()) byType += tally.total;
+                assertEquals("Type tallies add up", rows.size(), byType);
+
+                for (String sfId : ledger.tallyByInitiator(OpLedger.Query.all()).keySet()) {
+                    int won = 0, involved = 0, recent = 0;
+                    for (OpLedger.Entry e : rows) {
+                        if (e.opType.equals("Raid") && sfId.equals(e.initiatorSubfactionId)
+                                && e.outcome == OpOutcome.SUCCESS) won++;
+                        if (sfId.equals(e.initiatorSubfactionId) || sfId.equals(e.targetSubfactionId)) involved++;
+                        if (sfId.equals(e.initiatorSubfactionId)
+                                && IntrigueServices.clock().getElapsedDaysSince(e.endTimestamp) <= 70f) recent++;
+                    }
+                    assertEquals("Raids won by " + sfId, won, ledger.tally(OpLedger.Query.all()
+                            .withType("Raid").withInitiator(sfId).withOutcome(OpOutcome.SUCCESS)).total);
+                    assertEquals("Involving " + sfId, involved, ledger.tally(OpLedger.Query.all().involving(sfId)).total);
+                    assertEquals("Last 70 days of " + sfId, recent,
+                            ledger.tally(OpLedger.Query.all().withInitiator(sfId).withinDays(70f)).total);
+                }
+                assertEquals("Unknown id matches nothing", 0,
+                        ledger.tally(OpLedger.Query.all().withInitiator("sf_absent")).total);
+            });
+
+            // Fresh ids on every row: the ring and the symbol table both stay bounded
+            OpLedger small = new OpLedger(8);
+            int after200 = 0;
+            for (int i = 0; i < 2000; i++) {
+                small.record("Raid", "sf_a" + i, "sf_b" + i, "t_" + i, i, i + 1L,
+                        i % 2 == 0 ? OpOutcome.SUCCESS : OpOutcome.FAILURE, i % 4 == 1);
+                if (i == 199) after200 = serialize(small).length;
+            }
+            byte[] saved = serialize(small);
+            assertEquals("Held rows", 8, small.size());
+            assertEquals("Recorded rows", 2000L, small.getTotalRecorded());
+            assertTrue("Save size bounded: " + after200 + " then " + saved.length, saved.length < after200 * 3 / 2);
+
+            OpLedger loaded;
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(saved))) {
+                loaded = (OpLedger) in.readObject();
+            } catch (IOException | ClassNotFoundException e) {
+                throw new RuntimeException(e);
+            }
+            List<OpLedger.Entry> last = loaded.recent(OpLedger.Query.all(), 3);
+            assertEquals("Newest first", "sf_a1999", last.get(0).initiatorSubfactionId);
+            assertEquals("Then older", "t_1997", last.get(2).territoryId);
+            OpLedger.Tally tally = loaded.tally(OpLedger.Query.all());
+            assertEquals("Wins", 4, tally.successes);
+            assertEquals("Sabotaged", 2, tally.sabotaged);
+            assertEquals("Query after load", 1, loaded.tally(OpLedger.Query.all().withTarget("sf_b1995")).total);
+            assertEquals("Overwritten rows are gone", 0, loaded.tally(OpLedger.Query.all().withTarget("sf_b1991")).total);
+
+            // Columns grow with the rows: a new game's ledger saves small, and growing
+            // then wrapping keeps rows in order
+            OpLedger fresh = new OpLedger(OpLedger.DEFAULT_CAPACITY);
+            for (int i = 0; i < 3; i++) fresh.record("Rally", "sf_a", null, null, i, i + 1L, OpOutcome.SUCCESS, false);
+            assertTrue("Few rows, small save: " + serialize(fresh).length, serialize(fresh).length < 1500);
+            OpLedger growing = new OpLedger(100);
+            for (int i = 0; i < 250; i++) {
+                growing.record("Raid", "sf_" + i, null, null, i, i + 1L, OpOutcome.FAILURE, false);
+            }
+            List<OpLedger.Entry> rows = growing.recent(OpLedger.Query.all(), 100);
+            assertEquals("Held after wrap", 100, growing.size());
+            assertEquals("Newest", "sf_249", rows.get(0).initiatorSubfactionId);
+            assertEquals("Oldest held", "sf_150", rows.get(99).initiatorSubfactionId);
+        });
+    }
+
+    static void testFrictionMatrix() {
+        test("Territory friction: dense matrix keeps directed values and old saves", () -> {
+            IntrigueTerritory territory = new IntrigueTerritory("t_fric", "Friction", TerritoryConfig.Tier.LOW, null);
+            for (int i = 0; i < 9; i++) territory.setFriction("sf_" + i, "sf_" + ((i + 1) % 9), 10 + i);
+            territory.setFriction("sf_1", "sf_0", 150);
+            assertEquals("Directed", 11, territory.getFriction("sf_1", "sf_2"));
+            assertEquals("Other direction unset", 0, territory.getFriction("sf_2", "sf_1"));
+            assertEquals("Clamped", 100, territory.getFriction("sf_1", "sf_0"));
+            assertEquals("Unknown subfaction", 0, territory.getFriction("sf_x", "sf_0"));
+            territory.setFriction("sf_3", "sf_4", 0);
+            territory.resetFriction("sf_4", "sf_5");
+            assertEquals("Zeroed", 0, territory.getFriction("sf_3", "sf_4"));
+            assertEquals("Reset", 0, territory.getFriction("sf_4", "sf_5"));
+
+            territory.removeSubfaction("sf_0");
+            assertEquals("Removed as source", 0, territory.getFriction("sf_0", "sf_1"));
+            assertEquals("Removed as target", 0, territory.getFriction("sf_8", "sf_0"));
+            territory.setFriction("sf_new", "sf_1", 7);
+            assertEquals("Freed slot reused", 7, territory.getFriction("sf_new", "sf_1"));
+            assertEquals("Row not inherited", 0, territory.getFriction("sf_new", "sf_0"));
+
+            Map<String, Integer> view = territory.getPairFrictionView();
+            assertEquals("View entries", 6, view.size());
+            assertEquals("View key", Integer.valueOf(17), view.get("sf_7|sf_8"));
+            assertEquals("View of reused slot", Integer.valueOf(7), view.get("sf_new|sf_1"));
+
+            // A save from before the matrix holds only the keyed map
+            IntrigueTerritory legacy = new IntrigueTerritory("t_old", "Old", TerritoryConfig.Tier.LOW, null);
+            Map<String, Integer> saved = new LinkedHashMap<>();
+            saved.put("sf_a|sf_b", 40);
+            saved.put("sf_b|sf_a", 5);
+            try {
+                java.lang.reflect.Field field = IntrigueTerritory.class.getDeclaredField("pairFriction");
+                field.setAccessible(true);
+                field.set(legacy, saved);
+            } catch (ReflectiveOperationException e) {
+                throw new RuntimeException(e);
+            }
+            IntrigueTerritory loaded;
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialize(legacy)))) {
+                loaded = (IntrigueTerritory) in.readObject();
+            } catch (IOException | ClassNotFoundException e) {
+                throw new RuntimeException(e);
+            }
+            assertEquals("Migrated A->B", 40, loaded.getFriction("sf_a", "sf_b"));
+            assertEquals("Migrated B->A", 5, loaded.getFriction("sf_b", "sf_a"));
+            assertEquals("Migrated view", saved, loaded.getPairFrictionView());
+        });
+    }
+
+    static byte[] serialize(Object value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /** Op of one given phase that counts how often it is advanced (its abort checks). */
+    static class WakeTestOp extends IntrigueOp {
+        private static final long serialVersionUID = 1L;
+
+        int checks;
+
+        WakeTestOp(String opId, OpPhase phase) {
+            super(opId, null, null, null, null);
+            phases.add(phase);
+        }
+
+        @Override protected boolean shouldAbort() { checks++; return false; }
+        @Override protected void onStarted() { }
+        @Override protected void applyOutcome() { }
+        @Override protected OpOutcome determineOutcome() { return OpOutcome.SUCCESS; }
+        @Override public String getOpTypeName() { return "Wake Test"; }
+    }
+
+    /** Compare every indexed op lookup with a filtered walk over the active-op list. */
+    static void assertOpRegistryMatches(IntrigueOpRunner ops) {
+        List<IntrigueOp> active = ops.getActiveOps();
+        Set<String> people = new TreeSet<>(Collections.singleton("absent"));
+        Set<String> subfactions = new TreeSet<>(Collections.singleton("sf_absent"));
+        Set<String> territories = new TreeSet<>(Collections.singleton("t_absent"));
+        for (IntrigueOp op : active) {
+            assertTrue("By id " + op.getOpId(), ops.getActiveOp(op.getOpId()) == op);
+            if (op.getInitiatorId() != null) people.add(op.getInitiatorId());
+            if (op.getTargetId() != null) people.add(op.getTargetId());
+            people.addAll(op.getParticipantIds());
+            if (op.getInitiatorSubfactionId() != null) subfactions.add(op.getInitiatorSubfactionId());
+            if (op.getTerritoryId() != null) territories.add(op.getTerritoryId());
+        }
+        for (String p : people) {
+            List<IntrigueOp> initiated = new ArrayList<>();
+            List<IntrigueOp> targeting = new ArrayList<>();
+            List<IntrigueOp> involving = new ArrayList<>();
+            for (IntrigueOp op : active) {
+                if (p.equals(op.getInitiatorId())) initiated.add(op);
+                if (p.equals(op.getTargetId())) targeting.add(op);
+                if (p.equals(op.getInitiatorId()) || p.equals(op.getTargetId())
+                        || op.getParticipantIds().contains(p)) involving.add(op);
+            }
+            assertEquals("Initiated by " + p, initiated, ops.getOpsInitiatedBy(p));
+            assertEquals("Count of " + p, initiated.size(), ops.getActiveOpCount(p));
+            assertEquals("Has op " + p, !initiated.isEmpty(), ops.hasActiveOp(p));
+            assertEquals("Targeting " + p, targeting, ops.getOpsTargeting(p));
+            assertEquals("Involving " + p, involving, ops.getOpsInvolving(p));
+        }
+        for (String sfId : subfactions) {
+            List<IntrigueOp> expected = new ArrayList<>();
+            for (IntrigueOp op : active) if (sfId.equals(op.getInitiatorSubfactionId())) expected.add(op);
+            assertEquals("By subfaction " + sfId, expected, ops.getOpsBySubfaction(sfId));
+        }
+        for (String tId : territories) {
+            List<IntrigueOp> expected = new ArrayList<>();
+            for (IntrigueOp op : active) if (tId.equals(op.getTerritoryId())) expected.add(op);
+            assertEquals("In territory " + tId, expected, ops.getOpsInTerritory(tId));
+        }
+    }
+
+    /** A sliced stage of one unit per element of {@code units} and a plain stage, each 1 ms on {@code now}. */
+    static IntrigueTickEngine tickEngine(List<Integer> units, List<String> log, long[] now) {
+        return new IntrigueTickEngine(Arrays.asList(
+                IntrigueTickEngine.Stage.sliced("units", (t, l) -> IntrigueTickEngine.Stage.each(units, u -> {
+                    log.add("unit " + u);
+                    now[0] += 1_000_000L;
+                    return 1;
+                })),
+                new IntrigueTickEngine.Stage("whole", (t, l) -> {
+                    log.add("whole");
+                    now[0] += 1_000_000L;
+                    return 1;
+                })));
+    }
+
+    /** Sequence number at the end of a sim op id. */
+    static int seqOf(String opId) {
+        return Integer.parseInt(opId.substring(opId.lastIndexOf('_') + 1));
+    }
+
+    static void assertVulnerabilityIndexMatches(IntrigueSubfactionAccess subfactions) {
+        List<IntrigueSubfaction> zero = new ArrayList<>();
+        Set<String> factions = new TreeSet<>();
+        for (IntrigueSubfaction sf : subfactions.getAll()) {
+            if (sf.getLegitimacy() == 0) zero.add(sf);
+            factions.add(sf.getFactionId());
+        }
+        assertEquals("Watch set", zero, subfactions.getZeroLegitimacy());
+        for (String factionId : factions) {
+            List<IntrigueSubfaction> hostile = new ArrayList<>();
+            for (IntrigueSubfaction sf : subfactions.getAll()) {
+                if (!sf.getFactionId().equals(factionId)
+                        && IntrigueServices.hostility().areHostile(sf.getFactionId(), factionId)) hostile.add(sf);
+            }
+            assertEquals("Hostile to " + factionId, hostile, subfactions.getHostileTo(factionId));
+        }
+    }
+
+    /** Initiator → target pairs the original all-victims × all-attackers loop would raise. */
+    static List<String> vulnerabilityRaidsByScan() {
+        List<String> pairs = new ArrayList<>();
+        Collection<IntrigueSubfaction> all = IntrigueServices.subfactions().getAll();
+        for (IntrigueSubfaction victim : all) {
+            if (victim.getLegitimacy() > 0 || !victim.hasHomeMarket()) continue;
+            for (IntrigueSubfaction attacker : all) {
+                if (attacker == victim || !attacker.hasHomeMarket()) continue;
+                if (attacker.getFactionId().equals(victim.getFactionId())) continue;
+                if (!IntrigueServices.hostility().areHostile(attacker.getFactionId(), victim.getFactionId())) continue;
+                if (attacker.getLeaderId() == null) continue;
+                pairs.add(attacker.getSubfactionId() + "->" + victim.getSubfactionId());
+            }
+        }
+        return pairs;
+    }
+
+    static List<String> vulnerabilityRaidPairs(List<IntrigueOp> raids) {
+        List<String> pairs = new ArrayList<>();
+        for (IntrigueOp op : raids) pairs.add(op.getInitiatorSubfactionId() + "->" + op.getTargetSubfactionId());
+        return pairs;
+    }
+
+    static void testParallelAdvanceMatchesSequential() {
+        test("Op advance: partitioned parallel advance matches sequential", () -> {
+            // Ops sharing a subfaction land in one group, in start order
+            setupSim();
+            SimOpRunner ops = (SimOpRunner) IntrigueServices.ops();
+            IntrigueSubfaction heg1 = IntrigueServices.subfactions().getById("sf_heg1");
+            IntrigueSubfaction heg2 = IntrigueServices.subfactions().getById("sf_heg2");
+            IntrigueSubfaction tri = IntrigueServices.subfactions().getById("sf_tri");
+            List<IntrigueOp> batch = Arrays.asList(
+                    IntrigueServices.opFactory().createRaidOp(ops.nextOpId("test"), heg1, tri),
+                    IntrigueServices.opFactory().createRallyOp(ops.nextOpId("test"), heg2),
+                    IntrigueServices.opFactory().createRallyOp(ops.nextOpId("test"), tri));
+            List<int[]> groups = OpPartitioner.partition(batch);
+            assertEquals("Groups", 2, groups.size());
+            assertEquals("Raid and target's rally", "[0, 2]", Arrays.toString(groups.get(0)));
+            assertEquals("Independent rally", "[1]", Arrays.toString(groups.get(1)));
+
+            SimSectorGenerator gen = new SimSectorGenerator(300);
+            SimRunStats sequential;
+            SimRunStats parallel;
+            try {
+                sequential = new SimRun(SimConfig.defaults(), 37, 40).withGenerator(gen).run();
+                parallel = new SimRun(SimConfig.defaults(), 37, 40).withGenerator(gen).withAdvanceThreads(4).run();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            assertTrue("Ops happened", sequential.getAll().stream().mapToInt(SimRunStats.SubfactionStats::totalOps).sum() > 0);
+            assertEquals("Op history", fingerprint(sequential), fingerprint(parallel));
+            assertEquals("End state", endState(sequential), endState(parallel));
+        });
+    }
+
+    static void testParallelAdvanceKeepsEveryOpTypeApart() {
+        test("Op advance: every op type, parallel == sequential state", () -> {
+            // OpPartitioner trusts every op to touch only the entities its ids name. Advance
+            // a batch holding every op type in start order, with the groups reversed and on
+            // threads, and compare everything ops can write, so an op that reaches for shared
+            // state shows up here.
+            SimSectorGenerator gen = new SimSectorGenerator(260).withInitialPresence(0.5, 0.2, true);
+            String sequential = advanceMixedBatch(gen.build(41, SimConfig.defaults()), 1, false);
+            String reversed = advanceMixedBatch(gen.build(41, SimConfig.defaults()), 1, true);
+            String parallel = advanceMixedBatch(gen.build(41, SimConfig.defaults()), 4, false);
+            assertEquals("Groups reversed", sequential, reversed);
+            assertEquals("Groups on threads", sequential, parallel);
+        });
+    }
+
+    /** Start one op of every type per few subfactions, advance them on {@code threads}, and dump the sector. */
+    static String advanceMixedBatch(IntrigueContext context, int threads, boolean reverseGroups) {
+        return IntrigueServices.callWith(context, () -> {
+            SimOpRunner ops = (SimOpRunner) IntrigueServices.ops();
+            List<IntrigueSubfaction> sfs = new ArrayList<>(IntrigueServices.subfactions().getAll());
+            List<IntrigueTerritory> terrs = new ArrayList<>(IntrigueServices.territories().getAll());
+            List<IntrigueOp> started = new ArrayList<>();
+            for (int i = 0; i < sfs.size(); i++) {
+                IntrigueOp op = mixedOp(i, ops.nextOpId("mix"), sfs.get(i),
+                        sfs.get((i + 7) % sfs.size()), terrs.get(i % terrs.size()).getTerritoryId());
+                ops.startOp(op);
+                started.add(op);
+            }
+            assertTrue("Independent groups", OpPartitioner.partition(started).size() > 1);
+            ops.reverseGroupOrder(reverseGroups);
+            try {
+                for (int step = 0; step < 30; step++) ops.advance(3f, threads);
+            } finally {
+                ops.shutdownWorkers();
+            }
+
+            StringBuilder sb = new StringBuilder();
+            for (IntrigueSubfaction sf : sfs) {
+                sb.append(sf.getSubfactionId()).append(':').append(sf.getHomeCohesion()).append('/')
+                        .append(sf.getLegitimacy()).append('/').append(sf.getLowHomeCohesionTicks()).append('/')
+                        .append(sf.getLastOpTimestamp()).append('/').append(sf.getHomeMarketId()).append('/')
+                        .append(sf.isHidden()).append(' ').append(new TreeMap<>(sf.getRelToOthersView())).append('\n');
+            }
+            for (IntriguePerson p : IntrigueServices.people().getAll()) {
+                sb.append(p.getPersonId()).append(':').append(p.getLocationType()).append('/').append(p.getLocationId())
+                        .append(' ').append(new TreeMap<>(p.getRelToOthersView())).append('\n');
+            }
+            for (IntrigueTerritory t : terrs) {
+                sb.append(t.getTerritoryId()).append(' ').append(new TreeMap<>(t.getSubfactionPresenceView()))
+                        .append(' ').append(new TreeMap<>(t.getPairFrictionView()));
+                for (IntrigueSubfaction sf : sfs) {
+                    String id = sf.getSubfactionId();
+                    sb.append(' ').append(t.getCohesion(id)).append('/').append(t.getLowCohesionTicks(id))
+                            .append('/').append(t.getBaseMarketId(id));
+                }
+                for (IntrigueTerritory.BaseSlot slot : t.getBaseSlots()) sb.append(' ').append(slot.getClaimedBySubfactionId());
+                sb.append('\n');
+            }
+            for (IntrigueOp op : started) sb.append(op.getOpId()).append('=').append(op.getOutcome()).append(' ');
+            return sb.toString();
+        });
+    }
+
+    /** The {@code i % 13}-th op type, started by {@code sf} (against {@code other}, in {@code territoryId}). */
+    static IntrigueOp mixedOp(int i, String opId, IntrigueSubfaction sf, IntrigueSubfaction other, String territoryId) {
+        OpFactory factory = IntrigueServices.opFactory();
+        switch (i % 13) {
+            case 0: return factory.createRaidOp(opId, sf, other);
+            case 1: return factory.createRallyOp(opId, sf);
+            case 2: return factory.createPatrolOp(opId, sf, territoryId);
+            case 3: return factory.createSendSuppliesOp(opId, sf, territoryId);
+            case 4: return factory.createScoutTerritoryOp(opId, sf, territoryId);
+            case 5: return factory.createEstablishTerritoryBaseOp(opId, sf, territoryId);
+            case 6: return factory.createInfightingOp(opId, sf, territoryId);
+            case 7: return factory.createExpulsionOp(opId, sf, territoryId);
+            case 8: return factory.createMischiefOp(opId, sf, other, territoryId, null);
+            case 9: return factory.createAssaultTerritoryBaseOp(opId, sf, other, territoryId);
+            case 10: return factory.createUpgradePresenceOp(opId, sf, territoryId);
+            case 11: return factory.createCivilWarOp(opId, sf);
+            default: return factory.createEstablishBaseOp(opId, sf);
+        }
+    }
+
+    /** Home and territory end state of a run, in a form comparable with a replayed frame. */
+    static String endState(SimRunStats stats) {
+        StringBuilder sb = new StringBuilder();
+        for (SimRunStats.SubfactionStats ss : stats.getAll()) {
+            sb.append(ss.subfactionId).append(':').append(ss.endCohesion).append('/').append(ss.endLegitimacy).append(' ');
+            for (SimRunStats.TerritoryStats ts : ss.territories.values()) {
+                sb.append(ts.territoryId).append('=').append(ts.endPresence).append('/').append(ts.endCohesion).append(' ');
+            }
+        }
+        return sb.toString();
+    }
+
+    static String endState(SimReplay.Frame frame) {
+        StringBuilder sb = new StringBuilder();
+        for (IntrigueSubfaction sf : frame.getSubfactions()) {
+            String id = sf.getSubfactionId();
+            sb.append(id).append(':').append(sf.getHomeCohesion()).append('/').append(sf.getLegitimacy()).append(' ');
+            for (IntrigueTerritory t : frame.getTerritories()) {
+                sb.append(t.getTerritoryId()).append('=').append(t.getPresence(id)).append('/').append(t.getCohesion(id)).append(' ');
+            }
+        }
+        return sb.toString();
+    }
+
+    /** Condensed end state and op history of one run, for equality checks. */
+    static String fingerprint(SimRunStats stats) {
+        StringBuilder sb = new StringBuilder();
+        for (SimRunStats.SubfactionStats ss : stats.getAll()) {
+            sb.append(ss.subfactionId).append(':').append(ss.endCohesion).append('/').append(ss.endLegitimacy)
+                    .append(' ').append(ss.opCounts).append(' ');
+            for (Map.Entry<String, int[]> e : ss.outcomeCounts.entrySet()) {
+                sb.append(e.getKey()).append('=').append(e.getValue()[0]).append('/').append(e.getValue()[1]).append(' ');
+            }
+            for (SimRunStats.TerritoryStats ts : ss.territories.values()) {
+                sb.append(ts.territoryId).append('=').append(ts.endPresence).append('/').append(ts.endCohesion).append(' ');
+            }
+        }
+        return sb.toString();
+    }
+
     // ── Test harness ────────────────────────────────────────────────
 
     static void test(String name, Runnable body) {
@@ -0,0 +1,27 @@
+package spinloki.Intrigue.campaign.ops.sim;
+
+import spinloki.Intrigue.campaign.IntrigueSubfaction;
+import spinloki.Intrigue.campaign.IntrigueTerritory;
+
+import java.io.Closeable;
+import java.util.Collection;
+
+/**
+ * Receives the sector state at the end of every sim tick, as it happens, so long runs
+ * can be observed without holding their history in memory.
+ * Attach one with {@link SimRun#withMetrics}; see {@link SimNdjsonMetricsSink}.
+ *
+ * Implementations must not modify the sector. IO errors surface as
+ * {@link java.io.UncheckedIOException}.
+ */
+public interface SimMetricsSink extends Closeable {
+
+    /**
+     * Called once per tick after ops are advanced and resolved.
+     * @param day elapsed sim days at the end of the tick
+     */
+    void tick(long seed, int tick, float day,
+              Collection<IntrigueSubfaction> subfactions,
+              Collection<IntrigueTerritory> territories,
+              SimOpRunner ops);
+}
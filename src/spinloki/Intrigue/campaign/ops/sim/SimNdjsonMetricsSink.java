@@ -0,0 +1,153 @@
+package spinloki.Intrigue.campaign.ops.sim;
+
+import spinloki.Intrigue.campaign.IntrigueSubfaction;
+import spinloki.Intrigue.campaign.IntrigueTerritory;
+import spinloki.Intrigue.campaign.ops.IntrigueOp;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * {@link SimMetricsSink} that streams newline-delimited JSON: per tick, one line per
+ * subfaction and one line per territory.
+ *
+ * <pre>
+ * {"seed":100,"tick":12,"day":91,"kind":"subfaction","id":"sf_heg1","cohesion":55,"legitimacy":48,"activeOps":2}
+ * {"seed":100,"tick":12,"day":91,"kind":"territory","id":"ashen_reach","activeOps":1,
+ *  "subfactions":{"sf_heg1":{"presence":"ESTABLISHED","cohesion":40,"friction":{"sf_tri":12}}}}
+ * </pre>
+ * (the territory line is one line in the output). Territory entries list every
+ * subfaction with presence; {@code friction} holds the non-zero directed friction
+ * from that subfaction toward the others.
+ *
+ * Output goes through a fixed-size buffer that is flushed when full and every
+ * {@code flushEveryTicks} ticks, so memory stays flat however long the run is and a
+ * reader tailing the file sees data while the sim is still going.
+ */
+public class SimNdjsonMetricsSink implements SimMetricsSink {
+
+    public static final int DEFAULT_BUFFER_CHARS = 64 * 1024;
+    public static final int DEFAULT_FLUSH_EVERY_TICKS = 10;
+
+    private final Writer out;
+    private final boolean closeOut;
+    private final int flushEveryTicks;
+
+    // Reused every tick
+    private final StringBuilder line = new StringBuilder(256);
+    private final Map<String, Integer> opsBySubfaction = new HashMap<>();
+    private final Map<String, Integer> opsByTerritory = new HashMap<>();
+
+    /**
+     * @param out             destination; closed by {@link #close} only if {@code closeOut}
+     * @param bufferChars     size of the output buffer
+     * @param flushEveryTicks flush after this many ticks (1 = every tick)
+     */
+    public SimNdjsonMetricsSink(Writer out, boolean closeOut, int bufferChars, int flushEveryTicks) {
+        this.out = new BufferedWriter(out, Math.max(1024, bufferChars));
+        this.closeOut = closeOut;
+        this.flushEveryTicks = Math.max(1, flushEveryTicks);
+    }
+
+    public SimNdjsonMetricsSink(Writer out) {
+        this(out, false, DEFAULT_BUFFER_CHARS, DEFAULT_FLUSH_EVERY_TICKS);
+    }
+
+    /** Stream to a file (UTF-8), or to stdout for {@code "-"}. */
+    public static SimNdjsonMetricsSink open(String path) throws IOException {
+        if ("-".equals(path)) {
+            return new SimNdjsonMetricsSink(new OutputStreamWriter(System.out, StandardCharsets.UTF_8),
+                    false, DEFAULT_BUFFER_CHARS, DEFAULT_FLUSH_EVERY_TICKS);
+        }
+        return new SimNdjsonMetricsSink(Files.newBufferedWriter(Path.of(path), StandardCharsets.UTF_8),
+                true, DEFAULT_BUFFER_CHARS, DEFAULT_FLUSH_EVERY_TICKS);
+    }
+
+    @Override
+    public void tick(long seed, int tick, float day,
+                     Collection<IntrigueSubfaction> subfactions,
+                     Collection<IntrigueTerritory> territories,
+                     SimOpRunner ops) {
+        opsBySubfaction.clear();
+        opsByTerritory.clear();
+        for (IntrigueOp op : ops.getActiveOps()) {
+            if (op.getInitiatorSubfactionId() != null) opsBySubfaction.merge(op.getInitiatorSubfactionId(), 1, Integer::sum);
+            if (op.getTerritoryId() != null) opsByTerritory.merge(op.getTerritoryId(), 1, Integer::sum);
+        }
+
+        try {
+            for (IntrigueSubfaction sf : subfactions) {
+                prefix(seed, tick, day, "subfaction", sf.getSubfactionId());
+                line.append(",\"cohesion\":").append(sf.getHomeCohesion())
+                        .append(",\"legitimacy\":").append(sf.getLegitimacy())
+                        .append(",\"activeOps\":").append(opsBySubfaction.getOrDefault(sf.getSubfactionId(), 0))
+                        .append("}\n");
+                out.append(line);
+            }
+            for (IntrigueTerritory terr : territories) {
+                prefix(seed, tick, day, "territory", terr.getTerritoryId());
+                line.append(",\"activeOps\":").append(opsByTerritory.getOrDefault(terr.getTerritoryId(), 0))
+                        .append(",\"subfactions\":{");
+                Set<String> present = terr.getActiveSubfactionIds();
+                boolean first = true;
+                for (String sfId : present) {
+                    if (!first) line.append(',');
+                    first = false;
+                    string(sfId);
+                    line.append(":{\"presence\":\"").append(terr.getPresence(sfId).name())
+                            .append("\",\"cohesion\":").append(terr.getCohesion(sfId))
+                            .append(",\"friction\":{");
+                    boolean firstFriction = true;
+                    for (String otherId : present) {
+                        int friction = otherId.equals(sfId) ? 0 : terr.getFriction(sfId, otherId);
+                        if (friction == 0) continue;
+                        if (!firstFriction) line.append(',');
+                        firstFriction = false;
+                        string(otherId);
+                        line.append(':').append(friction);
+                    }
+                    line.append("}}");
+                }
+                line.append("}}\n");
+                out.append(line);
+            }
+            if ((tick + 1) % flushEveryTicks == 0) out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void prefix(long seed, int tick, float day, String kind, String id) {
+        line.setLength(0);
+        line.append("{\"seed\":").append(seed)
+                .append(",\"tick\":").append(tick)
+                .append(",\"day\":").append(Math.round(day))
+                .append(",\"kind\":\"").append(kind)
+                .append("\",\"id\":");
+        string(id);
+    }
+
+    /** Append a JSON string literal. */
+    private void string(String s) {
+        line.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') line.append('\\').append(c);
+            else if (c < 0x20) line.append(String.format("\\u%04x", (int) c));
+            else line.append(c);
+        }
+        line.append('"');
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closeOut) {
+            out.close();
+        } else {
+            out.flush();
+        }
+    }
+}
@@ -13,25 +13,25 @@ import spinloki.Intrigue.campaign.ops.ReturnPhase;
 import spinloki.Intrigue.campaign.spi.IntrigueServices;
 import spinloki.Intrigue.campaign.spi.IntrigueTerritoryAccess;
 
-import java.util.Random;
+import java.io.Serializable;
 
 /**
  * Sim-side OpFactory that creates lightweight ops with no game dependencies.
  * Outcome determination is delegated to an {@link OpOutcomeResolver}, which
  * can be swapped out or configured via {@link SimConfig} probabilities.
  */
-public class SimOpFactory implements OpFactory {
+public class SimOpFactory implements OpFactory, Serializable {
+
+    private static final long serialVersionUID = 1L;
 
-    private final Random rng;
     private final SimConfig config;
     private final OpOutcomeResolver resolver;
 
-    public SimOpFactory(Random rng, SimConfig config) {
-        this(rng, config, new DefaultOutcomeResolver(rng, config));
+    public SimOpFactory(SimConfig config) {
+        this(config, new DefaultOutcomeResolver(config));
     }
 
-    public SimOpFactory(Random rng, SimConfig config, OpOutcomeResolver resolver) {
-        this.rng = rng;
+    public SimOpFactory(SimConfig config, OpOutcomeResolver resolver) {
         this.config = config;
         this.resolver = resolver;
     }
@@ -835,8 +835,7 @@ public class SimOpFactory implements OpFactory {
 
         @Override
         protected OpOutcome determineOutcome() {
-            // High success rate (75%) since the subfaction already invested heavily in cohesion
-            return Math.random() < 0.75 ? OpOutcome.SUCCESS : OpOutcome.FAILURE;
+            return resolver.resolveUpgradePresence(getInitiatorSubfaction(), tId);
         }
 
         @Override
@@ -906,7 +905,7 @@ public class SimOpFactory implements OpFactory {
             int atkCoh = atk != null ? atk.getHomeCohesion() : 50;
             float chance = 0.50f + (atkCoh - defCoh) * 0.003f;
             chance = Math.max(0.2f, Math.min(0.8f, chance));
-            return Math.random() < chance ? OpOutcome.SUCCESS : OpOutcome.FAILURE;
+            return resolver.resolveAssaultTerritoryBase(atk, tId, chance);
         }
 
         @Override
@@ -1,68 +1,170 @@
 package spinloki.Intrigue.campaign.ops.sim;
 
 
+import spinloki.Intrigue.campaign.DeferredIndexUpdates;
+import spinloki.Intrigue.campaign.IntrigueSubfaction;
+import spinloki.Intrigue.campaign.ops.ActiveOpRegistry;
 import spinloki.Intrigue.campaign.ops.IntrigueOp;
-import spinloki.Intrigue.campaign.spi.IntrigueOpRunner;
+import spinloki.Intrigue.campaign.spi.FactionHostilityChecker;
+import spinloki.Intrigue.campaign.spi.IntrigueContext;
+import spinloki.Intrigue.campaign.spi.IntrigueServices;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Sim-side op runner. Manages ops without EveryFrameScript or Global.*
+ *
+ * Every op gets its own random stream when it starts, seeded in start order from the
+ * runner's seed source, and {@link IntrigueServices#random()} is bound to that stream while
+ * the op advances. An op's rolls therefore don't depend on which other ops advanced before
+ * it, which is what lets {@link #advance(float, int)} advance ops on several threads.
  */
-public class SimOpRunner implements IntrigueOpRunner {
+public class SimOpRunner extends ActiveOpRegistry {
 
-    private final List<IntrigueOp> activeOps = new ArrayList<>();
-    private int nextOpSeq = 1;
+    private static final long serialVersionUID = 1L;
+
+    private final Random streamSeeds;
+    private final Map<IntrigueOp, Random> streams = new IdentityHashMap<>();
+    /** Threads for the advance in progress; see {@link #advance(float, int)}. */
+    private transient int parallelism = 1;
+    /** Helper threads of parallel advances, started on first use; see {@link #shutdownWorkers()}. */
+    private transient ExecutorService workers;
+    private transient int workerCount;
+    /** Advance partitioned groups one by one, last first; see {@link #reverseGroupOrder}. */
+    private transient boolean reverseGroups;
+
+    public SimOpRunner() {
+        this(new Random(0));
+    }
+
+    /** @param streamSeeds seeds each started op's random stream */
+    public SimOpRunner(Random streamSeeds) {
+        this.streamSeeds = streamSeeds;
+    }
 
     @Override
     public String nextOpId(String prefix) {
-        return prefix + "_sim_" + (nextOpSeq++);
+        return prefix + "_sim_" + nextOpSeq();
     }
 
     @Override
     public void startOp(IntrigueOp op) {
-        activeOps.add(op);
-        op.start();
+        streams.put(op, new Random(streamSeeds.nextLong()));
+        super.startOp(op);
     }
 
-    @Override
-    public boolean hasActiveOp(String personId) {
-        for (IntrigueOp op : activeOps) {
-            if (personId.equals(op.getInitiatorId())) return true;
+    /** Advance all active ops by the given days and remove resolved ones. */
+    public void advance(float days) {
+        advance(days, 1);
+    }
+
+    /**
+     * {@link #advance(float)} on up to {@code threads} threads. Due ops are split into
+     * groups that share no subfaction, territory or person ({@link OpPartitioner}); groups
+     * advance concurrently, each op in a group in start order. The index updates they
+     * cause are held back and applied group by group afterwards, and resolved ops are
+     * dropped in start order, so the end state is the same for any thread count.
+     *
+     * <p>The calling thread advances a share of the groups itself; the rest go to this
+     * runner's own {@code threads - 1} helper threads, never a JVM-wide pool, so runs of a
+     * batch don't compete for (or block) each other's workers.</p>
+     */
+    public void advance(float days, int threads) {
+        parallelism = Math.max(1, threads);
+        try {
+            advanceOps(days, streams::remove);
+        } finally {
+            parallelism = 1;
         }
-        return false;
+    }
+
+    /**
+     * For tests: advance the partitioned groups on the calling thread in reverse order.
+     * Independent groups don't care, so an op that reaches outside its group changes the
+     * end state every time instead of only when threads happen to race.
+     */
+    void reverseGroupOrder(boolean reverse) {
+        this.reverseGroups = reverse;
     }
 
     @Override
-    public int getActiveOpCount(String personId) {
-        int count = 0;
-        for (IntrigueOp op : activeOps) {
-            if (personId.equals(op.getInitiatorId())) count++;
+    protected void advanceDue(List<IntrigueOp> due, float[] slept) {
+        IntrigueContext context = IntrigueServices.current();
+        Random[] rngs = new Random[due.size()];
+        for (int i = 0; i < rngs.length; i++) {
+            rngs[i] = streams.computeIfAbsent(due.get(i), op -> new Random(streamSeeds.nextLong()));
+        }
+
+        List<int[]> groups = (parallelism > 1 || reverseGroups) && due.size() > 1 ? OpPartitioner.partition(due) : null;
+        if (groups == null || groups.size() < 2) {
+            for (int i = 0; i < rngs.length; i++) advance(context, due.get(i), rngs[i], slept[i]);
+            return;
+        }
+
+        // Memoized hostility is filled lazily; fill it first so the workers only read it.
+        Set<String> factions = new LinkedHashSet<>();
+        for (IntrigueSubfaction sf : IntrigueServices.subfactions().getAll()) factions.add(sf.getFactionId());
+        FactionHostilityChecker hostility = IntrigueServices.hostility();
+        for (String a : factions) {
+            for (String b : factions) hostility.areHostile(a, b);
+        }
+
+        if (reverseGroups) Collections.reverse(groups);
+        int n = groups.size();
+        List<List<Runnable>> updates = new ArrayList<>(Collections.nCopies(n, null));
+        int shares = reverseGroups ? 1 : Math.min(parallelism, n);
+        List<CompletableFuture<Void>> work = new ArrayList<>(shares - 1);
+        for (int w = 1; w < shares; w++) {
+            ExecutorService pool = workers(shares - 1);
+            int first = w;
+            work.add(CompletableFuture.runAsync(
+                    () -> advanceGroups(context, due, rngs, slept, groups, updates, first, shares), pool));
+        }
+        advanceGroups(context, due, rngs, slept, groups, updates, 0, shares);
+        for (CompletableFuture<Void> w : work) w.join();
+
+        for (List<Runnable> group : updates) {
+            for (Runnable update : group) update.run();
         }
-        return count;
     }
 
-    @Override
-    public List<IntrigueOp> getOpsInitiatedBy(String personId) {
-        List<IntrigueOp> result = new ArrayList<>();
-        for (IntrigueOp op : activeOps) {
-            if (personId.equals(op.getInitiatorId())) result.add(op);
+    /** Advance every {@code stride}-th group from {@code first}, collecting each group's index updates. */
+    private static void advanceGroups(IntrigueContext context, List<IntrigueOp> due, Random[] rngs, float[] slept,
+                                      List<int[]> groups, List<List<Runnable>> updates, int first, int stride) {
+        for (int g = first; g < groups.size(); g += stride) {
+            int[] group = groups.get(g);
+            updates.set(g, DeferredIndexUpdates.collect(() -> {
+                for (int i : group) advance(context, due.get(i), rngs[i], slept[i]);
+            }));
         }
-        return result;
     }
 
-    /** Advance all active ops by the given days and remove resolved ones. */
-    public void advance(float days) {
-        Iterator<IntrigueOp> it = activeOps.iterator();
-        while (it.hasNext()) {
-            IntrigueOp op = it.next();
-            op.advance(days);
-            if (op.isResolved()) it.remove();
+    /** This runner's helper threads, (re)started with at least {@code count} of them. */
+    private ExecutorService workers(int count) {
+        if (workers == null || workerCount < count) {
+            shutdownWorkers();
+            workers = Executors.newFixedThreadPool(count, task -> {
+                Thread thread = new Thread(task, "intrigue-sim-advance");
+                thread.setDaemon(true);
+                return thread;
+            });
+            workerCount = count;
         }
+        return workers;
     }
 
-    public List<IntrigueOp> getActiveOps() {
-        return Collections.unmodifiableList(activeOps);
+    /** Stop the helper threads of parallel advances; a later parallel advance starts new ones. */
+    public void shutdownWorkers() {
+        if (workers == null) return;
+        workers.shutdownNow();
+        workers = null;
+        workerCount = 0;
     }
-}
 
+    private static void advance(IntrigueContext context, IntrigueOp op, Random rng, float days) {
+        IntrigueServices.runWith(context.withRandom(rng), () -> op.advance(days));
+    }
+}
@@ -3,13 +3,16 @@ package spinloki.Intrigue.campaign.ops.sim;
 import spinloki.Intrigue.campaign.IntriguePerson;
 import spinloki.Intrigue.campaign.spi.IntriguePeopleAccess;
 
+import java.io.Serializable;
 import java.util.*;
 
 /**
  * Sim-side people registry. Holds IntriguePerson objects directly
  * with no Starsector API dependency. syncMemory is a no-op.
  */
-public class SimPeopleAccess implements IntriguePeopleAccess {
+public class SimPeopleAccess implements IntriguePeopleAccess, Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private final Map<String, IntriguePerson> people = new LinkedHashMap<>();
 
@@ -0,0 +1,350 @@
+package spinloki.Intrigue.campaign.ops.sim;
+
+import spinloki.Intrigue.campaign.IntrigueSubfaction;
+import spinloki.Intrigue.campaign.IntrigueTerritory;
+import spinloki.Intrigue.campaign.ops.OpOutcome;
+import spinloki.Intrigue.config.TerritoryConfig;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static spinloki.Intrigue.campaign.ops.sim.SimEventLog.*;
+
+/**
+ * Reads a {@link SimEventLog} and rebuilds the sector at any recorded tick by applying
+ * state-change records, without running the evaluator or any op logic.
+ *
+ * Usage: {@code ./run_balance_tests.sh --replay=FILE [--replay-tick=N] [--replay-from=N]}
+ */
+public class SimReplay {
+
+    /** One op as seen in the log. */
+    public static class OpRecord {
+        public final int seq;
+        public final String label;
+        public final String initiatorId;
+        public final String targetId;
+        public final String territoryId;
+        public final int startTick;
+        public int resolveTick = -1;
+        public OpOutcome outcome = OpOutcome.PENDING;
+        public boolean sabotaged;
+        public int mischiefPenaltyPercent;
+
+        OpRecord(int seq, String label, String initiatorId, String targetId, String territoryId, int startTick) {
+            this.seq = seq;
+            this.label = label;
+            this.initiatorId = initiatorId;
+            this.targetId = targetId;
+            this.territoryId = territoryId;
+            this.startTick = startTick;
+        }
+
+        /** True if the op was running at the end of the given tick. */
+        public boolean isActiveAt(int tick) {
+            return startTick <= tick && (resolveTick < 0 || resolveTick > tick);
+        }
+    }
+
+    /** Sector state rebuilt at the end of one tick. */
+    public static class Frame {
+        public final int tick;
+        private final Map<String, IntrigueSubfaction> subfactions = new LinkedHashMap<>();
+        private final Map<String, IntrigueTerritory> territories = new LinkedHashMap<>();
+        private final Map<String, Float> playerModifiers = new LinkedHashMap<>();
+        private final List<OpRecord> activeOps = new ArrayList<>();
+
+        Frame(int tick) {
+            this.tick = tick;
+        }
+
+        public IntrigueSubfaction getSubfaction(String id) { return subfactions.get(id); }
+        public Collection<IntrigueSubfaction> getSubfactions() { return Collections.unmodifiableCollection(subfactions.values()); }
+        public IntrigueTerritory getTerritory(String id) { return territories.get(id); }
+        public Collection<IntrigueTerritory> getTerritories() { return Collections.unmodifiableCollection(territories.values()); }
+        public float getPlayerModifier(String subfactionId) { return playerModifiers.getOrDefault(subfactionId, 0f); }
+        public List<OpRecord> getActiveOps() { return Collections.unmodifiableList(activeOps); }
+    }
+
+    private final long seed;
+    private final int plannedTicks;
+    private final String[] sfIds, sfNames, sfFactions;
+    private final IntrigueSubfaction.SubfactionType[] sfTypes;
+    private final String[] terrIds, terrNames;
+    private final TerritoryConfig.Tier[] terrTiers;
+    private final int[] terrSlots;
+    private final List<List<String>> terrFactions = new ArrayList<>();
+    private final ByteBuffer records;
+    private final int recordCount;
+    private final String[] strings;
+    /** Record index just past each tick's TICK_END, indexed by tick + 1 (slot 0 = end of setup). */
+    private final List<Integer> tickEnds = new ArrayList<>();
+    private final List<OpRecord> ops = new ArrayList<>();
+
+    public static SimReplay open(Path path) throws IOException {
+        return new SimReplay(Files.readAllBytes(path));
+    }
+
+    public SimReplay(byte[] data) throws IOException {
+        ByteArrayInputStream bytes = new ByteArrayInputStream(data);
+        DataInputStream in = new DataInputStream(bytes);
+        if (in.readInt() != MAGIC) throw new IOException("Not an Intrigue event log");
+        short version = in.readShort();
+        if (version != VERSION) throw new IOException("Unsupported event log version " + version);
+        seed = in.readLong();
+        plannedTicks = in.readInt();
+
+        int n = in.readInt();
+        sfIds = new String[n];
+        sfNames = new String[n];
+        sfFactions = new String[n];
+        sfTypes = new IntrigueSubfaction.SubfactionType[n];
+        for (int i = 0; i < n; i++) {
+            sfIds[i] = in.readUTF();
+            sfNames[i] = in.readUTF();
+            sfFactions[i] = in.readUTF();
+            sfTypes[i] = IntrigueSubfaction.SubfactionType.values()[in.readByte()];
+        }
+        int m = in.readInt();
+        terrIds = new String[m];
+        terrNames = new String[m];
+        terrTiers = new TerritoryConfig.Tier[m];
+        terrSlots = new int[m];
+        for (int t = 0; t < m; t++) {
+            terrIds[t] = in.readUTF();
+            terrNames[t] = in.readUTF();
+            terrTiers[t] = TerritoryConfig.Tier.valueOf(in.readUTF());
+            terrSlots[t] = in.readInt();
+            int factions = in.readInt();
+            List<String> interested = new ArrayList<>(factions);
+            for (int f = 0; f < factions; f++) interested.add(in.readUTF());
+            terrFactions.add(interested);
+        }
+
+        int start = data.length - bytes.available();
+        ByteBuffer buf = ByteBuffer.wrap(data);
+        int count = 0;
+        while (true) {
+            int pos = start + count * RECORD_BYTES;
+            if (pos + RECORD_BYTES > data.length) throw new IOException("Truncated event log (no END record)");
+            if (buf.get(pos) == END) break;
+            count++;
+        }
+        recordCount = count;
+        records = ByteBuffer.wrap(data, start, count * RECORD_BYTES).slice();
+
+        DataInputStream footer = new DataInputStream(new ByteArrayInputStream(data,
+                start + (count + 1) * RECORD_BYTES, data.length));
+        strings = new String[footer.readInt()];
+        for (int i = 0; i < strings.length; i++) strings[i] = footer.readUTF();
+
+        index();
+    }
+
+    /** One pass over the records: tick boundaries and op lifecycles. */
+    private void index() {
+        boolean setupDone = false;
+        for (int r = 0; r < recordCount; r++) {
+            int pos = r * RECORD_BYTES;
+            byte type = records.get(pos);
+            int tick = records.getInt(pos + 8);
+            if (!setupDone && tick >= 0) {
+                tickEnds.add(r);
+                setupDone = true;
+            }
+            if (type == TICK_END) {
+                tickEnds.add(r + 1);
+            } else if (type == OP_START) {
+                long value = records.getLong(pos + 12);
+                ops.add(new OpRecord((int) value, strings[(int) (value >>> 32)],
+                        sfId(u16(pos + 2)), sfId(u16(pos + 4)), terrId(u16(pos + 6)), tick));
+            } else if (type == OP_OUTCOME) {
+                OpRecord op = ops.get((int) records.getLong(pos + 12));
+                op.resolveTick = tick;
+                op.outcome = OpOutcome.values()[records.get(pos + 1)];
+                op.mischiefPenaltyPercent = u16(pos + 4);
+                op.sabotaged = u16(pos + 6) != 0;
+            }
+        }
+        if (!setupDone) tickEnds.add(recordCount);
+    }
+
+    public long getSeed() { return seed; }
+    public int getPlannedTicks() { return plannedTicks; }
+    public int getRecordCount() { return recordCount; }
+
+    /** Last fully recorded tick, or -1 if only setup was recorded. */
+    public int getLastTick() { return tickEnds.size() - 2; }
+
+    /** Every op in start order, with its outcome if it resolved before the log ended. */
+    public List<OpRecord> getOps() { return Collections.unmodifiableList(ops); }
+
+    // ── Materialization ─────────────────────────────────────────────────
+
+    /** Rebuild the sector as it was at the end of {@code tick} (-1 = after setup). */
+    public Frame stateAt(int tick) {
+        if (tick < -1 || tick > getLastTick()) {
+            throw new IllegalArgumentException("Tick " + tick + " not in log (last tick " + getLastTick() + ")");
+        }
+        Frame frame = new Frame(tick);
+        for (int i = 0; i < sfIds.length; i++) {
+            frame.subfactions.put(sfIds[i], new IntrigueSubfaction(sfIds[i], sfNames[i], sfFactions[i], null, sfTypes[i]));
+        }
+        for (int t = 0; t < terrIds.length; t++) {
+            IntrigueTerritory territory = new IntrigueTerritory(terrIds[t], terrNames[t], terrTiers[t], "");
+            for (String factionId : terrFactions.get(t)) territory.addInterestedFaction(factionId);
+            SimTerritoryAccess.addSyntheticSlots(territory, terrSlots[t]);
+            frame.territories.put(terrIds[t], territory);
+        }
+
+        int end = tickEnds.get(tick + 1);
+        for (int r = 0; r < end; r++) {
+            apply(frame, r * RECORD_BYTES);
+        }
+        for (OpRecord op : ops) {
+            if (op.startTick > tick) break;
+            if (op.isActiveAt(tick)) frame.activeOps.add(op);
+        }
+        return frame;
+    }
+
+    private void apply(Frame frame, int pos) {
+        byte type = records.get(pos);
+        int field = records.get(pos + 1);
+        int a = u16(pos + 2);
+        int b = u16(pos + 4);
+        int c = u16(pos + 6);
+        long value = records.getLong(pos + 12);
+        switch (type) {
+            case SF_STAT: {
+                IntrigueSubfaction sf = frame.subfactions.get(sfIds[a]);
+                switch (field) {
+                    case SF_HOME_COHESION: sf.setHomeCohesion((int) value); break;
+                    case SF_LEGITIMACY: sf.setLegitimacy((int) value); break;
+                    case SF_LOW_HOME_TICKS: sf.setLowHomeCohesionTicks((int) value); break;
+                    case SF_LAST_OP: sf.setLastOpTimestamp(value); break;
+                    case SF_HOME_MARKET: sf.setHomeMarketId(string(value)); break;
+                    case SF_HIDDEN: sf.setHidden(value != 0); break;
+                }
+                break;
+            }
+            case RELATIONSHIP:
+                frame.subfactions.get(sfIds[a]).setRelToInternal(sfIds[b], (int) value);
+                break;
+            case TERR_STAT: {
+                IntrigueTerritory territory = frame.territories.get(terrIds[b]);
+                switch (field) {
+                    case TERR_COHESION: territory.setCohesion(sfIds[a], (int) value); break;
+                    case TERR_PRESENCE: territory.setPresence(sfIds[a], IntrigueTerritory.Presence.values()[(int) value]); break;
+                    case TERR_LOW_TICKS: territory.setLowCohesionTicks(sfIds[a], (int) value); break;
+                    case TERR_BASE_MARKET: territory.setBaseMarketId(sfIds[a], string(value)); break;
+                    case TERR_SLOT: {
+                        IntrigueTerritory.BaseSlot slot = territory.getBaseSlots().get(c);
+                        if (a == NONE) slot.release(); else territory.claimSlot(slot, sfIds[a]);
+                        break;
+                    }
+                }
+                break;
+            }
+            case FRICTION:
+                frame.territories.get(terrIds[b]).setFriction(sfIds[a], sfIds[c], (int) value);
+                break;
+            case PLAYER_MODIFIER:
+                frame.playerModifiers.put(sfIds[a], Float.intBitsToFloat((int) value));
+                break;
+        }
+    }
+
+    private int u16(int pos) {
+        return records.getShort(pos) & 0xFFFF;
+    }
+
+    private String sfId(int idx) {
+        return idx == NONE ? null : sfIds[idx];
+    }
+
+    private String terrId(int idx) {
+        return idx == NONE ? null : terrIds[idx];
+    }
+
+    private String string(long idx) {
+        return idx == ABSENT ? null : strings[(int) idx];
+    }
+
+    private String sfName(String id) {
+        if (id == null) return "-";
+        for (int i = 0; i < sfIds.length; i++) {
+            if (sfIds[i].equals(id)) return sfNames[i];
+        }
+        return id;
+    }
+
+    // ── Post-mortem output ──────────────────────────────────────────────
+
+    /** Print the op log between two ticks (inclusive), in the style of the verbose sim log. */
+    public void printLog(PrintStream out, int fromTick, int toTick) {
+        for (int r = 0; r < recordCount; r++) {
+            int pos = r * RECORD_BYTES;
+            int tick = records.getInt(pos + 8);
+            if (tick < fromTick) continue;
+            if (tick > toTick) break;
+            byte type = records.get(pos);
+            if (type == OP_START) {
+                OpRecord op = ops.get((int) records.getLong(pos + 12));
+                out.printf("  [t=%3d] %-35s \u2192 %-20s", tick, sfName(op.initiatorId), op.label);
+                if (op.targetId != null) out.printf(" vs %s", sfName(op.targetId));
+                if (op.territoryId != null) out.printf(" in %s", op.territoryId);
+                out.println();
+            } else if (type == OP_OUTCOME) {
+                OpRecord op = ops.get((int) records.getLong(pos + 12));
+                out.printf("  [t=%3d]   %-35s   %-20s \u2192 %s", tick, sfName(op.initiatorId), op.label, op.outcome);
+                if (op.sabotaged) out.printf(" [SABOTAGED penalty=%d%%]", op.mischiefPenaltyPercent);
+                out.println();
+            } else if (type == PLAYER_MODIFIER) {
+                out.printf("  [t=%3d] ** PLAYER modifier %s %+.0f%% **%n", tick, sfNames[u16(pos + 2)],
+                        Float.intBitsToFloat((int) records.getLong(pos + 12)) * 100);
+            }
+        }
+    }
+
+    /** Print subfaction and territory state of a frame. */
+    public static void printFrame(Frame frame, PrintStream out) {
+        out.printf("  State at end of tick %d:%n", frame.tick);
+        for (IntrigueSubfaction sf : frame.getSubfactions()) {
+            out.printf("    %-35s homeCoh=%3d leg=%3d lowTicks=%d%n", sf.getName(),
+                    sf.getHomeCohesion(), sf.getLegitimacy(), sf.getLowHomeCohesionTicks());
+            for (IntrigueTerritory t : frame.getTerritories()) {
+                if (!t.hasPresence(sf.getSubfactionId())) continue;
+                out.printf("      %-22s %-11s coh=%3d%n", t.getName(),
+                        t.getPresence(sf.getSubfactionId()), t.getCohesion(sf.getSubfactionId()));
+            }
+        }
+        out.printf("    Active ops: %d%n", frame.getActiveOps().size());
+    }
+
+    // ── Entry point ─────────────────────────────────────────────────────
+
+    public static void main(String[] args) throws IOException {
+        String path = System.getProperty("intrigue.replay");
+        if (path == null) {
+            System.err.println("Set -Dintrigue.replay=FILE");
+            System.exit(1);
+        }
+        long startNanos = System.nanoTime();
+        SimReplay replay = SimReplay.open(Path.of(path));
+        int tick = Integer.getInteger("intrigue.replay.tick", replay.getLastTick());
+        int from = Integer.getInteger("intrigue.replay.from", 0);
+        Frame frame = replay.stateAt(tick);
+        double millis = (System.nanoTime() - startNanos) / 1e6;
+
+        System.out.printf("  Event log: seed=%d, %d records, ticks 0..%d%n%n",
+                replay.getSeed(), replay.getRecordCount(), replay.getLastTick());
+        replay.printLog(System.out, from, tick);
+        System.out.println();
+        printFrame(frame, System.out);
+        System.out.printf("%n  Replayed to tick %d in %.1f ms%n", tick, millis);
+    }
+}
@@ -0,0 +1,530 @@
+package spinloki.Intrigue.campaign.ops.sim;
+
+import spinloki.Intrigue.campaign.IntrigueSubfaction;
+import spinloki.Intrigue.campaign.IntrigueTerritory;
+import spinloki.Intrigue.campaign.ops.EvaluationContext;
+import spinloki.Intrigue.campaign.ops.IntrigueOp;
+import spinloki.Intrigue.campaign.ops.IntrigueTickEngine;
+import spinloki.Intrigue.campaign.ops.OpCascade;
+import spinloki.Intrigue.campaign.ops.OpEvaluator;
+import spinloki.Intrigue.campaign.ops.OpOutcome;
+import spinloki.Intrigue.campaign.spi.IntrigueContext;
+import spinloki.Intrigue.campaign.spi.IntrigueServices;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * One seeded run of the full balance simulation: sets up a sector, runs the
+ * tick loop for a fixed number of ticks and returns the collected {@link SimRunStats}.
+ *
+ * All randomness is derived from the run seed, so two runs with the same seed,
+ * config and scenario produce the same stats.
+ *
+ * Each run builds its own {@link IntrigueContext} and binds it to the calling thread,
+ * so runs on different threads never share sector state.
+ */
+public class SimRun {
+
+    /** Seed used by the single-run report and the integration tests. */
+    public static final long DEFAULT_SEED = 100L;
+
+    private final SimConfig config;
+    private final long seed;
+    private final int ticks;
+
+    private String configPath;
+    private String territoriesPath;
+    private SimSectorGenerator generator;
+    private String playerMode;
+    private int playerInterval;
+    private boolean verbose;
+    private boolean setupLog;
+    private SimEventLog eventLog;
+    private SimMetricsSink metrics;
+    /** Set for runs forked from a snapshot: the sector comes from there instead of a fresh setup. */
+    private SimSnapshot origin;
+    private boolean profiling;
+    private int evaluationThreads = 1;
+    private int advanceThreads = 1;
+    /** Per-slice budget for sliced ticks; 0 runs every tick whole. */
+    private long frameBudgetNanos;
+    private IntrigueTickEngine.FrameTimer frameTimer = System::nanoTime;
+
+    private static final float DAYS_PER_TICK = 7f;
+
+    // ── Per-run tick state ──
+    private SimClock clock;
+    private SimOpRunner ops;
+    private SimRunStats stats;
+    private OpOutcomeResolver resolver;
+    private Random playerRng;
+    private String currentTargetId; // only one faction at a time
+    private int tick;
+    private IntrigueTickEngine engine;
+    /** Ops that need resolution checking. */
+    private final List<IntrigueOp> pendingOps = new ArrayList<>();
+    private final Map<String, String> opToSubfaction = new LinkedHashMap<>(); // opId -> sfId
+    private final Map<String, String> opToLabel = new LinkedHashMap<>(); // opId -> display label
+
+    public SimRun(SimConfig config, long seed, int ticks) {
+        this.config = config;
+        this.seed = seed;
+        this.ticks = ticks;
+        this.playerInterval = config.playerActionInterval;
+    }
+
+    /**
+     * Load subfactions from a config file instead of the hardcoded 3-subfaction sector.
+     * @param territoriesPath territories file, or null for the two-territory fallback
+     */
+    public SimRun withScenario(String configPath, String territoriesPath) {
+        this.configPath = configPath;
+        this.territoriesPath = territoriesPath;
+        return this;
+    }
+
+    /** Run on a generated synthetic sector instead of the hardcoded or config one. */
+    public SimRun withGenerator(SimSectorGenerator generator) {
+        this.generator = generator;
+        return this;
+    }
+
+    /** Player mode: "help", "hurt", "both", or null (disabled). */
+    public SimRun withPlayer(String playerMode, int playerInterval) {
+        this.playerMode = playerMode;
+        this.playerInterval = playerInterval;
+        return this;
+    }
+
+    /** Print the per-tick op log while running. */
+    public SimRun withVerbose(boolean verbose) {
+        this.verbose = verbose;
+        return this;
+    }
+
+    /** Print what the scenario loader read from disk. */
+    public SimRun withSetupLog(boolean setupLog) {
+        this.setupLog = setupLog;
+        return this;
+    }
+
+    /** Record every op and state change to a binary event log (see {@link SimReplay}). */
+    public SimRun withEventLog(SimEventLog eventLog) {
+        this.eventLog = eventLog;
+        return this;
+    }
+
+    /** Stream per-tick sector metrics to {@code metrics} while running (see {@link SimNdjsonMetricsSink}). */
+    public SimRun withMetrics(SimMetricsSink metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
+    /** Time and count every tick stage; read the profile with {@link #getStageStats}. */
+    public SimRun withProfiling(boolean profiling) {
+        this.profiling = profiling;
+        return this;
+    }
+
+    /**
+     * Score raid targets on {@code threads} threads during op evaluation
+     * (see {@link OpEvaluator#evaluateAll}). Results don't depend on it.
+     */
+    public SimRun withEvaluationThreads(int threads) {
+        this.evaluationThreads = Math.max(1, threads);
+        return this;
+    }
+
+    /**
+     * Advance independent ops on {@code threads} threads each tick (see
+     * {@link SimOpRunner#advance(float, int)}). Results don't depend on it. Verbose runs
+     * log outcomes as ops resolve, so they always advance on one thread.
+     */
+    public SimRun withAdvanceThreads(int threads) {
+        this.advanceThreads = Math.max(1, threads);
+        return this;
+    }
+
+    /**
+     * Run every tick as the pacer does in the game: sliced, with at most {@code budgetMillis}
+     * of work per slice as measured on {@code timer} (0 runs ticks whole). Results don't
+     * depend on it; read how the ticks were spread with {@link #getSliceStats}.
+     */
+    public SimRun withFrameBudget(float budgetMillis, IntrigueTickEngine.FrameTimer timer) {
+        this.frameBudgetNanos = Math.max(0L, (long) (budgetMillis * 1_000_000L));
+        this.frameTimer = timer;
+        return this;
+    }
+
+    /** Slicing totals of the last run (zero unless a frame budget is set). */
+    public IntrigueTickEngine.SliceStats getSliceStats() {
+        return engine != null ? engine.getSliceStats() : new IntrigueTickEngine.SliceStats();
+    }
+
+    /** Per-stage tick profile of the last run (counts stay zero unless profiling). */
+    public List<IntrigueTickEngine.StageStats> getStageStats() {
+        return engine != null ? engine.getStageStats() : Collections.emptyList();
+    }
+
+    public long getSeed() { return seed; }
+    public int getTicks() { return ticks; }
+    public SimConfig getConfig() { return config; }
+    String getConfigPath() { return configPath; }
+    String getTerritoriesPath() { return territoriesPath; }
+    String getPlayerMode() { return playerMode; }
+    int getPlayerInterval() { return playerInterval; }
+    /** Ticks run so far. */
+    int getCurrentTick() { return tick; }
+
+    /** Derive an independent stream seed from the run seed. */
+    static long mix(long seed, long salt) {
+        long z = seed * 0x9E3779B97F4A7C15L + salt;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /** Set up the sector (or restore it, for a fork) and run every remaining tick. */
+    public SimRunStats run() throws IOException {
+        return runUntil(ticks, this::finish);
+    }
+
+    /**
+     * Run only the first {@code prefixTicks} ticks and freeze the sector, so the rest of
+     * the run can be forked into several continuations (see {@link SimSnapshot}).
+     */
+    public SimSnapshot runPrefix(int prefixTicks) throws IOException {
+        return runUntil(Math.min(prefixTicks, ticks),
+                () -> SimSnapshot.capture(this, IntrigueServices.current()));
+    }
+
+    private <T> T runUntil(int untilTick, Supplier<T> then) throws IOException {
+        IntrigueContext context;
+        if (origin != null) {
+            context = origin.restore(this);
+        } else if (generator != null) {
+            context = generator.build(seed, config);
+        } else {
+            context = (configPath != null)
+                    ? SimSetup.buildFromConfig(configPath, territoriesPath, seed, config, setupLog)
+                    : SimSetup.buildHardcoded(seed, config);
+        }
+        return IntrigueServices.callWith(context, () -> {
+            try {
+                if (origin == null) begin((SimClock) context.clock());
+                while (tick < untilTick) {
+                    tick();
+                }
+                return then.get();
+            } finally {
+                ((SimOpRunner) context.ops()).shutdownWorkers();
+            }
+        });
+    }
+
+    /**
+     * Bind to an already-built sector: snapshot starting stats and reset tick state.
+     * Must be called with the sector's context bound.
+     */
+    void begin(SimClock clock) {
+        this.clock = clock;
+        this.ops = (SimOpRunner) IntrigueServices.ops();
+        this.resolver = ((SimOpFactory) IntrigueServices.opFactory()).getResolver();
+        this.playerRng = new Random(mix(seed, 1)); // separate RNG so player actions don't disturb op RNG sequence
+        this.currentTargetId = null;
+        this.tick = 0;
+        this.engine = buildEngine();
+        pendingOps.clear();
+        opToSubfaction.clear();
+        opToLabel.clear();
+
+        stats = new SimRunStats(seed, ticks, DAYS_PER_TICK);
+        for (IntrigueSubfaction sf : IntrigueServices.subfactions().getAll()) {
+            SimRunStats.SubfactionStats ss = stats.add(new SimRunStats.SubfactionStats(
+                    sf.getSubfactionId(), sf.getName(), sf.getFactionId(),
+                    sf.getHomeCohesion(), sf.getLegitimacy()));
+            for (IntrigueTerritory t : IntrigueServices.territories().getAll()) {
+                ss.territories.put(t.getTerritoryId(), new SimRunStats.TerritoryStats(
+                        t.getTerritoryId(), t.getName(),
+                        t.getCohesion(sf.getSubfactionId()), t.getPresence(sf.getSubfactionId())));
+            }
+        }
+        if (eventLog != null) {
+            eventLog.begin(seed, ticks, IntrigueServices.subfactions().getAll(), IntrigueServices.territories().getAll());
+        }
+    }
+
+    // ── Snapshot support ────────────────────────────────────────────────
+
+    /** Continue from {@code snapshot} instead of setting up a new sector. */
+    SimRun forkedFrom(SimSnapshot snapshot) {
+        this.origin = snapshot;
+        return this;
+    }
+
+    /** Write the tick state (stats, player RNG, pending ops) after the sector's services. */
+    void writeTickState(ObjectOutputStream out) throws IOException {
+        out.writeInt(tick);
+        out.writeObject(stats);
+        out.writeObject(playerRng);
+        out.writeObject(currentTargetId);
+        out.writeObject(new ArrayList<>(pendingOps));
+        out.writeObject(new LinkedHashMap<>(opToSubfaction));
+        out.writeObject(new LinkedHashMap<>(opToLabel));
+    }
+
+    /** Counterpart of {@link #writeTickState}: rebind to a restored sector and continue where it stopped. */
+    @SuppressWarnings("unchecked")
+    void readTickState(ObjectInputStream in, IntrigueContext context) throws IOException, ClassNotFoundException {
+        if (eventLog != null) {
+            throw new IllegalStateException("A forked run cannot record an event log: the log must start at setup");
+        }
+        this.clock = (SimClock) context.clock();
+        this.ops = (SimOpRunner) context.ops();
+        this.resolver = ((SimOpFactory) context.opFactory()).getResolver();
+        this.engine = buildEngine();
+        this.tick = in.readInt();
+        this.stats = (SimRunStats) in.readObject();
+        this.playerRng = (Random) in.readObject();
+        this.currentTargetId = (String) in.readObject();
+        pendingOps.clear();
+        pendingOps.addAll((List<IntrigueOp>) in.readObject());
+        opToSubfaction.clear();
+        opToSubfaction.putAll((Map<String, String>) in.readObject());
+        opToLabel.clear();
+        opToLabel.putAll((Map<String, String>) in.readObject());
+    }
+
+    // ── Tick loop ───────────────────────────────────────────────────────
+
+    /** Run one tick. Must be called with the sector's context bound. */
+    void tick() {
+        int t = tick++;
+        if (frameBudgetNanos > 0) {
+            IntrigueTickEngine.SlicedTick sliced = engine.beginTick(t);
+            while (!sliced.runSlice(frameBudgetNanos, frameTimer)) { }
+        } else {
+            engine.runTick(t);
+        }
+        if (eventLog != null) eventLog.endTick(t);
+        if (metrics != null) {
+            metrics.tick(seed, t, (t + 1) * DAYS_PER_TICK, IntrigueServices.subfactions().getAll(),
+                    IntrigueServices.territories().getAll(), ops);
+        }
+    }
+
+    /**
+     * The sim's tick pipeline: the shared {@link IntrigueTickEngine} stages, tuned from
+     * {@link SimConfig}, plus the sim-only player, clock, sampling and resolution stages.
+     */
+    private IntrigueTickEngine buildEngine() {
+        return new IntrigueTickEngine(Arrays.asList(
+                new IntrigueTickEngine.Stage("player", (t, l) -> playerIntervention(t)),
+                IntrigueTickEngine.evaluateOps("sim", OpEvaluator.MAX_CONCURRENT_OPS, 1f, null, evaluationThreads,
+                        OpCascade.compile(config.cascadeThresholds())),
+                IntrigueTickEngine.vulnerabilityRaids("sim"),
+                IntrigueTickEngine.frictionOps("sim", config.frictionThreshold),
+                new IntrigueTickEngine.Stage("advanceOps", (t, l) -> {
+                    clock.advanceDays(DAYS_PER_TICK);
+                    ops.advance(DAYS_PER_TICK, verbose ? 1 : advanceThreads);
+                    return ops.getActiveOps().size();
+                }),
+                IntrigueTickEngine.territoryDecay(() -> config.territoryCohesionDecayPerTick,
+                        config.infightingCohesionThreshold),
+                IntrigueTickEngine.frictionAccumulation(config.baseFrictionPerTick,
+                        config.frictionRelDrainDivisor, config.frictionRelDrainCap, config.frictionThreatDivisor),
+                IntrigueTickEngine.concurrentOpDrain(config.concurrentOpDrainPerTick,
+                        t -> new Random(mix(seed, t * 31L + 7))),
+                IntrigueTickEngine.civilWarTracking(config.civilWarCohesionThreshold),
+                new IntrigueTickEngine.Stage("sampleStats", (t, l) -> sampleStats()),
+                new IntrigueTickEngine.Stage("resolveOps", (t, l) -> resolveOps(t))))
+                .withListener(new StatsListener())
+                .withProfiling(profiling);
+    }
+
+    /** Player intervention: every interval, pick one faction and clear the previous. */
+    private int playerIntervention(int t) {
+        if (playerMode == null || t == 0 || t % playerInterval != 0) return 0;
+
+        // Clear previous target's modifier
+        if (currentTargetId != null) {
+            resolver.setSubfactionModifier(currentTargetId, 0f);
+            if (eventLog != null) eventLog.playerModifier(t, currentTargetId, 0f);
+        }
+
+        List<IntrigueSubfaction> allSf = new ArrayList<>(IntrigueServices.subfactions().getAll());
+        IntrigueSubfaction target = allSf.get(playerRng.nextInt(allSf.size()));
+        currentTargetId = target.getSubfactionId();
+
+        // Determine favor/disfavor based on mode
+        boolean favor;
+        if ("help".equals(playerMode)) {
+            favor = true;
+        } else if ("hurt".equals(playerMode)) {
+            favor = false;
+        } else {
+            favor = playerRng.nextBoolean(); // "both" mode
+        }
+
+        float mod = favor ? config.playerFavorBonus : config.playerDisfavorPenalty;
+        resolver.setSubfactionModifier(currentTargetId, mod);
+        if (eventLog != null) eventLog.playerModifier(t, currentTargetId, mod);
+        SimRunStats.SubfactionStats ss = stats.get(currentTargetId);
+        if (favor) ss.playerFavors++; else ss.playerDisfavors++;
+
+        if (verbose) {
+            System.out.printf("  [t=%3d] ** PLAYER %s %s ** (modifier %+.0f%%)%n",
+                    t, favor ? "FAVORS" : "DISFAVORS", target.getName(), mod * 100);
+        }
+        return 1;
+    }
+
+    /** Counts started ops into the stats, queues them for resolution and logs them. */
+    private class StatsListener implements IntrigueTickEngine.Listener {
+        @Override
+        public void opStarted(int t, String sfId, IntrigueOp op, String label, IntrigueTickEngine.OpSource source) {
+            stats.get(sfId).countOp(label);
+            pendingOps.add(op);
+            opToSubfaction.put(op.getOpId(), sfId);
+            opToLabel.put(op.getOpId(), label);
+            if (eventLog != null) eventLog.opStarted(t, op, label);
+            if (source == IntrigueTickEngine.OpSource.VULNERABILITY) {
+                stats.get(sfId).vulnRaidsLaunched++;
+                stats.get(op.getTargetSubfactionId()).vulnRaidsSuffered++;
+            }
+            if (verbose) logOpStarted(t, sfId, op, source);
+        }
+
+        @Override
+        public void nothingToDo(int t, IntrigueSubfaction sf, EvaluationContext ctx) {
+            if (verbose) {
+                System.out.printf("  [t=%3d] .. %-35s idle: %s%n", t, sf.getName(), OpEvaluator.diagnose(sf, ctx));
+            }
+        }
+    }
+
+    private void logOpStarted(int t, String sfId, IntrigueOp op, IntrigueTickEngine.OpSource source) {
+        IntrigueSubfaction atkSf = IntrigueServices.subfactions().getById(sfId);
+        String defId = op.getTargetSubfactionId();
+        IntrigueSubfaction defSf = defId != null ? IntrigueServices.subfactions().getById(defId) : null;
+        switch (source) {
+            case EVALUATION: {
+                int activeCount = ops.getActiveOpCount(atkSf.getLeaderId());
+                int maxOps = OpEvaluator.maxConcurrentOps(atkSf);
+                System.out.printf("  [t=%3d] %-35s \u2192 %-20s (homeCoh=%d leg=%d ops=%d/%d",
+                        t, atkSf.getName(), op.getOpTypeName(),
+                        atkSf.getHomeCohesion(), atkSf.getLegitimacy(),
+                        activeCount, maxOps);
+                if (op.getTerritoryId() != null) {
+                    IntrigueTerritory terr = IntrigueServices.territories().getById(op.getTerritoryId());
+                    if (terr != null) {
+                        System.out.printf(" terrCoh=%d pres=%s",
+                                terr.getCohesion(sfId), terr.getPresence(sfId));
+                    }
+                }
+                System.out.println(")");
+                break;
+            }
+            case VULNERABILITY:
+                System.out.printf("  [t=%3d] !! %-35s \u2192 VULNERABILITY RAID vs %-20s (victim leg=0)%n",
+                        t,
+                        atkSf != null ? atkSf.getName() : sfId,
+                        defSf != null ? defSf.getName() : defId);
+                break;
+            case FRICTION: {
+                boolean isMischief = "Mischief".equals(op.getOpTypeName());
+                System.out.printf("  [t=%3d] %s %-35s \u2192 %s vs %-20s (friction triggered)%n",
+                        t, isMischief ? "~~" : "!!",
+                        atkSf != null ? atkSf.getName() : sfId,
+                        isMischief ? "MISCHIEF" : "FRICTION RAID",
+                        defSf != null ? defSf.getName() : defId);
+                break;
+            }
+        }
+    }
+
+    /** Sample stats for min/max/avg tracking. */
+    private int sampleStats() {
+        int touched = 0;
+        for (IntrigueSubfaction sf : IntrigueServices.subfactions().getAll()) {
+            String sfId = sf.getSubfactionId();
+            SimRunStats.SubfactionStats ss = stats.get(sfId);
+            ss.sample(sf.getHomeCohesion(), sf.getLegitimacy());
+            for (IntrigueTerritory terr : IntrigueServices.territories().getAll()) {
+                ss.territories.get(terr.getTerritoryId())
+                        .sample(terr.getCohesion(sfId), terr.getPresence(sfId));
+            }
+            touched++;
+        }
+        return touched;
+    }
+
+    /** Check for resolved ops and track outcomes. */
+    private int resolveOps(int t) {
+        int resolved = 0;
+        Iterator<IntrigueOp> it = pendingOps.iterator();
+        while (it.hasNext()) {
+            IntrigueOp op = it.next();
+            if (op.isResolved()) {
+                resolved++;
+                String sfId = opToSubfaction.remove(op.getOpId());
+                String label = opToLabel.getOrDefault(op.getOpId(), op.getOpTypeName());
+                opToLabel.remove(op.getOpId());
+                SimRunStats.SubfactionStats ss = stats.get(sfId);
+                ss.countOutcome(label, op.getOutcome() == OpOutcome.SUCCESS);
+                if (eventLog != null) eventLog.opResolved(t, op);
+                // Track dysfunction events
+                switch (op.getOpTypeName()) {
+                    case "Infighting": ss.infightings++; break;
+                    case "Expulsion":  ss.expulsions++; ss.evictions++; break; // expulsion = eviction for self
+                    case "Civil War":  ss.civilWars++; break;
+                    case "Mischief":   ss.mischiefs++; break;
+                }
+                // Successful assault = eviction suffered by the defender
+                if ("Assault Territory Base".equals(op.getOpTypeName())
+                        && op.getOutcome() == OpOutcome.SUCCESS) {
+                    String defId = op.getTargetSubfactionId();
+                    SimRunStats.SubfactionStats defStats = defId != null ? stats.get(defId) : null;
+                    if (defStats != null) defStats.evictions++;
+                }
+                if (verbose) {
+                    IntrigueSubfaction rsf = IntrigueServices.subfactions().getById(sfId);
+                    String rsfName = rsf != null ? rsf.getName() : sfId;
+                    System.out.printf("  [t=%3d]   %-35s   %-20s \u2192 %s",
+                            t, rsfName, op.getOpTypeName(), op.getOutcome());
+                    if (op.wasSabotagedByMischief()) {
+                        System.out.printf(" [SABOTAGED penalty=%.0f%%]", op.getMischiefPenalty() * 100);
+                    }
+                    if (rsf != null) {
+                        System.out.printf("  (homeCoh=%d leg=%d)", rsf.getHomeCohesion(), rsf.getLegitimacy());
+                    }
+                    System.out.println();
+                }
+                it.remove();
+            }
+        }
+        return resolved;
+    }
+
+    /** Capture end state into the stats. */
+    SimRunStats finish() {
+        for (IntrigueSubfaction sf : IntrigueServices.subfactions().getAll()) {
+            String sfId = sf.getSubfactionId();
+            SimRunStats.SubfactionStats ss = stats.get(sfId);
+            ss.endCohesion = sf.getHomeCohesion();
+            ss.endLegitimacy = sf.getLegitimacy();
+            ss.endPlayerModifier = resolver.getSubfactionModifier(sfId);
+            for (IntrigueTerritory terr : IntrigueServices.territories().getAll()) {
+                SimRunStats.TerritoryStats ts = ss.territories.get(terr.getTerritoryId());
+                ts.endCohesion = terr.getCohesion(sfId);
+                ts.endPresence = terr.getPresence(sfId);
+            }
+        }
+        if (eventLog != null) eventLog.finish();
+        return stats;
+    }
+}
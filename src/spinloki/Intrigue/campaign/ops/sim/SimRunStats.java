@@ -0,0 +1,184 @@
+package spinloki.Intrigue.campaign.ops.sim;
+
+import spinloki.Intrigue.campaign.IntrigueTerritory;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Per-subfaction statistics collected by one {@link SimRun}.
+ * Captured as plain values so results can outlive the sim services that produced them
+ * and be merged across runs by {@link SimBatchRunner}.
+ */
+public class SimRunStats implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public final long seed;
+    public final int ticks;
+    public final float daysPerTick;
+
+    /** Subfaction stats in registration order. */
+    private final Map<String, SubfactionStats> subfactions = new LinkedHashMap<>();
+
+    public SimRunStats(long seed, int ticks, float daysPerTick) {
+        this.seed = seed;
+        this.ticks = ticks;
+        this.daysPerTick = daysPerTick;
+    }
+
+    public SubfactionStats add(SubfactionStats stats) {
+        subfactions.put(stats.subfactionId, stats);
+        return stats;
+    }
+
+    public SubfactionStats get(String subfactionId) {
+        return subfactions.get(subfactionId);
+    }
+
+    public Collection<SubfactionStats> getAll() {
+        return Collections.unmodifiableCollection(subfactions.values());
+    }
+
+    /** Home stats, op tallies and dysfunction events for one subfaction. */
+    public static class SubfactionStats implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        public final String subfactionId;
+        public final String name;
+        public final String factionId;
+
+        public int startCohesion;
+        public int startLegitimacy;
+        public int endCohesion;
+        public int endLegitimacy;
+
+        public int minCohesion;
+        public int maxCohesion;
+        public long sumCohesion;
+        public int minLegitimacy;
+        public int maxLegitimacy;
+        public long sumLegitimacy;
+        public int samples;
+
+        /** Territory stats in territory registration order. */
+        public final Map<String, TerritoryStats> territories = new LinkedHashMap<>();
+        /** opLabel -> ops launched. */
+        public final Map<String, Integer> opCounts = new LinkedHashMap<>();
+        /** opLabel -> [successes, failures]. */
+        public final Map<String, int[]> outcomeCounts = new LinkedHashMap<>();
+
+        public int infightings;
+        public int expulsions;
+        public int civilWars;
+        public int mischiefs;
+        /** Times removed from a territory: expulsions plus successful assaults suffered. */
+        public int evictions;
+
+        public int vulnRaidsLaunched;
+        public int vulnRaidsSuffered;
+
+        public int playerFavors;
+        public int playerDisfavors;
+        public float endPlayerModifier;
+
+        public SubfactionStats(String subfactionId, String name, String factionId,
+                               int cohesion, int legitimacy) {
+            this.subfactionId = subfactionId;
+            this.name = name;
+            this.factionId = factionId;
+            this.startCohesion = this.endCohesion = cohesion;
+            this.startLegitimacy = this.endLegitimacy = legitimacy;
+            this.minCohesion = this.maxCohesion = cohesion;
+            this.sumCohesion = cohesion;
+            this.minLegitimacy = this.maxLegitimacy = legitimacy;
+            this.sumLegitimacy = legitimacy;
+            this.samples = 1;
+        }
+
+        public void sample(int cohesion, int legitimacy) {
+            minCohesion = Math.min(minCohesion, cohesion);
+            maxCohesion = Math.max(maxCohesion, cohesion);
+            sumCohesion += cohesion;
+            minLegitimacy = Math.min(minLegitimacy, legitimacy);
+            maxLegitimacy = Math.max(maxLegitimacy, legitimacy);
+            sumLegitimacy += legitimacy;
+            samples++;
+        }
+
+        public int avgCohesion() { return (int) (sumCohesion / samples); }
+        public int avgLegitimacy() { return (int) (sumLegitimacy / samples); }
+
+        public int totalOps() {
+            int total = 0;
+            for (int c : opCounts.values()) total += c;
+            return total;
+        }
+
+        public int totalSuccesses() {
+            int total = 0;
+            for (int[] oc : outcomeCounts.values()) total += oc[0];
+            return total;
+        }
+
+        /** Territories where this subfaction ended at ESTABLISHED or higher. */
+        public int territoriesHeld() {
+            int held = 0;
+            for (TerritoryStats ts : territories.values()) {
+                if (ts.endPresence.isEstablishedOrHigher()) held++;
+            }
+            return held;
+        }
+
+        void countOp(String label) {
+            opCounts.merge(label, 1, Integer::sum);
+        }
+
+        void countOutcome(String label, boolean success) {
+            int[] counts = outcomeCounts.computeIfAbsent(label, k -> new int[2]);
+            if (success) counts[0]++; else counts[1]++;
+        }
+    }
+
+    /** One subfaction's presence and cohesion history in one territory. */
+    public static class TerritoryStats implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        public final String territoryId;
+        public final String name;
+
+        public final int startCohesion;
+        public final IntrigueTerritory.Presence startPresence;
+        public int endCohesion;
+        public IntrigueTerritory.Presence endPresence;
+
+        public int minCohesion;
+        public int maxCohesion;
+        public long sumCohesion;
+        public int samples;
+        public IntrigueTerritory.Presence peakPresence;
+
+        public TerritoryStats(String territoryId, String name, int cohesion, IntrigueTerritory.Presence presence) {
+            this.territoryId = territoryId;
+            this.name = name;
+            this.startCohesion = this.endCohesion = cohesion;
+            this.startPresence = this.endPresence = presence;
+            this.minCohesion = this.maxCohesion = cohesion;
+            this.sumCohesion = cohesion;
+            this.samples = 1;
+            this.peakPresence = presence;
+        }
+
+        public void sample(int cohesion, IntrigueTerritory.Presence presence) {
+            minCohesion = Math.min(minCohesion, cohesion);
+            maxCohesion = Math.max(maxCohesion, cohesion);
+            sumCohesion += cohesion;
+            samples++;
+            if (presence.ordinal() > peakPresence.ordinal()) peakPresence = presence;
+        }
+
+        public int avgCohesion() { return (int) (sumCohesion / samples); }
+    }
+}
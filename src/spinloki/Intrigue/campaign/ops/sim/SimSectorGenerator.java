@@ -0,0 +1,265 @@
+package spinloki.Intrigue.campaign.ops.sim;
+
+import spinloki.Intrigue.IntrigueTraits;
+import spinloki.Intrigue.campaign.IntriguePerson;
+import spinloki.Intrigue.campaign.IntrigueSubfaction;
+import spinloki.Intrigue.campaign.IntrigueTerritory;
+import spinloki.Intrigue.campaign.spi.IntrigueContext;
+import spinloki.Intrigue.config.TerritoryConfig;
+
+import java.util.*;
+
+/**
+ * Seeded synthetic sectors of any size, for stress tests and benchmarks. The shipped
+ * config has 14 subfactions and 4 territories; this builds thousands of subfactions and
+ * hundreds of territories with the same shape:
+ * <ul>
+ *   <li>Factions scale with sqrt(subfactions) and have skewed sizes (a few big factions,
+ *       a long tail); about a fifth of them are criminal.</li>
+ *   <li>Each subfaction has a leader and, about half the time, one member. People carry
+ *       one trait (sometimes two), drawn with the frequencies of the shipped roster.</li>
+ *   <li>Relationships form a sparse graph: a few ties per subfaction, half of them inside
+ *       the subfaction's own faction (rivalries), the rest across factions, mostly hostile.</li>
+ *   <li>Territories follow the shipped tier mix (1 HIGH : 2 MEDIUM : 1 LOW), have 1-2
+ *       constellations, one interested criminal faction plus 2-3 others, and one
+ *       synthetic base slot per interested faction
+ *       ({@link SimTerritoryAccess#addSyntheticSlots}).</li>
+ * </ul>
+ * Sectors start empty like the shipped config unless {@link #withInitialPresence} seeds
+ * presence, which benchmarks use to measure a mid-game regime from the first tick.
+ *
+ * The layout depends only on the generator settings and the layout seed, so the same
+ * sector can be rebuilt for any run seed.
+ */
+public class SimSectorGenerator {
+
+    /** Leader/member traits, weighted by how often they appear in intrigue_subfactions.json. */
+    private static final String[] TRAITS = {IntrigueTraits.MERCILESS, IntrigueTraits.OPPORTUNIST,
+            IntrigueTraits.HONOR_BOUND, IntrigueTraits.CHARISMATIC, IntrigueTraits.PARANOID};
+    private static final int[] TRAIT_WEIGHTS = {7, 6, 5, 5, 4};
+
+    private static final TerritoryConfig.Tier[] TIER_MIX = {TerritoryConfig.Tier.HIGH,
+            TerritoryConfig.Tier.MEDIUM, TerritoryConfig.Tier.MEDIUM, TerritoryConfig.Tier.LOW};
+
+    private final int subfactions;
+    private int territories;
+    private int factions;
+    private double criminalShare = 0.2;
+    private int relationshipsPerSubfaction = 3;
+    private double zeroLegitimacyShare = 0;
+    private double establishedShare = 0;
+    private double scoutingShare = 0;
+    private boolean initialFriction;
+    private Long layoutSeed;
+
+    /** Territories default to subfactions/20 and factions to sqrt(subfactions). */
+    public SimSectorGenerator(int subfactions) {
+        this.subfactions = Math.max(2, subfactions);
+        this.territories = Math.max(4, Math.min(500, this.subfactions / 20));
+        this.factions = Math.max(2, (int) Math.round(Math.sqrt(this.subfactions)));
+    }
+
+    public SimSectorGenerator withTerritories(int territories) {
+        this.territories = Math.max(1, territories);
+        return this;
+    }
+
+    public SimSectorGenerator withFactions(int factions) {
+        this.factions = Math.max(2, factions);
+        return this;
+    }
+
+    /** Fraction of factions whose subfactions are CRIMINAL (default 0.2). */
+    public SimSectorGenerator withCriminalShare(double criminalShare) {
+        this.criminalShare = criminalShare;
+        return this;
+    }
+
+    /** Average number of relationship ties each subfaction starts with (default 3). */
+    public SimSectorGenerator withRelationships(int perSubfaction) {
+        this.relationshipsPerSubfaction = Math.max(0, perSubfaction);
+        return this;
+    }
+
+    /** Fraction of subfactions starting at zero legitimacy (vulnerability raid victims). */
+    public SimSectorGenerator withZeroLegitimacyShare(double share) {
+        this.zeroLegitimacyShare = share;
+        return this;
+    }
+
+    /**
+     * Seed territory presence: each eligible subfaction starts ESTABLISHED with probability
+     * {@code established} and SCOUTING with probability {@code scouting}. Extra slots are
+     * added so every established subfaction holds one. With {@code friction}, established
+     * pairs also start with directed friction below the mischief threshold.
+     */
+    public SimSectorGenerator withInitialPresence(double established, double scouting, boolean friction) {
+        this.establishedShare = established;
+        this.scoutingShare = scouting;
+        this.initialFriction = friction;
+        return this;
+    }
+
+    /** Fix the layout independently of the run seed (default: derived from the run seed). */
+    public SimSectorGenerator withLayoutSeed(long layoutSeed) {
+        this.layoutSeed = layoutSeed;
+        return this;
+    }
+
+    public int getSubfactionCount() { return subfactions; }
+    public int getTerritoryCount() { return territories; }
+
+    /**
+     * Build the sector for a run. Op and shared-code RNGs are seeded from {@code seed}
+     * exactly like {@link SimSetup}.
+     */
+    public IntrigueContext build(long seed, SimConfig config) {
+        Random rng = new Random(layoutSeed != null ? layoutSeed : SimRun.mix(seed, 3));
+        SimClock clock = new SimClock();
+        SimPeopleAccess people = new SimPeopleAccess();
+        SimOpRunner ops = new SimOpRunner(new Random(seed));
+        SimOpFactory opFactory = new SimOpFactory(config);
+        SimSubfactionAccess subfactionAccess = new SimSubfactionAccess();
+        SimTerritoryAccess territoryAccess = new SimTerritoryAccess();
+
+        // ── Factions: skewed sizes, the smallest ones criminal ──
+        int criminalFactions = Math.min(factions - 1, (int) Math.round(factions * criminalShare));
+        double[] cumulative = new double[factions];
+        double total = 0;
+        for (int f = 0; f < factions; f++) {
+            total += 1.0 / Math.pow(f + 1, 0.8);
+            cumulative[f] = total;
+        }
+        List<List<IntrigueSubfaction>> byFaction = new ArrayList<>(factions);
+        for (int f = 0; f < factions; f++) byFaction.add(new ArrayList<>());
+
+        // ── Subfactions and people ──
+        List<IntrigueSubfaction> all = new ArrayList<>(subfactions);
+        for (int i = 0; i < subfactions; i++) {
+            int f = i < factions ? i : pickFaction(cumulative, rng.nextDouble() * total);
+            boolean criminal = f >= factions - criminalFactions;
+            String sfId = "sf_" + i;
+            String factionId = "faction_" + f;
+            String marketId = "market_" + i;
+            IntrigueSubfaction sf = new IntrigueSubfaction(sfId, "Subfaction " + i, factionId, marketId,
+                    criminal ? IntrigueSubfaction.SubfactionType.CRIMINAL : IntrigueSubfaction.SubfactionType.POLITICAL);
+            sf.setHomeCohesion(clamp((int) Math.round(55 + rng.nextGaussian() * 15), 10, 95));
+            sf.setLegitimacy(rng.nextDouble() < zeroLegitimacyShare
+                    ? 0 : clamp((int) Math.round(50 + rng.nextGaussian() * 18), 5, 95));
+
+            IntriguePerson leader = new IntriguePerson(sfId + "_leader_0", factionId, marketId,
+                    sfId, IntriguePerson.Role.LEADER, null);
+            addTraits(leader, rng);
+            people.addPerson(leader);
+            sf.setLeaderId(leader.getPersonId());
+            if (rng.nextBoolean()) {
+                IntriguePerson member = new IntriguePerson(sfId + "_member_1", factionId, marketId,
+                        sfId, IntriguePerson.Role.MEMBER, null);
+                addTraits(member, rng);
+                people.addPerson(member);
+                sf.getMemberIds().add(member.getPersonId());
+            }
+
+            subfactionAccess.addSubfaction(sf);
+            all.add(sf);
+            byFaction.get(f).add(sf);
+        }
+
+        // ── Relationship graph ──
+        for (IntrigueSubfaction sf : all) {
+            List<IntrigueSubfaction> kin = byFaction.get(factionIndex(sf));
+            for (int r = 0; r < relationshipsPerSubfaction; r++) {
+                boolean internal = kin.size() > 1 && rng.nextBoolean();
+                IntrigueSubfaction other = internal ? kin.get(rng.nextInt(kin.size())) : all.get(rng.nextInt(subfactions));
+                if (other == sf) continue;
+                int rel = internal ? rng.nextInt(81) - 40 : rng.nextInt(91) - 60;
+                subfactionAccess.setRelationship(sf.getSubfactionId(), other.getSubfactionId(), rel);
+            }
+        }
+
+        // ── Territories ──
+        for (int t = 0; t < territories; t++) {
+            IntrigueTerritory territory = new IntrigueTerritory("territory_" + t, "Territory " + t,
+                    TIER_MIX[t % TIER_MIX.length], "Synthetic.");
+            int constellations = 1 + rng.nextInt(2);
+            for (int c = 0; c < constellations; c++) {
+                territory.addConstellationName("Territory " + t + " Constellation " + (c + 1));
+            }
+            if (criminalFactions > 0) {
+                territory.addInterestedFaction("faction_" + (factions - criminalFactions + rng.nextInt(criminalFactions)));
+            }
+            int lawful = factions - criminalFactions;
+            int wanted = Math.min(lawful, 2 + rng.nextInt(2));
+            while (territory.getInterestedFactions().size() < wanted + (criminalFactions > 0 ? 1 : 0)) {
+                String factionId = "faction_" + rng.nextInt(lawful);
+                if (!territory.isFactionInterested(factionId)) territory.addInterestedFaction(factionId);
+            }
+
+            List<String> established = new ArrayList<>();
+            if (establishedShare > 0 || scoutingShare > 0) {
+                for (String factionId : territory.getInterestedFactions()) {
+                    for (IntrigueSubfaction sf : byFaction.get(factionIndex(factionId))) {
+                        double roll = rng.nextDouble();
+                        if (roll < establishedShare) {
+                            territory.setPresence(sf.getSubfactionId(), IntrigueTerritory.Presence.ESTABLISHED);
+                            territory.setCohesion(sf.getSubfactionId(), 30 + rng.nextInt(50));
+                            established.add(sf.getSubfactionId());
+                        } else if (roll < establishedShare + scoutingShare) {
+                            territory.setPresence(sf.getSubfactionId(), IntrigueTerritory.Presence.SCOUTING);
+                        }
+                    }
+                }
+            }
+            SimTerritoryAccess.addSyntheticSlots(territory,
+                    Math.max(territory.getInterestedFactions().size(), established.size() + 1));
+            for (int s = 0; s < established.size(); s++) {
+                territory.claimSlot(territory.getBaseSlots().get(s), established.get(s));
+            }
+            if (initialFriction) {
+                for (String a : established) {
+                    for (String b : established) {
+                        if (!a.equals(b)) territory.setFriction(a, b, rng.nextInt(config.frictionThreshold));
+                    }
+                }
+            }
+            territoryAccess.addTerritory(territory);
+        }
+
+        return new IntrigueContext(clock, people, ops, opFactory, subfactionAccess,
+                SimSetup.simHostility(),
+                territoryAccess,
+                new SimWarAwareness(),
+                new Random(SimRun.mix(seed, 2)));
+    }
+
+    private static int pickFaction(double[] cumulative, double x) {
+        int i = Arrays.binarySearch(cumulative, x);
+        return Math.min(cumulative.length - 1, i >= 0 ? i : -i - 1);
+    }
+
+    private static void addTraits(IntriguePerson person, Random rng) {
+        person.getTraits().add(pickTrait(rng));
+        if (rng.nextInt(4) == 0) person.getTraits().add(pickTrait(rng)); // may repeat: then one trait
+    }
+
+    private static String pickTrait(Random rng) {
+        int roll = rng.nextInt(27); // sum of TRAIT_WEIGHTS
+        for (int i = 0; i < TRAITS.length; i++) {
+            roll -= TRAIT_WEIGHTS[i];
+            if (roll < 0) return TRAITS[i];
+        }
+        return TRAITS[TRAITS.length - 1];
+    }
+
+    private static int factionIndex(IntrigueSubfaction sf) {
+        return factionIndex(sf.getFactionId());
+    }
+
+    private static int factionIndex(String factionId) {
+        return Integer.parseInt(factionId.substring("faction_".length()));
+    }
+
+    private static int clamp(int v, int lo, int hi) {
+        return Math.max(lo, Math.min(hi, v));
+    }
+}
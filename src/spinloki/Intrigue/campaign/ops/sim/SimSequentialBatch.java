@@ -0,0 +1,364 @@
+package spinloki.Intrigue.campaign.ops.sim;
+
+import java.io.PrintStream;
+import java.util.*;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Sequential-testing batch mode. Instead of a fixed number of seeds, keeps adding
+ * seeded runs until the confidence interval on every target metric is narrower than
+ * the target's half-width, then stops. The batch size of the underlying
+ * {@link SimBatchRunner} is the upper bound.
+ *
+ * Runs are scheduled in rounds of one run per worker, but results are taken in seed
+ * order, so the runs kept (and the report) are the same for any thread count. Runs of
+ * the last round past the stopping point are discarded.
+ *
+ * The stop rule is only checked at planned looks: after {@link #withMinRuns} runs, then
+ * each time the run count has grown by half, and at the cap. The miss rate is split
+ * evenly over the looks (Bonferroni), so the stated confidence holds for the interval
+ * the batch finally stops on, not just for one fixed run count.
+ *
+ * Intervals are Student-t intervals (mean ± t·s/√n) over running Welford means and
+ * variances. Intervals on the {@link #RATES} metrics are widened to at least the
+ * zero-count bound {@code -ln(1 - confidence)/n} (the rule of three at 95%), so ten runs
+ * without a civil war still leave an interval of that width instead of "0 ± 0". The
+ * bound is an upper limit on a per-run rate; on cohesion, legitimacy or op counts it
+ * would be an arbitrary absolute floor, so those get the plain t interval.
+ *
+ * Target spec: {@code metric=halfWidth} (every subfaction) or
+ * {@code subfaction.metric=halfWidth}, several separated by {@code ;}, e.g.
+ * {@code civilWars=0.1;sf_heg1.territoryShare=0.05}. Metric names are the per-subfaction
+ * columns of {@link SimSweep}, plus {@code territoryShare} (territories held / total).
+ *
+ * Usage: {@code ./run_balance_tests.sh --until-ci=SPEC [--batch=MAX] [--min-runs=N] [--confidence=P]}
+ */
+public class SimSequentialBatch {
+
+    /** Metric names accepted in target specs. */
+    public static final List<String> METRICS = List.of(
+            "endCohesion", "endLegitimacy", "minCohesion", "avgCohesion", "avgLegitimacy",
+            "ops", "successes", "territoriesHeld", "territoryShare", "infightings", "expulsions",
+            "civilWars", "mischiefs", "evictions", "vulnRaidsLaunched", "vulnRaidsSuffered");
+
+    /**
+     * Metrics that are proportions or per-run rates of rare events, and so get the
+     * zero-count floor: {@code territoryShare} (a fraction of the subfaction's territories)
+     * and the event counts (infightings, expulsions, civil wars, mischiefs, evictions,
+     * vulnerability raids), which are mostly zero or one per run.
+     */
+    public static final Set<String> RATES = Set.of(
+            "territoryShare", "infightings", "expulsions", "civilWars", "mischiefs", "evictions",
+            "vulnRaidsLaunched", "vulnRaidsSuffered");
+
+    /** One metric whose interval must get tighter than {@code halfWidth}. */
+    public static class Target {
+        public final String metric;
+        /** Subfaction the target applies to, or null for every subfaction. */
+        public final String subfactionId;
+        public final double halfWidth;
+        /** Whether the metric is one of {@link #RATES}. */
+        public final boolean rate;
+        private final ToDoubleFunction<SimRunStats.SubfactionStats> extractor;
+
+        public Target(String metric, String subfactionId, double halfWidth) {
+            if (!(halfWidth > 0)) throw new IllegalArgumentException("Half-width must be positive: " + halfWidth);
+            this.metric = metric;
+            this.subfactionId = subfactionId;
+            this.halfWidth = halfWidth;
+            this.extractor = extractor(metric);
+            this.rate = RATES.contains(metric);
+        }
+    }
+
+    /** Running mean and variance (Welford), one per (target, subfaction). */
+    public static class RunningStat {
+        private final boolean rate;
+        private long count;
+        private double mean;
+        private double m2;
+
+        /** Statistic on a continuous metric: plain t intervals. */
+        public RunningStat() { this(false); }
+
+        /** @param rate whether the metric is a proportion or rate (see {@link #RATES}) */
+        public RunningStat(boolean rate) { this.rate = rate; }
+
+        public void add(double x) {
+            count++;
+            double delta = x - mean;
+            mean += delta / count;
+            m2 += delta * (x - mean);
+        }
+
+        public long count() { return count; }
+        public double mean() { return mean; }
+        /** Sample variance (n - 1 denominator). */
+        public double variance() { return count > 1 ? m2 / (count - 1) : 0; }
+
+        /**
+         * Half-width of the two-sided {@code confidence} interval on the mean: the
+         * Student-t half-width, for rates never below the zero-count bound. Infinite below
+         * two samples.
+         */
+        public double halfWidth(double confidence) {
+            if (count < 2) return Double.POSITIVE_INFINITY;
+            double t = tScore(confidence, count - 1) * Math.sqrt(variance() / count);
+            return rate ? Math.max(t, -Math.log(1 - confidence) / count) : t;
+        }
+    }
+
+    /** Outcome of a sequential batch. */
+    public static class Result {
+        /** Kept runs, in seed order. */
+        public final List<SimRunStats> runs;
+        public final boolean converged;
+        /** Runs executed, including the ones discarded past the stopping point. */
+        public final int executed;
+        /** Interval per "subfaction.metric" key, in target order. */
+        public final Map<String, RunningStat> intervals;
+        final Map<String, Target> targetOf;
+        /** Confidence level of each look's intervals (the batch confidence split over the looks). */
+        public final double lookConfidence;
+
+        Result(List<SimRunStats> runs, boolean converged, int executed,
+               Map<String, RunningStat> intervals, Map<String, Target> targetOf, double lookConfidence) {
+            this.runs = runs;
+            this.converged = converged;
+            this.executed = executed;
+            this.intervals = intervals;
+            this.targetOf = targetOf;
+            this.lookConfidence = lookConfidence;
+        }
+
+        /** Keys whose interval is still wider than their target. */
+        public List<String> unconverged() {
+            List<String> out = new ArrayList<>();
+            for (Map.Entry<String, RunningStat> e : intervals.entrySet()) {
+                if (e.getValue().halfWidth(lookConfidence) > targetOf.get(e.getKey()).halfWidth) out.add(e.getKey());
+            }
+            return out;
+        }
+    }
+
+    private final SimBatchRunner batch;
+    private final List<Target> targets;
+    private int minRuns = 10;
+    private double confidence = 0.95;
+
+    /**
+     * @param batch   run template (config, scenario, player, seeds, threads); its run
+     *                count is the maximum number of runs
+     * @param targets metrics to converge
+     */
+    public SimSequentialBatch(SimBatchRunner batch, List<Target> targets) {
+        if (targets.isEmpty()) throw new IllegalArgumentException("No sequential-testing targets");
+        this.batch = batch;
+        this.targets = new ArrayList<>(targets);
+    }
+
+    /** Never stop before this many runs (default 10). */
+    public SimSequentialBatch withMinRuns(int minRuns) {
+        this.minRuns = Math.max(2, minRuns);
+        return this;
+    }
+
+    /** Two-sided confidence level of the intervals, e.g. 0.95 (default). */
+    public SimSequentialBatch withConfidence(double confidence) {
+        if (!(confidence > 0 && confidence < 1)) throw new IllegalArgumentException("Confidence must be in (0, 1)");
+        this.confidence = confidence;
+        return this;
+    }
+
+    public Result run() {
+        int maxRuns = batch.getRuns();
+        int threads = batch.getThreads();
+        List<Integer> looks = looks(minRuns, maxRuns);
+        double lookConfidence = 1 - (1 - confidence) / looks.size();
+        Map<String, RunningStat> intervals = new LinkedHashMap<>();
+        Map<String, Target> targetOf = new HashMap<>();
+        List<SimRunStats> kept = new ArrayList<>();
+        int executed = 0;
+
+        while (executed < maxRuns) {
+            int roundSize = Math.min(threads, maxRuns - executed);
+            List<SimRun> round = new ArrayList<>(roundSize);
+            for (int i = 0; i < roundSize; i++) round.add(batch.createRun(executed + i));
+            List<SimRunStats> results = SimBatchRunner.runAll(round, threads);
+            executed += roundSize;
+
+            for (SimRunStats stats : results) {
+                kept.add(stats);
+                accumulate(stats, intervals, targetOf);
+                if (looks.contains(kept.size()) && allWithin(intervals, targetOf, lookConfidence)) {
+                    return new Result(kept, true, executed, intervals, targetOf, lookConfidence);
+                }
+            }
+        }
+        return new Result(kept, false, executed, intervals, targetOf, lookConfidence);
+    }
+
+    /** Run counts the stop rule is checked at: {@code minRuns}, growing by half each look, and {@code maxRuns}. */
+    static List<Integer> looks(int minRuns, int maxRuns) {
+        List<Integer> looks = new ArrayList<>();
+        for (int n = minRuns; n < maxRuns; n = Math.max(n + 1, (int) Math.ceil(n * 1.5))) looks.add(n);
+        looks.add(maxRuns);
+        return looks;
+    }
+
+    private void accumulate(SimRunStats stats, Map<String, RunningStat> intervals, Map<String, Target> targetOf) {
+        for (Target target : targets) {
+            for (SimRunStats.SubfactionStats ss : stats.getAll()) {
+                if (target.subfactionId != null && !target.subfactionId.equals(ss.subfactionId)) continue;
+                String key = ss.subfactionId + "." + target.metric;
+                intervals.computeIfAbsent(key, k -> new RunningStat(target.rate)).add(target.extractor.applyAsDouble(ss));
+                targetOf.put(key, target);
+            }
+        }
+    }
+
+    private static boolean allWithin(Map<String, RunningStat> intervals, Map<String, Target> targetOf,
+                                     double confidence) {
+        if (intervals.isEmpty()) return false;
+        for (Map.Entry<String, RunningStat> e : intervals.entrySet()) {
+            if (e.getValue().halfWidth(confidence) > targetOf.get(e.getKey()).halfWidth) return false;
+        }
+        return true;
+    }
+
+    // ── Targets ─────────────────────────────────────────────────────────
+
+    /** Parse a {@code ;}-separated target spec (see class docs). */
+    public static List<Target> parseSpec(String spec) {
+        List<Target> out = new ArrayList<>();
+        for (String part : spec.split(";")) {
+            part = part.trim();
+            if (part.isEmpty()) continue;
+            int eq = part.indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("Bad target (expected [subfaction.]metric=halfWidth): " + part);
+            String name = part.substring(0, eq).trim();
+            double halfWidth;
+            try {
+                halfWidth = Double.parseDouble(part.substring(eq + 1).trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Bad target half-width: " + part);
+            }
+            int dot = name.lastIndexOf('.');
+            out.add(dot > 0
+                    ? new Target(name.substring(dot + 1), name.substring(0, dot), halfWidth)
+                    : new Target(name, null, halfWidth));
+        }
+        return out;
+    }
+
+    static ToDoubleFunction<SimRunStats.SubfactionStats> extractor(String metric) {
+        switch (metric) {
+            case "endCohesion": return ss -> ss.endCohesion;
+            case "endLegitimacy": return ss -> ss.endLegitimacy;
+            case "minCohesion": return ss -> ss.minCohesion;
+            case "avgCohesion": return SimRunStats.SubfactionStats::avgCohesion;
+            case "avgLegitimacy": return SimRunStats.SubfactionStats::avgLegitimacy;
+            case "ops": return SimRunStats.SubfactionStats::totalOps;
+            case "successes": return SimRunStats.SubfactionStats::totalSuccesses;
+            case "territoriesHeld": return SimRunStats.SubfactionStats::territoriesHeld;
+            case "territoryShare":
+                return ss -> ss.territories.isEmpty() ? 0 : ss.territoriesHeld() / (double) ss.territories.size();
+            case "infightings": return ss -> ss.infightings;
+            case "expulsions": return ss -> ss.expulsions;
+            case "civilWars": return ss -> ss.civilWars;
+            case "mischiefs": return ss -> ss.mischiefs;
+            case "evictions": return ss -> ss.evictions;
+            case "vulnRaidsLaunched": return ss -> ss.vulnRaidsLaunched;
+            case "vulnRaidsSuffered": return ss -> ss.vulnRaidsSuffered;
+            default: throw new IllegalArgumentException("Unknown metric: " + metric + " (expected one of " + METRICS + ")");
+        }
+    }
+
+    /** Two-sided standard normal quantile for a confidence level (Acklam's approximation). */
+    static double zScore(double confidence) {
+        double p = 1 - (1 - confidence) / 2;
+        double[] a = {-3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02,
+                1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00};
+        double[] b = {-5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02,
+                6.680131188771972e+01, -1.328068155288572e+01};
+        double[] c = {-7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+                -2.549732539343734e+00, 4.374664141464968e+00, 2.938163982698783e+00};
+        double[] d = {7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00,
+                3.754408661907416e+00};
+        if (p > 1 - 0.02425) {
+            double q = Math.sqrt(-2 * Math.log(1 - p));
+            return -(((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5])
+                    / ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+        }
+        double q = p - 0.5;
+        double r = q * q;
+        return (((((a[0] * r + a[1]) * r + a[2]) * r + a[3]) * r + a[4]) * r + a[5]) * q
+                / (((((b[0] * r + b[1]) * r + b[2]) * r + b[3]) * r + b[4]) * r + 1);
+    }
+
+    /**
+     * Two-sided Student-t quantile with {@code df} degrees of freedom: exact for one and
+     * two, otherwise the Cornish-Fisher expansion around {@link #zScore}. Up to 99.5%
+     * confidence it is within 0.1% of tabled values from nine degrees of freedom on (the
+     * default minimum run count) and within 2% below that.
+     */
+    static double tScore(double confidence, long df) {
+        double p = 1 - (1 - confidence) / 2;
+        if (df == 1) return Math.tan(Math.PI * (p - 0.5));
+        if (df == 2) return (2 * p - 1) * Math.sqrt(2 / (4 * p * (1 - p)));
+        double z = zScore(confidence);
+        double z2 = z * z;
+        double v = df;
+        return z
+                + z * (z2 + 1) / (4 * v)
+                + z * ((5 * z2 + 16) * z2 + 3) / (96 * v * v)
+                + z * (((3 * z2 + 19) * z2 + 17) * z2 - 15) / (384 * v * v * v)
+                + z * ((((79 * z2 + 776) * z2 + 1482) * z2 - 1920) * z2 - 945) / (92160 * v * v * v * v);
+    }
+
+    // ── Report ──────────────────────────────────────────────────────────
+
+    /** Interval table: one row per target key, then the usual batch report over the kept runs. */
+    public static void printReport(Result result, PrintStream out) {
+        out.printf("  %-48s %6s %10s %10s %10s%n", "target", "runs", "mean", "±", "goal");
+        for (Map.Entry<String, RunningStat> e : result.intervals.entrySet()) {
+            RunningStat s = e.getValue();
+            double hw = s.halfWidth(result.lookConfidence);
+            double goal = result.targetOf.get(e.getKey()).halfWidth;
+            out.printf("  %-48s %6d %10.3f %10.3f %10.3f%s%n",
+                    e.getKey(), s.count(), s.mean(), hw, goal, hw > goal ? "  (wide)" : "");
+        }
+        out.println();
+        SimBatchRunner.printReport(result.runs, out);
+    }
+
+    // ── Entry point ─────────────────────────────────────────────────────
+
+    /** Sequential batch configured from system properties (see run_balance_tests.sh). */
+    static void runFromProperties(String spec, int maxRuns, int ticks) {
+        List<Target> targets = parseSpec(spec);
+        SimBatchRunner batch = SimBatchRunner.fromProperties(maxRuns, ticks);
+        SimSequentialBatch sequential = new SimSequentialBatch(batch, targets)
+                .withMinRuns(Integer.getInteger("intrigue.ci.minRuns", 10));
+        String confidence = System.getProperty("intrigue.ci.confidence");
+        if (confidence != null) sequential.withConfidence(Double.parseDouble(confidence));
+
+        System.out.printf("%n╔═══════════════════════════════════════════════════╗%n");
+        System.out.printf("║   Sequential Batch: ≤%5d runs x %5d ticks      ║%n", maxRuns, ticks);
+        System.out.printf("╚═══════════════════════════════════════════════════╝%n%n");
+
+        long startNanos = System.nanoTime();
+        Result result = sequential.run();
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+
+        printReport(result, System.out);
+        if (result.converged) {
+            System.out.printf("  Converged after %d of at most %d runs (%.0f%% CI, %.2f%% per look), %d executed, %.1fs%n",
+                    result.runs.size(), maxRuns, sequential.confidence * 100, result.lookConfidence * 100,
+                    result.executed, seconds);
+        } else {
+            System.out.printf("  NOT converged after %d runs (%.0f%% CI), %.1fs; still wide: %s%n",
+                    result.runs.size(), sequential.confidence * 100, seconds, result.unconverged());
+        }
+    }
+}
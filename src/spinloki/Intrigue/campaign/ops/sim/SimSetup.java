@@ -0,0 +1,265 @@
+package spinloki.Intrigue.campaign.ops.sim;
+
+import spinloki.Intrigue.IntrigueTraits;
+import spinloki.Intrigue.campaign.IntriguePerson;
+import spinloki.Intrigue.campaign.IntrigueSubfaction;
+import spinloki.Intrigue.campaign.IntrigueTerritory;
+import spinloki.Intrigue.campaign.spi.CachedFactionHostilityChecker;
+import spinloki.Intrigue.campaign.spi.IntrigueContext;
+import spinloki.Intrigue.campaign.spi.IntrigueServices;
+import spinloki.Intrigue.config.SubfactionConfig;
+import spinloki.Intrigue.config.TerritoryConfig;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Builds simulated sectors as {@link IntrigueContext}s. Shared by the integration
+ * tests, single sim runs and batch runs so that every entry point sees the same
+ * starting state for a given seed. The build* methods have no global side effects;
+ * {@link #hardcoded} and {@link #fromConfig} also install the sector as the
+ * IntrigueServices default.
+ */
+public class SimSetup {
+
+    /**
+     * Set up a sim with 3 subfactions across 2 factions:
+     *   - sf_heg1: hegemony subfaction, leader=leader1 (MERCILESS), member=member1, power=60
+     *   - sf_heg2: hegemony subfaction, leader=leader2, power=45 (internal rival)
+     *   - sf_tri:  tritachyon subfaction, leader=leader3, member=member2, power=50
+     *
+     * @param seed   seed for the ops' random streams
+     * @param config tunables handed to the op factory
+     */
+    public static IntrigueContext buildHardcoded(long seed, SimConfig config) {
+        SimClock clock = new SimClock();
+        SimPeopleAccess people = new SimPeopleAccess();
+        SimOpRunner ops = new SimOpRunner(new Random(seed));
+        SimOpFactory opFactory = new SimOpFactory(config);
+        SimSubfactionAccess subfactions = new SimSubfactionAccess();
+
+        // ── People ──
+        IntriguePerson leader1 = new IntriguePerson("leader1", "hegemony", "heg_market_1");
+        leader1.setRole(IntriguePerson.Role.LEADER);
+        leader1.setSubfactionId("sf_heg1");
+        leader1.getTraits().add(IntrigueTraits.MERCILESS);
+
+        IntriguePerson member1 = new IntriguePerson("member1", "hegemony", "heg_market_1");
+        member1.setRole(IntriguePerson.Role.MEMBER);
+        member1.setSubfactionId("sf_heg1");
+        member1.setBonus("Commander skills for patrol fleets");
+
+        IntriguePerson leader2 = new IntriguePerson("leader2", "hegemony", "heg_market_2");
+        leader2.setRole(IntriguePerson.Role.LEADER);
+        leader2.setSubfactionId("sf_heg2");
+
+        IntriguePerson leader3 = new IntriguePerson("leader3", "tritachyon", "tri_market");
+        leader3.setRole(IntriguePerson.Role.LEADER);
+        leader3.setSubfactionId("sf_tri");
+
+        IntriguePerson member2 = new IntriguePerson("member2", "tritachyon", "tri_market");
+        member2.setRole(IntriguePerson.Role.MEMBER);
+        member2.setSubfactionId("sf_tri");
+        member2.setBonus("Access to midline hull designs");
+
+        people.addPerson(leader1);
+        people.addPerson(member1);
+        people.addPerson(leader2);
+        people.addPerson(leader3);
+        people.addPerson(member2);
+
+        // ── Subfactions ──
+        IntrigueSubfaction sfHeg1 = new IntrigueSubfaction("sf_heg1", "Eventide Aristocracy", "hegemony", "heg_market_1");
+        sfHeg1.setHomeCohesion(55);
+        sfHeg1.setLegitimacy(65);
+        sfHeg1.setCohesionLabel("Discipline");
+        sfHeg1.setLegitimacyLabel("Authority");
+        sfHeg1.setLeaderId("leader1");
+        sfHeg1.getMemberIds().add("member1");
+
+        IntrigueSubfaction sfHeg2 = new IntrigueSubfaction("sf_heg2", "14th Battlegroup Detachment", "hegemony", "heg_market_2");
+        sfHeg2.setHomeCohesion(50);
+        sfHeg2.setLegitimacy(40);
+        sfHeg2.setCohesionLabel("Discipline");
+        sfHeg2.setLegitimacyLabel("Authority");
+        sfHeg2.setLeaderId("leader2");
+
+        IntrigueSubfaction sfTri = new IntrigueSubfaction("sf_tri", "Tri-Tachyon Capital Assurance", "tritachyon", "tri_market");
+        sfTri.setHomeCohesion(55);
+        sfTri.setLegitimacy(45);
+        sfTri.setCohesionLabel("Synergy");
+        sfTri.setLegitimacyLabel("Mandate");
+        sfTri.setLeaderId("leader3");
+        sfTri.getMemberIds().add("member2");
+
+        subfactions.addSubfaction(sfHeg1);
+        subfactions.addSubfaction(sfHeg2);
+        subfactions.addSubfaction(sfTri);
+
+        // ── Territories ──
+        SimTerritoryAccess territories = new SimTerritoryAccess();
+        IntrigueTerritory remnantFrontier = new IntrigueTerritory(
+                "territory_remnant_frontier", "Remnant Frontier",
+                TerritoryConfig.Tier.HIGH, "Remnant activity has spiked.");
+        remnantFrontier.addInterestedFaction("hegemony");
+        remnantFrontier.addInterestedFaction("tritachyon");
+        remnantFrontier.addConstellationName("Alpha Constellation");
+        SimTerritoryAccess.addSyntheticSlots(remnantFrontier, 2); // capacity = interested factions
+        territories.addTerritory(remnantFrontier);
+
+        IntrigueTerritory domainCache = new IntrigueTerritory(
+                "territory_domain_cache", "Domain Cache",
+                TerritoryConfig.Tier.MEDIUM, "Domain-era supply caches.");
+        domainCache.addInterestedFaction("tritachyon");
+        domainCache.addConstellationName("Beta Constellation");
+        SimTerritoryAccess.addSyntheticSlots(domainCache, 1); // capacity = interested factions
+        territories.addTerritory(domainCache);
+
+        return new IntrigueContext(clock, people, ops, opFactory, subfactions,
+                simHostility(),
+                territories,
+                new SimWarAwareness(),
+                new Random(SimRun.mix(seed, 2)));
+    }
+
+    /**
+     * Sim hostility: different factions are always hostile, memoized per faction pair.
+     * Pin other answers with {@link CachedFactionHostilityChecker#setHostile}.
+     */
+    static CachedFactionHostilityChecker simHostility() {
+        return new CachedFactionHostilityChecker((a, b) -> a != null && b != null && !a.equals(b));
+    }
+
+    /**
+     * Set up the sim from the actual intrigue_subfactions.json config file.
+     * Parses the JSON, creates IntriguePerson + IntrigueSubfaction objects,
+     * and wraps them in a context.
+     *
+     * @param configPath      path to intrigue_subfactions.json
+     * @param territoriesPath path to intrigue_territories.json, or null for the hardcoded fallback
+     * @param seed            seed for the ops' random streams
+     * @param simConfig       tunables handed to the op factory
+     * @param log             print a one-line summary of what was loaded
+     */
+    public static IntrigueContext buildFromConfig(String configPath, String territoriesPath, long seed,
+                                                  SimConfig simConfig, boolean log) throws IOException {
+        String json = Files.readString(Path.of(configPath));
+        SubfactionConfig config = SubfactionConfig.parseFromJson(json);
+        SimClock clock = new SimClock();
+        SimPeopleAccess people = new SimPeopleAccess();
+        SimOpRunner ops = new SimOpRunner(new Random(seed));
+        SimOpFactory opFactory = new SimOpFactory(simConfig);
+        SimSubfactionAccess subfactions = new SimSubfactionAccess();
+        Set<String> allFactionIds = new LinkedHashSet<>();
+        for (SubfactionConfig.SubfactionDef def : config.subfactions) {
+            allFactionIds.add(def.factionId);
+            IntrigueSubfaction.SubfactionType sfType = IntrigueSubfaction.SubfactionType.POLITICAL;
+            if ("CRIMINAL".equals(def.type)) {
+                sfType = IntrigueSubfaction.SubfactionType.CRIMINAL;
+            }
+            IntrigueSubfaction sf = new IntrigueSubfaction(
+                    def.subfactionId, def.name, def.factionId, def.homeMarketId, sfType);
+            sf.setHomeCohesion(def.cohesion);
+            sf.setLegitimacy(def.legitimacy);
+            if (def.cohesionLabel != null) sf.setCohesionLabel(def.cohesionLabel);
+            if (def.legitimacyLabel != null) sf.setLegitimacyLabel(def.legitimacyLabel);
+            int memberIdx = 0;
+            for (SubfactionConfig.MemberDef m : def.members) {
+                IntriguePerson.Role role = IntriguePerson.Role.MEMBER;
+                if ("LEADER".equals(m.role)) role = IntriguePerson.Role.LEADER;
+                String personId = def.subfactionId + "_" + m.role.toLowerCase() + "_" + memberIdx;
+                IntriguePerson person = new IntriguePerson(
+                        personId, def.factionId, def.homeMarketId,
+                        def.subfactionId, role, m.bonus);
+                if (m.traits != null) {
+                    for (String trait : m.traits) {
+                        person.getTraits().add(trait);
+                    }
+                }
+                people.addPerson(person);
+                if (role == IntriguePerson.Role.LEADER) {
+                    sf.setLeaderId(personId);
+                } else {
+                    sf.getMemberIds().add(personId);
+                }
+                memberIdx++;
+            }
+            subfactions.addSubfaction(sf);
+        }
+        // Territories - load from intrigue_territories.json if available, else hardcoded fallback
+        SimTerritoryAccess territories = new SimTerritoryAccess();
+        if (territoriesPath != null) {
+            String terrJson = Files.readString(Path.of(territoriesPath));
+            TerritoryConfig terrConfig = TerritoryConfig.parseFromJson(terrJson);
+            for (TerritoryConfig.TerritoryDef tDef : terrConfig.territories) {
+                IntrigueTerritory t = new IntrigueTerritory(
+                        tDef.territoryId, tDef.name, tDef.tier, tDef.plotHook);
+                for (int ci = 0; ci < tDef.numConstellations; ci++) {
+                    t.addConstellationName(tDef.name + " Constellation " + (ci + 1));
+                }
+                if (tDef.interestedFactions != null) {
+                    for (String fid : tDef.interestedFactions) {
+                        t.addInterestedFaction(fid);
+                    }
+                }
+                SimTerritoryAccess.addSyntheticSlots(t, tDef.getEffectiveCapacity());
+                territories.addTerritory(t);
+            }
+            if (log) {
+                System.out.printf("  Loaded %d territories from: %s%n",
+                        terrConfig.territories.size(), territoriesPath);
+            }
+        } else {
+            // Hardcoded fallback - two territories, all non-criminal factions interested
+            IntrigueTerritory remnantFrontier = new IntrigueTerritory(
+                    "territory_remnant_frontier", "Remnant Frontier",
+                    TerritoryConfig.Tier.HIGH, "Remnant activity has spiked.");
+            remnantFrontier.addConstellationName("Alpha Constellation");
+            IntrigueTerritory domainCache = new IntrigueTerritory(
+                    "territory_domain_cache", "Domain Cache",
+                    TerritoryConfig.Tier.MEDIUM, "Domain-era supply caches.");
+            domainCache.addConstellationName("Beta Constellation");
+            for (SubfactionConfig.SubfactionDef def2 : config.subfactions) {
+                if (!"CRIMINAL".equals(def2.type)) {
+                    remnantFrontier.addInterestedFaction(def2.factionId);
+                    domainCache.addInterestedFaction(def2.factionId);
+                }
+            }
+            SimTerritoryAccess.addSyntheticSlots(remnantFrontier, remnantFrontier.getInterestedFactions().size());
+            SimTerritoryAccess.addSyntheticSlots(domainCache, domainCache.getInterestedFactions().size());
+            territories.addTerritory(remnantFrontier);
+            territories.addTerritory(domainCache);
+        }
+        IntrigueContext context = new IntrigueContext(clock, people, ops, opFactory, subfactions,
+                simHostility(),
+                territories,
+                new SimWarAwareness(),
+                new Random(SimRun.mix(seed, 2)));
+        if (log) {
+            System.out.printf("  Loaded %d subfactions (%d factions) from: %s%n",
+                    config.subfactions.size(), allFactionIds.size(), configPath);
+        }
+        return context;
+    }
+
+    // ── Default-context install (integration tests) ─────────────────────
+
+    /** {@link #buildHardcoded}, installed as the IntrigueServices default. */
+    public static SimClock hardcoded(long seed, SimConfig config) {
+        return install(buildHardcoded(seed, config));
+    }
+
+    /** {@link #buildFromConfig}, installed as the IntrigueServices default. */
+    public static SimClock fromConfig(String configPath, String territoriesPath, long seed,
+                                      SimConfig simConfig, boolean log) throws IOException {
+        return install(buildFromConfig(configPath, territoriesPath, seed, simConfig, log));
+    }
+
+    private static SimClock install(IntrigueContext context) {
+        IntrigueServices.reset();
+        IntrigueServices.init(context);
+        return (SimClock) context.clock();
+    }
+}
@@ -0,0 +1,156 @@
+package spinloki.Intrigue.campaign.ops.sim;
+
+import spinloki.Intrigue.campaign.spi.CachedFactionHostilityChecker;
+import spinloki.Intrigue.campaign.spi.FactionHostilityChecker;
+import spinloki.Intrigue.campaign.spi.IntrigueContext;
+import spinloki.Intrigue.campaign.spi.IntrigueTerritoryAccess;
+import spinloki.Intrigue.campaign.spi.WarAwareness;
+
+import java.io.*;
+import java.util.Random;
+
+/**
+ * Frozen mid-run state of one {@link SimRun}: every subfaction, territory and person,
+ * the op runner with its in-flight ops, the clock, all RNG streams and the stats
+ * collected so far. Taken with {@link SimRun#runPrefix}.
+ *
+ * A snapshot can be forked any number of times. Each fork is an ordinary {@link SimRun}
+ * that picks up at the snapshot tick instead of replaying the prefix, optionally with a
+ * different {@link SimConfig} or player setting, so a what-if study pays for the shared
+ * prefix once. A fork with the parent's config and player setting produces exactly the
+ * stats the un-forked run would have.
+ *
+ * The mutable sector is kept as one serialized image that all forks share read-only;
+ * each fork decodes its own private copy when it starts, on whichever thread runs it,
+ * so forks can go straight onto a worker pool ({@link SimBatchRunner#runAll}).
+ * War awareness is stateless and shared by reference; memoized hostility is copied at
+ * capture and again per fork, so forks never share a cache across threads. The run's
+ * SimConfig is written as a placeholder and bound to the fork's own config on decode,
+ * so in-flight ops resolve with the fork's probabilities from the first forked tick.
+ *
+ * A fork inherits the parent's player modifiers as they stood at the snapshot tick;
+ * a new player mode takes over at its next action interval.
+ */
+public final class SimSnapshot {
+
+    /** Stands in for the parent's SimConfig inside the image. */
+    private enum Placeholder { CONFIG }
+
+    private final byte[] image;
+    private final SimConfig config;
+    private final long seed;
+    private final int ticks;
+    private final int tick;
+    private final String configPath;
+    private final String territoriesPath;
+    private final String playerMode;
+    private final int playerInterval;
+    private final FactionHostilityChecker hostility;
+    private final WarAwareness warAwareness;
+
+    private SimSnapshot(byte[] image, SimRun run, int tick, IntrigueContext context) {
+        this.image = image;
+        this.config = run.getConfig();
+        this.seed = run.getSeed();
+        this.ticks = run.getTicks();
+        this.tick = tick;
+        this.configPath = run.getConfigPath();
+        this.territoriesPath = run.getTerritoriesPath();
+        this.playerMode = run.getPlayerMode();
+        this.playerInterval = run.getPlayerInterval();
+        this.hostility = forkable(context.hostility());
+        this.warAwareness = context.warAwareness();
+    }
+
+    /** Freeze {@code run}'s sector. Must be called with the run's context bound. */
+    static SimSnapshot capture(SimRun run, IntrigueContext context) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes) {
+            { enableReplaceObject(true); }
+
+            @Override
+            protected Object replaceObject(Object obj) {
+                return obj == run.getConfig() ? Placeholder.CONFIG : obj;
+            }
+        }) {
+            out.writeObject(context.clock());
+            out.writeObject(context.people());
+            out.writeObject(context.ops());
+            out.writeObject(context.opFactory());
+            out.writeObject(context.subfactions());
+            out.writeObject(context.territories());
+            out.writeObject(context.random());
+            run.writeTickState(out);
+        } catch (NotSerializableException e) {
+            throw new IllegalStateException("Sector state is not snapshot-capable: " + e.getMessage(), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new SimSnapshot(bytes.toByteArray(), run, run.getCurrentTick(), context);
+    }
+
+    /**
+     * Decode a private copy of the sector for {@code fork} and restore its tick state.
+     * @return the fork's context, not yet bound
+     */
+    IntrigueContext restore(SimRun fork) throws IOException {
+        SimConfig forkConfig = fork.getConfig();
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(image)) {
+            { enableResolveObject(true); }
+
+            @Override
+            protected Object resolveObject(Object obj) {
+                return obj == Placeholder.CONFIG ? forkConfig : obj;
+            }
+        }) {
+            IntrigueContext context = new IntrigueContext(
+                    (SimClock) in.readObject(),
+                    (SimPeopleAccess) in.readObject(),
+                    (SimOpRunner) in.readObject(),
+                    (SimOpFactory) in.readObject(),
+                    (SimSubfactionAccess) in.readObject(),
+                    forkable(hostility),
+                    (IntrigueTerritoryAccess) in.readObject(),
+                    warAwareness,
+                    (Random) in.readObject());
+            fork.readTickState(in, context);
+            return context;
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Corrupt snapshot image", e);
+        }
+    }
+
+    /** A private copy of a memoizing checker; other checkers are stateless and shared. */
+    private static FactionHostilityChecker forkable(FactionHostilityChecker hostility) {
+        return hostility instanceof CachedFactionHostilityChecker
+                ? ((CachedFactionHostilityChecker) hostility).copy() : hostility;
+    }
+
+    // ── Forking ─────────────────────────────────────────────────────────
+
+    /** Continuation with a copy of the parent's config and the parent's player setting. */
+    public SimRun fork() {
+        return fork(config.copy());
+    }
+
+    /**
+     * Continuation that resolves everything from the snapshot tick on with {@code config}.
+     * Chain {@link SimRun#withPlayer} to change the player setting as well.
+     */
+    public SimRun fork(SimConfig config) {
+        SimRun run = new SimRun(config, seed, ticks)
+                .withPlayer(playerMode, playerInterval)
+                .forkedFrom(this);
+        if (configPath != null) run.withScenario(configPath, territoriesPath);
+        return run;
+    }
+
+    /** Tick the first forked tick will run (the number of prefix ticks already done). */
+    public int getTick() { return tick; }
+    public long getSeed() { return seed; }
+    /** Total ticks of the parent run; forks run up to the same horizon. */
+    public int getTicks() { return ticks; }
+    public SimConfig getConfig() { return config; }
+    /** Size of the frozen sector image in bytes. */
+    public int sizeBytes() { return image.length; }
+}
@@ -1,19 +1,26 @@
 package spinloki.Intrigue.campaign.ops.sim;
 
 import spinloki.Intrigue.campaign.IntrigueSubfaction;
+import spinloki.Intrigue.campaign.VulnerabilityIndex;
+import spinloki.Intrigue.campaign.spi.IntrigueServices;
 import spinloki.Intrigue.campaign.spi.IntrigueSubfactionAccess;
 
+import java.io.Serializable;
 import java.util.*;
 
 /**
  * Sim-side subfaction registry. No Starsector API dependency.
  */
-public class SimSubfactionAccess implements IntrigueSubfactionAccess {
+public class SimSubfactionAccess implements IntrigueSubfactionAccess, Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private final Map<String, IntrigueSubfaction> subfactions = new LinkedHashMap<>();
+    private transient VulnerabilityIndex vulnerabilityIndex;
 
     public void addSubfaction(IntrigueSubfaction subfaction) {
         subfactions.put(subfaction.getSubfactionId(), subfaction);
+        if (vulnerabilityIndex != null) vulnerabilityIndex.add(subfaction);
     }
 
     @Override
@@ -28,14 +35,17 @@ public class SimSubfactionAccess implements IntrigueSubfactionAccess {
 
     @Override
     public Collection<IntrigueSubfaction> getByFaction(String factionId) {
-        if (factionId == null) return Collections.emptyList();
-        List<IntrigueSubfaction> result = new ArrayList<>();
-        for (IntrigueSubfaction sf : subfactions.values()) {
-            if (factionId.equals(sf.getFactionId())) {
-                result.add(sf);
-            }
-        }
-        return result;
+        return new ArrayList<>(vulnerabilityIndex().getByFaction(factionId));
+    }
+
+    @Override
+    public List<IntrigueSubfaction> getZeroLegitimacy() {
+        return vulnerabilityIndex().getVulnerable();
+    }
+
+    @Override
+    public List<IntrigueSubfaction> getHostileTo(String factionId) {
+        return vulnerabilityIndex().getHostileTo(factionId, IntrigueServices.hostility());
     }
 
     @Override
@@ -57,4 +67,10 @@ public class SimSubfactionAccess implements IntrigueSubfactionAccess {
         }
         return null;
     }
+
+    /** Vulnerability index over the registry, rebuilt from the subfactions on first use after a load. */
+    private VulnerabilityIndex vulnerabilityIndex() {
+        if (vulnerabilityIndex == null) vulnerabilityIndex = VulnerabilityIndex.build(subfactions.values());
+        return vulnerabilityIndex;
+    }
 }
@@ -0,0 +1,342 @@
+package spinloki.Intrigue.campaign.ops.sim;
+
+import java.io.*;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Parameter sweep over {@link SimConfig} fields. Takes a value list per named field,
+ * runs every point of the resulting grid for a number of seeds on a worker pool, and
+ * streams one CSV row per (point, seed) with per-subfaction outcome metrics.
+ *
+ * Rows are written in grid order (first axis varies slowest, seeds innermost) as soon
+ * as every earlier row is done, so the file is identical for any thread count and
+ * only a bounded window of runs is in flight or buffered at once.
+ *
+ * Axis spec: {@code field=lo:hi:step} (inclusive range) or {@code field=a,b,c}.
+ * Several axes are separated by {@code ;}, e.g.
+ * {@code frictionThreshold=40:80:10;mischiefSuccessProb=0.4,0.6}.
+ * {@code playerActionInterval} can be swept like any other field, unless the player
+ * interval is fixed with {@link #withPlayer(String, int)}.
+ *
+ * Usage: {@code ./run_balance_tests.sh --sweep=SPEC [--sweep-seeds=N] [--sweep-out=FILE]}
+ */
+public class SimSweep {
+
+    /** One swept SimConfig field and the values it takes. */
+    public static class Axis {
+        public final String field;
+        public final double[] values;
+        private final Field target;
+
+        public Axis(String field, double... values) {
+            this.field = field;
+            this.values = values.clone();
+            this.target = configField(field);
+        }
+
+        void apply(SimConfig config, double value) {
+            try {
+                Class<?> type = target.getType();
+                if (type == int.class) target.setInt(config, (int) Math.round(value));
+                else if (type == float.class) target.setFloat(config, (float) value);
+                else if (type == double.class) target.setDouble(config, value);
+                else target.setLong(config, Math.round(value));
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot set SimConfig." + field, e);
+            }
+        }
+
+        /** Value as written to the CSV: integers without a fraction. */
+        String format(double value) {
+            Class<?> type = target.getType();
+            if (type == int.class || type == long.class) return Long.toString(Math.round(value));
+            if (type == float.class) return Float.toString((float) value);
+            return Double.toString(value);
+        }
+    }
+
+    private static Field configField(String name) {
+        try {
+            Field f = SimConfig.class.getField(name);
+            Class<?> type = f.getType();
+            if (Modifier.isStatic(f.getModifiers())
+                    || !(type == int.class || type == float.class || type == double.class || type == long.class)) {
+                throw new IllegalArgumentException("SimConfig." + name + " is not a numeric tunable");
+            }
+            return f;
+        } catch (NoSuchFieldException e) {
+            throw new IllegalArgumentException("Unknown SimConfig field: " + name);
+        }
+    }
+
+    /** Parse a {@code ;}-separated axis spec (see class docs). */
+    public static List<Axis> parseSpec(String spec) {
+        List<Axis> axes = new ArrayList<>();
+        for (String part : spec.split(";")) {
+            part = part.trim();
+            if (part.isEmpty()) continue;
+            int eq = part.indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("Bad sweep axis (expected field=values): " + part);
+            String field = part.substring(0, eq).trim();
+            String values = part.substring(eq + 1).trim();
+            axes.add(new Axis(field, parseValues(values)));
+        }
+        return axes;
+    }
+
+    private static double[] parseValues(String values) {
+        if (values.contains(":")) {
+            String[] r = values.split(":");
+            if (r.length != 3) throw new IllegalArgumentException("Bad sweep range (expected lo:hi:step): " + values);
+            double lo = Double.parseDouble(r[0]);
+            double hi = Double.parseDouble(r[1]);
+            double step = Double.parseDouble(r[2]);
+            if (step <= 0 || hi < lo) throw new IllegalArgumentException("Bad sweep range: " + values);
+            int count = (int) Math.floor((hi - lo) / step + 1e-9) + 1;
+            double[] out = new double[count];
+            for (int i = 0; i < count; i++) out[i] = lo + i * step;
+            return out;
+        }
+        String[] parts = values.split(",");
+        double[] out = new double[parts.length];
+        for (int i = 0; i < parts.length; i++) out[i] = Double.parseDouble(parts[i].trim());
+        return out;
+    }
+
+    private final SimConfig base;
+    private final List<Axis> axes;
+    private final int seedsPerPoint;
+    private final int ticks;
+
+    private long baseSeed = SimRun.DEFAULT_SEED;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private String configPath;
+    private String territoriesPath;
+    private String playerMode;
+    /** Fixed player interval, or null to take each point's {@code playerActionInterval}. */
+    private Integer playerInterval;
+
+    public SimSweep(SimConfig base, List<Axis> axes, int seedsPerPoint, int ticks) {
+        this.base = base;
+        this.axes = new ArrayList<>(axes);
+        this.seedsPerPoint = seedsPerPoint;
+        this.ticks = ticks;
+    }
+
+    public SimSweep withBaseSeed(long baseSeed) {
+        this.baseSeed = baseSeed;
+        return this;
+    }
+
+    public SimSweep withThreads(int threads) {
+        this.threads = Math.max(1, threads);
+        return this;
+    }
+
+    public SimSweep withScenario(String configPath, String territoriesPath) {
+        this.configPath = configPath;
+        this.territoriesPath = territoriesPath;
+        return this;
+    }
+
+    /** Player mode, acting every {@code playerActionInterval} ticks of each point's config. */
+    public SimSweep withPlayer(String playerMode) {
+        this.playerMode = playerMode;
+        this.playerInterval = null;
+        return this;
+    }
+
+    /** Player mode with a fixed interval for every point; conflicts with a playerActionInterval axis. */
+    public SimSweep withPlayer(String playerMode, int playerInterval) {
+        for (Axis a : axes) {
+            if (a.field.equals("playerActionInterval")) {
+                throw new IllegalArgumentException(
+                        "playerActionInterval is a sweep axis; drop the fixed player interval (--player-interval)");
+            }
+        }
+        this.playerMode = playerMode;
+        this.playerInterval = playerInterval;
+        return this;
+    }
+
+    /** Number of grid points (product of axis sizes). */
+    public int pointCount() {
+        int n = 1;
+        for (Axis a : axes) n *= a.values.length;
+        return n;
+    }
+
+    /** Axis value indices of grid point p; the first axis varies slowest. */
+    int[] coordinates(int point) {
+        int[] idx = new int[axes.size()];
+        for (int a = axes.size() - 1; a >= 0; a--) {
+            int len = axes.get(a).values.length;
+            idx[a] = point % len;
+            point /= len;
+        }
+        return idx;
+    }
+
+    /** Config for grid point p: a copy of the base with every axis applied. */
+    SimConfig configFor(int point) {
+        SimConfig c = base.copy();
+        int[] idx = coordinates(point);
+        for (int a = 0; a < axes.size(); a++) {
+            axes.get(a).apply(c, axes.get(a).values[idx[a]]);
+        }
+        return c;
+    }
+
+    /** Every point uses the same seeds, so points differ only by config. */
+    SimRun createRun(int point, int seedIndex) {
+        SimConfig config = configFor(point);
+        SimRun run = new SimRun(config, baseSeed + seedIndex, ticks)
+                .withPlayer(playerMode, playerInterval != null ? playerInterval : config.playerActionInterval);
+        if (configPath != null) run.withScenario(configPath, territoriesPath);
+        return run;
+    }
+
+    /**
+     * Run the whole grid and stream the CSV to {@code out}.
+     * @return number of data rows written
+     */
+    public int run(Writer out) throws IOException {
+        int total = pointCount() * seedsPerPoint;
+        int window = Math.max(1, threads * 4);
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, Math.max(1, total)));
+        try {
+            ArrayDeque<Future<SimRunStats>> inFlight = new ArrayDeque<>();
+            int submitted = 0;
+            int written = 0;
+            boolean headerWritten = false;
+            while (written < total) {
+                while (submitted < total && inFlight.size() < window) {
+                    SimRun run = createRun(submitted / seedsPerPoint, submitted % seedsPerPoint);
+                    inFlight.add(pool.submit(run::run));
+                    submitted++;
+                }
+                SimRunStats stats = await(inFlight.poll(), written);
+                if (!headerWritten) {
+                    out.write(header(stats));
+                    headerWritten = true;
+                }
+                out.write(row(written / seedsPerPoint, stats));
+                written++;
+            }
+            out.flush();
+            return written;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private SimRunStats await(Future<SimRunStats> future, int row) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Sweep run failed for point " + (row / seedsPerPoint)
+                    + ", seed " + (baseSeed + row % seedsPerPoint), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Sweep interrupted", e);
+        }
+    }
+
+    // ── CSV ─────────────────────────────────────────────────────────────
+
+    /** Per-subfaction metric columns, in order. */
+    private static final String[] METRICS = {
+            "endCohesion", "endLegitimacy", "minCohesion", "avgCohesion", "avgLegitimacy",
+            "ops", "successes", "territoriesHeld", "infightings", "expulsions", "civilWars",
+            "mischiefs", "evictions", "vulnRaidsLaunched", "vulnRaidsSuffered"
+    };
+
+    private String header(SimRunStats first) {
+        StringBuilder sb = new StringBuilder("point,seed");
+        for (Axis a : axes) sb.append(',').append(a.field);
+        for (SimRunStats.SubfactionStats ss : first.getAll()) {
+            for (String m : METRICS) sb.append(',').append(ss.subfactionId).append('.').append(m);
+        }
+        return sb.append('\n').toString();
+    }
+
+    private String row(int point, SimRunStats stats) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(point).append(',').append(stats.seed);
+        int[] idx = coordinates(point);
+        for (int a = 0; a < axes.size(); a++) {
+            Axis axis = axes.get(a);
+            sb.append(',').append(axis.format(axis.values[idx[a]]));
+        }
+        for (SimRunStats.SubfactionStats ss : stats.getAll()) {
+            sb.append(',').append(ss.endCohesion)
+                    .append(',').append(ss.endLegitimacy)
+                    .append(',').append(ss.minCohesion)
+                    .append(',').append(ss.avgCohesion())
+                    .append(',').append(ss.avgLegitimacy())
+                    .append(',').append(ss.totalOps())
+                    .append(',').append(ss.totalSuccesses())
+                    .append(',').append(ss.territoriesHeld())
+                    .append(',').append(ss.infightings)
+                    .append(',').append(ss.expulsions)
+                    .append(',').append(ss.civilWars)
+                    .append(',').append(ss.mischiefs)
+                    .append(',').append(ss.evictions)
+                    .append(',').append(ss.vulnRaidsLaunched)
+                    .append(',').append(ss.vulnRaidsSuffered);
+        }
+        return sb.append('\n').toString();
+    }
+
+    // ── Entry point ─────────────────────────────────────────────────────
+
+    /** Sweep configured from system properties (see run_balance_tests.sh). */
+    static void runFromProperties(String spec, int ticks) throws IOException {
+        SimConfig config = SimConfig.defaults();
+        int seeds = Integer.getInteger("intrigue.sweep.seeds", 10);
+        SimSweep sweep = new SimSweep(config, parseSpec(spec), seeds, ticks)
+                .withBaseSeed(SimIntegrationTest.seedProperty());
+        if (System.getProperty("intrigue.player.interval") != null) {
+            sweep.withPlayer(System.getProperty("intrigue.player"), SimIntegrationTest.playerIntervalProperty(config));
+        } else {
+            sweep.withPlayer(System.getProperty("intrigue.player"));
+        }
+        String threadsProp = System.getProperty("intrigue.threads");
+        if (threadsProp != null) {
+            try { sweep.withThreads(Integer.parseInt(threadsProp)); } catch (NumberFormatException ignored) {}
+        }
+        String configPath = System.getProperty("intrigue.config");
+        if (configPath != null) {
+            sweep.withScenario(configPath, System.getProperty("intrigue.territories"));
+        }
+        String outPath = System.getProperty("intrigue.sweep.out", "sweep.csv");
+
+        System.out.printf("%n╔═══════════════════════════════════════════════════╗%n");
+        System.out.printf("║   Config Sweep: %4d points x %4d seeds            ║%n", sweep.pointCount(), seeds);
+        System.out.printf("╚═══════════════════════════════════════════════════╝%n%n");
+
+        long startNanos = System.nanoTime();
+        int rows;
+        try (Writer out = Files.newBufferedWriter(Path.of(outPath), StandardCharsets.UTF_8)) {
+            rows = sweep.run(out);
+        }
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        System.out.printf("  Sweep: %d rows x %d ticks \u2192 %s, %d threads, %.1fs%n",
+                rows, ticks, outPath, sweep.threads, seconds);
+    }
+
+    public static void main(String[] args) throws IOException {
+        String spec = System.getProperty("intrigue.sweep");
+        if (spec == null) {
+            System.err.println("Set -Dintrigue.sweep=field=lo:hi:step;field=a,b,c");
+            System.exit(1);
+        }
+        runFromProperties(spec, Integer.parseInt(System.getProperty("intrigue.ticks", "200")));
+    }
+}
@@ -1,20 +1,26 @@
 package spinloki.Intrigue.campaign.ops.sim;
 
 import spinloki.Intrigue.campaign.IntrigueTerritory;
+import spinloki.Intrigue.campaign.TerritoryPresenceIndex;
 import spinloki.Intrigue.campaign.spi.IntrigueTerritoryAccess;
 
+import java.io.Serializable;
 import java.util.*;
 
 /**
  * Sim-side territory registry. No Starsector API dependency.
  */
-public class SimTerritoryAccess implements IntrigueTerritoryAccess {
+public class SimTerritoryAccess implements IntrigueTerritoryAccess, Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private final Map<String, IntrigueTerritory> territories = new LinkedHashMap<>();
     private int decayPerTick = 1;
+    private transient TerritoryPresenceIndex presenceIndex;
 
     public void addTerritory(IntrigueTerritory territory) {
         territories.put(territory.getTerritoryId(), territory);
+        if (presenceIndex != null) presenceIndex.add(territory);
     }
 
     /**
@@ -60,17 +66,23 @@ public class SimTerritoryAccess implements IntrigueTerritoryAccess {
 
     @Override
     public Collection<IntrigueTerritory> getTerritoriesForSubfaction(String subfactionId) {
-        if (subfactionId == null) return Collections.emptyList();
-        List<IntrigueTerritory> result = new ArrayList<>();
-        for (IntrigueTerritory t : territories.values()) {
-            if (t.hasPresence(subfactionId)) result.add(t);
-        }
-        return result;
+        return presenceIndex().getPresent(subfactionId);
+    }
+
+    @Override
+    public Collection<IntrigueTerritory> getEstablishedTerritoriesForSubfaction(String subfactionId) {
+        return presenceIndex().getEstablished(subfactionId);
     }
 
     @Override
     public int getDecayPerTick() {
         return decayPerTick;
     }
+
+    /** Presence index over the registry, rebuilt from the territories on first use after a load. */
+    private TerritoryPresenceIndex presenceIndex() {
+        if (presenceIndex == null) presenceIndex = TerritoryPresenceIndex.build(territories.values());
+        return presenceIndex;
+    }
 }
 
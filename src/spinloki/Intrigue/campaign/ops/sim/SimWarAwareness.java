@@ -18,6 +18,11 @@ public class SimWarAwareness implements WarAwareness {
         return 0f;
     }
 
+    @Override
+    public float maxDangerScoreModifier() {
+        return 0f;
+    }
+
     @Override
     public int scaleFPByDanger(int baseFP, String attackerFactionId, String targetMarketId) {
         return baseFP;
@@ -0,0 +1,110 @@
+package spinloki.Intrigue.campaign.spi;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Memoizing {@link FactionHostilityChecker}: asks the wrapped checker once per ordered
+ * faction pair and keeps the answer in a dense matrix indexed by faction.
+ *
+ * Answers stay until invalidated, so a cache must not outlive the relations it read. The
+ * game's relations change outside Intrigue at any time, so its sector checker stays
+ * uncached and the tick engine wraps it in a fresh cache for each evaluation pass only
+ * (see {@link spinloki.Intrigue.campaign.ops.IntrigueTickEngine}). Op and phase code
+ * keep asking the live API every frame. The sim, where relations never change on their
+ * own, installs one as its sector checker and pins pairs with {@link #setHostile}.
+ *
+ * Not thread-safe; one per sector.
+ */
+public final class CachedFactionHostilityChecker implements FactionHostilityChecker {
+
+    private static final byte UNKNOWN = 0;
+    private static final byte HOSTILE = 1;
+    private static final byte NOT_HOSTILE = 2;
+
+    private final FactionHostilityChecker source;
+    private final Map<String, Integer> factionIndex = new HashMap<>();
+    /** Row-major [a * stride + b]; grown by doubling as factions appear. */
+    private byte[] matrix;
+    private int stride;
+    private long misses;
+
+    public CachedFactionHostilityChecker(FactionHostilityChecker source) {
+        this.source = source;
+        this.stride = 16;
+        this.matrix = new byte[stride * stride];
+    }
+
+    @Override
+    public boolean areHostile(String factionIdA, String factionIdB) {
+        if (factionIdA == null || factionIdB == null) return source.areHostile(factionIdA, factionIdB);
+        int cell = cell(indexOf(factionIdA), indexOf(factionIdB));
+        byte known = matrix[cell];
+        if (known == UNKNOWN) {
+            misses++;
+            known = source.areHostile(factionIdA, factionIdB) ? HOSTILE : NOT_HOSTILE;
+            matrix[cell] = known;
+        }
+        return known == HOSTILE;
+    }
+
+    /** Fix the answer for both directions of a pair until the next invalidation. */
+    public void setHostile(String factionIdA, String factionIdB, boolean hostile) {
+        int a = indexOf(factionIdA);
+        int b = indexOf(factionIdB);
+        byte value = hostile ? HOSTILE : NOT_HOSTILE;
+        matrix[cell(a, b)] = value;
+        matrix[cell(b, a)] = value;
+    }
+
+    /** Forget every cached answer. */
+    public void invalidate() {
+        Arrays.fill(matrix, UNKNOWN);
+    }
+
+    /** Forget cached answers involving {@code factionId}, in either position. */
+    public void invalidate(String factionId) {
+        Integer i = factionIndex.get(factionId);
+        if (i == null) return;
+        for (int j = 0; j < factionIndex.size(); j++) {
+            matrix[cell(i, j)] = UNKNOWN;
+            matrix[cell(j, i)] = UNKNOWN;
+        }
+    }
+
+    /** Independent copy with the same cached answers, for a forked sector. */
+    public CachedFactionHostilityChecker copy() {
+        CachedFactionHostilityChecker copy = new CachedFactionHostilityChecker(source);
+        copy.factionIndex.putAll(factionIndex);
+        copy.stride = stride;
+        copy.matrix = matrix.clone();
+        return copy;
+    }
+
+    /** Lookups that had to ask the wrapped checker. */
+    public long getMisses() { return misses; }
+
+    private int cell(int a, int b) {
+        return a * stride + b;
+    }
+
+    private int indexOf(String factionId) {
+        Integer i = factionIndex.get(factionId);
+        if (i != null) return i;
+        int next = factionIndex.size();
+        if (next == stride) grow();
+        factionIndex.put(factionId, next);
+        return next;
+    }
+
+    private void grow() {
+        int newStride = stride * 2;
+        byte[] grown = new byte[newStride * newStride];
+        for (int a = 0; a < stride; a++) {
+            System.arraycopy(matrix, a * stride, grown, a * newStride, stride);
+        }
+        matrix = grown;
+        stride = newStride;
+    }
+}
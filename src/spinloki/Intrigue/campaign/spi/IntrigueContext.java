@@ -0,0 +1,78 @@
+package spinloki.Intrigue.campaign.spi;
+
+import spinloki.Intrigue.campaign.ops.OpFactory;
+
+import java.util.Random;
+
+/**
+ * One sector's worth of game-vs-sim swappable services.
+ *
+ * The game runs a single context installed by {@link IntrigueServices#init}. The sim
+ * builds one context per simulated sector and binds it to the thread that runs it
+ * ({@link IntrigueServices#callWith}), so many sectors can run side by side in one JVM
+ * while core logic keeps calling the static {@link IntrigueServices} getters.
+ */
+public final class IntrigueContext {
+
+    private final IntrigueClock clock;
+    private final IntriguePeopleAccess people;
+    private final IntrigueOpRunner ops;
+    private final OpFactory opFactory;
+    private final IntrigueSubfactionAccess subfactions;
+    private final FactionHostilityChecker hostility;
+    private final IntrigueTerritoryAccess territories;
+    private final WarAwareness warAwareness;
+    private final Random random;
+
+    /**
+     * @param territories  may be null (territories disabled)
+     * @param warAwareness may be null (no war-aware scoring)
+     * @param random       source for shared-code rolls (mischief sabotage, target picks);
+     *                     seed it for reproducible sims
+     */
+    public IntrigueContext(IntrigueClock clock, IntriguePeopleAccess people,
+                           IntrigueOpRunner ops, OpFactory opFactory,
+                           IntrigueSubfactionAccess subfactions,
+                           FactionHostilityChecker hostility,
+                           IntrigueTerritoryAccess territories,
+                           WarAwareness warAwareness,
+                           Random random) {
+        this.clock = clock;
+        this.people = people;
+        this.ops = ops;
+        this.opFactory = opFactory;
+        this.subfactions = subfactions;
+        this.hostility = hostility;
+        this.territories = territories;
+        this.warAwareness = warAwareness;
+        this.random = random != null ? random : new Random();
+    }
+
+    public IntrigueClock clock() { return clock; }
+    public IntriguePeopleAccess people() { return people; }
+    public IntrigueOpRunner ops() { return ops; }
+    public OpFactory opFactory() { return opFactory; }
+    public IntrigueSubfactionAccess subfactions() { return subfactions; }
+    public FactionHostilityChecker hostility() { return hostility; }
+    public IntrigueTerritoryAccess territories() { return territories; }
+    public WarAwareness warAwareness() { return warAwareness; }
+    public Random random() { return random; }
+
+    /** The same services with {@code random} as the source for shared-code rolls. */
+    public IntrigueContext withRandom(Random random) {
+        return new IntrigueContext(clock, people, ops, opFactory, subfactions, hostility,
+                territories, warAwareness, random);
+    }
+
+    /** The same services with {@code hostility} answering faction hostility. */
+    public IntrigueContext withHostility(FactionHostilityChecker hostility) {
+        return new IntrigueContext(clock, people, ops, opFactory, subfactions, hostility,
+                territories, warAwareness, random);
+    }
+
+    /** Returns true if all core services are present. */
+    public boolean isComplete() {
+        return clock != null && people != null && ops != null && opFactory != null
+                && subfactions != null && hostility != null;
+    }
+}
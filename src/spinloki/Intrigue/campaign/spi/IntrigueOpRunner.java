@@ -2,6 +2,8 @@ package spinloki.Intrigue.campaign.spi;
 
 
 import spinloki.Intrigue.campaign.ops.IntrigueOp;
+import spinloki.Intrigue.campaign.ops.OpLedger;
+import spinloki.Intrigue.campaign.ops.OpPhase;
 
 import java.util.List;
 
@@ -10,6 +12,8 @@ import java.util.List;
  *
  * In-game: implemented by IntrigueOpsManager.
  * In-sim: implemented by a lightweight stub.
+ * Both keep their ops in an {@link spinloki.Intrigue.campaign.ops.ActiveOpRegistry}, so
+ * the lookups below are served from hash indexes: O(1) or O(result).
  */
 public interface IntrigueOpRunner {
 
@@ -19,6 +23,12 @@ public interface IntrigueOpRunner {
     /** Register and start an op (PROPOSED → ACTIVE). */
     void startOp(IntrigueOp op);
 
+    /**
+     * Advance the op running {@code phase} at the next advance even if it is sleeping.
+     * Called by phases whose state changes through fleet events.
+     */
+    void wake(OpPhase phase);
+
     /** Check if a person has an active op as initiator. */
     boolean hasActiveOp(String personId);
 
@@ -28,7 +38,31 @@ public interface IntrigueOpRunner {
     /** Get all active ops where the given person is the initiator. */
     List<IntrigueOp> getOpsInitiatedBy(String personId);
 
+    /** Get all active ops where the given person is the target. */
+    List<IntrigueOp> getOpsTargeting(String personId);
+
+    /** Get all active ops involving a person (as initiator, target, or participant). */
+    List<IntrigueOp> getOpsInvolving(String personId);
+
+    /** Get all active ops initiated by a subfaction. */
+    List<IntrigueOp> getOpsBySubfaction(String subfactionId);
+
+    /** Get all active ops running in a territory. */
+    List<IntrigueOp> getOpsInTerritory(String territoryId);
+
+    /** The active op with the given ID, or null. */
+    IntrigueOp getActiveOp(String opId);
+
     /** Get all currently active (unresolved) ops. */
     List<IntrigueOp> getActiveOps();
+
+    /**
+     * Active ops initiated by a subfaction that mischief can target, in start order.
+     * Served from a maintained index: O(that subfaction's ops).
+     */
+    List<IntrigueOp> getMischiefTargets(String subfactionId);
+
+    /** Bounded history of the ops this runner has resolved. */
+    OpLedger getLedger();
 }
 
@@ -2,25 +2,24 @@ package spinloki.Intrigue.campaign.spi;
 
 import spinloki.Intrigue.campaign.ops.OpFactory;
 
+import java.util.Random;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
 
 /**
  * Static service locator for game-vs-sim swappable dependencies.
  *
  * Call {@link #init} at startup (game or sim) before any core logic runs.
- * Core logic accesses services via the static getters.
+ * Core logic accesses services via the static getters, which resolve through
+ * the {@link IntrigueContext} bound to the current thread, falling back to the
+ * default context installed by {@link #init}. The game only ever uses the default;
+ * the sim binds one context per simulated sector so sectors can run concurrently.
  */
 public final class IntrigueServices {
     private static final Logger log = Logger.getLogger(IntrigueServices.class.getName());
 
-    private static IntrigueClock clock;
-    private static IntriguePeopleAccess people;
-    private static IntrigueOpRunner ops;
-    private static OpFactory opFactory;
-    private static IntrigueSubfactionAccess subfactions;
-    private static FactionHostilityChecker hostility;
-    private static IntrigueTerritoryAccess territories;
-    private static WarAwareness warAwareness;
+    private static volatile IntrigueContext defaultContext;
+    private static final ThreadLocal<IntrigueContext> bound = new ThreadLocal<>();
 
     private IntrigueServices() {}
 
@@ -44,22 +43,8 @@ public final class IntrigueServices {
                             FactionHostilityChecker hostility,
                             IntrigueTerritoryAccess territories,
                             WarAwareness warAwareness) {
-        IntrigueServices.clock = clock;
-        IntrigueServices.people = people;
-        IntrigueServices.ops = ops;
-        IntrigueServices.opFactory = opFactory;
-        IntrigueServices.subfactions = subfactions;
-        IntrigueServices.hostility = hostility;
-        IntrigueServices.territories = territories;
-        IntrigueServices.warAwareness = warAwareness;
-        log.info("IntrigueServices initialized: clock=" + clock.getClass().getSimpleName()
-                + ", people=" + people.getClass().getSimpleName()
-                + ", ops=" + ops.getClass().getSimpleName()
-                + ", opFactory=" + opFactory.getClass().getSimpleName()
-                + ", subfactions=" + subfactions.getClass().getSimpleName()
-                + ", hostility=" + hostility.getClass().getSimpleName()
-                + ", territories=" + (territories != null ? territories.getClass().getSimpleName() : "null")
-                + ", warAwareness=" + (warAwareness != null ? warAwareness.getClass().getSimpleName() : "null"));
+        init(new IntrigueContext(clock, people, ops, opFactory, subfactions,
+                hostility, territories, warAwareness, new Random()));
     }
 
     /**
@@ -72,60 +57,126 @@ public final class IntrigueServices {
         init(clock, people, ops, opFactory, subfactions, hostility, null, null);
     }
 
+    /**
+     * Install a prebuilt context as the default.
+     */
+    public static void init(IntrigueContext context) {
+        defaultContext = context;
+        log.info("IntrigueServices initialized: clock=" + name(context.clock())
+                + ", people=" + name(context.people())
+                + ", ops=" + name(context.ops())
+                + ", opFactory=" + name(context.opFactory())
+                + ", subfactions=" + name(context.subfactions())
+                + ", hostility=" + name(context.hostility())
+                + ", territories=" + name(context.territories())
+                + ", warAwareness=" + name(context.warAwareness()));
+    }
+
+    private static String name(Object service) {
+        return service != null ? service.getClass().getSimpleName() : "null";
+    }
+
+    // ── Context binding ─────────────────────────────────────────────────
+
+    /** The context the getters resolve through on this thread, or null if none. */
+    public static IntrigueContext current() {
+        IntrigueContext ctx = bound.get();
+        return ctx != null ? ctx : defaultContext;
+    }
+
+    /**
+     * Run {@code body} with {@code context} bound to the current thread.
+     * The previous binding (if any) is restored afterwards, so calls may nest.
+     */
+    public static <T> T callWith(IntrigueContext context, Supplier<T> body) {
+        IntrigueContext previous = bound.get();
+        bound.set(context);
+        try {
+            return body.get();
+        } finally {
+            if (previous != null) bound.set(previous); else bound.remove();
+        }
+    }
+
+    /** {@link #callWith} for bodies without a result. */
+    public static void runWith(IntrigueContext context, Runnable body) {
+        callWith(context, () -> {
+            body.run();
+            return null;
+        });
+    }
+
+    // ── Service getters ─────────────────────────────────────────────────
+
+    private static IntrigueContext require(String service) {
+        IntrigueContext ctx = current();
+        if (ctx == null) {
+            throw new IllegalStateException("IntrigueServices." + service + " not initialized. Call init() first.");
+        }
+        return ctx;
+    }
+
     public static IntrigueClock clock() {
+        IntrigueClock clock = require("clock").clock();
         if (clock == null) throw new IllegalStateException("IntrigueServices.clock not initialized. Call init() first.");
         return clock;
     }
 
     public static IntriguePeopleAccess people() {
+        IntriguePeopleAccess people = require("people").people();
         if (people == null) throw new IllegalStateException("IntrigueServices.people not initialized. Call init() first.");
         return people;
     }
 
     public static IntrigueOpRunner ops() {
+        IntrigueOpRunner ops = require("ops").ops();
         if (ops == null) throw new IllegalStateException("IntrigueServices.ops not initialized. Call init() first.");
         return ops;
     }
 
     public static OpFactory opFactory() {
+        OpFactory opFactory = require("opFactory").opFactory();
         if (opFactory == null) throw new IllegalStateException("IntrigueServices.opFactory not initialized. Call init() first.");
         return opFactory;
     }
 
     public static IntrigueSubfactionAccess subfactions() {
+        IntrigueSubfactionAccess subfactions = require("subfactions").subfactions();
         if (subfactions == null) throw new IllegalStateException("IntrigueServices.subfactions not initialized. Call init() first.");
         return subfactions;
     }
 
     public static FactionHostilityChecker hostility() {
+        FactionHostilityChecker hostility = require("hostility").hostility();
         if (hostility == null) throw new IllegalStateException("IntrigueServices.hostility not initialized. Call init() first.");
         return hostility;
     }
 
     /** Returns the territory access, or null if not wired (e.g. sim mode). */
     public static IntrigueTerritoryAccess territories() {
-        return territories;
+        IntrigueContext ctx = current();
+        return ctx != null ? ctx.territories() : null;
     }
 
     /** Returns war awareness, or null if not wired. */
     public static WarAwareness warAwareness() {
-        return warAwareness;
+        IntrigueContext ctx = current();
+        return ctx != null ? ctx.warAwareness() : null;
+    }
+
+    /** Random source for shared-code rolls. Seeded per sector in the sim. */
+    public static Random random() {
+        return require("random").random();
     }
 
     /** Returns true if all core services have been initialized. */
     public static boolean isInitialized() {
-        return clock != null && people != null && ops != null && opFactory != null && subfactions != null && hostility != null;
+        IntrigueContext ctx = current();
+        return ctx != null && ctx.isComplete();
     }
 
     /** Reset for testing (allows re-init with different implementations). */
     public static void reset() {
-        clock = null;
-        people = null;
-        ops = null;
-        opFactory = null;
-        subfactions = null;
-        hostility = null;
-        territories = null;
-        warAwareness = null;
-    }
-}
\ No newline at end of file
+        defaultContext = null;
+    }
+}
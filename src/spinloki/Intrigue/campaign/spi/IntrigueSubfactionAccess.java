@@ -3,6 +3,7 @@ package spinloki.Intrigue.campaign.spi;
 import spinloki.Intrigue.campaign.IntrigueSubfaction;
 
 import java.util.Collection;
+import java.util.List;
 
 /**
  * Read/write access to the subfaction registry.
@@ -21,6 +22,20 @@ public interface IntrigueSubfactionAccess {
     /** All subfactions belonging to a given game faction. */
     Collection<IntrigueSubfaction> getByFaction(String factionId);
 
+    /**
+     * Subfactions at legitimacy 0, in registry order. Served from a maintained watch set:
+     * O(victims), no allocation. The result is a live unmodifiable view; copy it before
+     * changing legitimacy mid-walk.
+     */
+    List<IntrigueSubfaction> getZeroLegitimacy();
+
+    /**
+     * Subfactions of every other game faction hostile to {@code factionId}, in registry
+     * order. Hostility is asked once per faction, not per subfaction. The list may be a
+     * view the next call reuses; copy it to keep it.
+     */
+    List<IntrigueSubfaction> getHostileTo(String factionId);
+
     /** Set a bidirectional relationship between two subfactions. */
     void setRelationship(String aId, String bId, int value);
 
@@ -21,9 +21,19 @@ public interface IntrigueTerritoryAccess {
     /** Find the territory that contains a given constellation name. Returns null if not found. */
     IntrigueTerritory getTerritoryContaining(String constellationName);
 
-    /** All territories where a given subfaction has presence (cohesion > 0). */
+    /**
+     * All territories where a given subfaction has presence (SCOUTING or higher), in
+     * registry order. Served from a maintained index: O(own territories), no allocation.
+     * The result is a live unmodifiable view; copy it before changing presence mid-walk.
+     */
     Collection<IntrigueTerritory> getTerritoriesForSubfaction(String subfactionId);
 
+    /**
+     * Territories where a given subfaction holds ESTABLISHED-or-higher presence, in
+     * registry order. Same index and view semantics as {@link #getTerritoriesForSubfaction}.
+     */
+    Collection<IntrigueTerritory> getEstablishedTerritoriesForSubfaction(String subfactionId);
+
     /** Per-tick decay rate for territory cohesion. */
     int getDecayPerTick();
 }
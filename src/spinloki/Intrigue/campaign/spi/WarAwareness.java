@@ -32,6 +32,12 @@ public interface WarAwareness {
      */
     float dangerScoreModifier(String attackerFactionId, String targetMarketId);
 
+    /**
+     * Largest value {@link #dangerScoreModifier} can return. Raid scoring uses it as an
+     * upper bound to skip targets before asking for their danger.
+     */
+    float maxDangerScoreModifier();
+
     /**
      * Scale a base fleet FP value by the danger level of the target system.
      * More dangerous systems → larger fleets sent.
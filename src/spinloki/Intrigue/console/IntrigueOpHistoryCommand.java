@@ -0,0 +1,81 @@
+package spinloki.Intrigue.console;
+
+import org.lazywizard.console.BaseCommand;
+import org.lazywizard.console.Console;
+import spinloki.Intrigue.campaign.ops.OpLedger;
+import spinloki.Intrigue.campaign.spi.IntrigueServices;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Console command: intrigue_op_history [subfactionId] [days]
+ *
+ * Prints outcome tallies from the resolved-op ledger, per op type and per initiating
+ * subfaction, followed by the most recent ops. A subfaction id limits it to ops that
+ * subfaction started or was targeted by; a number limits it to ops that ended within
+ * that many days.
+ */
+public class IntrigueOpHistoryCommand implements BaseCommand {
+
+    private static final int RECENT_LIMIT = 10;
+
+    @Override
+    public CommandResult runCommand(String args, CommandContext context) {
+        if (!IntrigueCommandUtil.isCampaignContext(context)) {
+            Console.showMessage("Run this in the campaign.");
+            return CommandResult.WRONG_CONTEXT;
+        }
+
+        if (!IntrigueServices.isInitialized()) {
+            Console.showMessage("IntrigueServices not initialized.");
+            return CommandResult.ERROR;
+        }
+
+        OpLedger.Query query = OpLedger.Query.all();
+        String scope = "all subfactions";
+        String window = "";
+        if (args != null) {
+            for (String token : args.trim().split("\\s+")) {
+                if (token.isEmpty()) continue;
+                if (token.matches("\\d+(\\.\\d+)?")) {
+                    query.withinDays(Float.parseFloat(token));
+                    window = ", last " + token + " days";
+                } else if (IntrigueServices.subfactions().getById(token) != null) {
+                    query.involving(token);
+                    scope = token;
+                } else {
+                    Console.showMessage("Usage: intrigue_op_history [subfactionId] [days]");
+                    Console.showMessage("No Intrigue subfaction with id: " + token);
+                    return CommandResult.BAD_SYNTAX;
+                }
+            }
+        }
+
+        OpLedger ledger = IntrigueServices.ops().getLedger();
+        Console.showMessage("=== Op History: " + scope + window + " ===");
+        Console.showMessage("Ledger holds " + ledger.size() + "/" + ledger.getCapacity()
+                + " ops (" + ledger.getTotalRecorded() + " recorded in total)");
+        Console.showMessage("Total: " + ledger.tally(query));
+
+        Console.showMessage("--- By op type ---");
+        for (Map.Entry<String, OpLedger.Tally> e : ledger.tallyByType(query).entrySet()) {
+            Console.showMessage("  " + e.getKey() + ": " + e.getValue());
+        }
+
+        Console.showMessage("--- By initiator ---");
+        for (Map.Entry<String, OpLedger.Tally> e : ledger.tallyByInitiator(query).entrySet()) {
+            Console.showMessage("  " + e.getKey() + ": " + e.getValue()
+                    + String.format(" (%.0f%% won)", e.getValue().getSuccessRate() * 100f));
+        }
+
+        List<OpLedger.Entry> recent = ledger.recent(query, RECENT_LIMIT);
+        Console.showMessage("--- Most recent " + recent.size() + " ---");
+        for (OpLedger.Entry entry : recent) {
+            Console.showMessage(String.format("  [%.0fd ago] %s",
+                    IntrigueServices.clock().getElapsedDaysSince(entry.endTimestamp), entry));
+        }
+
+        return CommandResult.SUCCESS;
+    }
+}